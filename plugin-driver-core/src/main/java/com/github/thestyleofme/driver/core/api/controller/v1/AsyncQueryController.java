@@ -0,0 +1,72 @@
+package com.github.thestyleofme.driver.core.api.controller.v1;
+
+import java.util.Map;
+
+import com.github.thestyleofme.driver.core.app.service.AsyncQueryService;
+import com.github.thestyleofme.driver.core.domain.entity.AsyncQuery;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.domain.page.PluginPageRequest;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * <p>
+ * 异步查询
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@RestController("driverAsyncQueryController.v1")
+@RequestMapping("/driver/v1/{organizationId}/async-query")
+@Slf4j
+public class AsyncQueryController {
+
+    private static final int DEFAULT_SIZE = 10;
+
+    private final AsyncQueryService asyncQueryService;
+
+    public AsyncQueryController(AsyncQueryService asyncQueryService) {
+        this.asyncQueryService = asyncQueryService;
+    }
+
+    @ApiOperation(value = "提交异步查询", notes = "返回查询id，通过查询id轮询状态以及分页获取结果")
+    @PostMapping
+    public ResponseEntity<AsyncQuery> submit(@PathVariable(name = "organizationId") Long tenantId,
+                                             @RequestParam String datasourceCode,
+                                             @RequestParam(required = false) String schema,
+                                             @RequestBody String text,
+                                             QueryOption queryOption) {
+        return ResponseEntity.ok(asyncQueryService.submit(tenantId, datasourceCode, schema, text, queryOption));
+    }
+
+    @ApiOperation(value = "查询异步查询状态")
+    @GetMapping("/{queryId}")
+    public ResponseEntity<AsyncQuery> status(@PathVariable(name = "organizationId") Long tenantId,
+                                             @PathVariable String queryId) {
+        return ResponseEntity.ok(asyncQueryService.status(tenantId, queryId));
+    }
+
+    @ApiOperation(value = "分页获取异步查询结果", notes = "resultIndex为第几条语句的结果，从0开始")
+    @GetMapping("/{queryId}/result")
+    public ResponseEntity<Page<Map<String, Object>>> result(@PathVariable(name = "organizationId") Long tenantId,
+                                                            @PathVariable String queryId,
+                                                            @RequestParam(required = false, defaultValue = "0") int resultIndex,
+                                                            PluginPageRequest pageRequest) {
+        if (!pageRequest.paged()) {
+            pageRequest.setSize(DEFAULT_SIZE);
+        }
+        return ResponseEntity.ok(asyncQueryService.fetch(tenantId, queryId, resultIndex, pageRequest.convert()));
+    }
+
+    @ApiOperation(value = "取消异步查询并删除结果")
+    @DeleteMapping("/{queryId}")
+    public ResponseEntity<Boolean> remove(@PathVariable(name = "organizationId") Long tenantId,
+                                          @PathVariable String queryId) {
+        return ResponseEntity.ok(asyncQueryService.remove(tenantId, queryId));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.github.thestyleofme.driver.core.api.controller.v1;
+
+import java.util.List;
+
+import com.github.thestyleofme.driver.core.app.service.QueryService;
+import com.github.thestyleofme.driver.core.domain.entity.RunningQuery;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * <p>
+ * 运行中查询管理
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@RestController("driverQueryController.v1")
+@RequestMapping("/driver/v1/{organizationId}/query")
+@Slf4j
+public class QueryController {
+
+    private final QueryService queryService;
+
+    public QueryController(QueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    @ApiOperation(value = "查询正在运行的查询")
+    @GetMapping("/running")
+    public ResponseEntity<List<RunningQuery>> running(@PathVariable(name = "organizationId") Long tenantId) {
+        return ResponseEntity.ok(queryService.list(tenantId));
+    }
+
+    @ApiOperation(value = "取消正在运行的查询", notes = "queryId为执行SQL时传入或响应头Query-Id返回的值")
+    @DeleteMapping("/{queryId}")
+    public ResponseEntity<Boolean> cancel(@PathVariable(name = "organizationId") Long tenantId,
+                                          @PathVariable String queryId) {
+        return ResponseEntity.ok(queryService.cancel(tenantId, queryId));
+    }
+
+}
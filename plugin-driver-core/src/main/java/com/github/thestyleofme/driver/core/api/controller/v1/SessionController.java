@@ -1,5 +1,10 @@
 package com.github.thestyleofme.driver.core.api.controller.v1;
 
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -7,16 +12,29 @@ import java.util.stream.Stream;
 import com.github.thestyleofme.driver.core.api.dto.BatchTableSqlDTO;
 import com.github.thestyleofme.driver.core.api.dto.TableMetaSqlParamDTO;
 import com.github.thestyleofme.driver.core.app.service.DriverSessionService;
+import com.github.thestyleofme.driver.core.app.service.QueryService;
 import com.github.thestyleofme.driver.core.app.service.SessionService;
 import com.github.thestyleofme.driver.core.app.service.metric.MetricService;
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
+import com.github.thestyleofme.driver.core.app.service.session.KeysetPage;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.BulkOption;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
+import com.github.thestyleofme.driver.core.domain.entity.DataFormat;
 import com.github.thestyleofme.driver.core.domain.entity.DatasourceChildren;
+import com.github.thestyleofme.driver.core.domain.entity.ExportOption;
+import com.github.thestyleofme.driver.core.domain.entity.LoadOption;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.domain.entity.SearchQuery;
 import com.github.thestyleofme.driver.core.domain.page.PluginPageRequest;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.*;
 import com.github.thestyleofme.driver.core.infra.metrics.DataSourceMetricDTO;
 import com.github.thestyleofme.driver.core.infra.utils.PageUtil;
 import com.github.thestyleofme.driver.core.infra.utils.SqlParserUtil;
 import com.github.thestyleofme.plugin.core.infra.constants.BaseConstant;
+import com.github.thestyleofme.plugin.core.infra.utils.JsonUtil;
 import com.github.thestyleofme.plugin.framework.exceptions.PluginException;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
@@ -24,10 +42,13 @@ import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * <p>
@@ -42,16 +63,23 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class SessionController {
 
+    private static final String QUERY_ID_HEADER = "Query-Id";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String CSV_VALUE = "text/csv";
+
     private final DriverSessionService driverSessionService;
     private final MetricService metricService;
     private final SessionService sessionService;
+    private final QueryService queryService;
 
     public SessionController(DriverSessionService driverSessionService,
                              MetricService metricService,
-                             SessionService sessionService) {
+                             SessionService sessionService,
+                             QueryService queryService) {
         this.driverSessionService = driverSessionService;
         this.metricService = metricService;
         this.sessionService = sessionService;
+        this.queryService = queryService;
     }
 
     @ApiOperation(value = "获取catalog列表", notes = "数据源编码")
@@ -205,6 +233,41 @@ public class SessionController {
         return ResponseEntity.ok(driverSession.partitionList(schema, table));
     }
 
+    @ApiOperation(value = "分页查询指定表分区值", notes = "filter为分区前缀，如dt=2020-07-22")
+    @GetMapping("/table/partition/page")
+    public ResponseEntity<Page<Map<String, Object>>> tablePartitionPage(@PathVariable(name = "organizationId") Long tenantId,
+                                                                        @RequestParam String datasourceCode,
+                                                                        @RequestParam(required = false) String schema,
+                                                                        @RequestParam String table,
+                                                                        @RequestParam(required = false) String filter,
+                                                                        PluginPageRequest pageRequest) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        Pageable pageable = pageRequest.paged() ? pageRequest.convert() : Pageable.unpaged();
+        return ResponseEntity.ok(driverSession.partitionPage(schema, table, filter, pageable));
+    }
+
+    @ApiOperation(value = "流式查询指定表分区值", notes = "filter为分区前缀，如dt=2020-07-22，" +
+            "响应为ndjson，首行为分区字段数组，之后每行为一个分区的值数组")
+    @GetMapping(value = "/table/partition/stream", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> tablePartitionStream(@PathVariable(name = "organizationId") Long tenantId,
+                                                                      @RequestParam String datasourceCode,
+                                                                      @RequestParam(required = false) String schema,
+                                                                      @RequestParam String table,
+                                                                      @RequestParam(required = false) String filter) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        return this.streamResponse(driverSession.partitionStream(schema, table, filter), null);
+    }
+
+    @ApiOperation(value = "获取指定表分区数与最新分区", notes = "结果按表短时缓存，适合定时轮询")
+    @GetMapping("/table/partition/summary")
+    public ResponseEntity<PartitionSummary> tablePartitionSummary(@PathVariable(name = "organizationId") Long tenantId,
+                                                                  @RequestParam String datasourceCode,
+                                                                  @RequestParam(required = false) String schema,
+                                                                  @RequestParam String table) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        return ResponseEntity.ok(driverSession.partitionSummary(schema, table));
+    }
+
     @ApiOperation(value = "获取指定表列信息")
     @GetMapping("/table/column")
     public ResponseEntity<List<Column>> tableColumn(@PathVariable(name = "organizationId") Long tenantId,
@@ -292,6 +355,18 @@ public class SessionController {
         return ResponseEntity.ok(tableList);
     }
 
+    @ApiOperation(value = "批量获取表元数据信息(包含自定义额外信息)", notes = "tables为空时获取schema下所有表")
+    @GetMapping("/table/batch-metadata/extra")
+    public ResponseEntity<List<Table>> tableBatchMetadataExtra(@PathVariable(name = "organizationId") Long tenantId,
+                                                               @RequestParam String datasourceCode,
+                                                               @RequestParam(required = false) String schema,
+                                                               @RequestParam(required = false) String tables) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        List<String> tableNames = StringUtils.isEmpty(tables) ?
+                Collections.emptyList() : Arrays.asList(tables.split(BaseConstant.Symbol.COMMA));
+        return ResponseEntity.ok(driverSession.tablesMetaExtra(schema, tableNames));
+    }
+
     @ApiOperation(value = "建表")
     @PostMapping("/table")
     public ResponseEntity<Boolean> createTable(@PathVariable(name = "organizationId") Long tenantId,
@@ -317,24 +392,32 @@ public class SessionController {
                                       @RequestParam(required = false) String schema,
                                       @RequestBody String text,
                                       PluginPageRequest pageRequest,
+                                      QueryOption queryOption,
                                       @RequestParam(required = false, defaultValue = "false") boolean detailFlag) {
         DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
-        // detailFlag 为true时走详细接口
-        if (detailFlag) {
+        // 绑定超时、最大行数等执行选项，queryId用于取消查询
+        queryOption = queryService.begin(tenantId, datasourceCode, queryOption);
+        try {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok().header(QUERY_ID_HEADER, queryOption.getQueryId());
+            // detailFlag 为true时走详细接口
+            if (detailFlag) {
+                if (Objects.isNull(pageRequest) || Boolean.FALSE.equals(pageRequest.paged())) {
+                    return builder.body(driverSession.executeAllDetail(schema, text));
+                }
+                return builder.body(driverSession.executePageAllDetail(schema, text, pageRequest.convert(), false, false, true));
+            }
+            // 分页参数为空查所有
             if (Objects.isNull(pageRequest) || Boolean.FALSE.equals(pageRequest.paged())) {
-                return ResponseEntity.ok(driverSession.executeAllDetail(schema, text));
+                return builder.body(driverSession.executeAll(schema, text, false, false, true));
             }
-            return ResponseEntity.ok(driverSession.executePageAllDetail(schema, text, pageRequest.convert(), false, false, true));
-        }
-        // 分页参数为空查所有
-        if (Objects.isNull(pageRequest) || Boolean.FALSE.equals(pageRequest.paged())) {
-            return ResponseEntity.ok(driverSession.executeAll(schema, text, false, false, true));
+            return builder.body(driverSession.executePageAll(schema, text, pageRequest.convert(), false, true));
+        } finally {
+            queryService.end();
         }
-        return ResponseEntity.ok(driverSession.executePageAll(schema, text, pageRequest.convert(), false, true));
     }
 
     /**
-     * 超过接口指定超时时间后的回调，这里直接抛出异常
+     * 超过接口指定超时时间后的回调，这里取消数据库上仍在运行的语句后直接抛出异常
      * 时间可根据接口自行设置
      * 执行sql接口最大时间30分钟
      */
@@ -344,11 +427,152 @@ public class SessionController {
                                               String schema,
                                               String text,
                                               PluginPageRequest pageRequest,
+                                              QueryOption queryOption,
                                               boolean detailFlag,
                                               Throwable throwable) {
+        // queryOption与执行线程为同一对象，queryId在执行时已补全
+        if (Objects.nonNull(queryOption) && RunningQueryContext.cancel(queryOption.getQueryId())) {
+            log.warn("query [{}] cancelled by fallback", queryOption.getQueryId());
+        }
         throw new PluginException("error.hystrix, timeout or error", throwable);
     }
 
+    @ApiOperation(value = "流式执行查询", notes = "按批从数据源拉取并逐行写出，适合导出大结果集，" +
+            "响应为ndjson，首行为列名数组，之后每行为一条记录的值数组")
+    @PostMapping(value = "/executes/stream", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> executeStream(@PathVariable(name = "organizationId") Long tenantId,
+                                                               @RequestParam String datasourceCode,
+                                                               @RequestParam(required = false) String schema,
+                                                               @RequestBody String sql,
+                                                               QueryOption queryOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        queryOption = queryService.begin(tenantId, datasourceCode, queryOption);
+        RowIterator iterator;
+        try {
+            iterator = driverSession.executeStream(schema, sql);
+        } finally {
+            queryService.end();
+        }
+        return this.streamResponse(iterator, queryOption.getQueryId());
+    }
+
+    @ApiOperation(value = "导出查询结果", notes = "边查询边写出，响应为CSV或数据源原生二进制格式，" +
+            "数据源支持时使用原生导出如postgresql的COPY TO STDOUT")
+    @PostMapping(value = "/executes/export", produces = {CSV_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> executeExport(@PathVariable(name = "organizationId") Long tenantId,
+                                                               @RequestParam String datasourceCode,
+                                                               @RequestParam(required = false) String schema,
+                                                               @RequestBody String sql,
+                                                               ExportOption exportOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        StreamingResponseBody body = outputStream -> driverSession.executeExport(schema, sql, exportOption, outputStream);
+        MediaType mediaType = Objects.nonNull(exportOption) && exportOption.getFormat() == DataFormat.BINARY ?
+                MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(CSV_VALUE);
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    @ApiOperation(value = "原生检索", notes = "按查询DSL遍历索引全部命中结果，支持search_after与分片scroll，" +
+            "响应为ndjson，首行为列名数组，之后每行为一条记录的值数组")
+    @PostMapping(value = "/search", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> search(@PathVariable(name = "organizationId") Long tenantId,
+                                                        @RequestParam String datasourceCode,
+                                                        @RequestBody SearchQuery searchQuery,
+                                                        QueryOption queryOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        queryOption = queryService.begin(tenantId, datasourceCode, queryOption);
+        RowIterator iterator;
+        try {
+            iterator = driverSession.search(searchQuery);
+        } finally {
+            queryService.end();
+        }
+        return this.streamResponse(iterator, queryOption.getQueryId());
+    }
+
+    @ApiOperation(value = "批量写入文档", notes = "按批次大小分批写入，返回成功数与失败明细")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkResult> bulk(@PathVariable(name = "organizationId") Long tenantId,
+                                           @RequestParam String datasourceCode,
+                                           @RequestBody List<Map<String, Object>> documents,
+                                           BulkOption bulkOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        return ResponseEntity.ok(driverSession.bulkWrite(bulkOption, documents.iterator()));
+    }
+
+    @ApiOperation(value = "表批量导入", notes = "按批次大小分批写入表，数据源支持时使用原生批量导入，返回写入行数")
+    @PostMapping("/table/load")
+    public ResponseEntity<BulkResult> tableLoad(@PathVariable(name = "organizationId") Long tenantId,
+                                                @RequestParam String datasourceCode,
+                                                @RequestParam(required = false) String schema,
+                                                @RequestParam String table,
+                                                @RequestBody List<Map<String, Object>> rows,
+                                                LoadOption loadOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        return ResponseEntity.ok(driverSession.tableLoad(schema, table, loadOption, rows.iterator()));
+    }
+
+    @ApiOperation(value = "表批量导入数据流", notes = "请求体为CSV或数据源原生二进制格式，边读边写入，" +
+            "数据源支持时使用原生导入如postgresql的COPY FROM STDIN")
+    @PostMapping(value = "/table/load/stream", consumes = {CSV_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BulkResult> tableLoadStream(@PathVariable(name = "organizationId") Long tenantId,
+                                                      @RequestParam String datasourceCode,
+                                                      @RequestParam(required = false) String schema,
+                                                      @RequestParam String table,
+                                                      InputStream input,
+                                                      LoadOption loadOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        return ResponseEntity.ok(driverSession.tableLoad(schema, table, loadOption, input));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamResponse(RowIterator iterator, String queryId) {
+        // 写出在异步线程中进行，iterator创建时已记录queryId，仍可通过queryId取消
+        StreamingResponseBody body = outputStream -> {
+            try (RowIterator rows = iterator) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write(JsonUtil.toJson(rows.getColumns()));
+                writer.write('\n');
+                while (rows.hasNext()) {
+                    writer.write(JsonUtil.toJson(rows.next()));
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (!StringUtils.isEmpty(queryId)) {
+            builder.header(QUERY_ID_HEADER, queryId);
+        }
+        return builder.contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    @ApiOperation(value = "键集分页查询", notes = "指定table时遍历整表，否则分页执行请求体中的查询sql，" +
+            "token传上一页返回的nextToken，为空表示第一页")
+    @PostMapping("/keyset-page")
+    public ResponseEntity<KeysetPage> keysetPage(@PathVariable(name = "organizationId") Long tenantId,
+                                                 @RequestParam String datasourceCode,
+                                                 @RequestParam(required = false) String schema,
+                                                 @RequestParam(required = false) String table,
+                                                 @RequestParam(required = false) List<String> keyColumns,
+                                                 @RequestParam(required = false) String token,
+                                                 @RequestParam(required = false, defaultValue = "1000") int size,
+                                                 @RequestBody(required = false) String sql,
+                                                 QueryOption queryOption) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        queryOption = queryService.begin(tenantId, datasourceCode, queryOption);
+        try {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok().header(QUERY_ID_HEADER, queryOption.getQueryId());
+            if (!StringUtils.isEmpty(table)) {
+                return builder.body(driverSession.tableKeysetPage(schema, table, keyColumns, token, size));
+            }
+            if (StringUtils.isEmpty(sql)) {
+                throw new DriverException("table or sql must be specified");
+            }
+            return builder.body(driverSession.executeKeysetPage(schema, sql, keyColumns, token, size));
+        } finally {
+            queryService.end();
+        }
+    }
+
     @ApiOperation(value = "数据源测试连接", notes = "datasourceCode")
     @GetMapping("/datasource/valid")
     public ResponseEntity<?> testConnection(@PathVariable(name = "organizationId") Long tenantId,
@@ -418,9 +642,21 @@ public class SessionController {
                                                    @RequestParam String datasourceCode,
                                                    @RequestParam String filePath,
                                                    @RequestParam(defaultValue = ",") String delimiter,
-                                                   @RequestParam Boolean skipHeader) {
+                                                   @RequestParam Boolean skipHeader,
+                                                   @RequestParam(required = false) String encoding,
+                                                   @RequestParam(required = false) Integer bufferSize) {
         DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
-        return ResponseEntity.ok(driverSession.getCsvColumns(filePath, delimiter, skipHeader));
+        return ResponseEntity.ok(driverSession.getCsvColumns(filePath, delimiter, skipHeader, encoding, bufferSize));
+    }
+
+    @ApiOperation(value = "刷新元数据缓存", notes = "schema为空时刷新数据源下全部缓存")
+    @PostMapping("/metadata/refresh")
+    public ResponseEntity<Void> metadataRefresh(@PathVariable(name = "organizationId") Long tenantId,
+                                                @RequestParam String datasourceCode,
+                                                @RequestParam(required = false) String schema) {
+        DriverSession driverSession = driverSessionService.getDriverSession(tenantId, datasourceCode);
+        driverSession.metadataRefresh(schema);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
     @ApiOperation(value = "修改字段注释")
@@ -0,0 +1,60 @@
+package com.github.thestyleofme.driver.core.app.service;
+
+import java.util.Map;
+
+import com.github.thestyleofme.driver.core.domain.entity.AsyncQuery;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * <p>
+ * 异步查询，提交后返回查询id，结果落盘后轮询状态并分页获取
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public interface AsyncQueryService {
+
+    /**
+     * 提交异步查询
+     *
+     * @param tenantId       租户id
+     * @param datasourceCode 数据源编码
+     * @param schema         模式
+     * @param text           SQL文本
+     * @param option         执行选项
+     * @return AsyncQuery
+     */
+    AsyncQuery submit(Long tenantId, String datasourceCode, String schema, String text, QueryOption option);
+
+    /**
+     * 查询状态
+     *
+     * @param tenantId 租户id
+     * @param queryId  查询id
+     * @return AsyncQuery
+     */
+    AsyncQuery status(Long tenantId, String queryId);
+
+    /**
+     * 分页获取结果
+     *
+     * @param tenantId    租户id
+     * @param queryId     查询id
+     * @param resultIndex 第几条语句的结果，从0开始
+     * @param pageable    分页
+     * @return Page<Map < String, Object>>
+     */
+    Page<Map<String, Object>> fetch(Long tenantId, String queryId, int resultIndex, Pageable pageable);
+
+    /**
+     * 取消查询并删除结果
+     *
+     * @param tenantId 租户id
+     * @param queryId  查询id
+     * @return 是否存在该查询
+     */
+    boolean remove(Long tenantId, String queryId);
+}
@@ -0,0 +1,49 @@
+package com.github.thestyleofme.driver.core.app.service;
+
+import java.util.List;
+
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.domain.entity.RunningQuery;
+
+/**
+ * <p>
+ * 运行中查询管理，超时设置以及取消
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public interface QueryService {
+
+    /**
+     * 补全执行选项并绑定到当前线程，未指定的超时、最大行数取数据源连接池配置
+     *
+     * @param tenantId       租户id
+     * @param datasourceCode 数据源编码
+     * @param option         请求传入的执行选项
+     * @return 补全后的执行选项
+     */
+    QueryOption begin(Long tenantId, String datasourceCode, QueryOption option);
+
+    /**
+     * 解除当前线程绑定的执行选项
+     */
+    void end();
+
+    /**
+     * 查询租户下正在运行的查询
+     *
+     * @param tenantId 租户id
+     * @return List<RunningQuery>
+     */
+    List<RunningQuery> list(Long tenantId);
+
+    /**
+     * 取消正在运行的查询
+     *
+     * @param tenantId 租户id
+     * @param queryId  查询id
+     * @return 是否取消成功
+     */
+    boolean cancel(Long tenantId, String queryId);
+}
@@ -0,0 +1,273 @@
+package com.github.thestyleofme.driver.core.app.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+
+import com.github.thestyleofme.driver.core.app.service.AsyncQueryService;
+import com.github.thestyleofme.driver.core.app.service.DriverSessionService;
+import com.github.thestyleofme.driver.core.app.service.QueryService;
+import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
+import com.github.thestyleofme.driver.core.domain.entity.AsyncQuery;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.spool.SpoolFile;
+import com.github.thestyleofme.driver.core.infra.utils.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 异步查询实现
+ * 每个数据源一个有界线程池，执行结果按语句落盘，过期后定时清理
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Service
+@Slf4j
+public class AsyncQueryServiceImpl implements AsyncQueryService {
+
+    private static final String SPOOL_SUFFIX = ".spool";
+    /**
+     * queryId作为落盘目录名，限制字符防止路径穿越
+     */
+    private static final Pattern QUERY_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final DriverSessionService driverSessionService;
+    private final QueryService queryService;
+
+    private final Map<String, AsyncQuery> queryMap = new ConcurrentHashMap<>(16);
+    private final Map<String, ThreadPoolExecutor> executorMap = new ConcurrentHashMap<>(8);
+    private final ScheduledExecutorService cleaner =
+            Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("asyncQueryCleaner"));
+
+    /**
+     * 结果落盘目录
+     */
+    @Value("${plugin.async-query.spool-dir:${java.io.tmpdir}/plugin-driver/spool}")
+    private String spoolDir;
+    /**
+     * 每个数据源并发执行的查询数
+     */
+    @Value("${plugin.async-query.worker-size:4}")
+    private int workerSize;
+    /**
+     * 每个数据源排队等待的查询数
+     */
+    @Value("${plugin.async-query.queue-size:100}")
+    private int queueSize;
+    /**
+     * 查询结束后结果保留时间，单位秒
+     */
+    @Value("${plugin.async-query.result-ttl:3600}")
+    private long resultTtl;
+
+    public AsyncQueryServiceImpl(DriverSessionService driverSessionService,
+                                 QueryService queryService) {
+        this.driverSessionService = driverSessionService;
+        this.queryService = queryService;
+        this.cleaner.scheduleWithFixedDelay(this::cleanExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public AsyncQuery submit(Long tenantId, String datasourceCode, String schema, String text, QueryOption option) {
+        QueryOption queryOption = Optional.ofNullable(option).orElseGet(QueryOption::new);
+        if (StringUtils.isEmpty(queryOption.getQueryId())) {
+            queryOption.setQueryId(UUID.randomUUID().toString().replace("-", ""));
+        }
+        if (!QUERY_ID_PATTERN.matcher(queryOption.getQueryId()).matches()) {
+            throw new DriverException("queryId only supports letters, digits, '-' and '_'");
+        }
+        if (queryMap.containsKey(queryOption.getQueryId())) {
+            throw new DriverException("query [%s] already exists", queryOption.getQueryId());
+        }
+        AsyncQuery asyncQuery = AsyncQuery.builder()
+                .queryId(queryOption.getQueryId())
+                .tenantId(tenantId)
+                .datasourceCode(datasourceCode)
+                .schema(schema)
+                .sql(text)
+                .status(AsyncQuery.STATUS_QUEUED)
+                .submitTime(LocalDateTime.now())
+                .results(Collections.emptyList())
+                .spoolFiles(Collections.emptyList())
+                .build();
+        queryMap.put(asyncQuery.getQueryId(), asyncQuery);
+        try {
+            asyncQuery.setFuture(getExecutor(tenantId, datasourceCode)
+                    .submit(() -> this.execute(asyncQuery, queryOption)));
+        } catch (RejectedExecutionException e) {
+            queryMap.remove(asyncQuery.getQueryId());
+            throw new DriverException("too many async queries on datasource [%s], try again later", datasourceCode);
+        }
+        return asyncQuery;
+    }
+
+    @Override
+    public AsyncQuery status(Long tenantId, String queryId) {
+        return getAsyncQuery(tenantId, queryId);
+    }
+
+    @Override
+    public Page<Map<String, Object>> fetch(Long tenantId, String queryId, int resultIndex, Pageable pageable) {
+        AsyncQuery asyncQuery = getAsyncQuery(tenantId, queryId);
+        if (!AsyncQuery.STATUS_SUCCEEDED.equals(asyncQuery.getStatus())) {
+            throw new DriverException("query [%s] is %s, result not ready", queryId, asyncQuery.getStatus());
+        }
+        List<SpoolFile> spoolFiles = asyncQuery.getSpoolFiles();
+        if (resultIndex < 0 || resultIndex >= spoolFiles.size()) {
+            throw new DriverException("query [%s] has no result index [%d]", queryId, resultIndex);
+        }
+        SpoolFile spoolFile = spoolFiles.get(resultIndex);
+        try {
+            List<Map<String, Object>> rows = spoolFile.read(pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(rows, pageable, spoolFile.getRowCount());
+        } catch (IOException e) {
+            throw new DriverException("read query [" + queryId + "] result error", e);
+        }
+    }
+
+    @Override
+    public boolean remove(Long tenantId, String queryId) {
+        AsyncQuery asyncQuery = queryMap.get(queryId);
+        if (Objects.isNull(asyncQuery) || !Objects.equals(tenantId, asyncQuery.getTenantId())) {
+            return false;
+        }
+        this.cancel(asyncQuery);
+        this.clean(asyncQuery);
+        return true;
+    }
+
+    private void execute(AsyncQuery asyncQuery, QueryOption option) {
+        if (!asyncQuery.compareAndSetStatus(AsyncQuery.STATUS_QUEUED, AsyncQuery.STATUS_RUNNING)) {
+            // 排队时已被取消
+            return;
+        }
+        asyncQuery.setStartTime(LocalDateTime.now());
+        try {
+            DriverSession driverSession = driverSessionService.getDriverSession(asyncQuery.getTenantId(),
+                    asyncQuery.getDatasourceCode());
+            queryService.begin(asyncQuery.getTenantId(), asyncQuery.getDatasourceCode(), option);
+            List<List<Map<String, Object>>> resultList = driverSession.executeAll(asyncQuery.getSchema(),
+                    asyncQuery.getSql(), false, false, true);
+            List<SpoolFile> spoolFiles = new ArrayList<>(resultList.size());
+            List<AsyncQuery.Result> results = new ArrayList<>(resultList.size());
+            Path queryDir = Paths.get(spoolDir, asyncQuery.getQueryId());
+            for (int i = 0; i < resultList.size() && !asyncQuery.isFinished(); i++) {
+                SpoolFile spoolFile = SpoolFile.write(queryDir.resolve(i + SPOOL_SUFFIX), resultList.get(i));
+                // 落盘后即可释放该结果集
+                resultList.set(i, Collections.emptyList());
+                spoolFiles.add(spoolFile);
+                results.add(AsyncQuery.Result.builder()
+                        .index(i)
+                        .columns(spoolFile.getColumns())
+                        .rowCount(spoolFile.getRowCount())
+                        .spoolSize(spoolFile.getSize())
+                        .build());
+            }
+            asyncQuery.setSpoolFiles(spoolFiles);
+            asyncQuery.setResults(results);
+            asyncQuery.compareAndSetStatus(AsyncQuery.STATUS_RUNNING, AsyncQuery.STATUS_SUCCEEDED);
+        } catch (Exception e) {
+            log.error("async query [{}] error", asyncQuery.getQueryId(), e);
+            if (asyncQuery.compareAndSetStatus(AsyncQuery.STATUS_RUNNING, AsyncQuery.STATUS_FAILED)) {
+                asyncQuery.setError(ExceptionUtils.getRootCauseMessage(e));
+            }
+        } finally {
+            queryService.end();
+            asyncQuery.setEndTime(LocalDateTime.now());
+            // 执行中被取消或移除时，清理期间可能仍在落盘，由执行线程结束时删除
+            if (AsyncQuery.STATUS_CANCELLED.equals(asyncQuery.getStatus())
+                    || !queryMap.containsKey(asyncQuery.getQueryId())) {
+                this.deleteSpool(asyncQuery.getQueryId());
+            }
+        }
+    }
+
+    private void cancel(AsyncQuery asyncQuery) {
+        if (!asyncQuery.finish(AsyncQuery.STATUS_CANCELLED)) {
+            return;
+        }
+        asyncQuery.setEndTime(LocalDateTime.now());
+        RunningQueryContext.cancel(asyncQuery.getQueryId());
+        Optional.ofNullable(asyncQuery.getFuture()).ifPresent(future -> future.cancel(false));
+    }
+
+    private AsyncQuery getAsyncQuery(Long tenantId, String queryId) {
+        AsyncQuery asyncQuery = queryMap.get(queryId);
+        if (Objects.isNull(asyncQuery) || !Objects.equals(tenantId, asyncQuery.getTenantId())) {
+            throw new DriverException("query [%s] not found or expired", queryId);
+        }
+        return asyncQuery;
+    }
+
+    private ThreadPoolExecutor getExecutor(Long tenantId, String datasourceCode) {
+        String key = tenantId + "_" + datasourceCode;
+        return executorMap.computeIfAbsent(key, k -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(workerSize, workerSize,
+                    60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueSize),
+                    new DefaultThreadFactory("asyncQuery-" + k),
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    private void cleanExpired() {
+        LocalDateTime expireTime = LocalDateTime.now().minusSeconds(resultTtl);
+        queryMap.values().stream()
+                .filter(AsyncQuery::isFinished)
+                .filter(asyncQuery -> Objects.nonNull(asyncQuery.getEndTime())
+                        && asyncQuery.getEndTime().isBefore(expireTime))
+                .forEach(this::clean);
+    }
+
+    private void clean(AsyncQuery asyncQuery) {
+        queryMap.remove(asyncQuery.getQueryId());
+        this.deleteSpool(asyncQuery.getQueryId());
+    }
+
+    private void deleteSpool(String queryId) {
+        Path queryDir = Paths.get(spoolDir, queryId);
+        if (!Files.exists(queryDir)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.list(queryDir)) {
+            stream.forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("delete spool file [{}] error", path, e);
+                }
+            });
+            Files.deleteIfExists(queryDir);
+        } catch (IOException e) {
+            log.warn("delete spool dir [{}] error", queryDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        cleaner.shutdownNow();
+        executorMap.values().forEach(ThreadPoolExecutor::shutdownNow);
+        new ArrayList<>(queryMap.values()).forEach(this::clean);
+    }
+
+}
@@ -114,7 +114,7 @@ public class PluginDatasourceServiceImpl extends ServiceImpl<PluginDatasourceMap
         PluginDatasourceVO pluginDatasourceVO = BasePluginDatasourceConvert.INSTANCE.entityToVO(entity);
         Plugin driver = pluginService.getById(pluginDatasourceDTO.getDriverId());
         // 删除缓存的数据源
-        pluginDataSourceHolder.remove(pluginDatasourceVO.getDatasourceCode());
+        pluginDataSourceHolder.remove(pluginDatasourceDTO.getTenantId(), pluginDatasourceVO.getDatasourceCode());
         pluginDatasourceVO.setDatasourceDriver(BasePluginConvert.INSTANCE.entityToVO(driver));
         pluginDatasourceRedisRepository.hashUpdate(pluginDatasourceDTO.getTenantId(),
                 pluginDatasourceDTO.getDatasourceCode(), pluginDatasourceVO);
@@ -131,6 +131,8 @@ public class PluginDatasourceServiceImpl extends ServiceImpl<PluginDatasourceMap
         this.remove(queryWrapper);
         // 删redis
         pluginDatasourceRedisRepository.hashDelete(tenantId, datasourceCode);
+        // 删除缓存的数据源
+        pluginDataSourceHolder.remove(tenantId, datasourceCode);
     }
 
     @Override
@@ -0,0 +1,87 @@
+package com.github.thestyleofme.driver.core.app.service.impl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.github.thestyleofme.driver.core.app.service.QueryService;
+import com.github.thestyleofme.driver.core.domain.entity.DriverPoolSettingInfo;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.domain.entity.RunningQuery;
+import com.github.thestyleofme.driver.core.infra.context.PluginDatasourceHelper;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
+import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 运行中查询管理实现
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Service
+@Slf4j
+public class QueryServiceImpl implements QueryService {
+
+    private final PluginDatasourceHelper pluginDatasourceHelper;
+
+    public QueryServiceImpl(PluginDatasourceHelper pluginDatasourceHelper) {
+        this.pluginDatasourceHelper = pluginDatasourceHelper;
+    }
+
+    @Override
+    public QueryOption begin(Long tenantId, String datasourceCode, QueryOption option) {
+        if (Objects.isNull(option)) {
+            option = new QueryOption();
+        }
+        if (StringUtils.isEmpty(option.getQueryId())) {
+            option.setQueryId(UUID.randomUUID().toString().replace("-", ""));
+        }
+        option.setTenantId(tenantId);
+        option.setDatasourceCode(datasourceCode);
+        // 请求未指定时使用数据源的默认配置，本地服务数据源不处理
+        if (!StringUtils.isEmpty(datasourceCode)
+                && (Objects.isNull(option.getQueryTimeout()) || Objects.isNull(option.getMaxRows())
+                || Objects.isNull(option.getFetchSize()))) {
+            PluginDatasourceVO pluginDatasourceVO = pluginDatasourceHelper.getDatasource(tenantId, datasourceCode);
+            if (Objects.nonNull(pluginDatasourceVO)) {
+                DriverPoolSettingInfo poolSettingInfo = DriverUtil.parseDatasourcePool(pluginDatasourceVO);
+                if (Objects.isNull(option.getQueryTimeout())) {
+                    option.setQueryTimeout(poolSettingInfo.getQueryTimeout());
+                }
+                if (Objects.isNull(option.getMaxRows())) {
+                    option.setMaxRows(poolSettingInfo.getMaxRows());
+                }
+                if (Objects.isNull(option.getFetchSize())) {
+                    option.setFetchSize(poolSettingInfo.getFetchSize());
+                }
+            }
+        }
+        RunningQueryContext.setOption(option);
+        return option;
+    }
+
+    @Override
+    public void end() {
+        RunningQueryContext.clearOption();
+    }
+
+    @Override
+    public List<RunningQuery> list(Long tenantId) {
+        return RunningQueryContext.list(tenantId);
+    }
+
+    @Override
+    public boolean cancel(Long tenantId, String queryId) {
+        RunningQuery runningQuery = RunningQueryContext.get(queryId);
+        if (Objects.isNull(runningQuery) || !Objects.equals(tenantId, runningQuery.getTenantId())) {
+            return false;
+        }
+        return RunningQueryContext.cancel(queryId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.thestyleofme.driver.core.app.service.session;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 键集分页结果
+ * 不返回页码与总数，使用nextToken获取下一页
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage {
+
+    private List<Map<String, Object>> content;
+
+    private Integer size;
+
+    /**
+     * 本次分页使用的排序键
+     */
+    private List<String> keyColumns;
+
+    /**
+     * 下一页的续传标记，为空表示已无更多数据
+     */
+    private String nextToken;
+
+}
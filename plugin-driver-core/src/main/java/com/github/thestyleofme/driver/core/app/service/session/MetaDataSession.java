@@ -52,6 +52,17 @@ public interface MetaDataSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 批量获取表详细（包含自定义信息）元数据，大库元数据同步时可减少往返次数
+     *
+     * @param schema     模式
+     * @param tableNames 表名，为空时为模式下的所有表
+     * @return List<Table> 表元数据信息
+     */
+    default List<Table> tablesMetaExtra(String schema, List<String> tableNames) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
     /**
      * 列元数据信息
      *
@@ -143,4 +154,12 @@ public interface MetaDataSession {
     default Map<String, Object> parseMetastore(String schema, String tableName) {
         throw new UnsupportedOperationException("Not Implement");
     }
+
+    /**
+     * 清除元数据缓存，下次获取时重新从数据源加载，未缓存元数据的数据源无需处理
+     *
+     * @param schema 模式，为空时清除该数据源的全部缓存
+     */
+    default void metadataRefresh(String schema) {
+    }
 }
@@ -1,9 +1,15 @@
 package com.github.thestyleofme.driver.core.app.service.session;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.BulkOption;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
 import com.github.thestyleofme.driver.core.domain.entity.ResponseData;
+import com.github.thestyleofme.driver.core.domain.entity.SearchQuery;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 
 /**
@@ -28,6 +34,21 @@ public interface NoSqlSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 查询 CSV 文件字段，按指定编码与缓冲区读取
+     *
+     * @param filePath   文件名
+     * @param delimiter  分隔符
+     * @param skipHeader 是否有表头标题
+     * @param encoding   文件编码，为空时使用默认编码
+     * @param bufferSize 读取缓冲区大小，为空时使用默认大小
+     * @return List<Column>
+     */
+    default List<Column> getCsvColumns(String filePath, String delimiter, Boolean skipHeader,
+                                       String encoding, Integer bufferSize) {
+        return this.getCsvColumns(filePath, delimiter, skipHeader);
+    }
+
     /**
      * 根据参数获取数据
      *
@@ -38,4 +59,25 @@ public interface NoSqlSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 原生检索，按批遍历全部命中结果，调用方必须关闭返回的RowIterator
+     *
+     * @param searchQuery 检索参数
+     * @return RowIterator
+     */
+    default RowIterator search(SearchQuery searchQuery) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 批量写入文档，按批次大小分批发送，documents可以是其他数据源的流式结果
+     *
+     * @param bulkOption 写入选项
+     * @param documents  文档
+     * @return BulkResult 成功数与失败明细
+     */
+    default BulkResult bulkWrite(BulkOption bulkOption, Iterator<Map<String, Object>> documents) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.github.thestyleofme.driver.core.app.service.session;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.ExportOption;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -136,6 +139,45 @@ public interface SchemaSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 流式执行单条查询语句，结果按批从数据源拉取，适合导出等大结果集场景
+     * 调用方必须关闭返回的RowIterator
+     *
+     * @param schema 模式
+     * @param sql    单条查询SQL
+     * @return RowIterator
+     */
+    default RowIterator executeStream(String schema, String sql) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 导出单条查询语句的结果，边查询边写出，格式见ExportOption.format
+     *
+     * @param schema       模式
+     * @param sql          单条查询SQL
+     * @param exportOption 导出选项
+     * @param output       输出，不负责关闭
+     * @return 导出行数
+     */
+    default long executeExport(String schema, String sql, ExportOption exportOption, OutputStream output) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 单条查询语句键集分页，按排序键seek定位，深翻页性能不随页码下降
+     *
+     * @param schema     模式
+     * @param sql        单条查询SQL
+     * @param keyColumns 排序键，需唯一确定一行且为查询结果中的列
+     * @param token      续传标记，第一页为空
+     * @param size       每页条数
+     * @return KeysetPage
+     */
+    default KeysetPage executeKeysetPage(String schema, String sql, List<String> keyColumns, String token, int size) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
     /**
      * 执行单条非查询语句 可选择开启事务、开启返回值
      *
@@ -1,13 +1,19 @@
 package com.github.thestyleofme.driver.core.app.service.session;
 
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
 import com.github.thestyleofme.driver.core.domain.entity.DatasourceChildren;
+import com.github.thestyleofme.driver.core.domain.entity.LoadOption;
 import com.github.thestyleofme.driver.core.domain.page.PluginPageRequest;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
 import com.github.thestyleofme.driver.core.infra.meta.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 /**
  * <p>
@@ -206,6 +212,20 @@ public interface TableSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 表数据键集分页查询，适合导出、同步等整表遍历场景
+     *
+     * @param schema     表模式
+     * @param table      表名
+     * @param keyColumns 排序键，为空时使用表主键
+     * @param token      续传标记，第一页为空
+     * @param size       每页条数
+     * @return KeysetPage
+     */
+    default KeysetPage tableKeysetPage(String schema, String table, List<String> keyColumns, String token, int size) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
     /**
      * 查询分区字段
      *
@@ -217,6 +237,42 @@ public interface TableSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 分页查询分区值，每行为分区字段与值
+     *
+     * @param schema   表模式
+     * @param table    表名
+     * @param filter   分区前缀，如dt=2020-07-22，为空时查询全部分区
+     * @param pageable 分页
+     * @return Page<Map < String, Object>> 分区值
+     */
+    default Page<Map<String, Object>> partitionPage(String schema, String table, String filter, Pageable pageable) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 流式查询分区值，列为分区字段
+     *
+     * @param schema 表模式
+     * @param table  表名
+     * @param filter 分区前缀，如dt=2020-07-22，为空时查询全部分区
+     * @return RowIterator 分区值
+     */
+    default RowIterator partitionStream(String schema, String table, String filter) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 分区数与最新分区，结果可能来自缓存
+     *
+     * @param schema 表模式
+     * @param table  表名
+     * @return PartitionSummary 分区概况
+     */
+    default PartitionSummary partitionSummary(String schema, String table) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
     /**
      * 获取更新sql语句
      *
@@ -252,6 +308,32 @@ public interface TableSession {
         throw new UnsupportedOperationException("Not Implement");
     }
 
+    /**
+     * 批量导入，按批次大小分批写入，数据源支持时使用原生的批量导入方式
+     *
+     * @param schema     表模式
+     * @param table      表名
+     * @param loadOption 导入选项
+     * @param rows       数据行，逐批读取，不要求全部在内存中
+     * @return BulkResult
+     */
+    default BulkResult tableLoad(String schema, String table, LoadOption loadOption, Iterator<Map<String, Object>> rows) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
+    /**
+     * 按原始数据流批量导入，数据格式见LoadOption.format，如postgresql的COPY FROM STDIN
+     *
+     * @param schema     表模式
+     * @param table      表名
+     * @param loadOption 导入选项
+     * @param input      数据流，边读边发送
+     * @return BulkResult
+     */
+    default BulkResult tableLoad(String schema, String table, LoadOption loadOption, InputStream input) {
+        throw new UnsupportedOperationException("Not Implement");
+    }
+
     /**
      * 建表语句生成
      *
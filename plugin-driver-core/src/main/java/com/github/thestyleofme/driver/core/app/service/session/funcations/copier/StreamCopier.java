@@ -0,0 +1,45 @@
+package com.github.thestyleofme.driver.core.app.service.session.funcations.copier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * <p>
+ * 通过COPY协议收发数据流，如postgresql驱动的CopyManager
+ * COPY语句的拼接、数据行转CSV均由session完成，方言只负责调用驱动
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public interface StreamCopier {
+
+    /**
+     * 执行COPY FROM STDIN，边读边发送，失败时取消COPY
+     *
+     * @param connection 连接
+     * @param sql        COPY FROM STDIN语句
+     * @param input      数据流
+     * @param bufferSize 发送缓冲区大小
+     * @return 导入行数
+     * @throws SQLException SQLException
+     * @throws IOException  IOException
+     */
+    long copyIn(Connection connection, String sql, InputStream input, int bufferSize) throws SQLException, IOException;
+
+    /**
+     * 执行COPY TO STDOUT，服务端边执行边发送，失败时取消COPY
+     *
+     * @param connection 连接
+     * @param sql        COPY TO STDOUT语句
+     * @param output     输出，不负责关闭
+     * @return 导出行数
+     * @throws SQLException SQLException
+     * @throws IOException  IOException
+     */
+    long copyOut(Connection connection, String sql, OutputStream output) throws SQLException, IOException;
+
+}
@@ -0,0 +1,124 @@
+package com.github.thestyleofme.driver.core.app.service.session.funcations.extractor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * <p>
+ * 键集（seek）分页提取器
+ * 以上一页最后一行的排序键作为起点，生成 where 键 > 上次值 order by 键 的SQL，
+ * 深翻页时数据库可直接走索引定位，避免offset分页扫描并丢弃前N页数据
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public interface SeekSqlExtractor {
+
+    /**
+     * 键集分页SQL
+     *
+     * @param from       查询对象，表名或 ( 子查询 ) 别名
+     * @param keyColumns 排序键，需唯一确定一行，通常为主键
+     * @param seek       是否带起点，第一页为false
+     * @param size       每页条数
+     * @return SeekSql 带?占位符的SQL及占位符对应的键下标
+     */
+    SeekSql extract(String from, List<String> keyColumns, boolean seek, int size);
+
+    /**
+     * 展开式起点条件，所有数据库通用
+     * (k1 > ?) OR (k1 = ? AND k2 > ?) OR ...
+     *
+     * @param keyColumns 排序键
+     * @return SeekSql
+     */
+    static SeekSql expandedPredicate(List<String> keyColumns) {
+        StringBuilder builder = new StringBuilder();
+        List<Integer> paramIndexes = new ArrayList<>();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                builder.append(" OR ");
+            }
+            builder.append('(');
+            for (int j = 0; j < i; j++) {
+                builder.append(keyColumns.get(j)).append(" = ? AND ");
+                paramIndexes.add(j);
+            }
+            builder.append(keyColumns.get(i)).append(" > ?)");
+            paramIndexes.add(i);
+        }
+        return new SeekSql(builder.toString(), paramIndexes);
+    }
+
+    /**
+     * 行值比较式起点条件，如postgresql、mysql可直接利用联合索引
+     * (k1, k2) > (?, ?)
+     *
+     * @param keyColumns 排序键
+     * @return SeekSql
+     */
+    static SeekSql rowValuePredicate(List<String> keyColumns) {
+        List<Integer> paramIndexes = new ArrayList<>();
+        List<String> holders = new ArrayList<>();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            paramIndexes.add(i);
+            holders.add("?");
+        }
+        return new SeekSql(String.format("(%s) > (%s)", String.join(", ", keyColumns),
+                String.join(", ", holders)), paramIndexes);
+    }
+
+    /**
+     * 排序子句内容
+     *
+     * @param keyColumns 排序键
+     * @return k1, k2
+     */
+    static String orderBy(List<String> keyColumns) {
+        return String.join(", ", keyColumns);
+    }
+
+    /**
+     * 键集分页SQL
+     */
+    @Data
+    @AllArgsConstructor
+    class SeekSql {
+
+        public static final SeekSql NONE = new SeekSql("", Collections.emptyList());
+
+        /**
+         * SQL或起点条件
+         */
+        private String sql;
+        /**
+         * 按?出现顺序，每个占位符对应的排序键下标
+         */
+        private List<Integer> paramIndexes;
+
+        /**
+         * 起点条件拼接为where子句，无起点时为空串
+         *
+         * @return WHERE ...
+         */
+        public String where() {
+            return sql.isEmpty() ? "" : " WHERE " + sql;
+        }
+
+        /**
+         * 保留占位符信息，替换为完整SQL
+         *
+         * @param fullSql 完整SQL
+         * @return SeekSql
+         */
+        public SeekSql withSql(String fullSql) {
+            return new SeekSql(fullSql, paramIndexes);
+        }
+    }
+
+}
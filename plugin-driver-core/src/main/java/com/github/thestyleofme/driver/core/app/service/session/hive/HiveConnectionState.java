@@ -0,0 +1,84 @@
+package com.github.thestyleofme.driver.core.app.service.session.hive;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 记录连接池中每个hive连接当前所在的库，库未变化时不再执行use，省去每次执行前的一次往返
+ * 连接上执行的sql中含use语句时（包括跟在注释之后的use），该连接当前库视为未知，下次使用时重新设置
+ * hive系插件共用，各插件传入自己驱动的连接类，从连接池的代理连接中取出物理连接
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class HiveConnectionState {
+
+    private static final Pattern USE_STATEMENT = Pattern.compile("(^|;)(\\s|--[^\\n]*|/\\*.*?\\*/)*use\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    /**
+     * key为物理连接，连接被连接池关闭回收后一并释放
+     */
+    private static final Map<Connection, String> SCHEMAS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Class<? extends Connection> physicalType;
+
+    /**
+     * @param physicalType 驱动的连接类，如HiveConnection
+     */
+    public HiveConnectionState(Class<? extends Connection> physicalType) {
+        this.physicalType = physicalType;
+    }
+
+    /**
+     * 设置连接当前库，与上次设置的相同时跳过
+     *
+     * @param connection 连接
+     * @param schema     库，为空时忽略
+     * @throws SQLException SQLException
+     */
+    public void setSchema(Connection connection, String schema) throws SQLException {
+        if (StringUtils.isEmpty(schema)) {
+            return;
+        }
+        Connection physical = physical(connection);
+        if (schema.equalsIgnoreCase(SCHEMAS.get(physical))) {
+            return;
+        }
+        // 失败时连接状态未知，先移除
+        SCHEMAS.remove(physical);
+        connection.setSchema(schema);
+        SCHEMAS.put(physical, schema);
+    }
+
+    /**
+     * 连接上即将执行sql，含use语句时移除该连接当前库的记录
+     *
+     * @param connection 连接
+     * @param sql        sql
+     */
+    public void beforeExecute(Connection connection, String sql) {
+        if (!StringUtils.isEmpty(sql) && USE_STATEMENT.matcher(sql).find()) {
+            SCHEMAS.remove(physical(connection));
+        }
+    }
+
+    private Connection physical(Connection connection) {
+        try {
+            if (connection.isWrapperFor(physicalType)) {
+                return connection.unwrap(physicalType);
+            }
+        } catch (SQLException e) {
+            // hive驱动不支持unwrap时以连接本身为key
+        }
+        return connection;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.thestyleofme.driver.core.app.service.session.hive;
+
+import java.util.Properties;
+import java.util.StringJoiner;
+
+import com.github.thestyleofme.driver.core.domain.entity.DriverPoolSettingInfo;
+import com.github.thestyleofme.driver.core.infra.constants.CommonConstant;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * hive系插件共用的HiveServer2会话配置
+ * 数据源配置中hiveconf:、hivevar:开头的参数合并到jdbcUrl的hive_conf_list、hive_var_list中，
+ * 在建立连接打开会话时一次性生效，不必每次执行前set
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class HiveSessionConf {
+
+    public static final String HIVE_CONF_PREFIX = "hiveconf:";
+    public static final String HIVE_VAR_PREFIX = "hivevar:";
+    private static final String CONNECTION_TEST_QUERY = "connectionTestQuery";
+    private static final String DEFAULT_TEST_QUERY = "SELECT 1";
+    private static final char CONF_START = '?';
+    private static final char VAR_START = '#';
+    private static final String SEPARATOR = ";";
+
+    private HiveSessionConf() {
+        throw new IllegalStateException("context class!");
+    }
+
+    /**
+     * 处理数据源配置，移除hiveconf:、hivevar:参数并合并到jdbcUrl，
+     * 未指定测试语句时使用连接的isValid校验，避免每次借出连接都编译执行SELECT 1
+     *
+     * @param properties  数据源配置
+     * @param poolSetting 连接池配置
+     */
+    public static void apply(Properties properties, DriverPoolSettingInfo poolSetting) {
+        StringJoiner confs = new StringJoiner(SEPARATOR);
+        StringJoiner vars = new StringJoiner(SEPARATOR);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(HIVE_CONF_PREFIX)) {
+                confs.add(key.substring(HIVE_CONF_PREFIX.length()) + "=" + properties.remove(key));
+            } else if (key.startsWith(HIVE_VAR_PREFIX)) {
+                vars.add(key.substring(HIVE_VAR_PREFIX.length()) + "=" + properties.remove(key));
+            }
+        }
+        String jdbcUrl = properties.getProperty(CommonConstant.JdbcProperties.JDBC_URL);
+        if (!StringUtils.isEmpty(jdbcUrl) && (confs.length() > 0 || vars.length() > 0)) {
+            properties.setProperty(CommonConstant.JdbcProperties.JDBC_URL, mergeUrl(jdbcUrl, confs.toString(), vars.toString()));
+        }
+        String testQuery = poolSetting.getConnectionTestQuery();
+        if (StringUtils.isEmpty(testQuery) || DEFAULT_TEST_QUERY.equalsIgnoreCase(testQuery.trim())) {
+            properties.putIfAbsent(CONNECTION_TEST_QUERY, "");
+        }
+    }
+
+    /**
+     * jdbc:hive2://host:port/db;sess_var_list?hive_conf_list#hive_var_list
+     */
+    private static String mergeUrl(String jdbcUrl, String confs, String vars) {
+        String url = jdbcUrl;
+        String varList = "";
+        int varIndex = url.indexOf(VAR_START);
+        if (varIndex >= 0) {
+            varList = url.substring(varIndex + 1);
+            url = url.substring(0, varIndex);
+        }
+        StringBuilder builder = new StringBuilder(url);
+        if (!confs.isEmpty()) {
+            int confIndex = url.indexOf(CONF_START);
+            if (confIndex < 0) {
+                builder.append(CONF_START).append(confs);
+            } else {
+                // url中已有的同名配置在后，优先生效
+                builder.insert(confIndex + 1, confs + (confIndex == url.length() - 1 ? "" : SEPARATOR));
+            }
+        }
+        if (!vars.isEmpty() || !varList.isEmpty()) {
+            builder.append(VAR_START).append(vars);
+            if (!vars.isEmpty() && !varList.isEmpty()) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(varList);
+        }
+        return builder.toString();
+    }
+
+}
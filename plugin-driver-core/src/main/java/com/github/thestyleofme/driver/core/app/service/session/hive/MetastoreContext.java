@@ -0,0 +1,44 @@
+package com.github.thestyleofme.driver.core.app.service.session.hive;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import javax.sql.DataSource;
+
+/**
+ * <p>
+ * hive系插件共用，数据源与其metastore客户端的对应关系，数据源被回收后自动移除
+ * metastore客户端依赖各插件的hive版本，这里只按类型存取
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class MetastoreContext {
+
+    private static final Map<DataSource, Object> METASTORES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private MetastoreContext() {
+        throw new IllegalStateException("context class!");
+    }
+
+    public static void register(DataSource dataSource, Object metastore) {
+        METASTORES.put(dataSource, metastore);
+    }
+
+    /**
+     * 获取数据源配置的metastore
+     *
+     * @param dataSource 数据源
+     * @param type       metastore客户端类型
+     * @param <T>        metastore客户端类型
+     * @return 未配置hive.metastore.uris或类型不符时为空
+     */
+    public static <T> Optional<T> get(DataSource dataSource, Class<T> type) {
+        return Optional.ofNullable(METASTORES.get(dataSource))
+                .filter(type::isInstance)
+                .map(type::cast);
+    }
+
+}
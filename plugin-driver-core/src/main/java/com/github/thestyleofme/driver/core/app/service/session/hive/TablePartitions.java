@@ -0,0 +1,337 @@
+package com.github.thestyleofme.driver.core.app.service.session.hive;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.meta.PartitionSummary;
+import com.github.thestyleofme.plugin.framework.constants.BaseConstants;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * hive系插件共用的分区查询
+ * 分区字段取自desc formatted的# Partition Information，分区值通过show partitions流式读取，
+ * 分区数与最新分区按表缓存SUMMARY_TTL_MILLIS，同一张表并发查询时只统计一次
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class TablePartitions {
+
+    private static final long SUMMARY_TTL_MILLIS = TimeUnit.MINUTES.toMillis(3);
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final String PARTITION_INFORMATION = "# Partition Information";
+    private static final String COLUMN_HEADER = "# col_name";
+    private static final String EQUAL = "=";
+    private static final Map<DataSource, Map<String, CachedSummary>> SUMMARIES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TablePartitions() {
+        throw new IllegalStateException("context class!");
+    }
+
+    /**
+     * 从desc formatted结果中解析分区字段
+     *
+     * @param describeRows desc formatted结果
+     * @return 分区字段，非分区表返回空
+     */
+    public static List<String> keys(List<Map<String, Object>> describeRows) {
+        List<String> keys = new ArrayList<>();
+        boolean inPartition = false;
+        for (Map<String, Object> row : describeRows) {
+            String colName = Objects.isNull(row.get("col_name")) ? "" : row.get("col_name").toString().trim();
+            if (!inPartition) {
+                inPartition = colName.startsWith(PARTITION_INFORMATION);
+                continue;
+            }
+            if (colName.isEmpty()) {
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                break;
+            }
+            if (colName.startsWith(COLUMN_HEADER)) {
+                continue;
+            }
+            if (colName.startsWith("#")) {
+                break;
+            }
+            keys.add(colName);
+        }
+        return keys;
+    }
+
+    /**
+     * 分区过滤条件转为show partitions的PARTITION子句
+     *
+     * @param keys   分区字段
+     * @param filter 分区前缀，如dt=2020-07-22/hour=01
+     * @return PARTITION子句，filter为空时返回空串
+     */
+    public static String specClause(List<String> keys, String filter) {
+        Map<String, String> spec = parseFilter(keys, filter);
+        if (spec.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(",", " PARTITION(", ")");
+        spec.forEach((key, value) ->
+                joiner.add(String.format("%s='%s'", key, value.replace("\\", "\\\\").replace("'", "\\'"))));
+        return joiner.toString();
+    }
+
+    /**
+     * 分区过滤条件转为按分区字段顺序的分区值，未指定的分区字段为空串
+     *
+     * @param keys   分区字段
+     * @param filter 分区前缀，如dt=2020-07-22/hour=01
+     * @return 分区值，filter为空时返回空
+     */
+    public static List<String> specValues(List<String> keys, String filter) {
+        Map<String, String> spec = parseFilter(keys, filter);
+        if (spec.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>(keys.size());
+        keys.forEach(key -> values.add(spec.getOrDefault(key, "")));
+        return values;
+    }
+
+    private static Map<String, String> parseFilter(List<String> keys, String filter) {
+        Map<String, String> spec = new LinkedHashMap<>();
+        if (StringUtils.isEmpty(filter)) {
+            return spec;
+        }
+        for (String part : filter.split(BaseConstants.Symbol.SLASH)) {
+            int index = part.indexOf(EQUAL);
+            if (index <= 0) {
+                throw new DriverException("illegal partition filter [%s]", filter);
+            }
+            String name = part.substring(0, index).trim();
+            String key = keys.stream()
+                    .filter(name::equalsIgnoreCase)
+                    .findFirst()
+                    .orElseThrow(() -> new DriverException("[%s] is not a partition column", name));
+            spec.put(key, part.substring(index + 1).trim());
+        }
+        return spec;
+    }
+
+    /**
+     * show partitions的结果转为分区值，列为分区字段
+     *
+     * @param keys       分区字段
+     * @param partitions show partitions结果，每行为dt=2020-07-22/hour=01形式的分区名
+     * @return RowIterator
+     */
+    public static RowIterator iterator(List<String> keys, RowIterator partitions) {
+        return new RowIterator() {
+            @Override
+            public List<String> getColumns() {
+                return keys;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return partitions.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                Object[] row = partitions.next();
+                return values(keys, Objects.isNull(row[0]) ? "" : row[0].toString());
+            }
+
+            @Override
+            public long skip(long n) {
+                return partitions.skip(n);
+            }
+
+            @Override
+            public void close() {
+                partitions.close();
+            }
+        };
+    }
+
+    /**
+     * 分页读取分区值，为避免读取全部分区，总数为下界，还有下一页时比已读取的多1
+     *
+     * @param rows     分区值
+     * @param pageable 分页
+     * @return Page<Map < String, Object>>
+     */
+    public static Page<Map<String, Object>> page(RowIterator rows, Pageable pageable) {
+        try (RowIterator iterator = rows) {
+            if (pageable.isUnpaged()) {
+                List<Map<String, Object>> content = iterator.toList();
+                return new PageImpl<>(content, pageable, content.size());
+            }
+            long skipped = iterator.skip(pageable.getOffset());
+            List<Map<String, Object>> content = iterator.toList(pageable.getPageSize());
+            long total = skipped + content.size() + (iterator.hasNext() ? 1 : 0);
+            return new PageImpl<>(content, pageable, total);
+        }
+    }
+
+    /**
+     * 获取分区概况，缓存未过期时直接返回
+     *
+     * @param dataSource 数据源
+     * @param schema     库
+     * @param table      表
+     * @param loader     统计分区
+     * @return PartitionSummary
+     */
+    public static PartitionSummary summary(DataSource dataSource, String schema, String table,
+                                           Supplier<PartitionSummary> loader) {
+        Map<String, CachedSummary> cache = SUMMARIES.computeIfAbsent(dataSource, ds -> new ConcurrentHashMap<>());
+        String key = schema + "." + table;
+        while (true) {
+            CachedSummary cached = cache.get(key);
+            if (Objects.isNull(cached) || cached.isExpired()) {
+                CachedSummary created = new CachedSummary(loader);
+                boolean owner = Objects.isNull(cached) ? cache.putIfAbsent(key, created) == null :
+                        cache.replace(key, cached, created);
+                if (!owner) {
+                    continue;
+                }
+                if (cache.size() > MAX_CACHE_SIZE) {
+                    cache.values().removeIf(CachedSummary::isExpired);
+                }
+                cached = created;
+                cached.task.run();
+            }
+            try {
+                return cached.task.get();
+            } catch (ExecutionException e) {
+                cache.remove(key, cached);
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new DriverException("partition summary error, table: " + key, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DriverException("partition summary interrupted, table: " + key, e);
+            }
+        }
+    }
+
+    /**
+     * 遍历分区统计分区数与最新分区，各级分区值均为数字时按数字比较，否则按字符串比较
+     *
+     * @param schema 库
+     * @param table  表
+     * @param rows   分区值
+     * @return PartitionSummary
+     */
+    public static PartitionSummary summarize(String schema, String table, RowIterator rows) {
+        long count = 0;
+        Object[] latest = null;
+        while (rows.hasNext()) {
+            Object[] values = rows.next();
+            count++;
+            if (Objects.isNull(latest) || compare(values, latest) > 0) {
+                latest = values;
+            }
+        }
+        List<String> keys = rows.getColumns();
+        Map<String, Object> latestValues = null;
+        String latestPartition = null;
+        if (Objects.nonNull(latest)) {
+            latestValues = new LinkedHashMap<>();
+            StringJoiner joiner = new StringJoiner(BaseConstants.Symbol.SLASH);
+            for (int i = 0; i < keys.size(); i++) {
+                latestValues.put(keys.get(i), latest[i]);
+                joiner.add(keys.get(i) + EQUAL + latest[i]);
+            }
+            latestPartition = joiner.toString();
+        }
+        return PartitionSummary.builder()
+                .tableSchema(schema)
+                .tableName(table)
+                .partitionKeys(keys)
+                .partitionCount(count)
+                .latestPartition(latestPartition)
+                .latestValues(latestValues)
+                .refreshTime(new Date())
+                .build();
+    }
+
+    private static Object[] values(List<String> keys, String partition) {
+        Object[] values = new Object[keys.size()];
+        String[] parts = partition.split(BaseConstants.Symbol.SLASH);
+        for (int i = 0; i < parts.length && i < values.length; i++) {
+            int index = parts[i].indexOf(EQUAL);
+            values[i] = unescape(index < 0 ? parts[i] : parts[i].substring(index + 1));
+        }
+        return values;
+    }
+
+    /**
+     * 分区名中的特殊字符被hive转义为%XX
+     */
+    private static String unescape(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length()) {
+                int high = Character.digit(value.charAt(i + 1), 16);
+                int low = Character.digit(value.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    builder.append((char) (high * 16 + low));
+                    i += 2;
+                    continue;
+                }
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static int compare(Object[] left, Object[] right) {
+        for (int i = 0; i < left.length; i++) {
+            String l = String.valueOf(left[i]);
+            String r = String.valueOf(right[i]);
+            int result;
+            try {
+                result = Long.compare(Long.parseLong(l), Long.parseLong(r));
+            } catch (NumberFormatException e) {
+                result = l.compareTo(r);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private static class CachedSummary {
+
+        private final FutureTask<PartitionSummary> task;
+        private final long createTime = System.currentTimeMillis();
+
+        private CachedSummary(Supplier<PartitionSummary> loader) {
+            this.task = new FutureTask<>(loader::get);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createTime > SUMMARY_TTL_MILLIS;
+        }
+    }
+
+}
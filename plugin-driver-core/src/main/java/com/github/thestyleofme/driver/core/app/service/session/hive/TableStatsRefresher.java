@@ -0,0 +1,273 @@
+package com.github.thestyleofme.driver.core.app.service.session.hive;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * hive系插件共用的表统计信息缓存与后台刷新
+ * desc formatted的结果按表缓存，每个数据源最多缓存MAX_CACHE_SIZE张表，超出时淘汰最久未使用的，ANALYZE在后台线程执行，同一张表排队中只保留一个任务，
+ * 同一数据源同时只执行一个ANALYZE且两次之间至少间隔ANALYZE_INTERVAL_MILLIS，
+ * transient_lastDdlTime自上次ANALYZE后未变化或统计信息已准确时不再执行
+ * 每个数据源排队的表最多MAX_QUEUE_SIZE张，超出时丢弃最早排队的，只保留最近访问的表；
+ * 间隔由单独的调度线程等待，ANALYZE在共用的工作线程中执行，
+ * 每个数据源最多占用一个工作线程，不会因个别数据源ANALYZE耗时过长占满所有线程
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class TableStatsRefresher {
+
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long ANALYZE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final int MAX_QUEUE_SIZE = 64;
+    private static final int MAX_WORKERS = 4;
+    private static final String DDL_TIME = "transient_lastDdlTime";
+    private static final String STATS_ACCURATE = "COLUMN_STATS_ACCURATE";
+    private static final String VIRTUAL_VIEW = "VIRTUAL_VIEW";
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final ThreadFactory THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "hive-stats-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    };
+    /**
+     * 只负责等待间隔，不执行ANALYZE
+     */
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(THREAD_FACTORY);
+    /**
+     * 执行ANALYZE，每个数据源同时只有一个任务，队列长度不超过数据源个数
+     */
+    private static final ThreadPoolExecutor WORKERS = new ThreadPoolExecutor(MAX_WORKERS, MAX_WORKERS,
+            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), THREAD_FACTORY);
+
+    static {
+        WORKERS.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 数据源被回收后对应的缓存一并释放
+     */
+    private static final Map<DataSource, DatasourceStats> STATS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TableStatsRefresher() {
+        throw new IllegalStateException("context class!");
+    }
+
+    /**
+     * 获取表的desc formatted结果，优先取缓存，需要时在后台执行ANALYZE并刷新缓存
+     *
+     * @param dataSource 数据源
+     * @param schema     库
+     * @param table      表
+     * @param describe   执行desc formatted
+     * @param analyze    执行ANALYZE
+     * @return desc formatted结果
+     */
+    public static List<Map<String, Object>> describe(DataSource dataSource, String schema, String table,
+                                                     Supplier<List<Map<String, Object>>> describe,
+                                                     Runnable analyze) {
+        DatasourceStats stats = STATS.computeIfAbsent(dataSource, ds -> new DatasourceStats());
+        String key = schema + "." + table;
+        CachedDescribe cached = stats.get(key, describe);
+        if (stats.needAnalyze(key, cached)) {
+            String ddlTime = cached.ddlTime;
+            stats.schedule(key, () -> {
+                analyze.run();
+                CachedDescribe refreshed = stats.put(key, describe.get());
+                // ANALYZE本身会更新transient_lastDdlTime，记录执行后的值
+                stats.analyzed.put(key, Optional.ofNullable(refreshed.ddlTime).orElse(ddlTime));
+            }, ddlTime);
+        }
+        return cached.rows;
+    }
+
+    /**
+     * 获取表的desc formatted结果，优先取缓存，不触发ANALYZE
+     *
+     * @param dataSource 数据源
+     * @param schema     库
+     * @param table      表
+     * @param describe   执行desc formatted
+     * @return desc formatted结果
+     */
+    public static List<Map<String, Object>> describe(DataSource dataSource, String schema, String table,
+                                                     Supplier<List<Map<String, Object>>> describe) {
+        DatasourceStats stats = STATS.computeIfAbsent(dataSource, ds -> new DatasourceStats());
+        return stats.get(schema + "." + table, describe).rows;
+    }
+
+    /**
+     * 表结构变更后清除缓存
+     *
+     * @param dataSource 数据源
+     * @param schema     库
+     * @param table      表
+     */
+    public static void invalidate(DataSource dataSource, String schema, String table) {
+        DatasourceStats stats = STATS.get(dataSource);
+        if (Objects.nonNull(stats)) {
+            stats.cache.invalidate(schema + "." + table);
+        }
+    }
+
+    private static String value(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return Objects.isNull(value) ? "" : value.toString().trim();
+    }
+
+    private static class CachedDescribe {
+
+        private final List<Map<String, Object>> rows;
+        private final String ddlTime;
+        private final boolean accurate;
+        private final boolean view;
+
+        private CachedDescribe(List<Map<String, Object>> rows) {
+            this.rows = Collections.unmodifiableList(rows);
+            String ddl = null;
+            boolean statsAccurate = false;
+            boolean isView = false;
+            for (Map<String, Object> row : rows) {
+                String dataType = value(row, "data_type");
+                if (dataType.startsWith(DDL_TIME)) {
+                    ddl = value(row, "comment");
+                } else if (dataType.startsWith(STATS_ACCURATE)) {
+                    // hive2及以上形如{"BASIC_STATS":"true","COLUMN_STATS":{...}}
+                    statsAccurate = value(row, "comment").contains("COLUMN_STATS");
+                } else if (dataType.contains(VIRTUAL_VIEW)) {
+                    isView = true;
+                }
+            }
+            this.ddlTime = ddl;
+            this.accurate = statsAccurate;
+            this.view = isView;
+        }
+    }
+
+    private static class DatasourceStats {
+
+        private final Cache<String, CachedDescribe> cache = CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHE_SIZE)
+                .expireAfterWrite(CACHE_TTL_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+        /**
+         * 表上次ANALYZE后的transient_lastDdlTime
+         */
+        private final Map<String, String> analyzed = CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHE_SIZE)
+                .<String, String>build()
+                .asMap();
+        private final Set<String> pending = ConcurrentHashMap.newKeySet();
+        /**
+         * 按排队顺序保存待执行的任务，key为表
+         */
+        private final LinkedHashMap<String, Runnable> queue = new LinkedHashMap<>();
+        private boolean running;
+        private long nextAnalyzeTime;
+
+        /**
+         * 同一张表并发加载时只执行一次desc formatted
+         */
+        private CachedDescribe get(String key, Supplier<List<Map<String, Object>>> describe) {
+            try {
+                return cache.get(key, () -> new CachedDescribe(describe.get()));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new DriverException("describe table error, table: " + key, e.getCause());
+            }
+        }
+
+        private CachedDescribe put(String key, List<Map<String, Object>> rows) {
+            CachedDescribe cached = new CachedDescribe(rows);
+            cache.put(key, cached);
+            return cached;
+        }
+
+        private boolean needAnalyze(String key, CachedDescribe cached) {
+            if (cached.view || Objects.isNull(cached.ddlTime) || pending.contains(key)) {
+                return false;
+            }
+            if (cached.accurate) {
+                analyzed.put(key, cached.ddlTime);
+                return false;
+            }
+            return !cached.ddlTime.equals(analyzed.get(key));
+        }
+
+        private synchronized void schedule(String key, Runnable task, String ddlTime) {
+            if (!pending.add(key)) {
+                return;
+            }
+            if (queue.size() >= MAX_QUEUE_SIZE) {
+                // 丢弃最早排队的表，该表下次访问时重新排队
+                Iterator<String> iterator = queue.keySet().iterator();
+                String dropped = iterator.next();
+                iterator.remove();
+                pending.remove(dropped);
+                log.debug("analyze queue full, drop table {}", dropped);
+            }
+            queue.put(key, () -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    // 失败后等表再次变更时才重试，避免反复提交任务
+                    analyzed.put(key, ddlTime);
+                    log.warn("analyze table {} error", key, e);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+            if (!running) {
+                running = true;
+                this.scheduleNext();
+            }
+        }
+
+        private void scheduleNext() {
+            long delay = Math.max(0L, nextAnalyzeTime - System.currentTimeMillis());
+            SCHEDULER.schedule(() -> WORKERS.execute(this::runNext), delay, TimeUnit.MILLISECONDS);
+        }
+
+        private void runNext() {
+            Runnable task;
+            synchronized (this) {
+                Iterator<Runnable> iterator = queue.values().iterator();
+                task = iterator.hasNext() ? iterator.next() : null;
+                if (Objects.nonNull(task)) {
+                    iterator.remove();
+                }
+            }
+            try {
+                if (Objects.nonNull(task)) {
+                    task.run();
+                }
+            } finally {
+                synchronized (this) {
+                    nextAnalyzeTime = System.currentTimeMillis() + ANALYZE_INTERVAL_MILLIS;
+                    if (queue.isEmpty()) {
+                        running = false;
+                    } else {
+                        this.scheduleNext();
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -1,25 +1,38 @@
 package com.github.thestyleofme.driver.core.app.service.session.rdbms;
 
-import java.io.LineNumberReader;
-import java.io.StringReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
+import com.github.thestyleofme.driver.core.app.service.session.KeysetPage;
 import com.github.thestyleofme.driver.core.app.service.session.SessionTool;
 import com.github.thestyleofme.driver.core.app.service.session.SqlPageResponse;
 import com.github.thestyleofme.driver.core.app.service.session.SqlResponse;
+import com.github.thestyleofme.driver.core.app.service.session.funcations.copier.StreamCopier;
 import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.*;
 import com.github.thestyleofme.driver.core.app.service.session.funcations.setter.SchemaSetter;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
+import com.github.thestyleofme.driver.core.domain.entity.DataFormat;
 import com.github.thestyleofme.driver.core.domain.entity.DatasourceChildren;
+import com.github.thestyleofme.driver.core.domain.entity.ExportOption;
+import com.github.thestyleofme.driver.core.domain.entity.LoadOption;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
 import com.github.thestyleofme.driver.core.infra.constants.DataSourceTypeConstant;
 import com.github.thestyleofme.driver.core.infra.constants.PatternConstant;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.*;
 import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import com.github.thestyleofme.driver.core.infra.utils.CsvUtil;
+import com.github.thestyleofme.driver.core.infra.utils.KeysetTokenUtil;
 import com.github.thestyleofme.plugin.core.infra.constants.BaseConstant;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -49,6 +62,20 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
     private static final String DEFAULT_CREATE_SCHEMA = "CREATE DATABASE %s;";
     private static final String DEFAULT_PAGE_SQL = "%s LIMIT %d, %d";
     private static final String COUNT_SQL_FORMAT = "SELECT COUNT(1) FROM ( %s ) t";
+    private static final String KEYSET_FROM_FORMAT = "( %s ) t";
+    private static final String DEFAULT_SEEK_PAGE_SQL = "SELECT * FROM %s%s ORDER BY %s LIMIT %d";
+    private static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+    private static final String LOAD_SQL_FORMAT = "INSERT INTO %s (%s) VALUES (%s)";
+    private static final int DEFAULT_LOAD_BATCH_SIZE = 10000;
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+    /**
+     * COPY使用WITH CSV、WITH BINARY的旧语法，兼容greenplum
+     */
+    private static final String COPY_IN_FORMAT = "COPY %s%s FROM STDIN WITH %s";
+    private static final String COPY_OUT_FORMAT = "COPY (%s) TO STDOUT WITH %s";
+    private static final String COPY_CSV = "CSV";
+    private static final String COPY_CSV_HEADER = "CSV HEADER";
+    private static final String COPY_BINARY = "BINARY";
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_SIZE = 10;
     private static final int DEFAULT_VALID_TIME = 3;
@@ -165,6 +192,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             schemaSetter().setSchema(connection, schema);
             // 执行
             ps = connection.createStatement();
+            this.applyQueryOption(ps, text);
             // true if the first result is a ResultSet object
             // false if it is an update count or there are no results
             for (String sql : sqlList) {
@@ -173,6 +201,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
                     sql = sql.substring(0, sql.lastIndexOf(BaseConstant.Symbol.SEMICOLON));
                 }
                 nowSql = sql;
+                this.beforeExecute(connection, sql);
                 boolean execute = ps.execute(sql);
                 if (resultFlag && execute) {
                     resultSet = ps.getResultSet();
@@ -199,6 +228,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             }
             throw new DriverException("sql execute error:" + ExceptionUtils.getRootCauseMessage(e), e);
         } finally {
+            RunningQueryContext.unregister(ps);
             CloseUtil.close(resultSet, ps, connection);
         }
     }
@@ -236,12 +266,14 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             schemaSetter().setSchema(connection, schema);
             // 执行
             ps = connection.createStatement();
+            this.applyQueryOption(ps, text);
             // true if the first result is a ResultSet object
             // false if it is an update count or there are no results
             for (String sql : sqlList) {
                 List<Map<String, Object>> rows = new ArrayList<>();
                 Map<String, Object> row = new LinkedHashMap<>();
                 nowSql = sql;
+                this.beforeExecute(connection, sql);
                 boolean execute = ps.execute(sql);
                 if (resultFlag && execute) {
                     resultSet = ps.getResultSet();
@@ -276,6 +308,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
                 this.quietRollback(connection);
             }
         } finally {
+            RunningQueryContext.unregister(ps);
             CloseUtil.close(ps, connection, resultSet);
         }
         return responseMap;
@@ -314,6 +347,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             schemaSetter().setSchema(connection, schema);
             // 执行
             ps = connection.createStatement();
+            this.applyQueryOption(ps, text);
             // true if the first result is a ResultSet object
             // false if it is an update count or there are no results
             for (String sql : sqlList) {
@@ -332,6 +366,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
                     }
                 }
                 nowSql = sql;
+                this.beforeExecute(connection, sql);
                 boolean execute = ps.execute(sql);
                 if (resultFlag && execute) {
                     resultSet = ps.getResultSet();
@@ -366,6 +401,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
                 this.quietRollback(connection);
             }
         } finally {
+            RunningQueryContext.unregister(ps);
             CloseUtil.close(ps, connection, resultSet);
         }
         return responseMap;
@@ -392,6 +428,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             schemaSetter().setSchema(connection, schema);
             // 执行
             ps = connection.createStatement();
+            this.applyQueryOption(ps, text);
             // true if the first result is a ResultSet object
             // false if it is an update count or there are no results
             for (String sql : sqlList) {
@@ -409,6 +446,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
                     }
                 }
                 nowSql = sql;
+                this.beforeExecute(connection, sql);
                 boolean execute = ps.execute(sql);
                 if (execute && resultFlag) {
                     ResultSet resultSet = ps.getResultSet();
@@ -431,6 +469,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             log.error("error sql:{}", text);
             throw new DriverException("sql execute error, sql [" + nowSql + "]", e);
         } finally {
+            RunningQueryContext.unregister(ps);
             CloseUtil.close(ps, connection);
         }
     }
@@ -440,6 +479,286 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
         return this.executePageAll(schema, text, PageRequest.of(DEFAULT_PAGE, DEFAULT_SIZE));
     }
 
+    @Override
+    public RowIterator executeStream(String schema, String sql) {
+        String trimSql = sql.trim();
+        if (trimSql.endsWith(BaseConstant.Symbol.SEMICOLON)) {
+            trimSql = trimSql.substring(0, trimSql.length() - 1);
+        }
+        QueryOption option = RunningQueryContext.getOption();
+        String queryId = Objects.isNull(option) ? null : option.getQueryId();
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = this.dataSource.getConnection();
+            // 设置schema
+            schemaSetter().setSchema(connection, schema);
+            statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(DEFAULT_STREAM_FETCH_SIZE);
+            this.applyQueryOption(statement, trimSql);
+            this.prepareStream(connection, statement);
+            this.beforeExecute(connection, trimSql);
+            resultSet = this.executeStreamQuery(statement, trimSql);
+            return new JdbcRowIterator(connection, statement, resultSet, this::getStreamValue, queryId);
+        } catch (SQLException e) {
+            RunningQueryContext.unregister(queryId, statement);
+            CloseUtil.close(resultSet, statement, connection);
+            throw new DriverException("sql stream execute error, sql [" + trimSql + "]", e);
+        }
+    }
+
+    /**
+     * 用户SQL在连接上执行前调用，方言可据此维护对连接状态的记录，
+     * 如hive记录连接当前所在的库，SQL中含use时该记录失效
+     *
+     * @param connection Connection
+     * @param sql        即将执行的SQL
+     */
+    protected void beforeExecute(Connection connection, String sql) {
+        // 默认不记录连接状态
+    }
+
+    /**
+     * 流式查询前对连接与statement的方言设置，如mysql需fetchSize为Integer.MIN_VALUE，
+     * postgresql需关闭自动提交才会按fetchSize分批拉取
+     *
+     * @param connection Connection
+     * @param statement  Statement
+     * @throws SQLException SQLException
+     */
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        // 默认使用statement的fetchSize
+    }
+
+    /**
+     * COPY协议的收发，方言支持COPY时返回，tableLoad与executeExport改为通过COPY FROM STDIN、COPY (query) TO STDOUT传输
+     *
+     * @return 不支持COPY时为空
+     */
+    protected Optional<StreamCopier> streamCopier() {
+        return Optional.empty();
+    }
+
+    /**
+     * 支持COPY时服务端边执行边按CSV或BINARY格式发送，否则由流式查询逐行写为CSV
+     */
+    @Override
+    public long executeExport(String schema, String sql, ExportOption exportOption, OutputStream output) {
+        ExportOption option = Optional.ofNullable(exportOption).orElseGet(ExportOption::new);
+        Optional<StreamCopier> copier = this.streamCopier();
+        if (copier.isPresent()) {
+            return this.copyOut(copier.get(), schema, sql, option, output);
+        }
+        if (Objects.nonNull(option.getFormat()) && option.getFormat() != DataFormat.CSV) {
+            throw new DriverException("export format [%s] is not supported", option.getFormat());
+        }
+        long count = 0;
+        try (RowIterator rows = this.executeStream(schema, sql)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                    Optional.ofNullable(option.getBufferSize()).filter(size -> size > 0).orElse(DEFAULT_BUFFER_SIZE));
+            if (!Boolean.FALSE.equals(option.getHeader())) {
+                CsvUtil.writeRow(writer, rows.getColumns().toArray());
+            }
+            while (rows.hasNext()) {
+                CsvUtil.writeRow(writer, rows.next());
+                count++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new DriverException("export error, %d rows exported", e, count);
+        }
+        return count;
+    }
+
+    private long copyOut(StreamCopier copier, String schema, String sql, ExportOption option, OutputStream output) {
+        String trimSql = sql.trim();
+        if (trimSql.endsWith(BaseConstant.Symbol.SEMICOLON)) {
+            trimSql = trimSql.substring(0, trimSql.length() - 1);
+        }
+        String with;
+        if (option.getFormat() == DataFormat.BINARY) {
+            with = COPY_BINARY;
+        } else {
+            with = Boolean.FALSE.equals(option.getHeader()) ? COPY_CSV : COPY_CSV_HEADER;
+        }
+        String copySql = String.format(COPY_OUT_FORMAT, trimSql, with);
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            // 设置schema
+            schemaSetter().setSchema(connection, schema);
+            this.beforeExecute(connection, copySql);
+            OutputStream out = new BufferedOutputStream(output, Optional.ofNullable(option.getBufferSize())
+                    .filter(size -> size > 0).orElse(DEFAULT_BUFFER_SIZE));
+            long count = copier.copyOut(connection, copySql, out);
+            out.flush();
+            return count;
+        } catch (SQLException | IOException e) {
+            throw new DriverException("sql copy out error, sql [" + trimSql + "]", e);
+        } finally {
+            CloseUtil.close(connection);
+        }
+    }
+
+    /**
+     * 执行流式查询，方言可覆盖以附加查询级参数
+     *
+     * @param statement Statement
+     * @param sql       查询SQL
+     * @return ResultSet
+     * @throws SQLException SQLException
+     */
+    protected ResultSet executeStreamQuery(Statement statement, String sql) throws SQLException {
+        return statement.executeQuery(sql);
+    }
+
+    private Object getStreamValue(ResultSet rs, int index) throws SQLException {
+        // 流式结果保留null，不转为空串
+        return Objects.isNull(rs.getObject(index)) ? null : this.getResultSetValue(rs, index);
+    }
+
+    @Override
+    public KeysetPage executeKeysetPage(String schema, String sql, List<String> keyColumns, String token, int size) {
+        String trimSql = sql.trim();
+        if (trimSql.endsWith(BaseConstant.Symbol.SEMICOLON)) {
+            trimSql = trimSql.substring(0, trimSql.length() - 1);
+        }
+        return this.keysetPage(schema, String.format(KEYSET_FROM_FORMAT, trimSql), keyColumns, token, size);
+    }
+
+    @Override
+    public KeysetPage tableKeysetPage(String schema, String table, List<String> keyColumns, String token, int size) {
+        if (!PatternConstant.IDENTIFIER_PATTERN.matcher(table).matches()) {
+            throw new DriverException("illegal table name [%s]", table);
+        }
+        if (CollectionUtils.isEmpty(keyColumns)) {
+            keyColumns = this.tablePk(schema, table).stream()
+                    .sorted(Comparator.comparing(PrimaryKey::getKeySeq))
+                    .map(PrimaryKey::getColumnName)
+                    .collect(Collectors.toList());
+        }
+        if (CollectionUtils.isEmpty(keyColumns)) {
+            throw new DriverException("table [%s] has no primary key, keyColumns must be specified", table);
+        }
+        return this.keysetPage(schema, table, keyColumns, token, size);
+    }
+
+    /**
+     * 键集分页提取，起点条件见seekPredicate，分页写法见seekPageSql，方言覆盖这两个方法即可
+     *
+     * @return SeekSqlExtractor
+     */
+    public SeekSqlExtractor seekSqlExtractor() {
+        return (from, keyColumns, seek, size) -> {
+            SeekSqlExtractor.SeekSql predicate = seek ?
+                    this.seekPredicate(keyColumns) : SeekSqlExtractor.SeekSql.NONE;
+            return predicate.withSql(this.seekPageSql(from, predicate.where(),
+                    SeekSqlExtractor.orderBy(keyColumns), size));
+        };
+    }
+
+    /**
+     * 键集分页起点条件，默认展开式，支持行值比较的数据库可覆盖
+     *
+     * @param keyColumns 排序键
+     * @return SeekSql
+     */
+    protected SeekSqlExtractor.SeekSql seekPredicate(List<String> keyColumns) {
+        return SeekSqlExtractor.expandedPredicate(keyColumns);
+    }
+
+    /**
+     * 键集分页SQL，默认LIMIT语法，其他方言覆盖限制行数的写法
+     *
+     * @param from    表名或 ( 子查询 ) 别名
+     * @param where   起点条件，第一页为空串
+     * @param orderBy 排序子句内容
+     * @param size    每页条数
+     * @return 键集分页SQL
+     */
+    protected String seekPageSql(String from, String where, String orderBy, int size) {
+        return String.format(DEFAULT_SEEK_PAGE_SQL, from, where, orderBy, size);
+    }
+
+    /**
+     * 键集分页，排序键仅支持升序
+     *
+     * @param schema     模式
+     * @param from       表名或 ( 子查询 ) 别名
+     * @param keyColumns 排序键
+     * @param token      续传标记
+     * @param size       每页条数
+     * @return KeysetPage
+     */
+    protected KeysetPage keysetPage(String schema, String from, List<String> keyColumns, String token, int size) {
+        if (CollectionUtils.isEmpty(keyColumns)) {
+            throw new DriverException("keyColumns must be specified");
+        }
+        keyColumns.forEach(column -> {
+            if (!PatternConstant.IDENTIFIER_PATTERN.matcher(column).matches()) {
+                throw new DriverException("illegal key column [%s]", column);
+            }
+        });
+        int pageSize = size > 0 ? size : DEFAULT_SIZE;
+        boolean seek = !StringUtils.isEmpty(token);
+        List<Object> lastValues = seek ? KeysetTokenUtil.decode(token, keyColumns) : Collections.emptyList();
+        if (lastValues.contains(null)) {
+            // 键 > NULL 不匹配任何行
+            throw new DriverException("keyset token contains null key value, key columns must be non-null");
+        }
+        SeekSqlExtractor.SeekSql seekSql = this.seekSqlExtractor().extract(from, keyColumns, seek, pageSize);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            connection = this.dataSource.getConnection();
+            // 设置schema
+            schemaSetter().setSchema(connection, schema);
+            ps = connection.prepareStatement(seekSql.getSql());
+            this.applyQueryOption(ps, seekSql.getSql());
+            if (seek) {
+                KeysetTokenUtil.bind(ps, lastValues, seekSql.getParamIndexes());
+            }
+            this.beforeExecute(connection, seekSql.getSql());
+            rs = ps.executeQuery();
+            int[] keyIndexes = new int[keyColumns.size()];
+            for (int i = 0; i < keyColumns.size(); i++) {
+                // 去掉t.id等限定前缀及引号后按列标签查找，findColumn不区分大小写
+                keyIndexes[i] = rs.findColumn(KeysetTokenUtil.columnLabel(keyColumns.get(i)));
+            }
+            List<Map<String, Object>> rows = new ArrayList<>(pageSize);
+            List<Object> lastRowKeys = null;
+            while (rs.next()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                this.transformMap(rs, row);
+                rows.add(row);
+                lastRowKeys = new ArrayList<>(keyIndexes.length);
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    if (Objects.isNull(rs.getObject(keyIndexes[i]))) {
+                        throw new DriverException("key column [%s] is null, keyset paging requires non-null key columns",
+                                keyColumns.get(i));
+                    }
+                    lastRowKeys.add(this.getResultSetValue(rs, keyIndexes[i]));
+                }
+            }
+            // 不足一页说明已经到达末尾
+            String nextToken = rows.size() < pageSize || Objects.isNull(lastRowKeys) ?
+                    null : KeysetTokenUtil.encode(lastRowKeys);
+            return KeysetPage.builder()
+                    .content(rows)
+                    .size(pageSize)
+                    .keyColumns(keyColumns)
+                    .nextToken(nextToken)
+                    .build();
+        } catch (SQLException e) {
+            throw new DriverException("keyset page error, sql [" + seekSql.getSql() + "]", e);
+        } finally {
+            RunningQueryContext.unregister(ps);
+            CloseUtil.close(rs, ps, connection);
+        }
+    }
+
     @Override
     public void executeOneUpdate(String schema, String sql, boolean transactionFlag, boolean resultFlag) {
         this.executeAll(schema, sql, transactionFlag, false, resultFlag);
@@ -481,6 +800,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             // 执行
             int count = 0;
             for (String sql : sqlList) {
+                this.beforeExecute(connection, sql);
                 st.addBatch(sql);
                 // 当循环达到指定次数后执行executeBatch()，将缓存中的sql全部发给数据库，然后执行clearBatch()清除缓存
                 // ，否则数据过大是会出现OutOfMemory(内存不足)
@@ -541,6 +861,8 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
             // 查询
             final String countSql = String.format(COUNT_SQL_FORMAT, sql);
             ps = connection.prepareStatement(countSql);
+            this.applyQueryOption(ps, countSql);
+            this.beforeExecute(connection, countSql);
             rs = ps.executeQuery();
             if (rs.next()) {
                 count = rs.getLong(1);
@@ -548,6 +870,7 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
         } catch (SQLException e) {
             throw new DriverException("sql count error", e);
         } finally {
+            RunningQueryContext.unregister(ps);
             CloseUtil.close(rs, ps, connection);
         }
         return count;
@@ -783,7 +1106,9 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
         try (Connection connection = this.dataSource.getConnection();
              Statement statement = connection.createStatement();) {
             if (!StringUtils.isEmpty(schema)) {
-                statement.execute(String.format("use %s;", schema));
+                String use = String.format("use %s;", schema);
+                this.beforeExecute(connection, use);
+                statement.execute(use);
             }
             ResultSet rs = statement.executeQuery(
                     this.pageSqlExtractor().extract(this.getPageFormat(), select.trim(), PageRequest.of(0, 1)));
@@ -847,6 +1172,14 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
         return this.tableMetaData(schema, tableName);
     }
 
+    @Override
+    public List<Table> tablesMetaExtra(String schema, List<String> tableNames) {
+        List<String> names = CollectionUtils.isEmpty(tableNames) ? this.tableList(schema) : tableNames;
+        return names.stream()
+                .map(tableName -> this.tableMetaExtra(schema, tableName))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public boolean isValid() {
         try (Connection connection = this.dataSource.getConnection()) {
@@ -957,10 +1290,195 @@ public abstract class AbstractRdbmsDriverSession implements DriverSession, Sessi
     }
 
 
+    /**
+     * 支持COPY时所有行转为CSV在同一个COPY中边转边发送，失败时整体回滚，否则按批insert
+     */
+    @Override
+    public BulkResult tableLoad(String schema, String table, LoadOption loadOption, Iterator<Map<String, Object>> rows) {
+        long start = System.currentTimeMillis();
+        BulkResult result = new BulkResult();
+        if (!rows.hasNext()) {
+            return result;
+        }
+        Map<String, Object> row = rows.next();
+        List<String> columns = this.loadColumns(table, loadOption, row);
+        Optional<StreamCopier> copier = this.streamCopier();
+        if (copier.isPresent()) {
+            Iterator<Object[]> values = Stream.concat(Stream.of(row),
+                    StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false))
+                    .map(r -> columns.stream().map(r::get).toArray())
+                    .iterator();
+            String copySql = String.format(COPY_IN_FORMAT, table, this.copyColumns(columns), COPY_CSV);
+            return this.copyIn(copier.get(), schema, table, copySql, loadOption, CsvUtil.toInputStream(values));
+        }
+        int batchSize = this.loadBatchSize(loadOption);
+        String sql = String.format(LOAD_SQL_FORMAT, table, String.join(BaseConstant.Symbol.COMMA, columns),
+                columns.stream().map(column -> "?").collect(Collectors.joining(BaseConstant.Symbol.COMMA)));
+        Connection connection = null;
+        PreparedStatement ps = null;
+        try {
+            connection = dataSource.getConnection();
+            // 设置schema
+            schemaSetter().setSchema(connection, schema);
+            this.beforeExecute(connection, sql);
+            ps = connection.prepareStatement(sql);
+            int count = 0;
+            while (Objects.nonNull(row)) {
+                for (int i = 0; i < columns.size(); i++) {
+                    ps.setObject(i + 1, row.get(columns.get(i)));
+                }
+                ps.addBatch();
+                result.setTotal(result.getTotal() + 1);
+                if (++count >= batchSize) {
+                    ps.executeBatch();
+                    ps.clearBatch();
+                    result.addSucceeded(count);
+                    count = 0;
+                }
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            if (count != 0) {
+                ps.executeBatch();
+                result.addSucceeded(count);
+            }
+        } catch (SQLException e) {
+            throw new DriverException("table [%s] load error, %d rows loaded", e, table, result.getSucceeded());
+        } finally {
+            CloseUtil.close(ps, connection);
+        }
+        result.setTookMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 按原始数据流通过COPY FROM STDIN导入，不支持COPY的数据源不支持
+     */
+    @Override
+    public BulkResult tableLoad(String schema, String table, LoadOption loadOption, InputStream input) {
+        StreamCopier copier = this.streamCopier()
+                .orElseThrow(() -> new UnsupportedOperationException("Not Implement"));
+        if (!PatternConstant.IDENTIFIER_PATTERN.matcher(table).matches()) {
+            throw new DriverException("illegal table name [%s]", table);
+        }
+        LoadOption option = Optional.ofNullable(loadOption).orElseGet(LoadOption::new);
+        Optional.ofNullable(option.getColumns())
+                .flatMap(columns -> columns.stream()
+                        .filter(column -> !PatternConstant.IDENTIFIER_PATTERN.matcher(column).matches())
+                        .findFirst())
+                .ifPresent(column -> {
+                    throw new DriverException("illegal column name [%s]", column);
+                });
+        String with;
+        if (option.getFormat() == DataFormat.BINARY) {
+            with = COPY_BINARY;
+        } else {
+            with = Boolean.TRUE.equals(option.getHeader()) ? COPY_CSV_HEADER : COPY_CSV;
+        }
+        String copySql = String.format(COPY_IN_FORMAT, table, this.copyColumns(option.getColumns()), with);
+        return this.copyIn(copier, schema, table, copySql, option, input);
+    }
+
+    private BulkResult copyIn(StreamCopier copier, String schema, String table, String copySql,
+                              LoadOption loadOption, InputStream input) {
+        long start = System.currentTimeMillis();
+        BulkResult result = new BulkResult();
+        int bufferSize = Optional.ofNullable(loadOption)
+                .map(LoadOption::getBufferSize)
+                .filter(size -> size > 0)
+                .orElse(DEFAULT_BUFFER_SIZE);
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            // 设置schema
+            schemaSetter().setSchema(connection, schema);
+            this.beforeExecute(connection, copySql);
+            long count = copier.copyIn(connection, copySql, input, bufferSize);
+            result.setTotal(count);
+            result.addSucceeded(count);
+        } catch (SQLException | IOException e) {
+            throw new DriverException("table [%s] copy in error", e, table);
+        } finally {
+            CloseUtil.close(connection);
+        }
+        result.setTookMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private String copyColumns(List<String> columns) {
+        return CollectionUtils.isEmpty(columns) ? "" :
+                " (" + String.join(BaseConstant.Symbol.COMMA, columns) + ")";
+    }
+
+    /**
+     * 导入的列，未指定时取第一行的字段
+     *
+     * @param table      表名
+     * @param loadOption 导入选项
+     * @param first      第一行
+     * @return 列名
+     */
+    protected List<String> loadColumns(String table, LoadOption loadOption, Map<String, Object> first) {
+        if (!PatternConstant.IDENTIFIER_PATTERN.matcher(table).matches()) {
+            throw new DriverException("illegal table name [%s]", table);
+        }
+        List<String> columns = Objects.isNull(loadOption) || CollectionUtils.isEmpty(loadOption.getColumns()) ?
+                new ArrayList<>(first.keySet()) : loadOption.getColumns();
+        columns.stream()
+                .filter(column -> !PatternConstant.IDENTIFIER_PATTERN.matcher(column).matches())
+                .findFirst()
+                .ifPresent(column -> {
+                    throw new DriverException("illegal column name [%s]", column);
+                });
+        return columns;
+    }
+
+    protected int loadBatchSize(LoadOption loadOption) {
+        return Optional.ofNullable(loadOption)
+                .map(LoadOption::getBatchSize)
+                .filter(size -> size > 0)
+                .orElse(DEFAULT_LOAD_BATCH_SIZE);
+    }
+
     protected String getPageFormat() {
         return DEFAULT_PAGE_SQL;
     }
 
+    /**
+     * 将当前线程的执行选项（超时、最大行数、每批拉取行数）应用到statement，并登记为运行中查询以便取消
+     *
+     * @param statement Statement
+     * @param sql       执行的sql
+     */
+    protected void applyQueryOption(Statement statement, String sql) {
+        QueryOption option = RunningQueryContext.getOption();
+        if (Objects.isNull(option)) {
+            return;
+        }
+        try {
+            if (Objects.nonNull(option.getQueryTimeout()) && option.getQueryTimeout() > 0) {
+                statement.setQueryTimeout(option.getQueryTimeout());
+            }
+        } catch (SQLException e) {
+            // 部分驱动如低版本hive不支持
+            log.warn("statement setQueryTimeout not supported, {}", e.getMessage());
+        }
+        try {
+            if (Objects.nonNull(option.getMaxRows()) && option.getMaxRows() > 0) {
+                statement.setMaxRows(option.getMaxRows());
+            }
+        } catch (SQLException e) {
+            log.warn("statement setMaxRows not supported, {}", e.getMessage());
+        }
+        try {
+            if (Objects.nonNull(option.getFetchSize()) && option.getFetchSize() > 0) {
+                statement.setFetchSize(option.getFetchSize());
+            }
+        } catch (SQLException e) {
+            log.warn("statement setFetchSize not supported, {}", e.getMessage());
+        }
+        RunningQueryContext.register(statement, sql);
+    }
+
     /**
      * 开始事务
      *
@@ -0,0 +1,129 @@
+package com.github.thestyleofme.driver.core.app.service.session.rdbms;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+
+/**
+ * <p>
+ * 基于JDBC ResultSet的流式结果，按statement的fetchSize分批从数据库拉取
+ * 读完或close时释放连接
+ * statement为TYPE_FORWARD_ONLY、CONCUR_READ_ONLY，fetchSize默认1000，请求或连接池配置了fetchSize时以配置为准，
+ * 之后再由方言的prepareStream调整：mysql5、mysql8改为Integer.MIN_VALUE逐行读取，读完或关闭前该连接不能执行其他语句；
+ * postgresql、greenplum、redshift关闭自动提交以使用服务端游标，连接归还连接池时恢复
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class JdbcRowIterator implements RowIterator {
+
+    private final Connection connection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final ValueExtractor valueExtractor;
+    private final List<String> columns;
+    /**
+     * 创建时所属的查询id，close可能在其他线程执行
+     */
+    private final String queryId;
+    private boolean fetched;
+    private boolean hasRow;
+    private boolean closed;
+
+    public JdbcRowIterator(Connection connection,
+                           Statement statement,
+                           ResultSet resultSet,
+                           ValueExtractor valueExtractor,
+                           String queryId) throws SQLException {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.valueExtractor = valueExtractor;
+        this.queryId = queryId;
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        List<String> labels = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            labels.add(metaData.getColumnLabel(i));
+        }
+        this.columns = Collections.unmodifiableList(labels);
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!fetched) {
+            try {
+                hasRow = resultSet.next();
+            } catch (SQLException e) {
+                this.close();
+                throw new DriverException("fetch next row error", e);
+            }
+            fetched = true;
+            if (!hasRow) {
+                this.close();
+            }
+        }
+        return hasRow;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        Object[] values = new Object[columns.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = valueExtractor.extract(resultSet, i + 1);
+            }
+        } catch (SQLException e) {
+            this.close();
+            throw new DriverException("read row error", e);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        RunningQueryContext.unregister(queryId, statement);
+        CloseUtil.close(resultSet, statement, connection);
+    }
+
+    /**
+     * 列值读取
+     */
+    @FunctionalInterface
+    public interface ValueExtractor {
+
+        /**
+         * 读取当前行某列的值
+         *
+         * @param rs    ResultSet
+         * @param index 列下标，从1开始
+         * @return 值
+         * @throws SQLException SQLException
+         */
+        Object extract(ResultSet rs, int index) throws SQLException;
+    }
+
+}
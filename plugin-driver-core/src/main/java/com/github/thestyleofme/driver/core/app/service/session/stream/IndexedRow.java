@@ -0,0 +1,99 @@
+package com.github.thestyleofme.driver.core.app.service.session.stream;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * <p>
+ * 按列下标存储的行，同一结果集的所有行共享列名到下标的映射，
+ * 每行只保存一个值数组，避免每行创建一个HashMap
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class IndexedRow extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Integer> columnIndex;
+    private final Object[] values;
+
+    public IndexedRow(Map<String, Integer> columnIndex, Object[] values) {
+        this.columnIndex = columnIndex;
+        this.values = values;
+    }
+
+    /**
+     * 构造列名到下标的映射，保持列顺序
+     *
+     * @param columns 列名
+     * @return Map<String, Integer>
+     */
+    public static Map<String, Integer> indexOf(List<String> columns) {
+        Map<String, Integer> columnIndex = new LinkedHashMap<>(columns.size() * 4 / 3 + 1);
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndex.putIfAbsent(columns.get(i), i);
+        }
+        return Collections.unmodifiableMap(columnIndex);
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Integer index = columnIndex.get(key);
+        return Objects.isNull(index) || index >= values.length ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return columnIndex.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Integer index = columnIndex.get(key);
+        if (Objects.isNull(index) || index >= values.length) {
+            throw new UnsupportedOperationException("unknown column: " + key);
+        }
+        Object old = values[index];
+        values[index] = value;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return columnIndex.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Integer>> iterator = columnIndex.entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Integer> entry = iterator.next();
+                        return new SimpleEntry<>(entry.getKey(), IndexedRow.this.get(entry.getKey()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return columnIndex.size();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.github.thestyleofme.driver.core.app.service.session.stream;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 流式查询结果，按列下标返回每行的值，不在内存中保留整个结果集
+ * 使用完毕必须close，释放连接、游标等资源
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public interface RowIterator extends Iterator<Object[]>, AutoCloseable {
+
+    /**
+     * 列名，与每行值的下标一一对应
+     *
+     * @return 列名
+     */
+    List<String> getColumns();
+
+    /**
+     * 关闭，释放资源
+     */
+    @Override
+    void close();
+
+    /**
+     * 跳过若干行，用于分页定位，实现类可覆盖为不生成行数据的跳过方式
+     *
+     * @param n 跳过的行数
+     * @return 实际跳过的行数，小于n表示已读完
+     */
+    default long skip(long n) {
+        long skipped = 0;
+        while (skipped < n && this.hasNext()) {
+            this.next();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * 读取剩余所有行
+     *
+     * @return List<Map < String, Object>>
+     */
+    default List<Map<String, Object>> toList() {
+        return this.toList(0);
+    }
+
+    /**
+     * 读取剩余行，所有行共享同一份列下标
+     *
+     * @param limit 最多读取的行数，小于等于0表示不限制
+     * @return List<Map < String, Object>>
+     */
+    default List<Map<String, Object>> toList(long limit) {
+        Map<String, Integer> columnIndex = IndexedRow.indexOf(this.getColumns());
+        List<Map<String, Object>> rows = new ArrayList<>();
+        while (this.hasNext() && (limit <= 0 || rows.size() < limit)) {
+            rows.add(new IndexedRow(columnIndex, this.next()));
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.thestyleofme.driver.core.infra.spool.SpoolFile;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 异步查询，结果落盘后可分页获取
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncQuery {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
+    private String queryId;
+    private Long tenantId;
+    private String datasourceCode;
+    private String schema;
+    private String sql;
+    private volatile String status;
+    private String error;
+    private LocalDateTime submitTime;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    /**
+     * 每条语句的结果信息
+     */
+    private List<Result> results;
+
+    @JsonIgnore
+    private transient Future<?> future;
+    @JsonIgnore
+    private transient List<SpoolFile> spoolFiles;
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return STATUS_SUCCEEDED.equals(status) || STATUS_FAILED.equals(status) || STATUS_CANCELLED.equals(status);
+    }
+
+    /**
+     * 状态为expect时才切换为update，执行线程与取消线程通过此方法切换状态，避免互相覆盖
+     *
+     * @param expect 期望的当前状态
+     * @param update 新状态
+     * @return 是否切换成功
+     */
+    public synchronized boolean compareAndSetStatus(String expect, String update) {
+        if (!Objects.equals(status, expect)) {
+            return false;
+        }
+        status = update;
+        return true;
+    }
+
+    /**
+     * 未结束时切换为结束状态
+     *
+     * @param update 结束状态
+     * @return 是否切换成功，已结束时返回false
+     */
+    public synchronized boolean finish(String update) {
+        if (isFinished()) {
+            return false;
+        }
+        status = update;
+        return true;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+
+        private Integer index;
+        private List<String> columns;
+        private Long rowCount;
+        /**
+         * 落盘文件大小，单位字节
+         */
+        private Long spoolSize;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 批量写入选项，未指定的参数使用默认值
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOption {
+
+    /**
+     * 写入的索引
+     */
+    private String index;
+    /**
+     * 文档类型，仅es6需要，默认_doc
+     */
+    private String type;
+    /**
+     * 作为文档id的字段，为空时由服务端生成id，UPSERT时必须指定
+     */
+    private String idField;
+    /**
+     * 写入方式，默认INDEX
+     */
+    private Operation operation;
+    /**
+     * 每批最多的文档数，默认1000
+     */
+    private Integer batchActions;
+    /**
+     * 每批最大字节数，单位MB，默认5
+     */
+    private Integer batchSizeMb;
+    /**
+     * 同时在途的批次数，0表示同步逐批发送，默认1
+     */
+    private Integer concurrentRequests;
+    /**
+     * 定时刷新间隔，单位秒，未达到批次大小时也按间隔发送，默认不按时间刷新
+     */
+    private Integer flushIntervalSeconds;
+    /**
+     * 服务端拒绝（429）时的最大重试次数，默认3
+     */
+    private Integer maxRetries;
+    /**
+     * 重试初始等待时间，单位毫秒，按指数退避，默认100
+     */
+    private Long retryBackoffMillis;
+    /**
+     * 等待所有批次完成的超时时间，单位秒，默认300
+     */
+    private Integer timeoutSeconds;
+
+    public enum Operation {
+        /**
+         * 新增或覆盖
+         */
+        INDEX,
+        /**
+         * 仅新增，id已存在时该条失败
+         */
+        CREATE,
+        /**
+         * 按id部分更新，不存在时新增
+         */
+        UPSERT
+    }
+
+}
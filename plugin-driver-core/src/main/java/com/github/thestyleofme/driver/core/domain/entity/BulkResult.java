@@ -0,0 +1,59 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 批量写入结果，失败明细最多保留MAX_FAILURES条，失败总数见failed
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+public class BulkResult {
+
+    public static final int MAX_FAILURES = 100;
+
+    private long total;
+    private long succeeded;
+    private long failed;
+    private long tookMillis;
+    private List<Failure> failures = new ArrayList<>();
+
+    /**
+     * 记录一条失败
+     *
+     * @param failure 失败明细
+     */
+    public synchronized void addFailure(Failure failure) {
+        failed++;
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(failure);
+        }
+    }
+
+    public synchronized void addSucceeded(long count) {
+        succeeded += count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+
+        private String index;
+        private String id;
+        /**
+         * 响应状态码，如409版本冲突、429拒绝
+         */
+        private Integer status;
+        private String message;
+    }
+
+}
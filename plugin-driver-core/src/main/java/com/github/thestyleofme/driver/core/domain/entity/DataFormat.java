@@ -0,0 +1,22 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+/**
+ * <p>
+ * 批量导入导出的数据格式
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public enum DataFormat {
+
+    /**
+     * 逗号分隔，双引号转义，null为不带引号的空值
+     */
+    CSV,
+    /**
+     * 数据源原生二进制格式，如postgresql的COPY BINARY，只能在同类数据源间导入导出
+     */
+    BINARY
+
+}
@@ -155,4 +155,24 @@ public class DriverPoolSettingInfo {
     @Builder.Default
     private String connectionTestQuery = "SELECT 1";
 
+    //=================================
+    //======== statement ==============
+    //=================================
+
+    /**
+     * 语句默认超时时间，单位秒，请求未指定时使用
+     * 为空或小于等于0表示不限制
+     */
+    private Integer queryTimeout;
+    /**
+     * 语句默认最大返回行数，请求未指定时使用
+     * 为空或小于等于0表示不限制
+     */
+    private Integer maxRows;
+    /**
+     * 语句默认每批拉取行数，请求未指定时使用，与queryTimeout、maxRows一样作用于该数据源执行的所有语句
+     * 为空或小于等于0时使用驱动默认值，executeStream此时每批1000行
+     */
+    private Integer fetchSize;
+
 }
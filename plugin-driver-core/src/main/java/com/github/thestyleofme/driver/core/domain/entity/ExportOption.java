@@ -0,0 +1,35 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 查询结果导出选项，未指定的参数使用默认值
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportOption {
+
+    /**
+     * 导出格式，默认CSV
+     */
+    private DataFormat format;
+    /**
+     * CSV是否输出列名行，默认true
+     */
+    private Boolean header;
+    /**
+     * 写出缓冲区大小，单位字节，默认65536
+     */
+    private Integer bufferSize;
+
+}
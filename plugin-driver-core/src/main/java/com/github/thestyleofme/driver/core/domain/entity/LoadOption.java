@@ -0,0 +1,50 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 表批量导入选项，未指定的参数使用默认值
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadOption {
+
+    /**
+     * 写入的列，为空时取第一行的字段
+     */
+    private List<String> columns;
+    /**
+     * 每批写入的行数，默认10000
+     */
+    private Integer batchSize;
+    /**
+     * 数据源特有的写入参数，如clickhouse的max_insert_block_size
+     */
+    private Map<String, String> settings;
+    /**
+     * 按原始数据流导入时的格式，默认CSV
+     */
+    private DataFormat format;
+    /**
+     * 按原始数据流导入CSV时首行是否为列名，默认false
+     */
+    private Boolean header;
+    /**
+     * 发送缓冲区大小，单位字节，默认65536
+     */
+    private Integer bufferSize;
+
+}
@@ -0,0 +1,43 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 单次SQL执行的选项，如查询id、超时时间、最大返回行数、每批拉取行数
+ * 未指定时使用数据源连接池配置中的默认值
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryOption {
+
+    /**
+     * 查询id，用于取消正在运行的查询，为空时自动生成
+     */
+    private String queryId;
+    /**
+     * 语句超时时间，单位秒，小于等于0表示不限制
+     */
+    private Integer queryTimeout;
+    /**
+     * 最大返回行数，小于等于0表示不限制
+     */
+    private Integer maxRows;
+    /**
+     * 每次从数据库拉取的行数，用于流式读取，小于等于0时使用驱动默认值
+     */
+    private Integer fetchSize;
+
+    private Long tenantId;
+    private String datasourceCode;
+
+}
@@ -0,0 +1,50 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 正在运行的查询
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunningQuery {
+
+    private String queryId;
+    private Long tenantId;
+    private String datasourceCode;
+    private String sql;
+    private LocalDateTime startTime;
+    @Builder.Default
+    private Boolean cancelled = false;
+
+    /**
+     * 该查询当前打开的statement，如分页查询时count与数据查询各一个
+     */
+    @JsonIgnore
+    @Builder.Default
+    private transient List<Statement> statements = new CopyOnWriteArrayList<>();
+
+    /**
+     * 非jdbc查询的取消回调，如elasticsearch原生检索
+     */
+    @JsonIgnore
+    @Builder.Default
+    private transient List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+
+}
@@ -0,0 +1,81 @@
+package com.github.thestyleofme.driver.core.domain.entity;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 原生检索参数，用于按查询DSL遍历es等搜索引擎中的大结果集
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQuery {
+
+    /**
+     * 索引，多个用逗号分隔，支持通配符
+     */
+    private String index;
+    /**
+     * 检索请求体，如 {"query":{"term":{"status":"ok"}}}，为空时检索全部
+     */
+    private String dsl;
+    /**
+     * 返回的字段，指定时每个字段单独成列，否则整个source作为一列返回
+     */
+    private List<String> includes;
+    /**
+     * 排除的字段
+     */
+    private List<String> excludes;
+    /**
+     * 排序字段，格式 field 或 field:desc，也可在dsl中指定
+     */
+    private List<String> sorts;
+    /**
+     * search_after的唯一排序兜底字段，需唯一且有doc_values，如业务主键
+     * 未指定时7.12及以上使用point in time的_shard_doc，更低版本改为SCROLL遍历
+     */
+    private String tiebreaker;
+    /**
+     * 遍历方式，默认SEARCH_AFTER
+     */
+    private Mode mode;
+    /**
+     * 每批拉取条数，默认1000
+     */
+    private Integer batchSize;
+    /**
+     * scroll上下文保留时间，如 1m
+     */
+    private String keepAlive;
+    /**
+     * 分片scroll时的分片序号，从0开始，与maxSlices一起使用实现多个读取方并行遍历
+     */
+    private Integer sliceId;
+    /**
+     * 分片scroll时的分片总数
+     */
+    private Integer maxSlices;
+
+    public enum Mode {
+        /**
+         * 按排序值翻页，不受max_result_window限制，不占用服务端上下文
+         */
+        SEARCH_AFTER,
+        /**
+         * scroll快照遍历，支持分片并行
+         */
+        SCROLL
+    }
+
+}
@@ -25,4 +25,9 @@ public class PatternConstant {
      */
     public static final Pattern SELECT_COUNT_PATTERN = Pattern.compile("^select .+ count\\(.+ from .+");
 
+    /**
+     * 匹配库、表、列等标识符，允许引号与点号，拒绝空格、括号、运算符等，用于拼接SQL前的校验
+     */
+    public static final Pattern IDENTIFIER_PATTERN = Pattern.compile("^[\\w$#\"`\\[\\].]+$");
+
 }
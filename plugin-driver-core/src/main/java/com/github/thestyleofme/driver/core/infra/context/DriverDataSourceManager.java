@@ -41,8 +41,8 @@ public class DriverDataSourceManager {
         return pluginDataSourceHolder.getOrCreate(tenantId, datasourceCode, clazz);
     }
 
-    public void clearDataSource(String datasourceCode) {
-        pluginDataSourceHolder.remove(datasourceCode);
+    public void clearDataSource(Long tenantId, String datasourceCode) {
+        pluginDataSourceHolder.remove(tenantId, datasourceCode);
     }
 
 }
@@ -51,7 +51,8 @@ public class PluginDataSourceHolder {
         PluginVO pluginVO = getPluginVO(pluginDatasourceVO);
         // 为了走aop 懒加载插件
         String datasourcePluginId = pluginVO.getPluginId();
-        String key = pluginVO.getTenantId() + "_" + pluginDatasourceVO.getDatasourceCode();
+        // 按数据源所属租户区分，不同租户的同名数据源互不影响
+        String key = pluginDatasourceVO.getTenantId() + "_" + pluginDatasourceVO.getDatasourceCode();
         if (Objects.isNull(PluginDatasourceContext.get(key))) {
             ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
             ClassLoader pluginClassLoader = pluginUser.getPluginManager().getPluginClassLoader(datasourcePluginId);
@@ -74,7 +75,8 @@ public class PluginDataSourceHolder {
                 }
                 Object object = driverDataSourceFunction.createDataSource(pluginDatasourceVO);
                 T t = clazz.cast(object);
-                PluginDatasourceContext.put(key, t);
+                PluginDatasourceContext.put(pluginDatasourceVO.getTenantId(), pluginDatasourceVO.getDatasourceCode(),
+                        datasourcePluginId, t);
                 return t;
             } catch (Exception e) {
                 throw new DriverException(e);
@@ -129,16 +131,13 @@ public class PluginDataSourceHolder {
     }
 
     /**
-     * 插件被禁用或卸载需要删除相应数据源
+     * 数据源被修改或删除时需要删除相应数据源
      *
+     * @param tenantId       租户id
      * @param datasourceCode 数据源编码
      */
-    public void remove(String datasourceCode) {
-        PluginDatasourceContext.getMap().keySet().forEach(key -> {
-            if (key.contains(datasourceCode)) {
-                PluginDatasourceContext.remove(key);
-            }
-        });
+    public void remove(Long tenantId, String datasourceCode) {
+        PluginDatasourceContext.remove(tenantId, datasourceCode);
     }
 
 }
@@ -4,6 +4,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.druid.pool.DruidDataSource;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
 import com.zaxxer.hikari.HikariDataSource;
 
 /**
@@ -21,6 +22,10 @@ public class PluginDatasourceContext {
     }
 
     private static final Map<String, Object> MAP = new ConcurrentHashMap<>(8);
+    /**
+     * 数据源key与创建它的插件id，插件卸载时据此关闭该插件创建的数据源
+     */
+    private static final Map<String, String> PLUGIN_MAP = new ConcurrentHashMap<>(8);
 
     /**
      * put数据源
@@ -54,18 +59,51 @@ public class PluginDatasourceContext {
     }
 
     /**
-     * 插件被禁用或卸载需要删除相应数据源
+     * put数据源，并记录创建数据源的插件
+     *
+     * @param tenantId       租户id
+     * @param datasourceCode 数据源编码
+     * @param pluginId       插件id
+     * @param <T>            t
+     */
+    public static <T> void put(Long tenantId, String datasourceCode, String pluginId, T t) {
+        String key = tenantId + "_" + datasourceCode;
+        MAP.put(key, t);
+        PLUGIN_MAP.put(key, pluginId);
+    }
+
+    /**
+     * 插件被禁用或卸载需要删除该插件创建的数据源
+     * 数据源实现了AutoCloseable时一并关闭，释放连接池及后台线程
      *
      * @param pluginId 插件id
      */
     public static void remove(String pluginId) {
-        MAP.keySet().forEach(key -> {
-            if (key.contains(pluginId)) {
-                MAP.remove(key);
+        PLUGIN_MAP.forEach((key, value) -> {
+            if (value.equals(pluginId)) {
+                removeKey(key);
             }
         });
     }
 
+    /**
+     * 数据源被修改或删除时删除并关闭缓存的数据源，只匹配完整的key，不影响编码相近的其他数据源
+     *
+     * @param tenantId       租户id
+     * @param datasourceCode 数据源编码
+     */
+    public static void remove(Long tenantId, String datasourceCode) {
+        removeKey(tenantId + "_" + datasourceCode);
+    }
+
+    private static void removeKey(String key) {
+        PLUGIN_MAP.remove(key);
+        Object datasource = MAP.remove(key);
+        if (datasource instanceof AutoCloseable) {
+            CloseUtil.close((AutoCloseable) datasource);
+        }
+    }
+
     /**
      * 获取数据源
      *
@@ -0,0 +1,197 @@
+package com.github.thestyleofme.driver.core.infra.context;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.domain.entity.RunningQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 运行中查询的登记处
+ * 1. 当前线程的执行选项（超时、最大行数）
+ * 2. queryId与statement的映射，用于取消查询
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class RunningQueryContext {
+
+    private RunningQueryContext() {
+        throw new IllegalStateException();
+    }
+
+    private static final ThreadLocal<QueryOption> OPTION_HOLDER = new ThreadLocal<>();
+
+    private static final Map<String, RunningQuery> MAP = new ConcurrentHashMap<>(16);
+
+    /**
+     * 设置当前线程的执行选项
+     *
+     * @param option QueryOption
+     */
+    public static void setOption(QueryOption option) {
+        OPTION_HOLDER.set(option);
+    }
+
+    /**
+     * 获取当前线程的执行选项
+     *
+     * @return QueryOption 可能为null
+     */
+    public static QueryOption getOption() {
+        return OPTION_HOLDER.get();
+    }
+
+    public static void clearOption() {
+        OPTION_HOLDER.remove();
+    }
+
+    /**
+     * 登记当前线程正在执行的statement
+     *
+     * @param statement Statement
+     * @param sql       执行的sql
+     */
+    public static void register(Statement statement, String sql) {
+        runningQuery(sql).ifPresent(runningQuery -> runningQuery.getStatements().add(statement));
+    }
+
+    /**
+     * 登记当前线程发起的非jdbc查询的取消回调
+     *
+     * @param cancelHook 取消回调
+     * @param sql        执行的查询
+     * @return 查询id，未指定时为null
+     */
+    public static String register(Runnable cancelHook, String sql) {
+        return runningQuery(sql).map(runningQuery -> {
+            runningQuery.getCancelHooks().add(cancelHook);
+            return runningQuery.getQueryId();
+        }).orElse(null);
+    }
+
+    private static Optional<RunningQuery> runningQuery(String sql) {
+        QueryOption option = OPTION_HOLDER.get();
+        if (Objects.isNull(option) || StringUtils.isEmpty(option.getQueryId())) {
+            return Optional.empty();
+        }
+        return Optional.of(MAP.computeIfAbsent(option.getQueryId(), queryId -> RunningQuery.builder()
+                .queryId(queryId)
+                .tenantId(option.getTenantId())
+                .datasourceCode(option.getDatasourceCode())
+                .sql(sql)
+                .startTime(LocalDateTime.now())
+                .build()));
+    }
+
+    /**
+     * statement执行完毕后移除登记
+     *
+     * @param statement Statement
+     */
+    public static void unregister(Statement statement) {
+        QueryOption option = OPTION_HOLDER.get();
+        if (Objects.isNull(option)) {
+            return;
+        }
+        unregister(option.getQueryId(), statement);
+    }
+
+    /**
+     * 移除指定查询的statement登记，用于流式结果在其他线程关闭的场景
+     *
+     * @param queryId   查询id
+     * @param statement Statement
+     */
+    public static void unregister(String queryId, Statement statement) {
+        if (Objects.isNull(statement) || StringUtils.isEmpty(queryId)) {
+            return;
+        }
+        MAP.computeIfPresent(queryId, (key, runningQuery) -> {
+            runningQuery.getStatements().remove(statement);
+            return isIdle(runningQuery) ? null : runningQuery;
+        });
+    }
+
+    /**
+     * 移除指定查询的取消回调
+     *
+     * @param queryId    查询id
+     * @param cancelHook 取消回调
+     */
+    public static void unregister(String queryId, Runnable cancelHook) {
+        if (Objects.isNull(cancelHook) || StringUtils.isEmpty(queryId)) {
+            return;
+        }
+        MAP.computeIfPresent(queryId, (key, runningQuery) -> {
+            runningQuery.getCancelHooks().remove(cancelHook);
+            return isIdle(runningQuery) ? null : runningQuery;
+        });
+    }
+
+    private static boolean isIdle(RunningQuery runningQuery) {
+        return runningQuery.getStatements().isEmpty() && runningQuery.getCancelHooks().isEmpty();
+    }
+
+    /**
+     * 取消查询，调用statement的cancel方法通知数据库终止执行
+     *
+     * @param queryId 查询id
+     * @return 是否找到该查询
+     */
+    public static boolean cancel(String queryId) {
+        if (StringUtils.isEmpty(queryId)) {
+            return false;
+        }
+        RunningQuery runningQuery = MAP.get(queryId);
+        if (Objects.isNull(runningQuery)) {
+            return false;
+        }
+        runningQuery.setCancelled(true);
+        for (Statement statement : runningQuery.getStatements()) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.warn("cancel query [{}] error", queryId, e);
+            }
+        }
+        for (Runnable cancelHook : runningQuery.getCancelHooks()) {
+            try {
+                cancelHook.run();
+            } catch (RuntimeException e) {
+                log.warn("cancel query [{}] error", queryId, e);
+            }
+        }
+        log.info("query [{}] cancelled, sql: {}", queryId, runningQuery.getSql());
+        return true;
+    }
+
+    /**
+     * 获取某个租户下正在运行的查询
+     *
+     * @param tenantId 租户id
+     * @return List<RunningQuery>
+     */
+    public static List<RunningQuery> list(Long tenantId) {
+        return MAP.values().stream()
+                .filter(runningQuery -> Objects.equals(tenantId, runningQuery.getTenantId()))
+                .collect(Collectors.toList());
+    }
+
+    public static RunningQuery get(String queryId) {
+        return MAP.get(queryId);
+    }
+
+}
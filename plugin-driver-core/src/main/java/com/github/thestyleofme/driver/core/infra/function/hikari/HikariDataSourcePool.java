@@ -49,6 +49,10 @@ public class HikariDataSourcePool implements DriverDataSourcePool {
         // 连接池配置
         configPool(hikariConfig, pluginDatasourceVO);
         PropertyElf.setTargetFromProperties(hikariConfig, properties);
+        // 测试语句配置为空串时使用Connection.isValid校验连接
+        if (!StringUtils.hasText(hikariConfig.getConnectionTestQuery())) {
+            hikariConfig.setConnectionTestQuery(null);
+        }
         HikariDataSource hikariDataSource = new HikariDataSource(hikariConfig);
         // 设置数据源监控
         this.setMetricsTrackerFactory(hikariDataSource, pluginDatasourceVO);
@@ -0,0 +1,54 @@
+package com.github.thestyleofme.driver.core.infra.meta;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 分区概况，供增量同步判断是否有新分区
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class PartitionSummary {
+
+    /**
+     * 表模式（可为 null）
+     */
+    private String tableSchema;
+    /**
+     * 表名称
+     */
+    private String tableName;
+    /**
+     * 分区字段，按分区级别排序
+     */
+    private List<String> partitionKeys;
+    /**
+     * 分区数
+     */
+    private Long partitionCount;
+    /**
+     * 最新分区，如dt=2020-07-22/hour=01
+     */
+    private String latestPartition;
+    /**
+     * 最新分区各分区字段的值
+     */
+    private Map<String, Object> latestValues;
+    /**
+     * 统计时间，结果可能来自缓存
+     */
+    private Date refreshTime;
+}
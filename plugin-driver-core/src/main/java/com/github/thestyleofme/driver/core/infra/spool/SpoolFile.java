@@ -0,0 +1,315 @@
+package com.github.thestyleofme.driver.core.infra.spool;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.thestyleofme.plugin.core.infra.utils.JsonUtil;
+
+/**
+ * <p>
+ * 查询结果落盘文件
+ * 列名只记录一次，行按列下标存为数组，每BLOCK_ROWS行一个gzip压缩块，
+ * 读取时通过内存映射只解压分页涉及到的块
+ * 每个值前写一个类型标记，读回后类型与落盘前一致，如DECIMAL仍为BigDecimal、时间仍为Timestamp，
+ * 不认识的类型按json保存
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class SpoolFile {
+
+    private static final int BLOCK_ROWS = 1000;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte BOOLEAN = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte TIMESTAMP = 11;
+    private static final byte SQL_DATE = 12;
+    private static final byte SQL_TIME = 13;
+    private static final byte DATE = 14;
+    private static final byte LOCAL_DATE = 15;
+    private static final byte LOCAL_DATE_TIME = 16;
+    private static final byte LOCAL_TIME = 17;
+    private static final byte BYTES = 18;
+    private static final byte JSON = 19;
+
+    private final Path path;
+    private final List<String> columns;
+    /**
+     * 每个块在文件中的起始位置，最后一个元素为文件长度
+     */
+    private final long[] blockOffsets;
+    private final long rowCount;
+
+    private SpoolFile(Path path, List<String> columns, long[] blockOffsets, long rowCount) {
+        this.path = path;
+        this.columns = columns;
+        this.blockOffsets = blockOffsets;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * 将结果集写入文件
+     *
+     * @param path 文件路径
+     * @param rows 结果集
+     * @return SpoolFile
+     * @throws IOException 写文件异常
+     */
+    public static SpoolFile write(Path path, List<Map<String, Object>> rows) throws IOException {
+        // 列取所有行key的并集，非jdbc数据源每行的key可能不一致
+        Set<String> columnSet = new LinkedHashSet<>();
+        rows.forEach(row -> columnSet.addAll(row.keySet()));
+        List<String> columns = new ArrayList<>(columnSet);
+        int blockCount = (rows.size() + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        long[] blockOffsets = new long[blockCount + 1];
+        Files.createDirectories(path.getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            long position = 0L;
+            for (int block = 0; block < blockCount; block++) {
+                blockOffsets[block] = position;
+                int from = block * BLOCK_ROWS;
+                int to = Math.min(from + BLOCK_ROWS, rows.size());
+                byte[] bytes = compress(columns, rows.subList(from, to));
+                out.write(bytes);
+                position += bytes.length;
+            }
+            blockOffsets[blockCount] = position;
+        }
+        return new SpoolFile(path, columns, blockOffsets, rows.size());
+    }
+
+    /**
+     * 读取指定范围的行
+     *
+     * @param offset 起始行
+     * @param limit  行数
+     * @return List<Map < String, Object>>
+     * @throws IOException 读文件异常
+     */
+    public List<Map<String, Object>> read(long offset, int limit) throws IOException {
+        if (offset >= rowCount || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long end = Math.min(offset + limit, rowCount);
+        int firstBlock = (int) (offset / BLOCK_ROWS);
+        int lastBlock = (int) ((end - 1) / BLOCK_ROWS);
+        List<Map<String, Object>> result = new ArrayList<>((int) (end - offset));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long mapStart = blockOffsets[firstBlock];
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    mapStart, blockOffsets[lastBlock + 1] - mapStart);
+            for (int block = firstBlock; block <= lastBlock; block++) {
+                ByteBuffer slice = buffer.duplicate();
+                slice.position((int) (blockOffsets[block] - mapStart));
+                slice.limit((int) (blockOffsets[block + 1] - mapStart));
+                long blockStart = (long) block * BLOCK_ROWS;
+                int from = (int) Math.max(offset - blockStart, 0);
+                int to = (int) (Math.min(end, blockStart + BLOCK_ROWS) - blockStart);
+                try (DataInputStream in = decompress(slice)) {
+                    // 块内from之前的行也需要顺序读过
+                    for (int index = 0; index < to; index++) {
+                        Map<String, Object> row = new LinkedHashMap<>(columns.size() * 4 / 3 + 1);
+                        for (String column : columns) {
+                            row.put(column, readValue(in));
+                        }
+                        if (index >= from) {
+                            result.add(row);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSize() {
+        return blockOffsets[blockOffsets.length - 1];
+    }
+
+    private static byte[] compress(List<String> columns, List<Map<String, Object>> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(bytes)))) {
+            for (Map<String, Object> row : rows) {
+                for (String column : columns) {
+                    writeValue(out, row.get(column));
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream decompress(ByteBuffer buffer) throws IOException {
+        byte[] compressed = new byte[buffer.remaining()];
+        buffer.get(compressed);
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(((BigDecimal) value).scale());
+            writeBytes(out, ((BigDecimal) value).unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof Date) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof LocalDate) {
+            out.writeByte(LOCAL_DATE);
+            out.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(LOCAL_DATE_TIME);
+            out.writeLong(((LocalDateTime) value).toLocalDate().toEpochDay());
+            out.writeLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+        } else if (value instanceof LocalTime) {
+            out.writeByte(LOCAL_TIME);
+            out.writeLong(((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else {
+            // 嵌套文档、数组等按json保存，读回为Map、List
+            out.writeByte(JSON);
+            writeBytes(out, JsonUtil.toJson(value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BOOLEAN:
+                return in.readBoolean();
+            case BIG_DECIMAL:
+                int scale = in.readInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case SQL_TIME:
+                return new Time(in.readLong());
+            case DATE:
+                return new Date(in.readLong());
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.readLong());
+            case LOCAL_DATE_TIME:
+                LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readLong()));
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.readLong());
+            case BYTES:
+                return readBytes(in);
+            case JSON:
+                return JsonUtil.toObj(new String(readBytes(in), StandardCharsets.UTF_8), Object.class);
+            default:
+                throw new IOException("unknown value type in spool file: " + type);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
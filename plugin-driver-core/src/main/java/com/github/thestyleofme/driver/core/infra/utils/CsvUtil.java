@@ -0,0 +1,121 @@
+package com.github.thestyleofme.driver.core.infra.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * <p>
+ * CSV写出，字段均加双引号，null写为不带引号的空值，与postgresql COPY CSV的默认约定一致
+ * 二进制值写为bytea的十六进制格式，如\x0a1b
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public final class CsvUtil {
+
+    private CsvUtil() throws IllegalAccessException {
+        throw new IllegalAccessException("util class");
+    }
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char LINE_END = '\n';
+    private static final String HEX_PREFIX = "\\x";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 写出一行
+     *
+     * @param out    输出
+     * @param values 字段值
+     * @throws IOException IOException
+     */
+    public static void writeRow(Appendable out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(SEPARATOR);
+            }
+            writeValue(out, values[i]);
+        }
+        out.append(LINE_END);
+    }
+
+    /**
+     * 将数据行转为UTF-8编码的CSV数据流，读取时逐行转换，不整体加载到内存
+     *
+     * @param rows 数据行
+     * @return CSV数据流
+     */
+    public static InputStream toInputStream(Iterator<Object[]> rows) {
+        return new InputStream() {
+
+            private final StringBuilder line = new StringBuilder();
+            private byte[] buffer = new byte[0];
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                int read = 0;
+                while (read < len) {
+                    if (position >= buffer.length) {
+                        if (!rows.hasNext()) {
+                            break;
+                        }
+                        line.setLength(0);
+                        writeRow(line, rows.next());
+                        buffer = line.toString().getBytes(StandardCharsets.UTF_8);
+                        position = 0;
+                    }
+                    int n = Math.min(len - read, buffer.length - position);
+                    System.arraycopy(buffer, position, b, off + read, n);
+                    position += n;
+                    read += n;
+                }
+                return read == 0 ? -1 : read;
+            }
+        };
+    }
+
+    private static void writeValue(Appendable out, Object value) throws IOException {
+        if (Objects.isNull(value)) {
+            return;
+        }
+        if (value instanceof byte[]) {
+            // 十六进制不含引号与分隔符，无需转义
+            out.append(QUOTE).append(HEX_PREFIX);
+            for (byte b : (byte[]) value) {
+                out.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+            out.append(QUOTE);
+            return;
+        }
+        // java.sql的日期时间类型toString即为数据库可识别的格式
+        String text = value.getClass() == Date.class ?
+                new Timestamp(((Date) value).getTime()).toString() : String.valueOf(value);
+        out.append(QUOTE);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == QUOTE) {
+                out.append(QUOTE);
+            }
+            out.append(c);
+        }
+        out.append(QUOTE);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.github.thestyleofme.driver.core.infra.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.plugin.core.infra.utils.JsonUtil;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 键集分页续传标记
+ * 将最后一行的排序键值连同类型编码为URL安全的base64串，解码后按原类型绑定到PreparedStatement
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public final class KeysetTokenUtil {
+
+    private KeysetTokenUtil() throws IllegalAccessException {
+        throw new IllegalAccessException("util class");
+    }
+
+    private static final String TYPE_NULL = "N";
+    private static final String TYPE_LONG = "L";
+    private static final String TYPE_DECIMAL = "D";
+    private static final String TYPE_TIMESTAMP = "T";
+    private static final String TYPE_DATE = "A";
+    private static final String TYPE_STRING = "S";
+
+    /**
+     * 编码排序键值
+     *
+     * @param values 排序键值
+     * @return token
+     */
+    public static String encode(List<Object> values) {
+        List<String[]> typedValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            typedValues.add(toTyped(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(JsonUtil.toJson(typedValues).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码token并按类型还原排序键值
+     *
+     * @param token      续传标记
+     * @param keyColumns 排序键，用于校验token是否与之匹配
+     * @return 排序键值
+     */
+    public static List<Object> decode(String token, List<String> keyColumns) {
+        List<String[]> typedValues;
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            typedValues = JsonUtil.toObj(json, new TypeReference<List<String[]>>() {
+            });
+        } catch (Exception e) {
+            throw new DriverException("invalid keyset token", e);
+        }
+        if (typedValues.size() != keyColumns.size()) {
+            throw new DriverException("keyset token does not match key columns %s", keyColumns);
+        }
+        List<Object> values = new ArrayList<>(typedValues.size());
+        for (String[] typedValue : typedValues) {
+            values.add(fromTyped(typedValue));
+        }
+        return values;
+    }
+
+    /**
+     * 按排序键下标绑定参数
+     *
+     * @param ps           PreparedStatement
+     * @param values       排序键值
+     * @param paramIndexes 每个占位符对应的排序键下标
+     * @throws SQLException SQLException
+     */
+    public static void bind(PreparedStatement ps, List<Object> values, List<Integer> paramIndexes) throws SQLException {
+        for (int i = 0; i < paramIndexes.size(); i++) {
+            Object value = values.get(paramIndexes.get(i));
+            if (Objects.isNull(value)) {
+                throw new DriverException("keyset key value must not be null");
+            }
+            ps.setObject(i + 1, value);
+        }
+    }
+
+    /**
+     * 排序键对应的结果集列标签，去掉表别名等限定前缀及引号，如 t."id" 为 id
+     * 引号内的点属于列名本身，不作为限定符
+     *
+     * @param keyColumn 排序键
+     * @return 列标签
+     */
+    public static String columnLabel(String keyColumn) {
+        int start = 0;
+        char quote = 0;
+        for (int i = 0; i < keyColumn.length(); i++) {
+            char c = keyColumn.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '[') {
+                quote = ']';
+            } else if (c == '.') {
+                start = i + 1;
+            }
+        }
+        return keyColumn.substring(start).replaceAll("[\"`\\[\\]]", "");
+    }
+
+    private static String[] toTyped(Object value) {
+        if (Objects.isNull(value)) {
+            return new String[]{TYPE_NULL, null};
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return new String[]{TYPE_LONG, value.toString()};
+        }
+        if (value instanceof Number) {
+            return new String[]{TYPE_DECIMAL, new BigDecimal(value.toString()).toPlainString()};
+        }
+        if (value instanceof Timestamp) {
+            return new String[]{TYPE_TIMESTAMP, value.toString()};
+        }
+        if (value instanceof LocalDateTime) {
+            return new String[]{TYPE_TIMESTAMP, Timestamp.valueOf((LocalDateTime) value).toString()};
+        }
+        if (value instanceof java.sql.Date) {
+            return new String[]{TYPE_DATE, value.toString()};
+        }
+        if (value instanceof LocalDate) {
+            return new String[]{TYPE_DATE, java.sql.Date.valueOf((LocalDate) value).toString()};
+        }
+        if (value instanceof java.util.Date) {
+            return new String[]{TYPE_TIMESTAMP, new Timestamp(((java.util.Date) value).getTime()).toString()};
+        }
+        return new String[]{TYPE_STRING, value.toString()};
+    }
+
+    private static Object fromTyped(String[] typedValue) {
+        if (typedValue.length != 2 || StringUtils.isEmpty(typedValue[0])) {
+            throw new DriverException("invalid keyset token");
+        }
+        String value = typedValue[1];
+        try {
+            switch (typedValue[0]) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_LONG:
+                    return Long.valueOf(value);
+                case TYPE_DECIMAL:
+                    return new BigDecimal(value);
+                case TYPE_TIMESTAMP:
+                    return Timestamp.valueOf(value);
+                case TYPE_DATE:
+                    return java.sql.Date.valueOf(value);
+                case TYPE_STRING:
+                    return value;
+                default:
+                    throw new DriverException("invalid keyset token");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new DriverException("invalid keyset token", e);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.thestyleofme.driver.core.app.service.session.funcations.extractor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * SeekSqlExtractor测试，起点条件的写法及占位符对应的排序键下标
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class SeekSqlExtractorTest {
+
+    private static final List<String> KEYS = Arrays.asList("a", "t.b", "\"c\"");
+
+    @Test
+    public void testExpandedPredicate() {
+        SeekSqlExtractor.SeekSql seekSql = SeekSqlExtractor.expandedPredicate(KEYS);
+        Assert.assertEquals("(a > ?) OR (a = ? AND t.b > ?) OR (a = ? AND t.b = ? AND \"c\" > ?)",
+                seekSql.getSql());
+        Assert.assertEquals(Arrays.asList(0, 0, 1, 0, 1, 2), seekSql.getParamIndexes());
+        SeekSqlExtractor.SeekSql single = SeekSqlExtractor.expandedPredicate(Collections.singletonList("id"));
+        Assert.assertEquals("(id > ?)", single.getSql());
+        Assert.assertEquals(Collections.singletonList(0), single.getParamIndexes());
+    }
+
+    @Test
+    public void testRowValuePredicate() {
+        SeekSqlExtractor.SeekSql seekSql = SeekSqlExtractor.rowValuePredicate(KEYS);
+        Assert.assertEquals("(a, t.b, \"c\") > (?, ?, ?)", seekSql.getSql());
+        Assert.assertEquals(Arrays.asList(0, 1, 2), seekSql.getParamIndexes());
+    }
+
+    @Test
+    public void testOrderBy() {
+        Assert.assertEquals("a, t.b, \"c\"", SeekSqlExtractor.orderBy(KEYS));
+    }
+
+    @Test
+    public void testSeekSql() {
+        Assert.assertEquals("", SeekSqlExtractor.SeekSql.NONE.where());
+        SeekSqlExtractor.SeekSql predicate = SeekSqlExtractor.expandedPredicate(Collections.singletonList("id"));
+        Assert.assertEquals(" WHERE (id > ?)", predicate.where());
+        // 替换为完整SQL后保留占位符下标
+        SeekSqlExtractor.SeekSql full = predicate.withSql("SELECT * FROM t" + predicate.where() + " ORDER BY id LIMIT 10");
+        Assert.assertEquals("SELECT * FROM t WHERE (id > ?) ORDER BY id LIMIT 10", full.getSql());
+        Assert.assertEquals(predicate.getParamIndexes(), full.getParamIndexes());
+    }
+
+}
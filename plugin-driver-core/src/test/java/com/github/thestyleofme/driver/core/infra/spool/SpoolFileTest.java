@@ -0,0 +1,107 @@
+package com.github.thestyleofme.driver.core.infra.spool;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * <p>
+ * SpoolFile测试，写入后读回的值及类型与写入前一致
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class SpoolFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTypedRoundTrip() throws IOException {
+        Timestamp timestamp = Timestamp.valueOf("2026-10-19 12:34:56.123456789");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("string", "中文");
+        row.put("int", 1);
+        row.put("long", 2L);
+        row.put("short", (short) 3);
+        row.put("byte", (byte) 4);
+        row.put("double", 5.5D);
+        row.put("float", 6.5F);
+        row.put("boolean", true);
+        row.put("decimal", new BigDecimal("12345678901234567890.123456789"));
+        row.put("bigint", new BigInteger("123456789012345678901234567890"));
+        row.put("timestamp", timestamp);
+        row.put("sqlDate", java.sql.Date.valueOf("2026-10-19"));
+        row.put("sqlTime", Time.valueOf("12:34:56"));
+        row.put("date", new Date(1_000L));
+        row.put("localDate", LocalDate.of(2026, 10, 19));
+        row.put("localDateTime", LocalDateTime.of(2026, 10, 19, 12, 34, 56, 789));
+        row.put("localTime", LocalTime.of(12, 34, 56, 789));
+        row.put("null", null);
+        row.put("nested", Collections.singletonMap("key", "value"));
+        SpoolFile spoolFile = SpoolFile.write(folder.getRoot().toPath().resolve("typed.spool"),
+                Collections.singletonList(row));
+
+        Map<String, Object> read = spoolFile.read(0, 1).get(0);
+        Assert.assertEquals(new ArrayList<>(row.keySet()), new ArrayList<>(read.keySet()));
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if ("nested".equals(entry.getKey()) || Objects.isNull(entry.getValue())) {
+                continue;
+            }
+            Assert.assertEquals(entry.getKey(), entry.getValue(), read.get(entry.getKey()));
+            Assert.assertEquals(entry.getKey(), entry.getValue().getClass(), read.get(entry.getKey()).getClass());
+        }
+        Assert.assertEquals(9, ((BigDecimal) read.get("decimal")).scale());
+        Assert.assertEquals(123456789, ((Timestamp) read.get("timestamp")).getNanos());
+        Assert.assertNull(read.get("null"));
+        Assert.assertEquals(Collections.singletonMap("key", "value"), read.get("nested"));
+    }
+
+    @Test
+    public void testBytes() throws IOException {
+        byte[] bytes = {0, 1, -1, 127, -128};
+        SpoolFile spoolFile = SpoolFile.write(folder.getRoot().toPath().resolve("bytes.spool"),
+                Collections.singletonList(Collections.singletonMap("bytes", bytes)));
+        Assert.assertArrayEquals(bytes, (byte[]) spoolFile.read(0, 1).get(0).get("bytes"));
+    }
+
+    @Test
+    public void testReadAcrossBlocks() throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i);
+            row.put("amount", BigDecimal.valueOf(i, 2));
+            rows.add(row);
+        }
+        // 非jdbc数据源每行的key可能不一致，列取并集
+        rows.get(1500).put("extra", "x");
+        SpoolFile spoolFile = SpoolFile.write(folder.getRoot().toPath().resolve("blocks.spool"), rows);
+        Assert.assertEquals(2500L, spoolFile.getRowCount());
+        Assert.assertEquals(Arrays.asList("id", "amount", "extra"), spoolFile.getColumns());
+
+        List<Map<String, Object>> page = spoolFile.read(990, 1020);
+        Assert.assertEquals(1020, page.size());
+        Assert.assertEquals(990L, page.get(0).get("id"));
+        Assert.assertEquals(2009L, page.get(page.size() - 1).get("id"));
+        Assert.assertEquals(new BigDecimal("15.00"), page.get(510).get("amount"));
+        Assert.assertEquals("x", page.get(510).get("extra"));
+        Assert.assertNull(page.get(511).get("extra"));
+
+        Assert.assertEquals(100, spoolFile.read(2400, 200).size());
+        Assert.assertTrue(spoolFile.read(2500, 10).isEmpty());
+    }
+
+}
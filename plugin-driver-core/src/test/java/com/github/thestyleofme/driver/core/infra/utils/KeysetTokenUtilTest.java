@@ -0,0 +1,108 @@
+package com.github.thestyleofme.driver.core.infra.utils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * KeysetTokenUtil测试，续传标记编码解码后类型还原，参数按占位符绑定
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class KeysetTokenUtilTest {
+
+    @Test
+    public void testRoundTrip() {
+        Timestamp timestamp = Timestamp.valueOf("2026-10-19 12:34:56.789");
+        List<Object> values = Arrays.asList(1L, new BigDecimal("12.3400"), timestamp,
+                java.sql.Date.valueOf("2026-10-19"), "a/b+c=", null);
+        String token = KeysetTokenUtil.encode(values);
+        // url安全且无填充，可直接放在查询参数中
+        Assert.assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+        List<Object> decoded = KeysetTokenUtil.decode(token, Arrays.asList("a", "b", "c", "d", "e", "f"));
+        Assert.assertEquals(values, decoded);
+        Assert.assertEquals(4, ((BigDecimal) decoded.get(1)).scale());
+    }
+
+    @Test
+    public void testTypeNormalization() {
+        LocalDateTime dateTime = LocalDateTime.of(2026, 10, 19, 12, 34, 56);
+        List<Object> values = Arrays.asList(1, (short) 2, 3.5D, dateTime, LocalDate.of(2026, 10, 19),
+                new Date(Timestamp.valueOf(dateTime).getTime()));
+        List<Object> decoded = KeysetTokenUtil.decode(KeysetTokenUtil.encode(values),
+                Arrays.asList("a", "b", "c", "d", "e", "f"));
+        // 整数统一为Long，小数为BigDecimal，日期时间为Timestamp，日期为java.sql.Date
+        Assert.assertEquals(1L, decoded.get(0));
+        Assert.assertEquals(2L, decoded.get(1));
+        Assert.assertEquals(new BigDecimal("3.5"), decoded.get(2));
+        Assert.assertEquals(Timestamp.valueOf(dateTime), decoded.get(3));
+        Assert.assertEquals(java.sql.Date.valueOf("2026-10-19"), decoded.get(4));
+        Assert.assertEquals(Timestamp.valueOf(dateTime), decoded.get(5));
+    }
+
+    @Test
+    public void testInvalidToken() {
+        String token = KeysetTokenUtil.encode(Collections.singletonList(1L));
+        try {
+            KeysetTokenUtil.decode(token, Arrays.asList("a", "b"));
+            Assert.fail("token of another key is accepted");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("does not match"));
+        }
+        try {
+            KeysetTokenUtil.decode("not-a-token", Collections.singletonList("a"));
+            Assert.fail("garbage token is accepted");
+        } catch (DriverException e) {
+            Assert.assertEquals("invalid keyset token", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBind() throws SQLException {
+        Map<Integer, Object> bound = new TreeMap<>();
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if ("setObject".equals(method.getName())) {
+                        bound.put((Integer) args[0], args[1]);
+                    }
+                    return null;
+                });
+        // (a > ?) OR (a = ? AND b > ?)
+        KeysetTokenUtil.bind(ps, Arrays.asList(1L, "x"), Arrays.asList(0, 0, 1));
+        Map<Integer, Object> expected = new TreeMap<>();
+        expected.put(1, 1L);
+        expected.put(2, 1L);
+        expected.put(3, "x");
+        Assert.assertEquals(expected, bound);
+        try {
+            KeysetTokenUtil.bind(ps, Arrays.asList(1L, null), Arrays.asList(0, 0, 1));
+            Assert.fail("null key value is bound");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("must not be null"));
+        }
+    }
+
+    @Test
+    public void testColumnLabel() {
+        Assert.assertEquals("id", KeysetTokenUtil.columnLabel("id"));
+        Assert.assertEquals("id", KeysetTokenUtil.columnLabel("t.id"));
+        Assert.assertEquals("ID", KeysetTokenUtil.columnLabel("s.t.\"ID\""));
+        Assert.assertEquals("id", KeysetTokenUtil.columnLabel("`t`.`id`"));
+        // 引号内的点属于列名
+        Assert.assertEquals("a.b", KeysetTokenUtil.columnLabel("t.\"a.b\""));
+        Assert.assertEquals("my.col", KeysetTokenUtil.columnLabel("t.[my.col]"));
+    }
+
+}
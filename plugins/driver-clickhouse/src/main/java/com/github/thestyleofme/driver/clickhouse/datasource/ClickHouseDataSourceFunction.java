@@ -2,8 +2,10 @@ package com.github.thestyleofme.driver.clickhouse.datasource;
 
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.clickhouse.session.ClickHouseSettings;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourceFunction;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourcePoolFactory;
+import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
 import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
 import org.springframework.stereotype.Component;
 import ru.yandex.clickhouse.ClickHouseDriver;
@@ -21,7 +23,9 @@ public class ClickHouseDataSourceFunction implements DriverDataSourceFunction<Pl
 
     @Override
     public DataSource createDataSource(PluginDatasourceVO pluginDatasourceVO) {
-        return DriverDataSourcePoolFactory.create(pluginDatasourceVO);
+        DataSource dataSource = DriverDataSourcePoolFactory.create(pluginDatasourceVO, ClickHouseSettings::apply);
+        ClickHouseSettings.register(dataSource, DriverUtil.parseDatasourceSettingInfo(pluginDatasourceVO));
+        return dataSource;
     }
 
     @Override
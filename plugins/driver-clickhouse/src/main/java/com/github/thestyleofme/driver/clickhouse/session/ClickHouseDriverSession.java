@@ -1,11 +1,27 @@
 package com.github.thestyleofme.driver.clickhouse.session;
 
+import java.sql.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.clickhouse.generator.ClickHouseGenerator;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
+import com.github.thestyleofme.driver.core.domain.entity.LoadOption;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.infra.constants.PatternConstant;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import com.github.thestyleofme.plugin.core.infra.constants.BaseConstant;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import ru.yandex.clickhouse.ClickHouseStatement;
+import ru.yandex.clickhouse.settings.ClickHouseQueryParam;
 
 
 /**
@@ -20,6 +36,9 @@ import lombok.extern.slf4j.Slf4j;
 public class ClickHouseDriverSession extends AbstractRdbmsDriverSession {
 
     private static final String DATE_FMT = "toDateTime('%s')";
+    private static final String DESCRIBE_TABLE = "DESCRIBE TABLE %s";
+    private static final String SERVER_TIME_ZONE = "SELECT timezone()";
+    private static final String INSERT_FORMAT = "INSERT INTO %s (%s)";
 
     public ClickHouseDriverSession(DataSource dataSource) {
         super(dataSource);
@@ -35,4 +54,137 @@ public class ClickHouseDriverSession extends AbstractRdbmsDriverSession {
     public SqlGenerator getSqlGenerator() {
         return ClickHouseGenerator.getInstance();
     }
-}
\ No newline at end of file
+
+    /**
+     * 按列类型以RowBinary格式分批写入，每批一次insert请求，请求体按数据源的decompress配置LZ4压缩
+     * 表中含RowBinary不支持的列类型时使用通用的批量insert
+     */
+    @Override
+    public BulkResult tableLoad(String schema, String table, LoadOption loadOption, Iterator<Map<String, Object>> rows) {
+        long start = System.currentTimeMillis();
+        BulkResult result = new BulkResult();
+        if (!rows.hasNext()) {
+            return result;
+        }
+        Map<String, Object> first = rows.next();
+        Iterator<Map<String, Object>> all = Stream.concat(Stream.of(first),
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false))
+                .iterator();
+        List<String> columns = this.loadColumns(table, loadOption, first);
+        if (!StringUtils.isEmpty(schema) && !PatternConstant.IDENTIFIER_PATTERN.matcher(schema).matches()) {
+            throw new DriverException("illegal schema name [%s]", schema);
+        }
+        String target = StringUtils.isEmpty(schema) ? table : schema + BaseConstant.Symbol.POINT + table;
+        TimeZone[] serverTimeZone = new TimeZone[1];
+        Map<String, String> columnTypes = this.columnTypes(target, serverTimeZone);
+        List<RowBinaryWriter> writers = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            Optional<RowBinaryWriter> writer = Optional.ofNullable(columnTypes.get(column))
+                    .flatMap(type -> RowBinaryWriter.of(column, type, serverTimeZone[0]));
+            if (!writer.isPresent()) {
+                log.info("column [{}] of type [{}] is not supported by RowBinary, load [{}] with insert batch",
+                        column, columnTypes.get(column), target);
+                return super.tableLoad(schema, table, loadOption, all);
+            }
+            writers.add(writer.get());
+        }
+        int batchSize = this.loadBatchSize(loadOption);
+        Map<ClickHouseQueryParam, String> params = this.queryParams(loadOption);
+        String sql = String.format(INSERT_FORMAT, target, String.join(BaseConstant.Symbol.COMMA, columns));
+        Connection connection = null;
+        Statement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.createStatement();
+            ClickHouseStatement clickHouseStatement = statement.unwrap(ClickHouseStatement.class);
+            while (all.hasNext()) {
+                int[] count = {0};
+                clickHouseStatement.sendRowBinaryStream(sql, params, stream -> {
+                    while (count[0] < batchSize && all.hasNext()) {
+                        Map<String, Object> row = all.next();
+                        for (int i = 0; i < columns.size(); i++) {
+                            writers.get(i).write(stream, row.get(columns.get(i)));
+                        }
+                        count[0]++;
+                    }
+                });
+                result.setTotal(result.getTotal() + count[0]);
+                result.addSucceeded(count[0]);
+            }
+        } catch (SQLException e) {
+            throw new DriverException("table [%s] load error, %d rows loaded", e, target, result.getSucceeded());
+        } finally {
+            CloseUtil.close(statement, connection);
+        }
+        result.setTookMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 流式查询按max_block_size控制服务端每个数据块的行数，结果为驱动的压缩流式TSV，逐行解析不整体加载
+     */
+    @Override
+    protected ResultSet executeStreamQuery(Statement statement, String sql) throws SQLException {
+        QueryOption option = RunningQueryContext.getOption();
+        Optional<String> maxBlockSize = Optional.ofNullable(option)
+                .map(QueryOption::getFetchSize)
+                .filter(size -> size > 0)
+                .map(String::valueOf);
+        if (!maxBlockSize.isPresent()) {
+            maxBlockSize = ClickHouseSettings.get(dataSource, ClickHouseSettings.STREAM_MAX_BLOCK_SIZE);
+        }
+        if (!maxBlockSize.isPresent()) {
+            return super.executeStreamQuery(statement, sql);
+        }
+        return statement.unwrap(ClickHouseStatement.class).executeQuery(sql,
+                Collections.singletonMap(ClickHouseQueryParam.MAX_BLOCK_SIZE, maxBlockSize.get()));
+    }
+
+    /**
+     * 表的列类型，同时取服务端时区，字符串形式的日期时间与服务端解析insert语句时使用同一时区
+     *
+     * @param target         schema.table
+     * @param serverTimeZone 用于返回服务端时区
+     * @return 列名与类型
+     */
+    private Map<String, String> columnTypes(String target, TimeZone[] serverTimeZone) {
+        Map<String, String> columnTypes = new HashMap<>(16);
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery(String.format(DESCRIBE_TABLE, target));
+            while (resultSet.next()) {
+                columnTypes.put(resultSet.getString("name"), resultSet.getString("type"));
+            }
+            resultSet.close();
+            resultSet = statement.executeQuery(SERVER_TIME_ZONE);
+            serverTimeZone[0] = resultSet.next() ? TimeZone.getTimeZone(resultSet.getString(1)) : TimeZone.getDefault();
+        } catch (SQLException e) {
+            throw new DriverException("describe table [" + target + "] error", e);
+        } finally {
+            CloseUtil.close(resultSet, statement, connection);
+        }
+        return columnTypes;
+    }
+
+    /**
+     * 导入选项中的settings转为clickhouse查询参数，如max_insert_block_size
+     */
+    private Map<ClickHouseQueryParam, String> queryParams(LoadOption loadOption) {
+        Map<ClickHouseQueryParam, String> params = new EnumMap<>(ClickHouseQueryParam.class);
+        if (Objects.isNull(loadOption) || CollectionUtils.isEmpty(loadOption.getSettings())) {
+            return params;
+        }
+        loadOption.getSettings().forEach((key, value) -> {
+            ClickHouseQueryParam param = Arrays.stream(ClickHouseQueryParam.values())
+                    .filter(p -> p.getKey().equalsIgnoreCase(key))
+                    .findFirst()
+                    .orElseThrow(() -> new DriverException("unknown clickhouse setting [%s]", key));
+            params.put(param, value);
+        });
+        return params;
+    }
+}
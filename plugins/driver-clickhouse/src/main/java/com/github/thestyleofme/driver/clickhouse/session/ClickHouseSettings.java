@@ -0,0 +1,62 @@
+package com.github.thestyleofme.driver.clickhouse.session;
+
+import java.util.*;
+import javax.sql.DataSource;
+
+/**
+ * <p>
+ * clickhouse数据源的读写配置
+ * clickhouse.开头的配置不是连接池参数，创建连接池前移除；批量导入默认使用LZ4压缩请求体
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class ClickHouseSettings {
+
+    public static final String SETTING_PREFIX = "clickhouse.";
+    /**
+     * 流式查询每个数据块的最大行数，即max_block_size，未配置时使用服务端默认值
+     */
+    public static final String STREAM_MAX_BLOCK_SIZE = "clickhouse.stream.max.block.size";
+    /**
+     * 驱动参数decompress，为true时发往服务端的数据使用LZ4压缩
+     */
+    private static final String DECOMPRESS = "dataSource.decompress";
+    private static final Map<DataSource, Properties> SETTINGS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ClickHouseSettings() {
+        throw new IllegalStateException("context class!");
+    }
+
+    /**
+     * 创建数据源时注册
+     *
+     * @param dataSource 数据源
+     * @param properties 数据源配置
+     */
+    public static void register(DataSource dataSource, Properties properties) {
+        Properties settings = new Properties();
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(SETTING_PREFIX))
+                .forEach(key -> settings.setProperty(key, properties.getProperty(key)));
+        SETTINGS.put(dataSource, settings);
+    }
+
+    public static Optional<String> get(DataSource dataSource, String key) {
+        return Optional.ofNullable(SETTINGS.get(dataSource)).map(settings -> settings.getProperty(key));
+    }
+
+    /**
+     * 移除clickhouse.配置，未指定decompress时开启写入压缩
+     *
+     * @param properties 连接池配置
+     */
+    public static void apply(Properties properties) {
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(SETTING_PREFIX))
+                .forEach(properties::remove);
+        properties.putIfAbsent(DECOMPRESS, Boolean.TRUE.toString());
+    }
+
+}
@@ -0,0 +1,215 @@
+package com.github.thestyleofme.driver.clickhouse.session;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import ru.yandex.clickhouse.util.ClickHouseRowBinaryStream;
+
+/**
+ * <p>
+ * 按clickhouse列类型将值写为RowBinary格式
+ * 支持Nullable、LowCardinality包装的数值、字符串、日期、Decimal与UUID，其余类型如Array、Enum不支持
+ * 字符串形式的日期时间按列声明的时区解析，未声明时按服务端时区，与服务端解析insert语句一致
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface RowBinaryWriter {
+
+    Pattern WRAPPED_TYPE = Pattern.compile("^(Nullable|LowCardinality)\\((.+)\\)$");
+    Pattern FIXED_STRING_TYPE = Pattern.compile("^FixedString\\((\\d+)\\)$");
+    Pattern DECIMAL_TYPE = Pattern.compile("^Decimal(32|64|128)?\\((\\d+)(?:,\\s*(\\d+))?\\)$");
+    Pattern DATE_TIME_ZONE_TYPE = Pattern.compile("^DateTime\\('([^']+)'\\)$");
+    String NULLABLE = "Nullable";
+    int DECIMAL32_PRECISION = 9;
+    int DECIMAL64_PRECISION = 18;
+
+    /**
+     * 写入一个值
+     *
+     * @param stream RowBinary输出流
+     * @param value  值
+     * @throws IOException IOException
+     */
+    void write(ClickHouseRowBinaryStream stream, Object value) throws IOException;
+
+    /**
+     * 按列类型获取写入方式
+     *
+     * @param column         列名
+     * @param type           describe table返回的列类型
+     * @param serverTimeZone 服务端时区
+     * @return 不支持的类型为空
+     */
+    static Optional<RowBinaryWriter> of(String column, String type, TimeZone serverTimeZone) {
+        Matcher wrapped = WRAPPED_TYPE.matcher(type.trim());
+        if (wrapped.matches()) {
+            Optional<RowBinaryWriter> inner = of(column, wrapped.group(2), serverTimeZone);
+            if (!NULLABLE.equals(wrapped.group(1))) {
+                // LowCardinality的RowBinary与内部类型一致
+                return inner;
+            }
+            return inner.map(writer -> (stream, value) -> {
+                stream.markNextNullable(Objects.isNull(value));
+                if (Objects.nonNull(value)) {
+                    writer.write(stream, value);
+                }
+            });
+        }
+        return basic(type.trim(), serverTimeZone.toZoneId()).map(writer -> (stream, value) -> {
+            if (Objects.isNull(value)) {
+                throw new DriverException("column [%s] of type [%s] is not Nullable", column, type);
+            }
+            writer.write(stream, value);
+        });
+    }
+
+    static Optional<RowBinaryWriter> basic(String type, ZoneId zone) {
+        switch (type) {
+            case "String":
+                return Optional.of((stream, value) -> stream.writeString(String.valueOf(value)));
+            case "Int8":
+                return Optional.of((stream, value) -> stream.writeInt8(number(value).intValueExact()));
+            case "Int16":
+                return Optional.of((stream, value) -> stream.writeInt16(number(value).intValueExact()));
+            case "Int32":
+                return Optional.of((stream, value) -> stream.writeInt32(number(value).intValueExact()));
+            case "Int64":
+                return Optional.of((stream, value) -> stream.writeInt64(number(value).longValueExact()));
+            case "UInt8":
+                return Optional.of((stream, value) -> stream.writeUInt8(number(value).intValueExact()));
+            case "UInt16":
+                return Optional.of((stream, value) -> stream.writeUInt16(number(value).intValueExact()));
+            case "UInt32":
+                return Optional.of((stream, value) -> stream.writeUInt32(number(value).longValueExact()));
+            case "UInt64":
+                return Optional.of((stream, value) -> stream.writeUInt64(number(value).toBigIntegerExact()));
+            case "Float32":
+                return Optional.of((stream, value) -> stream.writeFloat32(number(value).floatValue()));
+            case "Float64":
+                return Optional.of((stream, value) -> stream.writeFloat64(number(value).doubleValue()));
+            case "Date":
+                return Optional.of((stream, value) -> {
+                    if (value instanceof Date || value instanceof Number) {
+                        stream.writeDate(date(value, zone));
+                    } else {
+                        // 不带时区的日期直接写为距1970-01-01的天数，与连接的时区无关
+                        stream.writeUInt16((int) localDate(value).toEpochDay());
+                    }
+                });
+            case "DateTime":
+                return Optional.of((stream, value) -> stream.writeDateTime(date(value, zone)));
+            case "UUID":
+                return Optional.of((stream, value) -> stream.writeUUID(value instanceof UUID ?
+                        (UUID) value : UUID.fromString(value.toString())));
+            default:
+                return complex(type);
+        }
+    }
+
+    static Optional<RowBinaryWriter> complex(String type) {
+        Matcher fixedString = FIXED_STRING_TYPE.matcher(type);
+        if (fixedString.matches()) {
+            int length = Integer.parseInt(fixedString.group(1));
+            return Optional.of((stream, value) -> {
+                byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > length) {
+                    throw new DriverException("value [%s] is too long for %s", value, type);
+                }
+                stream.writeBytes(Arrays.copyOf(bytes, length));
+            });
+        }
+        Matcher decimal = DECIMAL_TYPE.matcher(type);
+        if (decimal.matches()) {
+            // Decimal(P, S)或Decimal32(S)、Decimal64(S)、Decimal128(S)
+            int bits;
+            int scale;
+            if (Objects.isNull(decimal.group(1))) {
+                int precision = Integer.parseInt(decimal.group(2));
+                bits = precision <= DECIMAL32_PRECISION ? 32 : precision <= DECIMAL64_PRECISION ? 64 : 128;
+                scale = Objects.isNull(decimal.group(3)) ? 0 : Integer.parseInt(decimal.group(3));
+            } else {
+                bits = Integer.parseInt(decimal.group(1));
+                scale = Integer.parseInt(decimal.group(2));
+            }
+            if (bits == 32) {
+                return Optional.of((stream, value) -> stream.writeDecimal32(number(value), scale));
+            }
+            if (bits == 64) {
+                return Optional.of((stream, value) -> stream.writeDecimal64(number(value), scale));
+            }
+            return Optional.of((stream, value) -> stream.writeDecimal128(number(value), scale));
+        }
+        Matcher dateTime = DATE_TIME_ZONE_TYPE.matcher(type);
+        if (dateTime.matches()) {
+            // 带时区的DateTime
+            ZoneId columnZone = ZoneId.of(dateTime.group(1));
+            return Optional.of((stream, value) -> stream.writeDateTime(date(value, columnZone)));
+        }
+        return Optional.empty();
+    }
+
+    static BigDecimal number(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? BigDecimal.ONE : BigDecimal.ZERO;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    static LocalDate localDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        String text = value.toString().trim();
+        return LocalDate.parse(text.length() > "yyyy-MM-dd".length() ?
+                text.substring(0, "yyyy-MM-dd".length()) : text);
+    }
+
+    /**
+     * Date、时间戳表示确定的时刻直接写入，不带时区的LocalDate、LocalDateTime及字符串按指定时区解析
+     *
+     * @param value 值
+     * @param zone  列声明的时区或服务端时区
+     * @return 时刻
+     */
+    static Date date(Object value, ZoneId zone) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        if (value instanceof LocalDate) {
+            return Date.from(((LocalDate) value).atStartOfDay(zone).toInstant());
+        }
+        if (value instanceof LocalDateTime) {
+            return Date.from(((LocalDateTime) value).atZone(zone).toInstant());
+        }
+        String text = value.toString().trim();
+        if (text.length() == "yyyy-MM-dd".length()) {
+            return Date.from(LocalDate.parse(text).atStartOfDay(zone).toInstant());
+        }
+        return Date.from(LocalDateTime.parse(text.replace(' ', 'T')).atZone(zone).toInstant());
+    }
+
+}
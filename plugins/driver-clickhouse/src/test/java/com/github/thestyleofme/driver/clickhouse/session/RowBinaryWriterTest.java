@@ -0,0 +1,105 @@
+package com.github.thestyleofme.driver.clickhouse.session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import org.junit.Assert;
+import org.junit.Test;
+import ru.yandex.clickhouse.settings.ClickHouseProperties;
+import ru.yandex.clickhouse.util.ClickHouseRowBinaryStream;
+
+/**
+ * <p>
+ * RowBinaryWriter测试，按列类型写入的字节与RowBinary格式一致
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class RowBinaryWriterTest {
+
+    private static final TimeZone SERVER_TIME_ZONE = TimeZone.getTimeZone("Asia/Shanghai");
+
+    @Test
+    public void testDecimal() throws IOException {
+        Assert.assertArrayEquals(littleEndian(4, 12345L), write("Decimal(9, 2)", "123.45"));
+        Assert.assertArrayEquals(littleEndian(4, 12345L), write("Decimal32(2)", new BigDecimal("123.45")));
+        Assert.assertArrayEquals(littleEndian(8, 1234500L), write("Decimal(18, 4)", 123.45));
+        Assert.assertArrayEquals(littleEndian(8, 1234500L), write("Decimal64(4)", "123.45"));
+        Assert.assertArrayEquals(littleEndian(16, 12345L), write("Decimal(38, 2)", "123.45"));
+        Assert.assertArrayEquals(littleEndian(16, 12345L), write("Decimal128(2)", "123.45"));
+        // 未指定scale时为0
+        Assert.assertArrayEquals(littleEndian(4, 123L), write("Decimal(9)", 123));
+    }
+
+    @Test
+    public void testNullable() throws IOException {
+        Assert.assertArrayEquals(new byte[]{1}, write("Nullable(Int32)", null));
+        Assert.assertArrayEquals(concat(new byte[]{0}, littleEndian(4, 7L)), write("Nullable(Int32)", 7));
+        Assert.assertArrayEquals(concat(new byte[]{0}, littleEndian(4, 12345L)),
+                write("Nullable(Decimal(9, 2))", "123.45"));
+        Assert.assertArrayEquals(new byte[]{1}, write("LowCardinality(Nullable(String))", null));
+        Assert.assertArrayEquals(new byte[]{0, 2, 'a', 'b'}, write("LowCardinality(Nullable(String))", "ab"));
+        try {
+            write("Int32", null);
+            Assert.fail("null is written to a non Nullable column");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("is not Nullable"));
+        }
+    }
+
+    @Test
+    public void testFixedString() throws IOException {
+        Assert.assertArrayEquals(new byte[]{'a', 'b', 0, 0}, write("FixedString(4)", "ab"));
+        Assert.assertArrayEquals("abcd".getBytes(StandardCharsets.UTF_8), write("FixedString(4)", "abcd"));
+        Assert.assertArrayEquals(new byte[]{0, 'a', 0}, write("Nullable(FixedString(2))", "a"));
+        try {
+            write("FixedString(4)", "abcde");
+            Assert.fail("value longer than FixedString is written");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("too long"));
+        }
+    }
+
+    @Test
+    public void testDateTimeZone() throws IOException {
+        // 未声明时区的列按服务端时区解析，声明时区的列按列的时区解析
+        Assert.assertArrayEquals(littleEndian(4, 10L), write("DateTime", "1970-01-01 08:00:10"));
+        Assert.assertArrayEquals(littleEndian(4, 10L), write("DateTime('UTC')", "1970-01-01 00:00:10"));
+        Assert.assertArrayEquals(littleEndian(2, 10L), write("Date", "1970-01-11"));
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertFalse(RowBinaryWriter.of("c", "Array(Int32)", SERVER_TIME_ZONE).isPresent());
+        Assert.assertFalse(RowBinaryWriter.of("c", "Nullable(Enum8('a' = 1))", SERVER_TIME_ZONE).isPresent());
+    }
+
+    private static byte[] write(String type, Object value) throws IOException {
+        RowBinaryWriter writer = RowBinaryWriter.of("c", type, SERVER_TIME_ZONE)
+                .orElseThrow(() -> new AssertionError(type + " is not supported"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(new ClickHouseRowBinaryStream(out, SERVER_TIME_ZONE, new ClickHouseProperties()), value);
+        return out.toByteArray();
+    }
+
+    private static byte[] littleEndian(int length, long value) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(length, Long.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(value);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+}
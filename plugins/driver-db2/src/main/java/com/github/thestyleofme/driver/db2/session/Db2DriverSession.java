@@ -27,10 +27,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class Db2DriverSession extends AbstractRdbmsDriverSession {
 
+    private static final String SEEK_PAGE_SQL = "SELECT * FROM %s%s ORDER BY %s FETCH FIRST %d ROWS ONLY";
+
     public Db2DriverSession(DataSource dataSource) {
         super(dataSource);
     }
 
+    @Override
+    protected String seekPageSql(String from, String where, String orderBy, int size) {
+        return String.format(SEEK_PAGE_SQL, from, where, orderBy, size);
+    }
+
     @Override
     public List<Column> columnMetaData(String schema, String tableName) {
 
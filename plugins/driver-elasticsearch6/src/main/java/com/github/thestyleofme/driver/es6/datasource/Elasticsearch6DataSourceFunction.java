@@ -11,6 +11,7 @@ import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
 import com.github.thestyleofme.driver.core.infra.utils.RestTemplateUtil;
 import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
 import com.github.thestyleofme.driver.es6.exec.HttpExec;
+import com.github.thestyleofme.driver.es6.exec.MappingCache;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
@@ -50,7 +51,7 @@ public class Elasticsearch6DataSourceFunction implements DriverDataSourceFunctio
 
     private HttpExec genHttpExec(String esHost, Properties properties) {
         RestTemplate restTemplate = RestTemplateUtil.getRestTemplate(properties);
-        return new HttpExec("http://" + esHost, restTemplate);
+        return new HttpExec("http://" + esHost, restTemplate, MappingCache.of(properties));
     }
 
     private RestHighLevelClient genHighLevelClient(String esHost, Properties properties) {
@@ -0,0 +1,168 @@
+package com.github.thestyleofme.driver.es6.exec;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.github.thestyleofme.driver.core.domain.entity.BulkOption;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.*;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 基于BulkProcessor的批量写入
+ * 按文档数或字节数切分批次，多个批次可同时在途，服务端拒绝时按指数退避重试，
+ * 每条文档的失败原因记录在BulkResult中
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class EsBulkWriter {
+
+    private static final int DEFAULT_BATCH_ACTIONS = 1000;
+    private static final int DEFAULT_BATCH_SIZE_MB = 5;
+    private static final int DEFAULT_CONCURRENT_REQUESTS = 1;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 100L;
+    private static final int DEFAULT_TIMEOUT_SECONDS = 300;
+    private static final String DEFAULT_TYPE = "_doc";
+
+    private final RestHighLevelClient highLevelClient;
+
+    public EsBulkWriter(RestHighLevelClient highLevelClient) {
+        this.highLevelClient = highLevelClient;
+    }
+
+    public BulkResult write(BulkOption option, Iterator<Map<String, Object>> documents) {
+        if (StringUtils.isEmpty(option.getIndex())) {
+            throw new DriverException("index must be specified");
+        }
+        BulkOption.Operation operation = Optional.ofNullable(option.getOperation()).orElse(BulkOption.Operation.INDEX);
+        if (operation == BulkOption.Operation.UPSERT && StringUtils.isEmpty(option.getIdField())) {
+            throw new DriverException("idField must be specified for UPSERT");
+        }
+        BulkResult result = new BulkResult();
+        long start = System.currentTimeMillis();
+        BulkProcessor processor = this.buildProcessor(option, result);
+        String type = Optional.ofNullable(option.getType()).orElse(DEFAULT_TYPE);
+        long total = 0;
+        try {
+            while (documents.hasNext()) {
+                Map<String, Object> document = documents.next();
+                total++;
+                String id = Optional.ofNullable(option.getIdField())
+                        .map(document::get)
+                        .map(String::valueOf)
+                        .orElse(null);
+                if (operation == BulkOption.Operation.UPSERT && Objects.isNull(id)) {
+                    result.addFailure(new BulkResult.Failure(option.getIndex(), null, null,
+                            "missing id field: " + option.getIdField()));
+                    continue;
+                }
+                processor.add(this.toRequest(option.getIndex(), type, operation, id, document));
+            }
+        } catch (RuntimeException e) {
+            // 已加入的文档尽量发出，不再等待
+            processor.close();
+            throw e;
+        }
+        int timeout = Optional.ofNullable(option.getTimeoutSeconds()).orElse(DEFAULT_TIMEOUT_SECONDS);
+        try {
+            if (!processor.awaitClose(timeout, TimeUnit.SECONDS)) {
+                throw new DriverException("bulk write not finished in %d seconds, succeeded: %d",
+                        timeout, result.getSucceeded());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DriverException("bulk write interrupted", e);
+        }
+        result.setTotal(total);
+        result.setTookMillis(System.currentTimeMillis() - start);
+        log.info("bulk write index: {}, total: {}, succeeded: {}, failed: {}, took: {}ms",
+                option.getIndex(), total, result.getSucceeded(), result.getFailed(), result.getTookMillis());
+        return result;
+    }
+
+    private BulkProcessor buildProcessor(BulkOption option, BulkResult result) {
+        BulkProcessor.Builder builder = BulkProcessor.builder(
+                (request, listener) -> highLevelClient.bulkAsync(request, RequestOptions.DEFAULT, listener),
+                new ResultListener(result))
+                .setBulkActions(Optional.ofNullable(option.getBatchActions()).orElse(DEFAULT_BATCH_ACTIONS))
+                .setBulkSize(new ByteSizeValue(Optional.ofNullable(option.getBatchSizeMb()).orElse(DEFAULT_BATCH_SIZE_MB),
+                        ByteSizeUnit.MB))
+                .setConcurrentRequests(Optional.ofNullable(option.getConcurrentRequests()).orElse(DEFAULT_CONCURRENT_REQUESTS))
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff(
+                        TimeValue.timeValueMillis(Optional.ofNullable(option.getRetryBackoffMillis()).orElse(DEFAULT_RETRY_BACKOFF_MILLIS)),
+                        Optional.ofNullable(option.getMaxRetries()).orElse(DEFAULT_MAX_RETRIES)));
+        Optional.ofNullable(option.getFlushIntervalSeconds())
+                .filter(seconds -> seconds > 0)
+                .ifPresent(seconds -> builder.setFlushInterval(TimeValue.timeValueSeconds(seconds)));
+        return builder.build();
+    }
+
+    private DocWriteRequest<?> toRequest(String index, String type, BulkOption.Operation operation,
+                                         String id, Map<String, Object> document) {
+        switch (operation) {
+            case UPSERT:
+                return new UpdateRequest(index, type, id).doc(document).docAsUpsert(true);
+            case CREATE:
+                return new IndexRequest(index, type).id(id).source(document).opType(DocWriteRequest.OpType.CREATE);
+            default:
+                return new IndexRequest(index, type).id(id).source(document);
+        }
+    }
+
+    private static class ResultListener implements BulkProcessor.Listener {
+
+        private final BulkResult result;
+
+        ResultListener(BulkResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            log.debug("bulk [{}] sending {} actions", executionId, request.numberOfActions());
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            long succeeded = 0;
+            for (BulkItemResponse item : response.getItems()) {
+                if (item.isFailed()) {
+                    result.addFailure(new BulkResult.Failure(item.getIndex(), item.getId(),
+                            item.status().getStatus(), item.getFailureMessage()));
+                } else {
+                    succeeded++;
+                }
+            }
+            result.addSucceeded(succeeded);
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            // 重试耗尽或请求异常，整批失败
+            log.error("bulk [{}] failed", executionId, failure);
+            for (DocWriteRequest<?> docWriteRequest : request.requests()) {
+                result.addFailure(new BulkResult.Failure(docWriteRequest.index(), docWriteRequest.id(),
+                        null, failure.getMessage()));
+            }
+        }
+    }
+
+}
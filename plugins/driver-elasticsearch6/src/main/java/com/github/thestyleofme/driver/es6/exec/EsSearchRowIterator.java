@@ -0,0 +1,244 @@
+package com.github.thestyleofme.driver.es6.exec;
+
+import java.io.IOException;
+import java.util.*;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.SearchQuery;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.search.*;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 基于RestHighLevelClient的原生检索遍历
+ * SEARCH_AFTER: 按排序值逐批翻页，不受max_result_window限制，排序末尾追加唯一的兜底字段，
+ * 6.x不支持point in time，未指定兜底字段时改为SCROLL遍历，不使用_id排序，避免加载_id的fielddata
+ * SCROLL: scroll快照遍历，可用slice拆分给多个读取方并行，close时清除scroll上下文
+ * 指定queryId时可通过取消查询在批次之间终止遍历
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class EsSearchRowIterator implements RowIterator {
+
+    private static final String ID = "_id";
+    private static final String SOURCE = "_source";
+    private static final String DOC = "_doc";
+    private final RestHighLevelClient highLevelClient;
+    private final SearchRequest searchRequest;
+    private final SearchSourceBuilder sourceBuilder;
+    private final boolean scroll;
+    private final TimeValue keepAlive;
+    private final int batchSize;
+    /**
+     * 指定了includes时按字段展开，否则返回整个source
+     */
+    private final List<String> fields;
+    private final List<String> columns;
+
+    private Iterator<SearchHit> batch = Collections.emptyIterator();
+    private Object[] searchAfter;
+    private String scrollId;
+    private boolean lastBatch;
+    private boolean closed;
+    private volatile boolean cancelled;
+    private final Runnable cancelHook = () -> this.cancelled = true;
+    private final String queryId;
+
+    public EsSearchRowIterator(RestHighLevelClient highLevelClient, SearchQuery searchQuery) {
+        this.highLevelClient = highLevelClient;
+        this.batchSize = Optional.ofNullable(searchQuery.getBatchSize()).filter(size -> size > 0).orElse(DEFAULT_BATCH_SIZE);
+        this.keepAlive = TimeValue.parseTimeValue(
+                Optional.ofNullable(searchQuery.getKeepAlive()).orElse(DEFAULT_KEEP_ALIVE), "keepAlive");
+        List<String> includes = Optional.ofNullable(searchQuery.getIncludes()).orElse(Collections.emptyList());
+        List<String> excludes = Optional.ofNullable(searchQuery.getExcludes()).orElse(Collections.emptyList());
+        this.fields = includes.stream().anyMatch(field -> field.contains(WILDCARD)) ? Collections.emptyList() : includes;
+        List<String> names = new ArrayList<>(fields.size() + 1);
+        names.add(ID);
+        names.addAll(fields.isEmpty() ? Collections.singletonList(SOURCE) : fields);
+        this.columns = Collections.unmodifiableList(names);
+        this.sourceBuilder = parseSource(searchQuery.getDsl())
+                .size(batchSize)
+                .fetchSource(includes.toArray(new String[0]), excludes.toArray(new String[0]));
+        boolean scrollMode = searchQuery.getMode() == SearchQuery.Mode.SCROLL;
+        if (Objects.nonNull(searchQuery.getMaxSlices())) {
+            if (!scrollMode) {
+                throw new DriverException("slice only supported in SCROLL mode");
+            }
+            sourceBuilder.slice(new SliceBuilder(Optional.ofNullable(searchQuery.getSliceId()).orElse(0),
+                    searchQuery.getMaxSlices()));
+        }
+        this.applySort(searchQuery.getSorts());
+        if (!scrollMode && !this.hasSort(ID)) {
+            // search_after要求排序值唯一，否则翻页时会丢失或重复排序值相同的文档
+            if (!StringUtils.isEmpty(searchQuery.getTiebreaker())) {
+                sourceBuilder.sort(searchQuery.getTiebreaker(), SortOrder.ASC);
+            } else {
+                log.info("no tiebreaker specified, search index [{}] with scroll",
+                        searchQuery.getIndex());
+                scrollMode = true;
+            }
+        }
+        if (scrollMode && Optional.ofNullable(sourceBuilder.sorts()).map(List::isEmpty).orElse(true)) {
+            // 不关心顺序时按_doc遍历效率最高
+            sourceBuilder.sort(DOC);
+        }
+        this.scroll = scrollMode;
+        this.searchRequest = new SearchRequest(StringUtils.commaDelimitedListToStringArray(searchQuery.getIndex()))
+                .source(sourceBuilder);
+        if (scroll) {
+            searchRequest.scroll(keepAlive);
+        }
+        log.info("search index: {}, scroll: {}, source: {}", searchQuery.getIndex(), scroll, sourceBuilder);
+        this.queryId = RunningQueryContext.register(cancelHook, searchQuery.getIndex() + " " + sourceBuilder);
+        try {
+            this.accept(highLevelClient.search(searchRequest, RequestOptions.DEFAULT));
+        } catch (IOException | RuntimeException e) {
+            this.close();
+            throw new DriverException("elasticsearch search error", e);
+        }
+    }
+
+    private static SearchSourceBuilder parseSource(String dsl) {
+        if (StringUtils.isEmpty(dsl)) {
+            return new SearchSourceBuilder();
+        }
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(X_CONTENT_REGISTRY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, dsl)) {
+            return SearchSourceBuilder.fromXContent(parser);
+        } catch (IOException e) {
+            throw new DriverException("invalid search dsl: " + dsl, e);
+        }
+    }
+
+    private void applySort(List<String> sorts) {
+        if (CollectionUtils.isEmpty(sorts)) {
+            return;
+        }
+        for (String sort : sorts) {
+            if (sort.toLowerCase().endsWith(DESC)) {
+                sourceBuilder.sort(sort.substring(0, sort.length() - DESC.length()), SortOrder.DESC);
+            } else {
+                sourceBuilder.sort(sort, SortOrder.ASC);
+            }
+        }
+    }
+
+    private boolean hasSort(String field) {
+        List<SortBuilder<?>> sortBuilders = Optional.ofNullable(sourceBuilder.sorts()).orElse(Collections.emptyList());
+        return sortBuilders.stream()
+                .anyMatch(sortBuilder -> sortBuilder instanceof FieldSortBuilder
+                        && field.equals(((FieldSortBuilder) sortBuilder).getFieldName()));
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (cancelled) {
+            this.close();
+            throw new DriverException("query [%s] cancelled", queryId);
+        }
+        while (!closed && !batch.hasNext()) {
+            if (lastBatch) {
+                this.close();
+                return false;
+            }
+            try {
+                this.fetchNext();
+            } catch (IOException | RuntimeException e) {
+                this.close();
+                throw new DriverException("elasticsearch search error", e);
+            }
+        }
+        return !closed;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SearchHit hit = batch.next();
+        Object[] values = new Object[columns.size()];
+        values[0] = hit.getId();
+        Map<String, Object> source = hit.getSourceAsMap();
+        if (fields.isEmpty()) {
+            values[1] = source;
+            return values;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            values[i + 1] = Objects.isNull(source) ? null : XContentMapValues.extractValue(fields.get(i), source);
+        }
+        return values;
+    }
+
+    private void fetchNext() throws IOException {
+        if (scroll) {
+            SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(keepAlive);
+            this.accept(highLevelClient.scroll(scrollRequest, RequestOptions.DEFAULT));
+        } else {
+            sourceBuilder.searchAfter(searchAfter);
+            this.accept(highLevelClient.search(searchRequest, RequestOptions.DEFAULT));
+        }
+    }
+
+    private void accept(SearchResponse response) {
+        SearchHit[] hits = response.getHits().getHits();
+        this.batch = Arrays.asList(hits).iterator();
+        this.lastBatch = hits.length < batchSize;
+        if (scroll) {
+            this.scrollId = response.getScrollId();
+        } else if (hits.length > 0) {
+            this.searchAfter = hits[hits.length - 1].getSortValues();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        RunningQueryContext.unregister(queryId, cancelHook);
+        if (StringUtils.isEmpty(scrollId)) {
+            return;
+        }
+        // scroll上下文不会在读完后自动释放，需主动清除
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        try {
+            highLevelClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        } catch (IOException | RuntimeException e) {
+            log.warn("clear scroll error, it will be released after keepAlive", e);
+        } finally {
+            scrollId = null;
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.thestyleofme.driver.es6.exec;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
 import com.github.thestyleofme.driver.core.infra.auth.Exec;
@@ -29,10 +30,16 @@ public class HttpExec implements Exec {
 
     private final String uri;
     private final RestTemplate restTemplate;
+    private final MappingCache mappingCache;
 
     public HttpExec(String uri, RestTemplate restTemplate) {
+        this(uri, restTemplate, MappingCache.of(new Properties()));
+    }
+
+    public HttpExec(String uri, RestTemplate restTemplate, MappingCache mappingCache) {
         this.uri = uri;
         this.restTemplate = restTemplate;
+        this.mappingCache = mappingCache;
     }
 
     public String getUri() {
@@ -43,6 +50,10 @@ public class HttpExec implements Exec {
         return restTemplate;
     }
 
+    public MappingCache getMappingCache() {
+        return mappingCache;
+    }
+
     @Override
     public ResponseEntity<String> doExec(Payload payload) {
         String expressionType = payload.getOrThrow(EXPRESSION_TYPE);
@@ -0,0 +1,82 @@
+package com.github.thestyleofme.driver.es6.exec;
+
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.es6.model.Result;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * <p>
+ * 数据源级别的索引mapping缓存，key为索引名
+ * 字段较多的索引mapping可达数MB，表列表与字段列表共用同一份缓存，避免重复下载
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class MappingCache {
+
+    /**
+     * 缓存过期时间，单位秒
+     */
+    public static final String MAPPING_CACHE_TTL = "mapping.cacheTtl";
+    /**
+     * 最多缓存的索引数
+     */
+    public static final String MAPPING_CACHE_SIZE = "mapping.cacheSize";
+    public static final String DEFAULT_MAPPING_CACHE_TTL = "300";
+    public static final String DEFAULT_MAPPING_CACHE_SIZE = "256";
+
+    private final Cache<String, Result> cache;
+
+    public MappingCache(long ttlSeconds, long maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static MappingCache of(Properties properties) {
+        long ttl = Long.parseLong(properties.getProperty(MAPPING_CACHE_TTL, DEFAULT_MAPPING_CACHE_TTL));
+        long size = Long.parseLong(properties.getProperty(MAPPING_CACHE_SIZE, DEFAULT_MAPPING_CACHE_SIZE));
+        return new MappingCache(ttl, size);
+    }
+
+    /**
+     * 获取索引mapping，不存在时加载，同一索引并发加载时只请求一次
+     *
+     * @param index  索引
+     * @param loader 加载方法
+     * @return Result
+     */
+    public Result get(String index, Function<String, Result> loader) {
+        try {
+            return cache.get(index, () -> loader.apply(index));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DriverException("load mapping error, index: " + index, e.getCause());
+        }
+    }
+
+    /**
+     * 清除缓存，索引为空时清除全部
+     *
+     * @param index 索引
+     */
+    public void invalidate(String index) {
+        if (index == null || index.isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(index);
+        }
+    }
+
+}
@@ -6,12 +6,25 @@ import java.util.stream.Collectors;
 
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
 import com.github.thestyleofme.driver.core.app.service.session.SessionTool;
+import com.github.thestyleofme.driver.core.app.service.session.stream.IndexedRow;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.BulkOption;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
 import com.github.thestyleofme.driver.core.domain.entity.ResponseData;
+import com.github.thestyleofme.driver.core.domain.entity.SearchQuery;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
+import com.github.thestyleofme.driver.es6.exec.EsBulkWriter;
+import com.github.thestyleofme.driver.es6.exec.EsSearchRowIterator;
+import com.github.thestyleofme.driver.es6.exec.EsSqlRowIterator;
 import com.github.thestyleofme.driver.es6.exec.HttpExec;
-import com.github.thestyleofme.driver.es6.model.SqlData;
+import com.github.thestyleofme.driver.es6.model.Index;
+import com.github.thestyleofme.driver.es6.model.Properties;
+import com.github.thestyleofme.driver.es6.model.Result;
+import com.github.thestyleofme.driver.es6.model.Type;
 import com.github.thestyleofme.plugin.framework.exceptions.PluginException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.MutablePair;
@@ -19,15 +32,16 @@ import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
 import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
-import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsRequest;
-import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.cluster.metadata.MappingMetaData;
-import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.settings.Settings;
-import org.springframework.http.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
@@ -42,6 +56,14 @@ import org.springframework.web.client.RestTemplate;
 @Slf4j
 public abstract class AbstractElasticsearch6DriverSession implements DriverSession, SessionTool {
 
+    /**
+     * 未指定fetchSize时每批拉取的行数，与es sql默认值一致
+     */
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final String MAPPING_PATH = "/%s/_mapping";
+    private static final String NULL_EXCEPTION = "no mappings in index: %s";
+    private static final String OBJECT_TYPE = "object";
+
     private final RestHighLevelClient highLevelClient;
     private final HttpExec httpExec;
     private final RestTemplate restTemplate;
@@ -71,6 +93,19 @@ public abstract class AbstractElasticsearch6DriverSession implements DriverSessi
         }
     }
 
+    @Override
+    public RowIterator search(SearchQuery searchQuery) {
+        if (StringUtils.isEmpty(searchQuery.getIndex())) {
+            throw new DriverException("index must be specified");
+        }
+        return new EsSearchRowIterator(highLevelClient, searchQuery);
+    }
+
+    @Override
+    public BulkResult bulkWrite(BulkOption bulkOption, Iterator<Map<String, Object>> documents) {
+        return new EsBulkWriter(highLevelClient).write(bulkOption, documents);
+    }
+
     //============================================
     //============ schema对应es的index ============
     //============================================
@@ -119,42 +154,55 @@ public abstract class AbstractElasticsearch6DriverSession implements DriverSessi
                                                       boolean savepointFlag,
                                                       boolean resultFlag) {
         log.warn("un usage schema: {}", schema);
-        final String url = uri + "/_xpack/sql?format=json";
-        log.info("url: {}, sql: {}", url, text);
-        // application/json
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        // 参数
-        Map<String, Object> body = new HashMap<>(2);
-        body.put("query", text);
-        // 执行
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-        ResponseEntity<SqlData> responseEntity = restTemplate.exchange(url,
-                HttpMethod.POST, entity, SqlData.class);
-        if (responseEntity.getStatusCode() == HttpStatus.OK) {
-            SqlData sqlData = responseEntity.getBody();
-            if (sqlData == null) {
-                return Collections.emptyList();
-            }
-            List<String> columns = sqlData.getColumns()
-                    .stream()
-                    .map(com.github.thestyleofme.driver.es6.model.Column::getName)
-                    .collect(Collectors.toList());
-            List<List<String>> rows = sqlData.getRows();
-            List<Map<String, Object>> result = new ArrayList<>();
-            rows.forEach(row -> {
-                int size = row.size();
-                // 按照正常返回值是不会出现越界的
-                Map<String, Object> item = new HashMap<>(16);
-                for (int i = 0; i < size; i++) {
-                    item.put(columns.get(i), row.get(i));
-                }
-                result.add(item);
-            });
-            return Collections.singletonList(result);
+        QueryOption option = RunningQueryContext.getOption();
+        int maxRows = Optional.ofNullable(option).map(QueryOption::getMaxRows).orElse(0);
+        try (RowIterator iterator = this.executeStream(schema, text)) {
+            return Collections.singletonList(iterator.toList(maxRows));
         }
-        throw new DriverException("fetch elasticsearch mapping failed, invalid status code: " + responseEntity.getStatusCodeValue());
+    }
+
+    @Override
+    public RowIterator executeStream(String schema, String sql) {
+        int fetchSize = Optional.ofNullable(RunningQueryContext.getOption())
+                .map(QueryOption::getFetchSize)
+                .filter(size -> size > 0)
+                .orElse(DEFAULT_FETCH_SIZE);
+        return new EsSqlRowIterator(restTemplate, uri, sql, fetchSize);
+    }
+
+    @Override
+    public List<Page<Map<String, Object>>> executePageAll(String schema, String text, Pageable pageable) {
+        return this.executePageAll(schema, text, pageable, false, true);
+    }
 
+    /**
+     * es sql不支持OFFSET，也不返回总数
+     * 以页大小作为fetch_size沿游标跳过前面的批次，取满一页后关闭游标
+     * 未读完时总数按已知的下界加一返回，保证Page#hasNext可用
+     */
+    @Override
+    public List<Page<Map<String, Object>>> executePageAll(String schema,
+                                                          String text,
+                                                          Pageable pageable,
+                                                          boolean transactionFlag,
+                                                          boolean resultFlag) {
+        log.warn("un usage schema: {}", schema);
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        try (EsSqlRowIterator iterator = new EsSqlRowIterator(restTemplate, uri, text, size)) {
+            Map<String, Integer> columnIndex = IndexedRow.indexOf(iterator.getColumns());
+            long skipped = 0;
+            while (skipped < offset && iterator.hasNext()) {
+                iterator.next();
+                skipped++;
+            }
+            List<Map<String, Object>> rows = new ArrayList<>(size);
+            while (rows.size() < size && iterator.hasNext()) {
+                rows.add(new IndexedRow(columnIndex, iterator.next()));
+            }
+            long total = skipped + rows.size() + (iterator.isExhausted() ? 0 : 1);
+            return Collections.singletonList(new PageImpl<>(rows, pageable, total));
+        }
     }
 
     //============================================
@@ -163,54 +211,54 @@ public abstract class AbstractElasticsearch6DriverSession implements DriverSessi
 
     @Override
     public List<String> tableList(String schema, String tablePattern) {
-        GetMappingsRequest request = new GetMappingsRequest();
-        request.indices(schema);
-        GetMappingsResponse getMappingResponse;
-        try {
-            getMappingResponse = highLevelClient.indices().getMapping(request, RequestOptions.DEFAULT);
-            ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetaData>> allMappings = getMappingResponse.mappings();
-            ImmutableOpenMap<String, MappingMetaData> immutableOpenMap = allMappings.get(schema);
-            return Arrays.stream(immutableOpenMap.keys().toArray())
-                    .map(String::valueOf)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new DriverException("get index mapping error", e);
-        }
+        return new ArrayList<>(this.indexMapping(schema).getMappings().keySet());
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public List<Column> columnMetaData(String schema, String tableName) {
-        GetMappingsRequest request = new GetMappingsRequest();
-        request.indices(schema);
-        GetMappingsResponse getMappingResponse;
-        try {
-            getMappingResponse = highLevelClient.indices().getMapping(request, RequestOptions.DEFAULT);
-            ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetaData>> allMappings = getMappingResponse.mappings();
-            MappingMetaData typeMapping = allMappings.get(schema).get(tableName);
-            Map<String, Object> mapping = typeMapping.sourceAsMap();
-            HashMap<String, HashMap<String, Object>> tableMap =
-                    (HashMap<String, HashMap<String, Object>>) mapping.get("properties");
-            if (CollectionUtils.isEmpty(tableMap)) {
-                return Collections.emptyList();
-            }
-            List<Column> result = new ArrayList<>();
-            Column column;
-            for (Map.Entry<String, HashMap<String, Object>> entry : tableMap.entrySet()) {
-                Object type = entry.getValue().get("type");
-                if (Objects.nonNull(type)) {
-                    column = Column.builder().columnName(entry.getKey())
-                            .typeName(String.valueOf(type)).build();
-                } else {
-                    column = Column.builder().columnName(entry.getKey())
-                            .typeName(String.valueOf(entry.getValue())).build();
-                }
-                result.add(column);
-            }
-            return result;
-        } catch (IOException e) {
-            throw new DriverException("get index mapping error", e);
+        Type type = this.indexMapping(schema).getMappings().get(tableName);
+        Properties properties = Objects.isNull(type) ? null : type.get("properties");
+        if (CollectionUtils.isEmpty(properties)) {
+            return Collections.emptyList();
         }
+        List<Column> result = new ArrayList<>();
+        for (Map.Entry<String, com.github.thestyleofme.driver.es6.model.Column> entry : properties.entrySet()) {
+            // object类型字段的mapping中没有type，只有下级properties
+            String typeName = Optional.ofNullable(entry.getValue())
+                    .map(com.github.thestyleofme.driver.es6.model.Column::getType)
+                    .orElse(OBJECT_TYPE);
+            result.add(Column.builder().columnName(entry.getKey()).typeName(typeName).build());
+        }
+        return result;
+    }
+
+    /**
+     * 获取索引mapping，按数据源缓存，表列表与字段列表共用同一份
+     *
+     * @param index 索引
+     * @return Index
+     */
+    protected Index indexMapping(String index) {
+        Index mapping = httpExec.getMappingCache().get(index, this::fetchMapping).get(index);
+        if (Objects.isNull(mapping)) {
+            throw new DriverException(String.format(NULL_EXCEPTION, index));
+        }
+        return mapping;
+    }
+
+    private Result fetchMapping(String index) {
+        String url = uri + String.format(MAPPING_PATH, index);
+        log.info("url: {}", url);
+        ResponseEntity<Result> entity = restTemplate.getForEntity(url, Result.class);
+        if (entity.getStatusCode() != HttpStatus.OK || Objects.isNull(entity.getBody())) {
+            throw new DriverException(String.format(NULL_EXCEPTION, index));
+        }
+        return entity.getBody();
+    }
+
+    @Override
+    public void metadataRefresh(String schema) {
+        httpExec.getMappingCache().invalidate(schema);
     }
 
 }
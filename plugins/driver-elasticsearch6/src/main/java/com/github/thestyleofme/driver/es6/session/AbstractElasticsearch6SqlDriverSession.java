@@ -9,7 +9,6 @@ import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.es6.exec.HttpExec;
 import com.github.thestyleofme.driver.es6.model.Index;
 import com.github.thestyleofme.driver.es6.model.Properties;
-import com.github.thestyleofme.driver.es6.model.Result;
 import com.github.thestyleofme.driver.es6.model.Type;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.MutablePair;
@@ -36,7 +35,6 @@ public abstract class AbstractElasticsearch6SqlDriverSession extends AbstractEla
     private final String uri;
 
     private static final String INDEX_PATH = "/_cat/indices?v";
-    private static final String MAPPING_PATH = "/%s/_mapping";
     private static final String NULL_EXCEPTION = "no mappings in index: %s";
 
     protected AbstractElasticsearch6SqlDriverSession(MutablePair<RestHighLevelClient, HttpExec> dataSource) {
@@ -84,22 +82,14 @@ public abstract class AbstractElasticsearch6SqlDriverSession extends AbstractEla
 
     @Override
     public List<String> tableList(String schema, String tablePattern) {
-        Result result = this.getBody(schema);
-        Index index = result.get(schema);
-        if (Objects.isNull(index)) {
-            throw new DriverException(String.format(NULL_EXCEPTION, schema));
-        }
+        Index index = this.indexMapping(schema);
         return new ArrayList<>(index.getMappings().keySet());
     }
 
     @Override
     public List<Column> columnMetaData(String schema, String tableName) {
         List<Column> columns = new ArrayList<>();
-        Result result = this.getBody(schema);
-        Index index = result.get(schema);
-        if (Objects.isNull(index)) {
-            throw new DriverException(String.format(NULL_EXCEPTION, schema));
-        }
+        Index index = this.indexMapping(schema);
         Type type = index.getMappings().get(tableName);
         if (Objects.isNull(type)) {
             throw new DriverException(String.format(NULL_EXCEPTION, schema));
@@ -116,20 +106,4 @@ public abstract class AbstractElasticsearch6SqlDriverSession extends AbstractEla
         }
         return columns;
     }
-
-    /**
-     * 获取请求的响应体
-     *
-     * @param schema schema
-     * @return Result
-     */
-    private Result getBody(String schema) {
-        String url = uri + String.format(MAPPING_PATH, schema);
-        log.info("url: {}", url);
-        ResponseEntity<Result> entity = restTemplate.getForEntity(url, Result.class);
-        if (entity.getStatusCode() != HttpStatus.OK || Objects.isNull(entity.getBody())) {
-            throw new DriverException(String.format(NULL_EXCEPTION, schema));
-        }
-        return entity.getBody();
-    }
 }
@@ -0,0 +1,348 @@
+package com.github.thestyleofme.driver.es7.exec;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.domain.entity.SearchQuery;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.action.search.*;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.*;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 基于RestHighLevelClient的原生检索遍历
+ * SEARCH_AFTER: 按排序值逐批翻页，不受max_result_window限制，排序末尾追加唯一的兜底字段，
+ * 未指定兜底字段时7.12及以上在point in time上按_shard_doc翻页，更低版本改为SCROLL遍历，
+ * 不使用_id排序，避免加载_id的fielddata
+ * SCROLL: scroll快照遍历，可用slice拆分给多个读取方并行，close时清除scroll上下文
+ * 指定queryId时可通过取消查询在批次之间终止遍历
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class EsSearchRowIterator implements RowIterator {
+
+    private static final String ID = "_id";
+    private static final String SOURCE = "_source";
+    private static final String DOC = "_doc";
+    private static final String SHARD_DOC = "_shard_doc";
+    private static final String PIT = "pit";
+    private static final String PIT_KEEP_ALIVE = "keep_alive";
+    private static final String TRACK_TOTAL_HITS = "track_total_hits";
+    private static final Pattern PIT_ID = Pattern.compile("^\\{\\s*\"pit_id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int PIT_MIN_MAJOR = 7;
+    private static final int PIT_MIN_MINOR = 12;
+    /**
+     * 集群是否支持point in time与_shard_doc，每个客户端检测一次
+     */
+    private static final Map<RestHighLevelClient, Boolean> PIT_SUPPORTED = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final String DESC = ":desc";
+    private static final String WILDCARD = "*";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final String DEFAULT_KEEP_ALIVE = "1m";
+    private static final NamedXContentRegistry X_CONTENT_REGISTRY = new NamedXContentRegistry(
+            new SearchModule(Settings.EMPTY, false, Collections.emptyList()).getNamedXContents());
+
+    private final RestHighLevelClient highLevelClient;
+    private final SearchRequest searchRequest;
+    private final SearchSourceBuilder sourceBuilder;
+    private final boolean scroll;
+    private final boolean pit;
+    private final TimeValue keepAlive;
+    private final int batchSize;
+    /**
+     * 指定了includes时按字段展开，否则返回整个source
+     */
+    private final List<String> fields;
+    private final List<String> columns;
+
+    private Iterator<SearchHit> batch = Collections.emptyIterator();
+    private Object[] searchAfter;
+    private String scrollId;
+    private String pitId;
+    private boolean lastBatch;
+    private boolean closed;
+    private volatile boolean cancelled;
+    private final Runnable cancelHook = () -> this.cancelled = true;
+    private final String queryId;
+
+    public EsSearchRowIterator(RestHighLevelClient highLevelClient, SearchQuery searchQuery) {
+        this.highLevelClient = highLevelClient;
+        this.batchSize = Optional.ofNullable(searchQuery.getBatchSize()).filter(size -> size > 0).orElse(DEFAULT_BATCH_SIZE);
+        this.keepAlive = TimeValue.parseTimeValue(
+                Optional.ofNullable(searchQuery.getKeepAlive()).orElse(DEFAULT_KEEP_ALIVE), "keepAlive");
+        List<String> includes = Optional.ofNullable(searchQuery.getIncludes()).orElse(Collections.emptyList());
+        List<String> excludes = Optional.ofNullable(searchQuery.getExcludes()).orElse(Collections.emptyList());
+        this.fields = includes.stream().anyMatch(field -> field.contains(WILDCARD)) ? Collections.emptyList() : includes;
+        List<String> names = new ArrayList<>(fields.size() + 1);
+        names.add(ID);
+        names.addAll(fields.isEmpty() ? Collections.singletonList(SOURCE) : fields);
+        this.columns = Collections.unmodifiableList(names);
+        this.sourceBuilder = parseSource(searchQuery.getDsl())
+                .size(batchSize)
+                .fetchSource(includes.toArray(new String[0]), excludes.toArray(new String[0]));
+        boolean scrollMode = searchQuery.getMode() == SearchQuery.Mode.SCROLL;
+        if (Objects.nonNull(searchQuery.getMaxSlices())) {
+            if (!scrollMode) {
+                throw new DriverException("slice only supported in SCROLL mode");
+            }
+            sourceBuilder.slice(new SliceBuilder(Optional.ofNullable(searchQuery.getSliceId()).orElse(0),
+                    searchQuery.getMaxSlices()));
+        }
+        this.applySort(searchQuery.getSorts());
+        boolean pitMode = false;
+        if (!scrollMode && !this.hasSort(ID)) {
+            // search_after要求排序值唯一，否则翻页时会丢失或重复排序值相同的文档
+            if (!StringUtils.isEmpty(searchQuery.getTiebreaker())) {
+                sourceBuilder.sort(searchQuery.getTiebreaker(), SortOrder.ASC);
+            } else if (this.isPitSupported()) {
+                pitMode = true;
+                sourceBuilder.sort(SHARD_DOC, SortOrder.ASC);
+            } else {
+                log.info("no tiebreaker specified and point in time not supported, search index [{}] with scroll",
+                        searchQuery.getIndex());
+                scrollMode = true;
+            }
+        }
+        if (scrollMode && Optional.ofNullable(sourceBuilder.sorts()).map(List::isEmpty).orElse(true)) {
+            // 不关心顺序时按_doc遍历效率最高
+            sourceBuilder.sort(DOC);
+        }
+        this.scroll = scrollMode;
+        this.pit = pitMode;
+        this.searchRequest = new SearchRequest(StringUtils.commaDelimitedListToStringArray(searchQuery.getIndex()))
+                .source(sourceBuilder);
+        if (scroll) {
+            searchRequest.scroll(keepAlive);
+        }
+        log.info("search index: {}, scroll: {}, pit: {}, source: {}", searchQuery.getIndex(), scroll, pit, sourceBuilder);
+        this.queryId = RunningQueryContext.register(cancelHook, searchQuery.getIndex() + " " + sourceBuilder);
+        try {
+            if (pit) {
+                this.pitId = this.openPit(searchQuery.getIndex());
+                this.accept(this.pitSearch());
+            } else {
+                this.accept(highLevelClient.search(searchRequest, RequestOptions.DEFAULT));
+            }
+        } catch (IOException | RuntimeException e) {
+            this.close();
+            throw new DriverException("elasticsearch search error", e);
+        }
+    }
+
+    private static SearchSourceBuilder parseSource(String dsl) {
+        if (StringUtils.isEmpty(dsl)) {
+            return new SearchSourceBuilder();
+        }
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(X_CONTENT_REGISTRY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, dsl)) {
+            return SearchSourceBuilder.fromXContent(parser);
+        } catch (IOException e) {
+            throw new DriverException("invalid search dsl: " + dsl, e);
+        }
+    }
+
+    private void applySort(List<String> sorts) {
+        if (CollectionUtils.isEmpty(sorts)) {
+            return;
+        }
+        for (String sort : sorts) {
+            if (sort.toLowerCase().endsWith(DESC)) {
+                sourceBuilder.sort(sort.substring(0, sort.length() - DESC.length()), SortOrder.DESC);
+            } else {
+                sourceBuilder.sort(sort, SortOrder.ASC);
+            }
+        }
+    }
+
+    private boolean hasSort(String field) {
+        List<SortBuilder<?>> sortBuilders = Optional.ofNullable(sourceBuilder.sorts()).orElse(Collections.emptyList());
+        return sortBuilders.stream()
+                .anyMatch(sortBuilder -> sortBuilder instanceof FieldSortBuilder
+                        && field.equals(((FieldSortBuilder) sortBuilder).getFieldName()));
+    }
+
+    private boolean isPitSupported() {
+        return PIT_SUPPORTED.computeIfAbsent(highLevelClient, client -> {
+            try {
+                Map<String, Object> info = this.perform(new Request("GET", "/"));
+                String[] version = String.valueOf(XContentMapValues.extractValue("version.number", info)).split("\\.");
+                int major = Integer.parseInt(version[0]);
+                return major > PIT_MIN_MAJOR || (major == PIT_MIN_MAJOR && Integer.parseInt(version[1]) >= PIT_MIN_MINOR);
+            } catch (IOException | RuntimeException e) {
+                log.warn("get elasticsearch version error, point in time disabled", e);
+                return false;
+            }
+        });
+    }
+
+    private String openPit(String index) throws IOException {
+        Request request = new Request("POST", "/" + index + "/_pit");
+        request.addParameter(PIT_KEEP_ALIVE, keepAlive.getStringRep());
+        return String.valueOf(this.perform(request).get("id"));
+    }
+
+    /**
+     * 客户端版本低于point in time，使用低级客户端发送请求，返回值按SearchResponse解析
+     */
+    private SearchResponse pitSearch() throws IOException {
+        Map<String, Object> body = XContentHelper.convertToMap(XContentType.JSON.xContent(),
+                Strings.toString(sourceBuilder), true);
+        Map<String, Object> pitBody = new HashMap<>(4);
+        pitBody.put("id", pitId);
+        pitBody.put(PIT_KEEP_ALIVE, keepAlive.getStringRep());
+        body.put(PIT, pitBody);
+        body.put(TRACK_TOTAL_HITS, false);
+        Request request = new Request("POST", "/_search");
+        request.setJsonEntity(Strings.toString(XContentFactory.jsonBuilder().map(body)));
+        Response response = highLevelClient.getLowLevelClient().performRequest(request);
+        String content = EntityUtils.toString(response.getEntity());
+        Matcher matcher = PIT_ID.matcher(content);
+        if (matcher.find()) {
+            // 每次检索返回的pit_id可能变化，后续请求需使用最新的
+            pitId = matcher.group(1);
+        }
+        try (XContentParser parser = XContentType.JSON.xContent().createParser(X_CONTENT_REGISTRY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, content)) {
+            return SearchResponse.fromXContent(parser);
+        }
+    }
+
+    private Map<String, Object> perform(Request request) throws IOException {
+        Response response = highLevelClient.getLowLevelClient().performRequest(request);
+        return XContentHelper.convertToMap(XContentType.JSON.xContent(),
+                EntityUtils.toString(response.getEntity()), false);
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (cancelled) {
+            this.close();
+            throw new DriverException("query [%s] cancelled", queryId);
+        }
+        while (!closed && !batch.hasNext()) {
+            if (lastBatch) {
+                this.close();
+                return false;
+            }
+            try {
+                this.fetchNext();
+            } catch (IOException | RuntimeException e) {
+                this.close();
+                throw new DriverException("elasticsearch search error", e);
+            }
+        }
+        return !closed;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SearchHit hit = batch.next();
+        Object[] values = new Object[columns.size()];
+        values[0] = hit.getId();
+        Map<String, Object> source = hit.getSourceAsMap();
+        if (fields.isEmpty()) {
+            values[1] = source;
+            return values;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            values[i + 1] = Objects.isNull(source) ? null : XContentMapValues.extractValue(fields.get(i), source);
+        }
+        return values;
+    }
+
+    private void fetchNext() throws IOException {
+        if (scroll) {
+            SearchScrollRequest scrollRequest = new SearchScrollRequest(scrollId).scroll(keepAlive);
+            this.accept(highLevelClient.scroll(scrollRequest, RequestOptions.DEFAULT));
+        } else if (pit) {
+            sourceBuilder.searchAfter(searchAfter);
+            this.accept(this.pitSearch());
+        } else {
+            sourceBuilder.searchAfter(searchAfter);
+            this.accept(highLevelClient.search(searchRequest, RequestOptions.DEFAULT));
+        }
+    }
+
+    private void accept(SearchResponse response) {
+        SearchHit[] hits = response.getHits().getHits();
+        this.batch = Arrays.asList(hits).iterator();
+        this.lastBatch = hits.length < batchSize;
+        if (scroll) {
+            this.scrollId = response.getScrollId();
+        } else if (hits.length > 0) {
+            this.searchAfter = hits[hits.length - 1].getSortValues();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        RunningQueryContext.unregister(queryId, cancelHook);
+        if (!StringUtils.isEmpty(pitId)) {
+            this.closePit();
+        }
+        if (StringUtils.isEmpty(scrollId)) {
+            return;
+        }
+        // scroll上下文不会在读完后自动释放，需主动清除
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        try {
+            highLevelClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        } catch (IOException | RuntimeException e) {
+            log.warn("clear scroll error, it will be released after keepAlive", e);
+        } finally {
+            scrollId = null;
+        }
+    }
+
+    private void closePit() {
+        Request request = new Request("DELETE", "/_pit");
+        request.setJsonEntity("{\"id\":\"" + pitId + "\"}");
+        try {
+            highLevelClient.getLowLevelClient().performRequest(request);
+        } catch (IOException | RuntimeException e) {
+            log.warn("close point in time error, it will be released after keepAlive", e);
+        } finally {
+            pitId = null;
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.github.thestyleofme.driver.es7.exec;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.es7.model.Column;
+import com.github.thestyleofme.driver.es7.model.SqlData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * <p>
+ * es sql游标分批读取
+ * 首次请求带上fetch_size，响应中有cursor时表示还有数据，继续用cursor拉取下一批，
+ * 读完后服务端自动释放游标，提前结束时需调用close接口释放
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class EsSqlRowIterator implements RowIterator {
+
+    private static final String SQL_PATH = "/_sql?format=json";
+    private static final String SQL_CLOSE_PATH = "/_sql/close";
+
+    private final RestTemplate restTemplate;
+    private final String uri;
+    private final List<String> columns;
+    private Iterator<List<Object>> batch;
+    private String cursor;
+    private boolean closed;
+
+    public EsSqlRowIterator(RestTemplate restTemplate, String uri, String sql, int fetchSize) {
+        this.restTemplate = restTemplate;
+        this.uri = uri;
+        Map<String, Object> body = new HashMap<>(4);
+        body.put("query", sql);
+        body.put("fetch_size", fetchSize);
+        log.info("url: {}, sql: {}, fetch_size: {}", uri + SQL_PATH, sql, fetchSize);
+        SqlData sqlData = this.post(body);
+        this.columns = Optional.ofNullable(sqlData.getColumns())
+                .map(list -> list.stream().map(Column::getName).collect(Collectors.toList()))
+                .map(Collections::unmodifiableList)
+                .orElse(Collections.emptyList());
+        this.accept(sqlData);
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!closed && !batch.hasNext()) {
+            if (StringUtils.isEmpty(cursor)) {
+                // 最后一批已取完，服务端不再保留游标
+                closed = true;
+                return false;
+            }
+            Map<String, Object> body = new HashMap<>(2);
+            body.put("cursor", cursor);
+            try {
+                this.accept(this.post(body));
+            } catch (RuntimeException e) {
+                this.close();
+                throw e;
+            }
+        }
+        return !closed;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.next().toArray();
+    }
+
+    /**
+     * 当前批次已读完且没有后续游标，即结果已全部读取
+     *
+     * @return boolean
+     */
+    public boolean isExhausted() {
+        return !batch.hasNext() && StringUtils.isEmpty(cursor);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (StringUtils.isEmpty(cursor)) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Map<String, Object> body = new HashMap<>(2);
+        body.put("cursor", cursor);
+        try {
+            restTemplate.exchange(uri + SQL_CLOSE_PATH, HttpMethod.POST,
+                    new HttpEntity<>(body, headers), String.class);
+        } catch (RestClientException e) {
+            // 关闭失败时游标在服务端超时后也会释放
+            log.warn("close elasticsearch sql cursor error", e);
+        } finally {
+            cursor = null;
+        }
+    }
+
+    private void accept(SqlData sqlData) {
+        List<List<Object>> rows = sqlData.getRows();
+        this.batch = CollectionUtils.isEmpty(rows) ? Collections.emptyIterator() : rows.iterator();
+        this.cursor = sqlData.getCursor();
+    }
+
+    private SqlData post(Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        ResponseEntity<SqlData> responseEntity = restTemplate.exchange(uri + SQL_PATH,
+                HttpMethod.POST, entity, SqlData.class);
+        if (responseEntity.getStatusCode() != HttpStatus.OK) {
+            throw new DriverException("elasticsearch sql failed, invalid status code: " + responseEntity.getStatusCodeValue());
+        }
+        return Optional.ofNullable(responseEntity.getBody()).orElseGet(SqlData::new);
+    }
+
+}
@@ -55,6 +55,11 @@ public class SqlData implements Serializable {
 
     private List<Column> columns;
 
-    private List<List<String>> rows;
+    private List<List<Object>> rows;
+
+    /**
+     * 使用fetch_size分批查询时，还有后续数据才返回，用于拉取下一批
+     */
+    private String cursor;
 
 }
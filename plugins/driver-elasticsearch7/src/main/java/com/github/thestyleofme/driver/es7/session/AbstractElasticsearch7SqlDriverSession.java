@@ -6,7 +6,6 @@ import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.es7.exec.HttpExec;
 import com.github.thestyleofme.driver.es7.model.Index;
-import com.github.thestyleofme.driver.es7.model.Result;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -32,7 +31,6 @@ public abstract class AbstractElasticsearch7SqlDriverSession extends AbstractEla
     private final String uri;
 
     private static final String INDEX_PATH = "/_cat/indices?v";
-    private static final String MAPPING_PATH = "/%s/_mapping";
     private static final String NULL_EXCEPTION = "no mappings in index: %s";
     private static final String SPECIAL_TYPE = "dynamic";
 
@@ -80,22 +78,14 @@ public abstract class AbstractElasticsearch7SqlDriverSession extends AbstractEla
 
     @Override
     public List<String> tableList(String schema, String tablePattern) {
-        Result result = this.getBody(schema);
-        Index index = result.get(schema);
-        if (Objects.isNull(index)){
-            throw new DriverException(String.format(NULL_EXCEPTION,schema));
-        }
+        Index index = this.indexMapping(schema);
         return new ArrayList<>(index.getMappings().keySet());
     }
 
     @Override
     public List<Column> columnMetaData(String schema, String tableName) {
         List<Column> columns = new ArrayList<>();
-        Result result = this.getBody(schema);
-        Index index = result.get(schema);
-        if (Objects.isNull(index)){
-            throw new DriverException(String.format(NULL_EXCEPTION,schema));
-        }
+        Index index = this.indexMapping(schema);
         if (tableName.equals(SPECIAL_TYPE)){
             columns.add(Column.builder().columnName((String)index.getMappings().get(tableName)).build());
             return columns;
@@ -112,19 +102,4 @@ public abstract class AbstractElasticsearch7SqlDriverSession extends AbstractEla
         }
         return columns;
     }
-
-    /**
-     * 获取请求的响应体
-     * @param schema schema
-     * @return Result
-     */
-    private Result getBody(String schema){
-        String url = uri+String.format(MAPPING_PATH,schema);
-        log.info("url: {}", url);
-        ResponseEntity<Result> entity = restTemplate.getForEntity(url,Result.class);
-        if(entity.getStatusCode()!=HttpStatus.OK|| Objects.isNull(entity.getBody())) {
-            throw new DriverException(String.format(NULL_EXCEPTION,schema));
-        }
-        return entity.getBody();
-    }
 }
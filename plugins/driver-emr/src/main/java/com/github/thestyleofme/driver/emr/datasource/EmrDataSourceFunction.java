@@ -1,10 +1,16 @@
 package com.github.thestyleofme.driver.emr.datasource;
 
+import java.util.Properties;
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.core.app.service.session.hive.HiveSessionConf;
+import com.github.thestyleofme.driver.core.app.service.session.hive.MetastoreContext;
+import com.github.thestyleofme.driver.core.domain.entity.DriverPoolSettingInfo;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourceFunction;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourcePoolFactory;
+import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
 import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
+import com.github.thestyleofme.driver.metastore.HiveMetastore;
 import org.apache.hive.jdbc.HiveDriver;
 import org.springframework.stereotype.Component;
 
@@ -21,7 +27,15 @@ public class EmrDataSourceFunction implements DriverDataSourceFunction<PluginDat
 
     @Override
     public DataSource createDataSource(PluginDatasourceVO pluginDatasourceVO) {
-        return DriverDataSourcePoolFactory.create(pluginDatasourceVO);
+        Properties properties = DriverUtil.parseDatasourceSettingInfo(pluginDatasourceVO);
+        DriverPoolSettingInfo poolSetting = DriverUtil.parseDatasourcePool(pluginDatasourceVO);
+        DataSource dataSource = DriverDataSourcePoolFactory.create(pluginDatasourceVO, prop -> {
+            HiveMetastore.removeSettings(prop);
+            HiveSessionConf.apply(prop, poolSetting);
+        });
+        // 配置了hive.metastore.uris时元数据走metastore
+        HiveMetastore.of(properties).ifPresent(metastore -> MetastoreContext.register(dataSource, metastore));
+        return dataSource;
     }
 
     @Override
@@ -1,7 +1,11 @@
 package com.github.thestyleofme.driver.emr.meta;
 
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.github.thestyleofme.driver.core.infra.meta.Column;
@@ -9,6 +13,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
 
 /**
  * 描述：
@@ -22,6 +27,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 public class EmrColumn extends Column {
+
+    private static final List<String> COMPLEX_TYPES = Arrays.asList("array", "map", "struct", "uniontype");
+
     private List<Column> allColumns;
 
     public EmrColumn(ResultSet rs) throws SQLException {
@@ -44,4 +52,125 @@ public class EmrColumn extends Column {
         this.setIsAutoincrement(rs.getString("is_auto_increment"));
         this.setIsGeneratedColumn("false");
     }
+
+    /**
+     * 由metastore的字段构建，取值与HiveServer2的getColumns一致
+     *
+     * @param schema   库
+     * @param table    表
+     * @param field    字段
+     * @param position 字段位置，从1开始
+     */
+    public EmrColumn(String schema, String table, FieldSchema field, int position) {
+        String type = field.getType().trim().toLowerCase();
+        int index = type.indexOf('(');
+        String baseType = index < 0 ? type : type.substring(0, index);
+        List<Integer> args = new ArrayList<>();
+        if (index > 0 && type.endsWith(")")) {
+            for (String arg : type.substring(index + 1, type.length() - 1).split(",")) {
+                args.add(Integer.parseInt(arg.trim()));
+            }
+        }
+        this.setColumnName(field.getName());
+        this.setTableName(table);
+        this.setTableSchema(schema);
+        this.setDataType(sqlType(baseType));
+        this.setTypeName(COMPLEX_TYPES.contains(baseType) ? field.getType() : baseType.toUpperCase());
+        this.setColumnSize(args.isEmpty() ? columnSize(baseType) : args.get(0));
+        this.setDecimalDigits(args.size() > 1 ? args.get(1) : decimalDigits(baseType));
+        this.setNumPrecRadix(10);
+        this.setNullable(DatabaseMetaData.columnNullable);
+        this.setRemarks(field.getComment());
+        this.setOrdinalPosition(position);
+        this.setIsNullable("YES");
+        this.setIsAutoincrement("NO");
+        this.setIsGeneratedColumn("false");
+    }
+
+    private static int sqlType(String type) {
+        switch (type) {
+            case "string":
+            case "varchar":
+                return Types.VARCHAR;
+            case "char":
+                return Types.CHAR;
+            case "boolean":
+                return Types.BOOLEAN;
+            case "tinyint":
+                return Types.TINYINT;
+            case "smallint":
+                return Types.SMALLINT;
+            case "int":
+                return Types.INTEGER;
+            case "bigint":
+                return Types.BIGINT;
+            case "float":
+                return Types.FLOAT;
+            case "double":
+                return Types.DOUBLE;
+            case "decimal":
+                return Types.DECIMAL;
+            case "date":
+                return Types.DATE;
+            case "timestamp":
+                return Types.TIMESTAMP;
+            case "binary":
+                return Types.BINARY;
+            case "array":
+                return Types.ARRAY;
+            case "map":
+                return Types.JAVA_OBJECT;
+            case "struct":
+                return Types.STRUCT;
+            default:
+                return Types.OTHER;
+        }
+    }
+
+    private static Integer columnSize(String type) {
+        switch (type) {
+            case "string":
+            case "binary":
+                return Integer.MAX_VALUE;
+            case "tinyint":
+                return 3;
+            case "smallint":
+                return 5;
+            case "int":
+                return 10;
+            case "bigint":
+                return 19;
+            case "float":
+                return 7;
+            case "double":
+                return 15;
+            case "decimal":
+                return 10;
+            case "date":
+                return 10;
+            case "timestamp":
+                return 29;
+            default:
+                return null;
+        }
+    }
+
+    private static Integer decimalDigits(String type) {
+        switch (type) {
+            case "float":
+                return 7;
+            case "double":
+                return 15;
+            case "timestamp":
+                return 9;
+            case "decimal":
+            case "tinyint":
+            case "smallint":
+            case "int":
+            case "bigint":
+                return 0;
+            default:
+                return null;
+        }
+    }
 }
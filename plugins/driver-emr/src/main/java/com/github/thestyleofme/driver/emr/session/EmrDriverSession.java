@@ -8,20 +8,32 @@ import java.util.*;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.core.app.service.session.funcations.setter.SchemaSetter;
+import com.github.thestyleofme.driver.core.app.service.session.hive.HiveConnectionState;
+import com.github.thestyleofme.driver.core.app.service.session.hive.MetastoreContext;
+import com.github.thestyleofme.driver.core.app.service.session.hive.TablePartitions;
+import com.github.thestyleofme.driver.core.app.service.session.hive.TableStatsRefresher;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.core.infra.meta.PartitionKey;
+import com.github.thestyleofme.driver.core.infra.meta.PartitionSummary;
 import com.github.thestyleofme.driver.core.infra.meta.Table;
+import com.github.thestyleofme.driver.core.infra.meta.TableTypeEnum;
 import com.github.thestyleofme.driver.emr.generator.EmrSqlGenerator;
 import com.github.thestyleofme.driver.emr.meta.EmrColumn;
 import com.github.thestyleofme.driver.emr.meta.EmrTableExtra;
+import com.github.thestyleofme.driver.metastore.HiveMetastore;
 import com.github.thestyleofme.plugin.core.infra.utils.BeanUtils;
-import com.github.thestyleofme.plugin.framework.constants.BaseConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.MapUtils;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hive.jdbc.HiveConnection;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -36,6 +48,8 @@ import org.springframework.util.CollectionUtils;
 public class EmrDriverSession extends AbstractRdbmsDriverSession {
 
     private static final String TABLE_METADATA_SQL = "desc formatted %s.%s;";
+    private static final String ANALYZE_TABLE = "ANALYZE TABLE %s.%s COMPUTE STATISTICS";
+    private static final String ANALYZE_COLUMNS = "ANALYZE TABLE %s.%s COMPUTE STATISTICS FOR COLUMNS";
     private static final String DEFAULT_CREATE_SCHEMA = "CREATE DATABASE %s";
     private static final String VIEW_SQL = "select t.tbl_name from sys.TBLS t left join sys.DBS d on d.db_id = t.db_id where t.tbl_type='VIRTUAL_VIEW' and d.name = '%s';";
     private static final String DATE_FMT = "cast('%s' as timestamp)";
@@ -52,36 +66,170 @@ public class EmrDriverSession extends AbstractRdbmsDriverSession {
      */
     private static final String TEXT_FORMAT = "TextInputFormat";
 
+    private static final HiveConnectionState CONNECTION_STATE = new HiveConnectionState(HiveConnection.class);
+
     public EmrDriverSession(DataSource dataSource) {
         super(dataSource);
     }
 
+    @Override
+    public SchemaSetter schemaSetter() {
+        // hive为schema型，不再每次判断数据库类型；库未变化时不重复执行use
+        return CONNECTION_STATE::setSchema;
+    }
+
+    @Override
+    protected void beforeExecute(Connection connection, String sql) {
+        // sql中切换库后该连接记录的当前库失效
+        CONNECTION_STATE.beforeExecute(connection, sql);
+    }
 
     @Override
     public List<PartitionKey> partitionList(String schema, String table) {
-        List<Map<String, Object>> partitions = this.executeOneQuery(schema, String.format(PARTITION_COLUMNS, schema, table));
-        List<PartitionKey> partitionKeyList = new ArrayList<>();
-        if (CollectionUtils.isEmpty(partitions)) {
-            return partitionKeyList;
-        } else {
-            Map<String, Object> partitionInfo = partitions.get(0);
-            String partition = partitionInfo.get("partition").toString();
-            String[] columns = partition.split(BaseConstants.Symbol.SLASH);
-            for (int i = 0, columnsLength = columns.length; i < columnsLength; i++) {
-                String column = columns[i];
-                PartitionKey key = PartitionKey
-                        .builder()
-                        .keySeq(i + 1)
-                        .tableName(table)
-                        .tableSchema(schema)
-                        .columnName(column.split("=")[0])
-                        .build();
-                partitionKeyList.add(key);
-            }
+        List<String> keys = this.partitionKeys(schema, table);
+        List<PartitionKey> partitionKeyList = new ArrayList<>(keys.size());
+        for (int i = 0, keysLength = keys.size(); i < keysLength; i++) {
+            PartitionKey key = PartitionKey
+                    .builder()
+                    .keySeq(i + 1)
+                    .tableName(table)
+                    .tableSchema(schema)
+                    .columnName(keys.get(i))
+                    .build();
+            partitionKeyList.add(key);
         }
         return partitionKeyList;
     }
 
+    @Override
+    public Page<Map<String, Object>> partitionPage(String schema, String table, String filter, Pageable pageable) {
+        return TablePartitions.page(this.partitionStream(schema, table, filter), pageable);
+    }
+
+    @Override
+    public RowIterator partitionStream(String schema, String table, String filter) {
+        List<String> keys = this.partitionKeys(schema, table);
+        if (keys.isEmpty()) {
+            throw new DriverException("[schema:" + schema + "],[table:" + table + "] is not a partitioned table");
+        }
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (metastore.isPresent()) {
+            return TablePartitions.iterator(keys,
+                    metastore.get().partitionNames(schema, table, TablePartitions.specValues(keys, filter)));
+        }
+        String sql = String.format(PARTITION_COLUMNS, schema, table) + TablePartitions.specClause(keys, filter);
+        return TablePartitions.iterator(keys, this.executeStream(schema, sql));
+    }
+
+    @Override
+    public PartitionSummary partitionSummary(String schema, String table) {
+        return TablePartitions.summary(this.dataSource, schema, table, () -> {
+            try (RowIterator rows = this.partitionStream(schema, table, null)) {
+                return TablePartitions.summarize(schema, table, rows);
+            }
+        });
+    }
+
+    private List<Map<String, Object>> describe(String schema, String table) {
+        return TableStatsRefresher.describe(this.dataSource, schema, table,
+                () -> this.executeOneQuery(schema, String.format(TABLE_METADATA_SQL, schema, table)));
+    }
+
+    private List<String> partitionKeys(String schema, String table) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (metastore.isPresent()) {
+            return Optional.ofNullable(metastore.get().table(schema, table).getPartitionKeys())
+                    .orElse(Collections.emptyList())
+                    .stream()
+                    .map(FieldSchema::getName)
+                    .collect(Collectors.toList());
+        }
+        return TablePartitions.keys(this.describe(schema, table));
+    }
+
+    /**
+     * 配置了hive.metastore.uris时元数据直接从metastore获取
+     *
+     * @return 未配置时为空
+     */
+    private Optional<HiveMetastore> metastore() {
+        return MetastoreContext.get(this.dataSource, HiveMetastore.class);
+    }
+
+    @Override
+    public List<String> schemaList(String... params) {
+        return this.metastore().map(HiveMetastore::databases).orElseGet(() -> super.schemaList(params));
+    }
+
+    @Override
+    public List<String> tableList(String schema, String tablePattern, String... type) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (!metastore.isPresent()) {
+            return super.tableList(schema, tablePattern, type);
+        }
+        Boolean view = this.viewType(type);
+        if (Objects.isNull(view)) {
+            return metastore.get().tableNames(schema, tablePattern);
+        }
+        return metastore.get().tables(schema, tablePattern, view).stream()
+                .map(HiveMetastore.TableInfo::getName)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Table> tablesNameAndDesc(String schema, String tablePattern, String... type) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (!metastore.isPresent()) {
+            return super.tablesNameAndDesc(schema, tablePattern, type);
+        }
+        return metastore.get().tables(schema, tablePattern, this.viewType(type)).stream()
+                .map(table -> Table.builder()
+                        .tableName(table.getTableName())
+                        .remarks(table.getComment())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 表类型转为metastore的视图过滤条件
+     *
+     * @param type 表类型
+     * @return true只要视图，false只要表，同时包含表与视图时为null
+     */
+    private Boolean viewType(String... type) {
+        if (Objects.isNull(type) || type.length == 0) {
+            return null;
+        }
+        boolean table = Arrays.stream(type).anyMatch(TableTypeEnum.TABLE.value()::equalsIgnoreCase);
+        boolean view = Arrays.stream(type).anyMatch(TableTypeEnum.VIEW.value()::equalsIgnoreCase);
+        return table == view ? null : view;
+    }
+
+    @Override
+    public Map<String, List<Column>> columnMetaDataBatch(String schema, List<String> tables) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (!metastore.isPresent()) {
+            return super.columnMetaDataBatch(schema, tables);
+        }
+        Map<String, org.apache.hadoop.hive.metastore.api.Table> tableMap = metastore.get().tables(schema, tables)
+                .stream()
+                .collect(Collectors.toMap(table -> table.getTableName().toLowerCase(), table -> table, (a, b) -> a));
+        Map<String, List<Column>> result = new HashMap<>(tables.size() * 4 / 3 + 1);
+        tables.forEach(table -> result.put(table, Optional.ofNullable(tableMap.get(table.toLowerCase()))
+                .map(t -> this.columns(schema, t))
+                .orElseGet(ArrayList::new)));
+        return result;
+    }
+
+    private List<Column> columns(String schema, org.apache.hadoop.hive.metastore.api.Table table) {
+        List<FieldSchema> fields = HiveMetastore.columns(table);
+        List<Column> columnList = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            columnList.add(new EmrColumn(schema, table.getTableName(), fields.get(i), i + 1));
+        }
+        return columnList;
+    }
+
     @Override
     public String toDate(String dateString, String fmt) {
         log.warn("fmt {} unsupported, only `cast(dateString as timestamp)` will be used", fmt);
@@ -98,6 +246,10 @@ public class EmrDriverSession extends AbstractRdbmsDriverSession {
 
     @Override
     public List<Column> columnMetaData(String schema, String tableName) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (metastore.isPresent()) {
+            return this.columns(schema, metastore.get().table(schema, tableName));
+        }
         List<Column> columnList = new ArrayList<>();
         // 列信息
         try (Connection connection = this.dataSource.getConnection();
@@ -119,12 +271,13 @@ public class EmrDriverSession extends AbstractRdbmsDriverSession {
         EmrTableExtra tableExtra = new EmrTableExtra();
         // basic info
         Table table = this.tableMetaData(schema, tableName);
-        // 更新表元数据
-        this.executeOneUpdate(schema, String.format("ANALYZE TABLE %s.%s COMPUTE STATISTICS", schema, tableName), false, false);
-        // 更新列元数据
-        this.executeOneUpdate(schema, String.format("ANALYZE TABLE %s.%s COMPUTE STATISTICS FOR COLUMNS", schema, tableName), false, false);
-        List<Map<String, Object>> metaDataMapList = this
-                .executeOneQuery(schema, String.format(TABLE_METADATA_SQL, schema, tableName));
+        // 统计信息取缓存，表元数据、列元数据在后台更新
+        List<Map<String, Object>> metaDataMapList = TableStatsRefresher.describe(this.dataSource, schema, tableName,
+                () -> this.executeOneQuery(schema, String.format(TABLE_METADATA_SQL, schema, tableName)),
+                () -> {
+                    this.executeOneUpdate(schema, String.format(ANALYZE_TABLE, schema, tableName), false, false);
+                    this.executeOneUpdate(schema, String.format(ANALYZE_COLUMNS, schema, tableName), false, false);
+                });
         metaDataMapList.forEach(m -> {
             String dataType = Objects.isNull(m.get("data_type")) ? "" : m.get("data_type").toString();
             String colName = Objects.isNull(m.get("col_name")) ? "" : m.get("col_name").toString();
@@ -205,6 +358,9 @@ public class EmrDriverSession extends AbstractRdbmsDriverSession {
 
     @Override
     public List<String> viewList(String schema) {
+        if (this.metastore().isPresent()) {
+            return this.tableList(schema, null, TableTypeEnum.VIEW.value());
+        }
         List<Object> views = new ArrayList<>();
         List<Map<String, Object>> maps = this.executeOneQuery(schema, String.format(VIEW_SQL, schema));
         maps.forEach(m -> views.addAll(m.values()));
@@ -227,12 +383,17 @@ public class EmrDriverSession extends AbstractRdbmsDriverSession {
                 builder.append(String.format(UPDATE_REMARK, column.getTableName(), column.getColumnName(), column.getColumnName(), column.getTypeName(), column.getRemarks())).append("\n")
         );
         this.executeAll(schema, builder.toString(), false, false, false);
+        columns.forEach(column -> TableStatsRefresher.invalidate(this.dataSource, schema, column.getTableName()));
         return columns;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public Map<String, Object> parseMetastore(String schema, String tableName) {
+        Optional<HiveMetastore> metastore = this.metastore();
+        if (metastore.isPresent()) {
+            return HiveMetastore.storage(metastore.get().table(schema, tableName));
+        }
         return MapUtils.EMPTY_SORTED_MAP;
     }
 }
\ No newline at end of file
@@ -12,6 +12,10 @@ public interface Key {
 
     Character DEFAULT_DELIMITER = ',';
     Boolean DEFAULT_SKIP_HEADER = false;
+    String DEFAULT_ENCODING = "UTF-8";
+    Integer DEFAULT_BUFFER_SIZE = 65536;
+    Integer DEFAULT_PARALLELISM = 4;
+    Integer MAX_PARALLELISM = 16;
 
     /**
      * 协议
@@ -48,4 +52,84 @@ public interface Key {
      * 是否跳过表头
      */
     String SKIP_HEADER = "skipHeader";
+
+    /**
+     * 文件编码
+     */
+    String ENCODING = "encoding";
+
+    /**
+     * 读取缓冲区大小，字符数
+     */
+    String BUFFER_SIZE = "bufferSize";
+
+    /**
+     * 多文件读取时同时读取的文件数，不超过连接池最大连接数及MAX_PARALLELISM
+     */
+    String PARALLELISM = "parallelism";
+
+    /**
+     * 多文件读取时最多读取的文件数，0表示不限制
+     */
+    String MAX_FILES = "maxFiles";
+
+    /**
+     * 多文件读取时最多读取的字节数，按文件大小累计，0表示不限制
+     */
+    String MAX_BYTES = "maxBytes";
+
+    /**
+     * 连接池最大连接数，sftp为同一ssh连接上的最大通道数，不应超过服务端MaxSessions(默认10)
+     */
+    String POOL_MAX_TOTAL = "pool.maxTotal";
+    /**
+     * 连接池最小空闲连接数
+     */
+    String POOL_MIN_IDLE = "pool.minIdle";
+    /**
+     * 获取连接的最大等待时间，毫秒
+     */
+    String POOL_MAX_WAIT = "pool.maxWaitMillis";
+    /**
+     * 空闲连接的回收时间，毫秒
+     */
+    String POOL_IDLE_TIMEOUT = "pool.idleTimeoutMillis";
+    /**
+     * 空闲连接检测周期，毫秒
+     */
+    String POOL_EVICTION_INTERVAL = "pool.evictionIntervalMillis";
+
+    /**
+     * 目录列表缓存时间，秒，0表示不缓存
+     */
+    String LISTING_CACHE_TTL = "listing.cacheTtl";
+    /**
+     * 最多缓存的目录数
+     */
+    String LISTING_CACHE_SIZE = "listing.cacheSize";
+
+    /**
+     * 本地缓存目录，默认为临时目录下的driver-ftp-cache-当前用户名，目录权限会被设为仅当前用户可访问
+     */
+    String CACHE_DIR = "cache.dir";
+    /**
+     * 本地缓存总大小上限，字节，未配置或为0时不缓存
+     */
+    String CACHE_MAX_BYTES = "cache.maxBytes";
+    /**
+     * 单个文件超过该大小时不缓存，字节
+     */
+    String CACHE_MAX_FILE_BYTES = "cache.maxFileBytes";
+    /**
+     * 分段下载的分段大小，字节
+     */
+    String DOWNLOAD_SEGMENT_SIZE = "download.segmentSize";
+    /**
+     * 同时下载的分段数
+     */
+    String DOWNLOAD_PARALLELISM = "download.parallelism";
+    /**
+     * 传输中断后续传的最大重试次数
+     */
+    String DOWNLOAD_MAX_RETRIES = "download.maxRetries";
 }
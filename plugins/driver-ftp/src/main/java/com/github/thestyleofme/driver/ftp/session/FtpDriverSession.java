@@ -1,32 +1,32 @@
 package com.github.thestyleofme.driver.ftp.session;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
 import com.github.thestyleofme.driver.core.app.service.session.SessionTool;
 import com.github.thestyleofme.driver.core.app.service.session.SqlResponse;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
 import com.github.thestyleofme.driver.core.domain.entity.ResponseData;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.ftp.constant.Key;
-import com.github.thestyleofme.driver.ftp.util.CsvUtil;
+import com.github.thestyleofme.driver.ftp.util.CsvRowIterator;
+import com.github.thestyleofme.driver.ftp.util.MultiFileRowIterator;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
+import com.github.thestyleofme.driver.ftp.util.RemoteFiles;
 import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
 import com.github.thestyleofme.plugin.core.infra.constants.BaseConstant;
 import com.github.thestyleofme.plugin.core.infra.utils.JsonUtil;
 import com.github.thestyleofme.plugin.framework.constants.BaseConstants;
-import com.jcraft.jsch.SftpException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.util.CollectionUtils;
 
 /**
  * FTP 驱动Session
@@ -56,31 +56,31 @@ public class FtpDriverSession implements DriverSession, SessionTool {
 
     @Override
     public List<Column> getCsvColumns(String filePath, String delimiter, Boolean skipHeader) {
+        return this.getCsvColumns(filePath, delimiter, skipHeader, null, null);
+    }
+
+    @Override
+    public List<Column> getCsvColumns(String filePath, String delimiter, Boolean skipHeader,
+                                      String encoding, Integer bufferSize) {
         boolean includeHeader = Optional.ofNullable(skipHeader).orElse(Key.DEFAULT_SKIP_HEADER);
         String delim = unicode2String(delimiter);
 
         List<Column> columns;
-        // 获取第一个文件
+        // 获取第一个文件，只解析第一行
         String firstFilePath = getFirstFilePath(filePath);
-        try (
-                InputStream inputStream = sessionTemplate.getFileInputStream(firstFilePath);
-                BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
-        ) {
-            // 只读第一行
-            String line = br.readLine();
-            if (line.length() != 0) {
-                String[] lineArray = CsvUtil.splitOneLine(line, delim.charAt(0));
-                columns = new ArrayList<>(lineArray.length);
-                for (int i = 0; i < lineArray.length; i++) {
-                    if (includeHeader) {
-                        columns.add(Column.builder().columnIndex(i).columnName(lineArray[i]).typeName("String").build());
-                    } else {
-                        columns.add(Column.builder().columnIndex(i).columnName(String.valueOf(i)).typeName("String").build());
-                    }
-                }
-            } else {
+        // 与get使用相同的编码和缓冲区，否则非UTF-8文件的表头会解析成乱码
+        Charset charset = Charset.forName(Optional.ofNullable(encoding)
+                .filter(value -> !value.isEmpty()).orElse(Key.DEFAULT_ENCODING));
+        int size = Optional.ofNullable(bufferSize).filter(value -> value > 0).orElse(Key.DEFAULT_BUFFER_SIZE);
+        try (CsvRowIterator iterator = this.open(firstFilePath, delim.charAt(0), includeHeader, charset, size)) {
+            List<String> names = iterator.getColumns();
+            if (names.isEmpty()) {
                 throw new DriverException(String.format("empty file content, %s", filePath));
             }
+            columns = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                columns.add(Column.builder().columnIndex(i).columnName(names.get(i)).typeName("String").build());
+            }
         } catch (Exception e) {
             throw new DriverException("error.datasource.ftp.columns", e);
         }
@@ -98,7 +98,17 @@ public class FtpDriverSession implements DriverSession, SessionTool {
      * {
      * "filePath": "/opt/hdsp/infra/aaa.csv",
      * "delimiter": "\\u002C",
-     * "skipHeader": true
+     * "skipHeader": true,
+     * "encoding": "GBK",
+     * "bufferSize": 65536
+     * }
+     * 或多个文件
+     * {
+     * "filePath": "/opt/hdsp/infra/part-*.csv,/opt/hdsp/infra/extra.csv",
+     * "skipHeader": true,
+     * "parallelism": 4,
+     * "maxFiles": 100,
+     * "maxBytes": 10737418240
      * }
      *
      * @param payload 参数信息
@@ -106,39 +116,71 @@ public class FtpDriverSession implements DriverSession, SessionTool {
      */
     @Override
     public ResponseData<?> get(Payload payload) {
+        int maxRows = Optional.ofNullable(RunningQueryContext.getOption()).map(QueryOption::getMaxRows).orElse(0);
+        try (RowIterator iterator = this.open(payload, false)) {
+            return ResponseData.builder().data(iterator.toList(maxRows)).build();
+        }
+    }
+
+    /**
+     * 打开远程文件并流式解析，调用方负责关闭
+     * 逗号分隔的多个路径或通配符匹配到多个文件时并行读取，合并为一个结果流
+     *
+     * @param payload 参数信息，同get，另支持parallelism、maxFiles、maxBytes
+     * @param ordered 是否按文件顺序输出，分页时需要稳定的顺序
+     * @return RowIterator
+     */
+    private RowIterator open(Payload payload, boolean ordered) {
         String filePath = payload.getOrThrow(Key.FILE_PATH);
-        String delimiter = unicode2String((String) payload.getOrDefault(Key.DELIMITER, Key.DEFAULT_DELIMITER));
-        Boolean skipHeader = (Boolean) payload.getOrDefault(Key.SKIP_HEADER, Key.DEFAULT_SKIP_HEADER);
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<String> headers = null;
-        try (
-                InputStream inputStream = sessionTemplate.getFileInputStream(filePath);
-                BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, Charset.defaultCharset()));
-        ) {
-            String line;
-            while (StringUtils.isNotBlank(line = br.readLine())) {
-                String[] lineArray = CsvUtil.splitOneLine(line, delimiter.charAt(0));
-                if (CollectionUtils.isEmpty(headers)) {
-                    if (skipHeader) {
-                        headers = Arrays.asList(lineArray);
-                        continue;
-                    } else {
-                        headers = new ArrayList<>(lineArray.length);
-                        for (int i = 0; i < lineArray.length; i++) {
-                            headers.add(String.valueOf(i));
-                        }
-                    }
-                }
-                Map<String, Object> lineRecord = new HashMap<>(lineArray.length);
-                for (int i = 0; i < lineArray.length; i++) {
-                    lineRecord.put(headers.get(i), lineArray[i]);
-                }
-                result.add(lineRecord);
-            }
+        char delimiter = unicode2String(String.valueOf(payload.getOrDefault(Key.DELIMITER, Key.DEFAULT_DELIMITER))).charAt(0);
+        boolean skipHeader = Boolean.TRUE.equals(payload.getOrDefault(Key.SKIP_HEADER, Key.DEFAULT_SKIP_HEADER));
+        Charset charset = Charset.forName(String.valueOf(payload.getOrDefault(Key.ENCODING, Key.DEFAULT_ENCODING)));
+        int bufferSize = (int) number(payload, Key.BUFFER_SIZE, Key.DEFAULT_BUFFER_SIZE);
+        if (!filePath.contains(BaseConstants.Symbol.COMMA) && !RemoteFiles.isPattern(filePath)) {
+            return this.open(filePath, delimiter, skipHeader, charset, bufferSize);
+        }
+        List<RemoteFile> files = RemoteFiles.limit(RemoteFiles.expand(sessionTemplate, filePath),
+                (int) number(payload, Key.MAX_FILES, 0), number(payload, Key.MAX_BYTES, 0));
+        if (files.size() == 1) {
+            return this.open(files.get(0).getPath(), delimiter, skipHeader, charset, bufferSize);
+        }
+        List<String> paths = new ArrayList<>(files.size());
+        files.forEach(file -> paths.add(file.getPath()));
+        int parallelism = ordered ? 1 : this.parallelism(payload);
+        return new MultiFileRowIterator(paths,
+                path -> this.open(path, delimiter, skipHeader, charset, bufferSize), parallelism);
+    }
+
+    /**
+     * 每个读取线程占用一个连接直到文件读完，并行度超过连接池大小时多出的线程借不到连接，整个读取失败
+     * 因此不超过连接池最大连接数，同时限制在MAX_PARALLELISM以内
+     */
+    private int parallelism(Payload payload) {
+        long parallelism = number(payload, Key.PARALLELISM, Key.DEFAULT_PARALLELISM);
+        int limit = Math.min(Key.MAX_PARALLELISM, sessionTemplate.maxSessions());
+        if (parallelism > limit) {
+            log.warn("parallelism [{}] exceeds limit, use {}", parallelism, limit);
+            return limit;
+        }
+        return (int) Math.max(1L, parallelism);
+    }
+
+    private static long number(Payload payload, String key, long defaultValue) {
+        Object value = payload.get(key);
+        if (Objects.isNull(value)) {
+            return defaultValue;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private CsvRowIterator open(String filePath, char delimiter, boolean header, Charset charset, int bufferSize) {
+        InputStream inputStream;
+        try {
+            inputStream = sessionTemplate.getFileInputStream(filePath);
         } catch (Exception e) {
-            throw new DriverException("error.datasource.ftp.columns", e);
+            throw new DriverException("error.datasource.ftp.read", e);
         }
-        return ResponseData.builder().data(result).build();
+        return new CsvRowIterator(inputStream, delimiter, header, charset, bufferSize);
     }
 
     @Override
@@ -165,10 +207,27 @@ public class FtpDriverSession implements DriverSession, SessionTool {
         return Collections.singletonList(this.executeOneQuery(schema, text));
     }
 
+    @Override
+    public RowIterator executeStream(String schema, String sql) {
+        return this.open(JsonUtil.toObj(sql, Payload.class), false);
+    }
+
+    /**
+     * 跳过前面的行后只读取一页，读满即停止，不会下载整个文件
+     * 不读到文件末尾无法知道总行数，总数为下界：后面还有数据时多算一条，保证可以继续翻页
+     */
     @Override
     public List<Page<Map<String, Object>>> executePageAll(String schema, String text, Pageable pageable) {
-        List<Map<String, Object>> list = this.executeOneQuery(schema, text);
-        return Collections.singletonList(new PageImpl<>(list, pageable, list.size()));
+        if (pageable.isUnpaged()) {
+            List<Map<String, Object>> list = this.executeOneQuery(schema, text);
+            return Collections.singletonList(new PageImpl<>(list, pageable, list.size()));
+        }
+        try (RowIterator iterator = this.open(JsonUtil.toObj(text, Payload.class), true)) {
+            long skipped = iterator.skip(pageable.getOffset());
+            List<Map<String, Object>> rows = iterator.toList(pageable.getPageSize());
+            long total = skipped + rows.size() + (iterator.hasNext() ? 1 : 0);
+            return Collections.singletonList(new PageImpl<>(rows, pageable, total));
+        }
     }
 
     @Override
@@ -213,47 +272,12 @@ public class FtpDriverSession implements DriverSession, SessionTool {
      *
      * @param filePath 文件路径
      * @return 第一个文件路径
-     * @throws SftpException SFTP异常
      */
     private String getFirstFilePath(String filePath) {
-        if (StringUtils.contains(filePath, BaseConstants.Symbol.COMMA)) {
-            filePath = filePath.split(BaseConstants.Symbol.COMMA)[0];
-        }
-        //*和？的限制
-        if (filePath.contains("*") || filePath.contains("?")) {
-            String parentPath = getRegexPathParentPath(filePath);
-            // 获取目录下所有的文件和子目录
-            Map<String, Boolean> fileMap = null;
-            try {
-                fileMap = sessionTemplate.fileMap(filePath);
-            } catch (Exception e) {
-                throw new DriverException("get first file error", e);
-            }
-            for (String fileName : fileMap.keySet()) {
-                if (!StringUtils.startsWith(fileName, ".")
-                        && !fileMap.get(fileName)) {
-                    // 目录与 隐藏文件夹跳过
-                    return parentPath + BaseConstants.Symbol.SLASH + fileName;
-                }
-            }
-            throw new DriverException("No file available");
-        }
-        return filePath;
-    }
-
-    /**
-     * 获取父目录
-     *
-     * @param regexPath 正则路径
-     * @return 父目录路径
-     */
-    private String getRegexPathParentPath(String regexPath) {
-        int lastDirSeparator = regexPath.lastIndexOf(BaseConstants.Symbol.SLASH);
-        String parentPath = regexPath.substring(0, lastDirSeparator + 1);
-        if (parentPath.contains("*") || parentPath.contains("?")) {
-            throw new DriverException(
-                    String.format("配置项目path中：[%s]不合法，目前只支持在最后一级目录使用通配符*或者?", regexPath));
+        String firstPath = filePath.split(BaseConstants.Symbol.COMMA)[0].trim();
+        if (RemoteFiles.isPattern(firstPath)) {
+            return RemoteFiles.expand(sessionTemplate, firstPath).get(0).getPath();
         }
-        return parentPath;
+        return firstPath;
     }
 }
@@ -0,0 +1,152 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.*;
+
+import com.csvreader.CsvReader;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 流式读取csv，整个文件只使用一个解析器，边读边解析，不会把文件全部读入内存
+ * 支持引号内包含分隔符及换行，关闭时关闭远程文件流
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class CsvRowIterator implements RowIterator {
+
+    private final InputStream inputStream;
+    private final CsvReader reader;
+    private final List<String> columns;
+    /**
+     * 已读取但还未返回的记录
+     */
+    private String[] pending;
+    private boolean closed;
+
+    /**
+     * @param inputStream 文件流
+     * @param delimiter   分隔符
+     * @param header      第一行是否为表头，否则列名为列下标
+     * @param charset     文件编码
+     * @param bufferSize  读取缓冲区大小，字符数
+     */
+    public CsvRowIterator(InputStream inputStream, char delimiter, boolean header, Charset charset, int bufferSize) {
+        this.inputStream = inputStream;
+        this.reader = new CsvReader(new BufferedReader(new InputStreamReader(inputStream, charset), bufferSize), delimiter);
+        try {
+            String[] first = this.readRecord();
+            if (Objects.isNull(first)) {
+                this.columns = Collections.emptyList();
+            } else if (header) {
+                this.columns = Collections.unmodifiableList(Arrays.asList(first));
+            } else {
+                List<String> indexes = new ArrayList<>(first.length);
+                for (int i = 0; i < first.length; i++) {
+                    indexes.add(String.valueOf(i));
+                }
+                this.columns = Collections.unmodifiableList(indexes);
+                this.pending = first;
+            }
+        } catch (RuntimeException e) {
+            this.close();
+            throw e;
+        }
+    }
+
+    private String[] readRecord() {
+        try {
+            return reader.readRecord() ? reader.getValues() : null;
+        } catch (IOException e) {
+            throw new DriverException("read csv error", e);
+        }
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 跳过若干行，只解析不生成行数据，用于分页定位
+     *
+     * @param n 跳过的行数
+     * @return 实际跳过的行数，小于n表示已读完
+     */
+    @Override
+    public long skip(long n) {
+        long skipped = 0;
+        if (n > 0 && Objects.nonNull(pending)) {
+            pending = null;
+            skipped++;
+        }
+        try {
+            while (skipped < n && !closed && reader.skipRecord()) {
+                skipped++;
+            }
+        } catch (IOException e) {
+            this.close();
+            throw new DriverException("read csv error", e);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (Objects.nonNull(pending)) {
+            return true;
+        }
+        try {
+            pending = this.readRecord();
+        } catch (RuntimeException e) {
+            this.close();
+            throw e;
+        }
+        if (Objects.isNull(pending)) {
+            this.close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String[] values = pending;
+        pending = null;
+        // 列数与表头不一致时多余的列丢弃，缺少的列为null
+        return values.length == columns.size() ? values : Arrays.copyOf(values, columns.size(), Object[].class);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        try {
+            reader.close();
+        } catch (RuntimeException e) {
+            log.warn("close csv reader error", e);
+        } finally {
+            CloseUtil.close(inputStream);
+        }
+    }
+
+}
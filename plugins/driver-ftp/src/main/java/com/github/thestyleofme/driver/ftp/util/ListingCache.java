@@ -0,0 +1,90 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.ftp.constant.Key;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * <p>
+ * 目录列表缓存，通配符展开及读取前的文件大小检查在短时间内复用同一份列表
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class ListingCache {
+
+    private static final String DEFAULT_TTL = "30";
+    private static final String DEFAULT_SIZE = "256";
+    private static final String CURRENT = ".";
+    private static final char SLASH = '/';
+
+    private final Cache<String, List<RemoteFile>> cache;
+
+    public ListingCache(long ttlSeconds, long maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(ttlSeconds > 0 ? maxSize : 0)
+                .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static ListingCache of(Properties properties) {
+        long ttl = Long.parseLong(properties.getProperty(Key.LISTING_CACHE_TTL, DEFAULT_TTL));
+        long size = Long.parseLong(properties.getProperty(Key.LISTING_CACHE_SIZE, DEFAULT_SIZE));
+        return new ListingCache(ttl, size);
+    }
+
+    /**
+     * 获取目录列表，不存在时加载，同一目录并发加载时只请求一次
+     *
+     * @param directory 目录
+     * @param loader    加载方法
+     * @return 文件列表
+     */
+    public List<RemoteFile> get(String directory, Callable<List<RemoteFile>> loader) {
+        try {
+            return cache.get(key(directory), loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DriverException("list files error, directory: " + directory, e.getCause());
+        }
+    }
+
+    /**
+     * 清除缓存，目录为null时清除全部
+     *
+     * @param directory 目录
+     */
+    public void invalidate(String directory) {
+        if (directory == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(key(directory));
+        }
+    }
+
+    /**
+     * 同一目录可能带或不带末尾的/，空串表示当前目录，统一后再作为key，保证上传后的失效能命中列表缓存
+     */
+    private static String key(String directory) {
+        if (directory.isEmpty()) {
+            return CURRENT;
+        }
+        int end = directory.length();
+        while (end > 1 && directory.charAt(end - 1) == SLASH) {
+            end--;
+        }
+        return directory.substring(0, end);
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 多个文件合并为一个结果流，parallelism个线程各自从连接池借连接读取文件，行放入有界队列由调用方消费
+ * parallelism为1时按文件顺序输出，否则不同文件的行交错输出
+ * 列取自第一个文件，其余文件按列位置对齐
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class MultiFileRowIterator implements RowIterator {
+
+    private static final Object[] END = new Object[0];
+    private static final int DEFAULT_QUEUE_SIZE = 4096;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final List<String> columns;
+    private final Queue<String> paths;
+    private final Function<String, RowIterator> opener;
+    /**
+     * 已打开的第一个文件，由最先启动的读取线程接手
+     */
+    private final AtomicReference<RowIterator> first;
+    private final BlockingQueue<Object[]> queue;
+    private final ExecutorService executor;
+    private final AtomicReference<RuntimeException> error = new AtomicReference<>();
+    private final int workers;
+    private int finished;
+    private Object[] pending;
+    private volatile boolean closed;
+
+    /**
+     * @param paths       文件路径
+     * @param opener      打开单个文件
+     * @param parallelism 同时读取的文件数
+     */
+    public MultiFileRowIterator(List<String> paths, Function<String, RowIterator> opener, int parallelism) {
+        if (paths.isEmpty()) {
+            throw new DriverException("No file available");
+        }
+        this.opener = opener;
+        // 第一个文件在当前线程打开，确定列，同时尽早暴露连接或格式错误
+        this.first = new AtomicReference<>(opener.apply(paths.get(0)));
+        this.columns = first.get().getColumns();
+        this.paths = new ConcurrentLinkedQueue<>(paths.subList(1, paths.size()));
+        this.workers = Math.max(1, Math.min(parallelism, paths.size()));
+        this.queue = new ArrayBlockingQueue<>(DEFAULT_QUEUE_SIZE);
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "ftp-reader-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        // 不再接收新任务，线程在任务结束后退出
+        executor.shutdown();
+    }
+
+    private void work() {
+        RowIterator current = first.getAndSet(null);
+        try {
+            while (!closed) {
+                if (Objects.isNull(current)) {
+                    String path = paths.poll();
+                    if (Objects.isNull(path)) {
+                        break;
+                    }
+                    current = opener.apply(path);
+                }
+                while (!closed && current.hasNext()) {
+                    queue.put(this.align(current.next()));
+                }
+                current.close();
+                current = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            error.compareAndSet(null, e);
+        } finally {
+            CloseUtil.close(current);
+            this.finish();
+        }
+    }
+
+    /**
+     * 放入结束标记，调用方已关闭时不再等待
+     */
+    private void finish() {
+        try {
+            while (!closed && !queue.offer(END, 1, TimeUnit.SECONDS)) {
+                log.debug("waiting for consumer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object[] align(Object[] values) {
+        return values.length == columns.size() ? values : Arrays.copyOf(values, columns.size());
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.nonNull(pending)) {
+            return true;
+        }
+        while (!closed && finished < workers) {
+            this.throwIfFailed();
+            Object[] row;
+            try {
+                row = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.close();
+                throw new DriverException("read files interrupted", e);
+            }
+            if (row == END) {
+                finished++;
+                continue;
+            }
+            pending = row;
+            return true;
+        }
+        this.throwIfFailed();
+        this.close();
+        return false;
+    }
+
+    private void throwIfFailed() {
+        RuntimeException e = error.get();
+        if (Objects.nonNull(e)) {
+            this.close();
+            throw e instanceof DriverException ? e : new DriverException("read files error", e);
+        }
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = pending;
+        pending = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        // 中断阻塞在队列上的读取线程，各线程关闭自己的文件流并归还连接
+        executor.shutdownNow();
+        queue.clear();
+        // 读取线程还未启动时第一个文件由这里关闭
+        CloseUtil.close(first.getAndSet(null));
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * 远程文件信息
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemoteFile {
+
+    /**
+     * 完整路径
+     */
+    private String path;
+    private String name;
+    private boolean directory;
+    /**
+     * 文件大小，字节
+     */
+    private long size;
+    /**
+     * 修改时间，毫秒
+     */
+    private long modifiedTime;
+
+}
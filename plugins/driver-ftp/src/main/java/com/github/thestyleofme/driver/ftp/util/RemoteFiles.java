@@ -0,0 +1,163 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.plugin.framework.constants.BaseConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * <p>
+ * 展开逗号分隔及包含通配符*、?的文件路径，通配符只能出现在最后一级
+ * 目录列表通过SessionTemplate.listFiles获取，带连接池的实现会短时间缓存
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class RemoteFiles {
+
+    private RemoteFiles() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 展开文件路径，跳过目录与隐藏文件，同一通配符匹配到的文件按文件名排序
+     *
+     * @param sessionTemplate SessionTemplate
+     * @param filePath        文件路径，如 /data/a.csv,/data/part-*.csv
+     * @return 文件列表
+     */
+    public static List<RemoteFile> expand(SessionTemplate sessionTemplate, String filePath) {
+        List<RemoteFile> files = new ArrayList<>();
+        for (String path : filePath.split(BaseConstants.Symbol.COMMA)) {
+            String trimPath = path.trim();
+            if (trimPath.isEmpty()) {
+                continue;
+            }
+            if (isPattern(trimPath)) {
+                files.addAll(match(sessionTemplate, trimPath));
+            } else {
+                files.add(stat(sessionTemplate, trimPath));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new DriverException("No file available");
+        }
+        return files;
+    }
+
+    /**
+     * 按文件数及累计大小截取，至少保留一个文件
+     *
+     * @param files    文件列表
+     * @param maxFiles 最多文件数，小于等于0不限制
+     * @param maxBytes 最多字节数，小于等于0不限制
+     * @return 截取后的文件列表
+     */
+    public static List<RemoteFile> limit(List<RemoteFile> files, int maxFiles, long maxBytes) {
+        List<RemoteFile> result = new ArrayList<>();
+        long bytes = 0;
+        for (RemoteFile file : files) {
+            boolean overFiles = maxFiles > 0 && result.size() >= maxFiles;
+            boolean overBytes = maxBytes > 0 && !result.isEmpty() && bytes + Math.max(file.getSize(), 0) > maxBytes;
+            if (overFiles || overBytes) {
+                log.info("read {} of {} files, {} bytes, limited by maxFiles: {}, maxBytes: {}",
+                        result.size(), files.size(), bytes, maxFiles, maxBytes);
+                break;
+            }
+            bytes += Math.max(file.getSize(), 0);
+            result.add(file);
+        }
+        return result;
+    }
+
+    public static boolean isPattern(String path) {
+        return path.contains("*") || path.contains("?");
+    }
+
+    private static List<RemoteFile> match(SessionTemplate sessionTemplate, String path) {
+        String parentPath = parentPath(path);
+        if (isPattern(parentPath)) {
+            throw new DriverException(
+                    String.format("配置项目path中：[%s]不合法，目前只支持在最后一级目录使用通配符*或者?", path));
+        }
+        Pattern pattern = globToPattern(path.substring(parentPath.length()));
+        List<RemoteFile> files = new ArrayList<>();
+        for (RemoteFile file : list(sessionTemplate, parentPath)) {
+            // 目录与隐藏文件跳过
+            if (!file.isDirectory() && !StringUtils.startsWith(file.getName(), ".")
+                    && pattern.matcher(file.getName()).matches()) {
+                files.add(file);
+            }
+        }
+        files.sort(Comparator.comparing(RemoteFile::getName));
+        return files;
+    }
+
+    /**
+     * 从所在目录的列表中取文件大小及修改时间，列表中找不到时大小记为-1
+     *
+     * @param sessionTemplate SessionTemplate
+     * @param path            文件路径，不含通配符
+     * @return RemoteFile
+     */
+    public static RemoteFile stat(SessionTemplate sessionTemplate, String path) {
+        String parentPath = parentPath(path);
+        String name = path.substring(parentPath.length());
+        try {
+            for (RemoteFile file : list(sessionTemplate, parentPath)) {
+                if (name.equals(file.getName())) {
+                    return new RemoteFile(path, name, file.isDirectory(), file.getSize(), file.getModifiedTime());
+                }
+            }
+        } catch (DriverException e) {
+            log.warn("list directory error, {}", parentPath, e);
+        }
+        return new RemoteFile(path, name, false, -1L, 0L);
+    }
+
+    private static List<RemoteFile> list(SessionTemplate sessionTemplate, String directory) {
+        try {
+            return sessionTemplate.listFiles(directory.isEmpty() ? BaseConstants.Symbol.POINT : directory);
+        } catch (DriverException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DriverException("list files error, directory: " + directory, e);
+        }
+    }
+
+    /**
+     * 文件所在目录，带末尾的/，文件不在子目录时为空串
+     *
+     * @param path 文件路径
+     * @return 所在目录
+     */
+    public static String parentPath(String path) {
+        return path.substring(0, path.lastIndexOf(BaseConstants.Symbol.SLASH) + 1);
+    }
+
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+}
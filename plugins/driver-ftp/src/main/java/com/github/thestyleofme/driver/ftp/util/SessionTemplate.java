@@ -1,15 +1,21 @@
 package com.github.thestyleofme.driver.ftp.util;
 
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
 import com.github.thestyleofme.driver.core.infra.utils.Conf;
 import com.github.thestyleofme.driver.ftp.constant.Key;
 import com.github.thestyleofme.driver.ftp.constant.Protocol;
-import com.github.thestyleofme.driver.ftp.util.impl.FtpSessionTemplate;
-import com.github.thestyleofme.driver.ftp.util.impl.SftpSessionTemplate;
+import com.github.thestyleofme.driver.ftp.util.cache.CachedSessionTemplate;
+import com.github.thestyleofme.driver.ftp.util.cache.LocalFileCache;
+import com.github.thestyleofme.driver.ftp.util.cache.RangeDownloader;
+import com.github.thestyleofme.driver.ftp.util.pool.FtpSessionFactory;
+import com.github.thestyleofme.driver.ftp.util.pool.PooledSessionTemplate;
+import com.github.thestyleofme.driver.ftp.util.pool.SftpChannelFactory;
 
 /**
  * SessionTemplate 接口
@@ -21,7 +27,7 @@ import com.github.thestyleofme.driver.ftp.util.impl.SftpSessionTemplate;
 public interface SessionTemplate extends AutoCloseable {
 
     /**
-     * 获取实例
+     * 获取实例，返回带连接池的实现，可被多个线程同时使用，并提供断点续传及本地缓存
      *
      * @param properties 参数
      * @return SessionTemplate
@@ -32,22 +38,49 @@ public interface SessionTemplate extends AutoCloseable {
         String port = Conf.require(properties, Key.PORT);
         String username = Conf.require(properties, Key.USERNAME);
         String password = Conf.require(properties, Key.PASSWORD);
-        SessionTemplate sessionTemplate;
+        PooledSessionTemplate<?> sessionTemplate;
+        switch (Protocol.valueOf(protocol.toUpperCase())) {
+            case FTP:
+                sessionTemplate = new PooledSessionTemplate<>(
+                        new FtpSessionFactory(host, Integer.parseInt(port), username, password), properties);
+                break;
+            case SFTP:
+                sessionTemplate = new PooledSessionTemplate<>(
+                        new SftpChannelFactory(host, Integer.parseInt(port), username, password), properties);
+                break;
+            default:
+                throw new IllegalArgumentException("Error protocol:" + protocol);
+        }
         try {
-            switch (Protocol.valueOf(protocol.toUpperCase())) {
-                case FTP:
-                    sessionTemplate = new FtpSessionTemplate(host, Integer.parseInt(port), username, password);
-                    break;
-                case SFTP:
-                    sessionTemplate = new SftpSessionTemplate(host, Integer.parseInt(port), username, password);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Error protocol:" + protocol);
-            }
+            sessionTemplate.prepare();
         } catch (Exception e) {
+            CloseUtil.close(sessionTemplate);
             throw new DriverException("Connect Server error", e);
         }
-        return sessionTemplate;
+        try {
+            return new CachedSessionTemplate(sessionTemplate, LocalFileCache.of(properties), RangeDownloader.of(properties));
+        } catch (RuntimeException e) {
+            CloseUtil.close(sessionTemplate);
+            throw e;
+        }
+    }
+
+    /**
+     * 连接是否可用，连接池借出前及空闲检测时调用
+     *
+     * @return 是否可用
+     */
+    default boolean isAlive() {
+        return true;
+    }
+
+    /**
+     * 可同时借出的连接数，多线程读取时并行度不应超过该值，否则读取线程等待连接超时
+     *
+     * @return 连接数
+     */
+    default int maxSessions() {
+        return 1;
     }
 
     /**
@@ -75,6 +108,16 @@ public interface SessionTemplate extends AutoCloseable {
      */
     InputStream getFileInputStream(String pathFile) throws Exception;
 
+    /**
+     * 从指定位置开始读取文件，用于断点续传及分段下载
+     *
+     * @param pathFile 远程文件
+     * @param offset   起始位置，字节
+     * @return InputStream InputStream
+     * @throws Exception Exception
+     */
+    InputStream getFileInputStream(String pathFile, long offset) throws Exception;
+
     /**
      * 获取文件map,key文件名，value是否为目录
      *
@@ -82,4 +125,24 @@ public interface SessionTemplate extends AutoCloseable {
      * @return
      */
     Map<String, Boolean> fileMap(String filePath) throws Exception;
+
+    /**
+     * 列出目录下的文件及子目录，不包含.和..
+     *
+     * @param directory 目录
+     * @return 文件列表
+     * @throws Exception 异常
+     */
+    List<RemoteFile> listFiles(String directory) throws Exception;
+
+    /**
+     * 查询单个文件的大小及修改时间，不经过目录列表缓存，默认从所在目录的列表中取
+     *
+     * @param pathFile 远程文件
+     * @return 文件信息，大小未知时为-1
+     * @throws Exception 异常
+     */
+    default RemoteFile stat(String pathFile) throws Exception {
+        return RemoteFiles.stat(this, pathFile);
+    }
 }
@@ -0,0 +1,150 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
+import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 在SessionTemplate之上提供断点续传、分段下载及本地缓存
+ * 读取文件前向服务端查询文件当前的大小及修改时间，不使用可能过期的目录列表，
+ * 按路径、大小、修改时间命中本地缓存则通过内存映射读取本地文件，
+ * 否则边读边写缓存，传输中断时从断点续传；未开启缓存或文件过大时只续传不缓存
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class CachedSessionTemplate implements SessionTemplate {
+
+    private final SessionTemplate delegate;
+    private final LocalFileCache cache;
+    private final RangeDownloader downloader;
+
+    /**
+     * @param delegate   实际访问服务器的SessionTemplate
+     * @param cache      本地缓存，为空时不缓存
+     * @param downloader 下载器
+     */
+    public CachedSessionTemplate(SessionTemplate delegate, LocalFileCache cache, RangeDownloader downloader) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.downloader = downloader;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return delegate.isAlive();
+    }
+
+    @Override
+    public int maxSessions() {
+        return delegate.maxSessions();
+    }
+
+    @Override
+    public void uploadFile(String remoteFile, InputStream in) throws Exception {
+        delegate.uploadFile(remoteFile, in);
+    }
+
+    @Override
+    public void downloadFile(String remotePathFile, String localPathFile) throws Exception {
+        RemoteFile file = this.freshStat(remotePathFile);
+        Optional<Path> cached = this.cached(file);
+        if (cached.isPresent()) {
+            Files.copy(cached.get(), Paths.get(localPathFile), StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        downloader.download(offset -> delegate.getFileInputStream(remotePathFile, offset),
+                file.getSize(), Paths.get(localPathFile));
+    }
+
+    @Override
+    public InputStream getFileInputStream(String pathFile) throws Exception {
+        RemoteFile file = this.freshStat(pathFile);
+        if (file.getSize() < 0) {
+            // 大小未知，无法判断是否读完，直接读取
+            return delegate.getFileInputStream(pathFile);
+        }
+        ResumableInputStream.Opener opener = offset -> delegate.getFileInputStream(pathFile, offset);
+        Optional<Path> cached = this.cached(file);
+        if (cached.isPresent()) {
+            return new MappedFileInputStream(cached.get());
+        }
+        if (Objects.nonNull(cache) && cache.cacheable(file)) {
+            String key = cache.key(file);
+            if (cache.lock(key)) {
+                try {
+                    // 获取写入权期间可能已被其他读取方下载完成
+                    cached = cache.get(key);
+                    if (cached.isPresent()) {
+                        cache.unlock(key);
+                        return new MappedFileInputStream(cached.get());
+                    }
+                    return new CachingInputStream(cache, key, file.getSize(), opener, downloader.getMaxRetries());
+                } catch (IOException e) {
+                    cache.unlock(key);
+                    throw e;
+                }
+            }
+        }
+        return new ResumableInputStream(opener, 0L, file.getSize(), downloader.getMaxRetries());
+    }
+
+    /**
+     * 续传的结束位置与缓存key都取决于文件大小及修改时间，查询失败时按大小未知处理
+     */
+    private RemoteFile freshStat(String pathFile) {
+        try {
+            return delegate.stat(pathFile);
+        } catch (Exception e) {
+            log.warn("stat file error, {}", pathFile, e);
+            return new RemoteFile(pathFile, pathFile.substring(pathFile.lastIndexOf('/') + 1), false, -1L, 0L);
+        }
+    }
+
+    private Optional<Path> cached(RemoteFile file) {
+        if (Objects.isNull(cache) || !cache.cacheable(file)) {
+            return Optional.empty();
+        }
+        return cache.get(cache.key(file));
+    }
+
+    @Override
+    public InputStream getFileInputStream(String pathFile, long offset) throws Exception {
+        return delegate.getFileInputStream(pathFile, offset);
+    }
+
+    @Override
+    public Map<String, Boolean> fileMap(String filePath) throws Exception {
+        return delegate.fileMap(filePath);
+    }
+
+    @Override
+    public List<RemoteFile> listFiles(String directory) throws Exception {
+        return delegate.listFiles(directory);
+    }
+
+    @Override
+    public RemoteFile stat(String pathFile) throws Exception {
+        return delegate.stat(pathFile);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 边读边写缓存的文件流，先读.part中已下载的部分，再从断点续传远程文件并追加写入.part
+ * 读到文件末尾时转为正式缓存文件，中途关闭则保留已下载部分供下次续传
+ * 调用方需已通过LocalFileCache.lock获取写入权，关闭时释放
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class CachingInputStream extends InputStream {
+
+    private final LocalFileCache cache;
+    private final String key;
+    private final long size;
+    private final ResumableInputStream.Opener opener;
+    private final int maxRetries;
+    private final FileChannel part;
+    private final long cached;
+    private InputStream local;
+    private ResumableInputStream remote;
+    private long position;
+    private boolean closed;
+
+    /**
+     * @param cache      缓存
+     * @param key        缓存key
+     * @param size       远程文件大小
+     * @param opener     从指定位置打开远程流
+     * @param maxRetries 续传的最大重试次数
+     * @throws IOException IOException
+     */
+    public CachingInputStream(LocalFileCache cache, String key, long size,
+                              ResumableInputStream.Opener opener, int maxRetries) throws IOException {
+        this.cache = cache;
+        this.key = key;
+        this.size = size;
+        this.opener = opener;
+        this.maxRetries = maxRetries;
+        Path partFile = cache.partFile(key);
+        this.part = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (part.size() > size) {
+            // 不应出现，丢弃重新下载
+            part.truncate(0);
+        }
+        this.cached = part.size();
+        if (cached > 0) {
+            log.debug("resume {} from {} of {}", partFile, cached, size);
+            this.local = new MappedFileInputStream(partFile, cached);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = this.read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (position < cached) {
+            int n = local.read(b, off, (int) Math.min(len, cached - position));
+            if (n > 0) {
+                position += n;
+                return n;
+            }
+        }
+        if (position >= size) {
+            return -1;
+        }
+        if (Objects.isNull(remote)) {
+            remote = new ResumableInputStream(opener, position, size, maxRetries);
+        }
+        int n = remote.read(b, off, len);
+        if (n > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, n);
+            long writePosition = position;
+            while (buffer.hasRemaining()) {
+                writePosition += part.write(buffer, writePosition);
+            }
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CloseUtil.close(local, remote);
+        try {
+            long written = part.size();
+            part.close();
+            if (written == size) {
+                cache.commit(key);
+            }
+        } catch (IOException e) {
+            log.warn("close cache file error, key: {}", key, e);
+            CloseUtil.close(part);
+        } finally {
+            cache.unlock(key);
+        }
+    }
+
+}
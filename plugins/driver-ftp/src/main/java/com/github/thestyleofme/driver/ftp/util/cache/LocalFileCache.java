@@ -0,0 +1,213 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.ftp.constant.Key;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.DigestUtils;
+
+/**
+ * <p>
+ * 远程文件的本地磁盘缓存，按路径、大小、修改时间确定缓存文件，远程文件变化后自然失效
+ * 未读完的文件保留为.part，下次读取时先读本地部分再从断点继续下载
+ * 总大小超过上限时按最近访问时间淘汰，正在写入的文件不淘汰
+ * 需配置cache.maxBytes开启，缓存目录只允许当前用户访问
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class LocalFileCache {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final long DEFAULT_MAX_FILE_BYTES = 256L * 1024 * 1024;
+    private static final String POSIX = "posix";
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxFileBytes;
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+
+    public LocalFileCache(Path directory, long maxBytes, long maxFileBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = Math.min(maxFileBytes, maxBytes);
+        try {
+            createPrivateDirectory(directory);
+        } catch (IOException e) {
+            throw new DriverException("create cache directory error, " + directory, e);
+        }
+    }
+
+    /**
+     * 缓存的是远程服务器上的数据，目录需为当前用户所有且只允许当前用户访问，
+     * 已存在的目录属于其他用户时拒绝使用，避免共享临时目录下被其他用户读取或预先放入伪造的缓存文件
+     */
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains(POSIX)) {
+            Files.createDirectories(directory);
+            return;
+        }
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        String user = System.getProperty("user.name");
+        String owner = Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS).getName();
+        if (!owner.equals(user)) {
+            throw new DriverException(String.format("cache directory [%s] is owned by [%s], not [%s]",
+                    directory, owner, user));
+        }
+        Files.setPosixFilePermissions(directory, OWNER_ONLY);
+    }
+
+    /**
+     * 缓存目录默认为临时目录下按当前用户及服务器地址区分的子目录，未配置cache.maxBytes或为0时不缓存
+     *
+     * @param properties 数据源配置
+     * @return LocalFileCache，不缓存时返回null
+     */
+    public static LocalFileCache of(Properties properties) {
+        long maxBytes = Long.parseLong(properties.getProperty(Key.CACHE_MAX_BYTES, "0"));
+        if (maxBytes <= 0) {
+            return null;
+        }
+        long maxFileBytes = Long.parseLong(properties.getProperty(Key.CACHE_MAX_FILE_BYTES,
+                String.valueOf(DEFAULT_MAX_FILE_BYTES)));
+        String namespace = DigestUtils.md5DigestAsHex((properties.getProperty(Key.HOST) + ":" +
+                properties.getProperty(Key.PORT)).getBytes(StandardCharsets.UTF_8));
+        Path directory = Optional.ofNullable(properties.getProperty(Key.CACHE_DIR))
+                .filter(dir -> !dir.isEmpty())
+                .map(Paths::get)
+                .orElseGet(() -> Paths.get(System.getProperty("java.io.tmpdir"),
+                        "driver-ftp-cache-" + System.getProperty("user.name")))
+                .resolve(namespace);
+        return new LocalFileCache(directory, maxBytes, maxFileBytes);
+    }
+
+    /**
+     * 只缓存大小已知且不超过cache.maxFileBytes的文件，更大的文件直接流式读取
+     *
+     * @param file 远程文件
+     * @return 是否缓存
+     */
+    public boolean cacheable(RemoteFile file) {
+        return file.getSize() > 0 && file.getSize() <= maxFileBytes;
+    }
+
+    public String key(RemoteFile file) {
+        String identity = file.getPath() + "|" + file.getSize() + "|" + file.getModifiedTime();
+        return DigestUtils.md5DigestAsHex(identity.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取完整的缓存文件，并更新访问时间
+     *
+     * @param key 缓存key
+     * @return 缓存文件
+     */
+    public Optional<Path> get(String key) {
+        Path file = directory.resolve(key);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // 已被淘汰
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * 获取写入权，同一文件同时只有一个读取方写缓存，其余直接读取远程文件
+     *
+     * @param key 缓存key
+     * @return 是否获取成功
+     */
+    public boolean lock(String key) {
+        return writing.add(key);
+    }
+
+    public void unlock(String key) {
+        writing.remove(key);
+    }
+
+    public Path partFile(String key) {
+        return directory.resolve(key + PART_SUFFIX);
+    }
+
+    /**
+     * 下载完成，.part转为正式缓存文件
+     *
+     * @param key 缓存key
+     */
+    public void commit(String key) {
+        try {
+            Files.move(this.partFile(key), directory.resolve(key),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("commit cache file error, key: {}", key, e);
+        }
+        this.evict();
+    }
+
+    /**
+     * 按最近访问时间淘汰，直到总大小不超过上限
+     */
+    public synchronized void evict() {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("list cache directory error", e);
+            return;
+        }
+        Map<Path, Long> sizes = new HashMap<>(files.size() * 4 / 3 + 1);
+        Map<Path, Long> accessTimes = new HashMap<>(files.size() * 4 / 3 + 1);
+        long total = 0;
+        for (Path file : files) {
+            try {
+                sizes.put(file, Files.size(file));
+                accessTimes.put(file, Files.getLastModifiedTime(file).toMillis());
+                total += sizes.get(file);
+            } catch (IOException e) {
+                // 已被删除
+            }
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        List<Path> candidates = new ArrayList<>(sizes.keySet());
+        candidates.sort(Comparator.comparing(accessTimes::get));
+        for (Path file : candidates) {
+            if (total <= maxBytes) {
+                break;
+            }
+            String name = file.getFileName().toString();
+            String key = name.endsWith(PART_SUFFIX) ? name.substring(0, name.length() - PART_SUFFIX.length()) : name;
+            if (writing.contains(key)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+                total -= sizes.get(file);
+                log.debug("evict cache file {}", file);
+            } catch (IOException e) {
+                log.warn("evict cache file error, {}", file, e);
+            }
+        }
+    }
+
+}
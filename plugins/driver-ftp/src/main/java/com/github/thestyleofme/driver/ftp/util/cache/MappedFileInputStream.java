@@ -0,0 +1,95 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 通过内存映射读取本地缓存文件，按块映射，支持超过2G的文件
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final long CHUNK_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long length;
+    private long position;
+    private MappedByteBuffer buffer;
+
+    /**
+     * @param path   本地文件
+     * @param length 读取的长度，从文件开头算起
+     * @throws IOException IOException
+     */
+    public MappedFileInputStream(Path path, long length) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.length = Math.min(length, channel.size());
+    }
+
+    public MappedFileInputStream(Path path) throws IOException {
+        this(path, Long.MAX_VALUE);
+    }
+
+    private boolean ensureBuffer() throws IOException {
+        if (position >= length) {
+            return false;
+        }
+        if (Objects.isNull(buffer) || !buffer.hasRemaining()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, length - position));
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.ensureBuffer()) {
+            return -1;
+        }
+        position++;
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!this.ensureBuffer()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, length - position));
+        position += skipped;
+        // 下次读取时从新位置重新映射
+        buffer = null;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+}
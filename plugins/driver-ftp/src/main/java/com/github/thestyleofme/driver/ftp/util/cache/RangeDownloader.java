@@ -0,0 +1,141 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.thestyleofme.driver.ftp.constant.Key;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 下载远程文件到本地，先写入.part文件，完成后改名
+ * 大文件按download.segmentSize切分，download.parallelism个分段同时下载，每个分段各自断点续传
+ * 小文件单流下载，已存在的.part从断点继续
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class RangeDownloader {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final long segmentSize;
+    private final int parallelism;
+    private final int maxRetries;
+
+    public RangeDownloader(long segmentSize, int parallelism, int maxRetries) {
+        this.segmentSize = segmentSize;
+        this.parallelism = parallelism;
+        this.maxRetries = maxRetries;
+    }
+
+    public static RangeDownloader of(Properties properties) {
+        long segmentSize = Long.parseLong(properties.getProperty(Key.DOWNLOAD_SEGMENT_SIZE, String.valueOf(DEFAULT_SEGMENT_SIZE)));
+        int parallelism = Integer.parseInt(properties.getProperty(Key.DOWNLOAD_PARALLELISM, String.valueOf(DEFAULT_PARALLELISM)));
+        int maxRetries = Integer.parseInt(properties.getProperty(Key.DOWNLOAD_MAX_RETRIES, String.valueOf(DEFAULT_MAX_RETRIES)));
+        return new RangeDownloader(segmentSize, parallelism, maxRetries);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * 下载文件
+     *
+     * @param opener 从指定位置打开远程流
+     * @param size   远程文件大小，未知时小于0
+     * @param target 本地文件
+     * @throws IOException IOException
+     */
+    public void download(ResumableInputStream.Opener opener, long size, Path target) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        if (size > segmentSize && parallelism > 1) {
+            this.downloadSegments(opener, size, part);
+        } else {
+            this.downloadSingle(opener, size, part);
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void downloadSingle(ResumableInputStream.Opener opener, long size, Path part) throws IOException {
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = out.size();
+            if (size >= 0 && offset > size) {
+                out.truncate(0);
+                offset = 0;
+            }
+            if (offset > 0) {
+                log.info("resume download {} from {}", part, offset);
+            }
+            try (InputStream in = new ResumableInputStream(opener, offset, size, maxRetries)) {
+                this.copy(in, out, offset);
+            }
+        }
+    }
+
+    private void downloadSegments(ResumableInputStream.Opener opener, long size, Path part) throws IOException {
+        int segments = (int) ((size + segmentSize - 1) / segmentSize);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, segments), runnable -> {
+            Thread thread = new Thread(runnable, "ftp-download-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Future<Long>> futures = new ArrayList<>(segments);
+            for (int i = 0; i < segments; i++) {
+                long start = i * segmentSize;
+                long end = Math.min(size, start + segmentSize);
+                futures.add(executor.submit(() -> {
+                    // 分段写入同一文件的不同位置，FileChannel的定位写是线程安全的
+                    try (InputStream in = new ResumableInputStream(opener, start, end, maxRetries)) {
+                        return this.copy(in, out, start);
+                    }
+                }));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("download interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long copy(InputStream in, FileChannel out, long position) throws IOException {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        long written = 0;
+        int n;
+        while ((n = in.read(bytes)) > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, n);
+            while (buffer.hasRemaining()) {
+                written += out.write(buffer, position + written);
+            }
+        }
+        return written;
+    }
+
+}
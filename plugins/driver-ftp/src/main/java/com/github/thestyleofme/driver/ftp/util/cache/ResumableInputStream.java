@@ -0,0 +1,136 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 可续传的远程文件流，读取出错或提前结束时从已读到的位置重新打开远程流继续读取
+ * 可只读取[start, end)区间，用于分段下载
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class ResumableInputStream extends InputStream {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000L;
+
+    private final Opener opener;
+    private final long end;
+    private final int maxRetries;
+    private long position;
+    private InputStream current;
+    private boolean closed;
+
+    /**
+     * @param opener     从指定位置打开远程流
+     * @param start      起始位置
+     * @param end        结束位置(不包含)，小于0表示读到文件末尾
+     * @param maxRetries 最大重试次数
+     */
+    public ResumableInputStream(Opener opener, long start, long end, int maxRetries) {
+        this.opener = opener;
+        this.position = start;
+        this.end = end;
+        this.maxRetries = maxRetries;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = this.read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (end >= 0) {
+            if (position >= end) {
+                return -1;
+            }
+            len = (int) Math.min(len, end - position);
+        }
+        int attempts = 0;
+        while (true) {
+            try {
+                if (Objects.isNull(current)) {
+                    current = opener.open(position);
+                }
+                int n = current.read(b, off, len);
+                if (n < 0 && end >= 0 && position < end) {
+                    throw new IOException(String.format("unexpected end of stream at %d, expected %d", position, end));
+                }
+                if (n > 0) {
+                    position += n;
+                }
+                return n;
+            } catch (DriverException e) {
+                // 服务端明确拒绝(如文件不存在)，重试没有意义
+                CloseUtil.close(current);
+                current = null;
+                throw new IOException(e.getMessage(), e);
+            } catch (Exception e) {
+                CloseUtil.close(current);
+                current = null;
+                if (++attempts > maxRetries) {
+                    throw e instanceof IOException ? (IOException) e : new IOException(e);
+                }
+                log.warn("read interrupted at {}, resume ({}/{})", position, attempts, maxRetries, e);
+                this.backoff(attempts);
+            }
+        }
+    }
+
+    private void backoff(int attempts) throws IOException {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempts);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("resume interrupted", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        CloseUtil.close(current);
+        current = null;
+    }
+
+    /**
+     * 从指定位置打开远程流
+     */
+    @FunctionalInterface
+    public interface Opener {
+
+        /**
+         * 打开远程流
+         *
+         * @param offset 起始位置
+         * @return InputStream
+         * @throws Exception 异常
+         */
+        InputStream open(long offset) throws Exception;
+    }
+
+}
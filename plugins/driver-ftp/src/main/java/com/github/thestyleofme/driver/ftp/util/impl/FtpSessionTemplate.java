@@ -1,13 +1,14 @@
 package com.github.thestyleofme.driver.ftp.util.impl;
 
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
 import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
 import com.github.thestyleofme.plugin.framework.constants.BaseConstants;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +27,12 @@ import org.apache.commons.net.ftp.FTPReply;
 @Slf4j
 public class FtpSessionTemplate implements SessionTemplate {
 
+    private static final String MLST = "MLST";
+    private static final String SIZE = "SIZE";
+
     private FTPClient ftpClient = null;
+    private String homeDirectory;
+    private Boolean mlstSupported;
 
     public FtpSessionTemplate(String host, int port, String userName, String password) throws Exception {
         ftpClient = new FTPClient();
@@ -41,6 +47,7 @@ public class FtpSessionTemplate implements SessionTemplate {
             throw new DriverException("ftp服务器连接失败");
         }
         ftpClient.enterLocalPassiveMode();
+        homeDirectory = ftpClient.printWorkingDirectory();
     }
 
     /**
@@ -111,6 +118,18 @@ public class FtpSessionTemplate implements SessionTemplate {
      */
     @Override
     public InputStream getFileInputStream(String remotePathFile) throws Exception {
+        return this.getFileInputStream(remotePathFile, 0L);
+    }
+
+    /**
+     * 从指定位置下载文件，通过REST命令告知服务端起始位置
+     *
+     * @param remotePathFile 远程文件路径
+     * @param offset         起始位置
+     * @throws Exception 异常
+     */
+    @Override
+    public InputStream getFileInputStream(String remotePathFile, long offset) throws Exception {
         ftpClient.setFileType(FTPClient.BINARY_FILE_TYPE);
         int index = remotePathFile.lastIndexOf(BaseConstants.Symbol.SLASH);
         String tmpPath = remotePathFile.substring(0, index);
@@ -120,7 +139,30 @@ public class FtpSessionTemplate implements SessionTemplate {
         String fileName = remotePathFile.substring(index + 1);
         if (ftpClient.changeWorkingDirectory(StringUtils.isBlank(tmpPath) ? BaseConstants.Symbol.POINT : tmpPath)) {
             log.info("切换工作目录！");
-            return ftpClient.retrieveFileStream(fileName);
+            ftpClient.setRestartOffset(offset);
+            InputStream in = ftpClient.retrieveFileStream(fileName);
+            if (in == null) {
+                throw new DriverException("下载失败: " + ftpClient.getReplyString());
+            }
+            // 数据连接关闭后需读取服务端的传输完成应答，否则控制连接无法继续使用
+            return new FilterInputStream(in) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    try {
+                        super.close();
+                    } finally {
+                        if (!ftpClient.completePendingCommand()) {
+                            log.debug("transfer not completed: {}", ftpClient.getReplyString());
+                        }
+                    }
+                }
+            };
         } else {
             throw new DriverException("下载失败");
         }
@@ -146,6 +188,77 @@ public class FtpSessionTemplate implements SessionTemplate {
         return map;
     }
 
+    @Override
+    public List<RemoteFile> listFiles(String directory) throws Exception {
+        FTPFile[] dirList = getDirList(directory);
+        String parent = directory.endsWith(BaseConstants.Symbol.SLASH) ? directory : directory + BaseConstants.Symbol.SLASH;
+        List<RemoteFile> files = new ArrayList<>(dirList.length);
+        for (FTPFile ftpFile : dirList) {
+            String name = ftpFile.getName();
+            if (BaseConstants.Symbol.POINT.equals(name) || "..".equals(name)) {
+                continue;
+            }
+            files.add(new RemoteFile(parent + name, name, ftpFile.isDirectory(), ftpFile.getSize(), millis(ftpFile)));
+        }
+        return files;
+    }
+
+    /**
+     * 服务端支持MLST时一次取得大小与修改时间，否则分别通过SIZE、MDTM查询，
+     * 两者都比LIST精确，LIST对较早的文件只返回到天的修改时间
+     *
+     * @param remotePathFile 远程文件路径
+     * @return 文件信息，大小未知时为-1
+     * @throws Exception 异常
+     */
+    @Override
+    public RemoteFile stat(String remotePathFile) throws Exception {
+        // SIZE在ASCII模式下可能被拒绝
+        ftpClient.setFileType(FTPClient.BINARY_FILE_TYPE);
+        String path = remotePathFile.startsWith(BaseConstants.Symbol.SLASH) ? remotePathFile.substring(1) : remotePathFile;
+        String name = remotePathFile.substring(remotePathFile.lastIndexOf(BaseConstants.Symbol.SLASH) + 1);
+        if (mlstSupported == null) {
+            mlstSupported = ftpClient.hasFeature(MLST);
+        }
+        FTPFile ftpFile = mlstSupported ? ftpClient.mlistFile(path) : null;
+        if (ftpFile != null) {
+            return new RemoteFile(remotePathFile, name, ftpFile.isDirectory(), ftpFile.getSize(), millis(ftpFile));
+        }
+        long size = -1L;
+        if (FTPReply.isPositiveCompletion(ftpClient.sendCommand(SIZE, path))) {
+            try {
+                size = Long.parseLong(ftpClient.getReplyString().trim().substring(4).trim());
+            } catch (RuntimeException e) {
+                log.debug("unexpected SIZE reply: {}", ftpClient.getReplyString());
+            }
+        }
+        return new RemoteFile(remotePathFile, name, false, size, millis(ftpClient.mdtmFile(path)));
+    }
+
+    private static long millis(FTPFile ftpFile) {
+        return ftpFile == null || ftpFile.getTimestamp() == null ? 0L : ftpFile.getTimestamp().getTimeInMillis();
+    }
+
+    /**
+     * 切换回登录时的工作目录，连接归还连接池时调用，避免相对路径受上一次操作影响
+     *
+     * @throws IOException IOException
+     */
+    public void resetWorkingDirectory() throws IOException {
+        if (homeDirectory != null) {
+            ftpClient.changeWorkingDirectory(homeDirectory);
+        }
+    }
+
+    @Override
+    public boolean isAlive() {
+        try {
+            return ftpClient != null && ftpClient.isConnected() && ftpClient.sendNoOp();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     @Override
     public void close() throws Exception {
         if (ftpClient != null) {
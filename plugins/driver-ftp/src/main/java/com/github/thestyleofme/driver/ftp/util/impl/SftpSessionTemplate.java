@@ -4,6 +4,7 @@ import java.io.*;
 import java.util.*;
 
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
 import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
 import com.jcraft.jsch.*;
 import lombok.extern.slf4j.Slf4j;
@@ -24,29 +25,36 @@ public class SftpSessionTemplate implements SessionTemplate {
 
     private Session session = null;
     private ChannelSftp channel = null;
+    /**
+     * session由外部共享时只关闭通道
+     */
+    private boolean sharedSession;
 
 
     public SftpSessionTemplate(String host,
                                int port,
                                String userName,
                                String password) throws Exception {
-        JSch jsch = new JSch();
-        // 根据用户名，主机ip，端口获取一个Session对象
-        session = jsch.getSession(userName, host, port);
-        // 设置密码
-        session.setPassword(password);
-        // 为Session对象设置properties
-        Properties config = new Properties();
-        config.put("StrictHostKeyChecking", "no");
-        session.setConfig(config);
-        // 通过Session建立链接
-        session.connect();
+        session = openSession(host, port, userName, password);
         // 打开SFTP通道
         channel = (ChannelSftp) session.openChannel("sftp");
         // 建立SFTP通道的连接
         channel.connect();
     }
 
+    /**
+     * 在已建立的session上打开一个新的SFTP通道，一个ssh连接可复用多个通道
+     *
+     * @param session 已连接的session
+     * @throws JSchException JSchException
+     */
+    public SftpSessionTemplate(Session session) throws JSchException {
+        this.session = session;
+        this.sharedSession = true;
+        channel = (ChannelSftp) session.openChannel("sftp");
+        channel.connect(TIMEOUT);
+    }
+
     /**
      * 获取session
      *
@@ -54,14 +62,15 @@ public class SftpSessionTemplate implements SessionTemplate {
      * @param port     端口
      * @param username 用户名
      * @param password 密码
+     * @return 已连接的session
      * @throws JSchException JSchException
      * @author abigballofmud 2020-2-5 16:20:45
      */
-    private void getSession(String host, int port, String username, String password) throws JSchException {
+    public static Session openSession(String host, int port, String username, String password) throws JSchException {
         // 创建JSch对象
         JSch jsch = new JSch();
         // 根据用户名，主机ip，端口获取一个Session对象
-        session = jsch.getSession(username, host, port);
+        Session session = jsch.getSession(username, host, port);
         log.info("Session created...");
         if (!Objects.isNull(password)) {
             // 设置密码
@@ -73,9 +82,18 @@ public class SftpSessionTemplate implements SessionTemplate {
         session.setConfig(config);
         // 设置timeout时间
         session.setTimeout(TIMEOUT);
+        // 发送保活消息，避免连接池中空闲的连接被服务端或防火墙断开
+        session.setServerAliveInterval(TIMEOUT / 2);
         // 通过Session建立连接
         session.connect();
         log.info("Session connected, Opening Channel...");
+        return session;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return channel != null && channel.isConnected() && !channel.isClosed()
+                && session != null && session.isConnected();
     }
 
     /**
@@ -86,7 +104,7 @@ public class SftpSessionTemplate implements SessionTemplate {
         if (channel != null) {
             channel.disconnect();
         }
-        if (session != null) {
+        if (session != null && !sharedSession) {
             session.disconnect();
         }
     }
@@ -127,6 +145,29 @@ public class SftpSessionTemplate implements SessionTemplate {
         return map;
     }
 
+    @Override
+    public List<RemoteFile> listFiles(String directory) throws Exception {
+        List<ChannelSftp.LsEntry> dirList = getDirList(directory);
+        String parent = directory.endsWith(SPLIT_PATTERN) ? directory : directory + SPLIT_PATTERN;
+        List<RemoteFile> files = new ArrayList<>(dirList.size());
+        for (ChannelSftp.LsEntry lsEntry : dirList) {
+            String name = lsEntry.getFilename();
+            if (".".equals(name) || "..".equals(name)) {
+                continue;
+            }
+            SftpATTRS attrs = lsEntry.getAttrs();
+            files.add(new RemoteFile(parent + name, name, attrs.isDir(), attrs.getSize(), attrs.getMTime() * 1000L));
+        }
+        return files;
+    }
+
+    @Override
+    public RemoteFile stat(String pathFile) throws Exception {
+        SftpATTRS attrs = channel.stat(pathFile);
+        String name = pathFile.substring(pathFile.lastIndexOf(SPLIT_PATTERN) + 1);
+        return new RemoteFile(pathFile, name, attrs.isDir(), attrs.getSize(), attrs.getMTime() * 1000L);
+    }
+
     /**
      * @param path   path
      * @param suffix suffix
@@ -187,6 +228,17 @@ public class SftpSessionTemplate implements SessionTemplate {
         return channel.get(pathFile);
     }
 
+    /**
+     * @param pathFile 远程文件
+     * @param offset   起始位置
+     * @return InputStream InputStream
+     * @throws Exception Exception
+     */
+    @Override
+    public InputStream getFileInputStream(String pathFile, long offset) throws Exception {
+        return channel.get(pathFile, null, offset);
+    }
+
     public OutputStream put(String des) throws SftpException {
         return channel.put(des);
     }
@@ -0,0 +1,54 @@
+package com.github.thestyleofme.driver.ftp.util.pool;
+
+import com.github.thestyleofme.driver.ftp.util.impl.FtpSessionTemplate;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+/**
+ * <p>
+ * FTP连接工厂，每个连接为一个独立登录的FTPClient
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class FtpSessionFactory extends BasePooledObjectFactory<FtpSessionTemplate> {
+
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+
+    public FtpSessionFactory(String host, int port, String username, String password) {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public FtpSessionTemplate create() throws Exception {
+        return new FtpSessionTemplate(host, port, username, password);
+    }
+
+    @Override
+    public PooledObject<FtpSessionTemplate> wrap(FtpSessionTemplate sessionTemplate) {
+        return new DefaultPooledObject<>(sessionTemplate);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<FtpSessionTemplate> pooledObject) {
+        return pooledObject.getObject().isAlive();
+    }
+
+    @Override
+    public void passivateObject(PooledObject<FtpSessionTemplate> pooledObject) throws Exception {
+        pooledObject.getObject().resetWorkingDirectory();
+    }
+
+    @Override
+    public void destroyObject(PooledObject<FtpSessionTemplate> pooledObject) throws Exception {
+        pooledObject.getObject().close();
+    }
+}
@@ -0,0 +1,254 @@
+package com.github.thestyleofme.driver.ftp.util.pool;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.ftp.constant.Key;
+import com.github.thestyleofme.driver.ftp.util.ListingCache;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
+import com.github.thestyleofme.driver.ftp.util.RemoteFiles;
+import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * <p>
+ * 带连接池的SessionTemplate，FTPClient与ChannelSftp都不是线程安全的，
+ * 每次操作从池中借出一个连接独占使用，用完归还
+ * 借出前校验连接，空闲连接定期检测并回收，连接失效时销毁，下次借出时重新建立
+ * 目录列表按listing.cacheTtl短时间缓存
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class PooledSessionTemplate<T extends SessionTemplate> implements SessionTemplate {
+
+    private static final int DEFAULT_MAX_TOTAL = 8;
+    private static final int DEFAULT_MIN_IDLE = 0;
+    private static final long DEFAULT_MAX_WAIT = 30_000L;
+    private static final long DEFAULT_IDLE_TIMEOUT = 300_000L;
+    private static final long DEFAULT_EVICTION_INTERVAL = 60_000L;
+
+    private final PooledObjectFactory<T> factory;
+    private final GenericObjectPool<T> pool;
+    private final ListingCache listingCache;
+
+    public PooledSessionTemplate(PooledObjectFactory<T> factory, Properties properties) {
+        this.factory = factory;
+        GenericObjectPoolConfig<T> config = new GenericObjectPoolConfig<>();
+        int maxTotal = intValue(properties, Key.POOL_MAX_TOTAL, DEFAULT_MAX_TOTAL);
+        config.setMaxTotal(maxTotal);
+        config.setMaxIdle(maxTotal);
+        config.setMinIdle(intValue(properties, Key.POOL_MIN_IDLE, DEFAULT_MIN_IDLE));
+        config.setMaxWaitMillis(longValue(properties, Key.POOL_MAX_WAIT, DEFAULT_MAX_WAIT));
+        config.setMinEvictableIdleTimeMillis(longValue(properties, Key.POOL_IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT));
+        config.setTimeBetweenEvictionRunsMillis(longValue(properties, Key.POOL_EVICTION_INTERVAL, DEFAULT_EVICTION_INTERVAL));
+        config.setTestOnBorrow(true);
+        config.setTestWhileIdle(true);
+        // 插件可能被多次加载，不注册jmx避免名称冲突
+        config.setJmxEnabled(false);
+        this.pool = new GenericObjectPool<>(factory, config);
+        this.listingCache = ListingCache.of(properties);
+    }
+
+    private static int intValue(Properties properties, String key, int defaultValue) {
+        return (int) longValue(properties, key, defaultValue);
+    }
+
+    private static long longValue(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Properties [" + key + "] must be a number: " + value);
+        }
+    }
+
+    /**
+     * 预先建立一个连接，用于创建数据源时校验地址及账号
+     *
+     * @throws Exception 连接失败
+     */
+    public void prepare() throws Exception {
+        pool.addObject();
+    }
+
+    /**
+     * 借出一个连接执行操作，执行失败且连接已失效时丢弃该连接
+     *
+     * @param callback 操作
+     * @param <R>      结果类型
+     * @return 结果
+     * @throws Exception 异常
+     */
+    public <R> R execute(SessionCallback<T, R> callback) throws Exception {
+        T session = this.borrow();
+        try {
+            R result = callback.doInSession(session);
+            pool.returnObject(session);
+            return result;
+        } catch (Exception e) {
+            this.release(session);
+            throw e;
+        }
+    }
+
+    /**
+     * 只读操作，连接失效导致失败时换一个新连接重试一次
+     */
+    private <R> R executeWithRetry(SessionCallback<T, R> callback) throws Exception {
+        T session = this.borrow();
+        try {
+            R result = callback.doInSession(session);
+            pool.returnObject(session);
+            return result;
+        } catch (Exception e) {
+            if (this.release(session)) {
+                throw e;
+            }
+            log.warn("session broken, retry with a new one", e);
+            return this.execute(callback);
+        }
+    }
+
+    private T borrow() throws Exception {
+        try {
+            return pool.borrowObject();
+        } catch (NoSuchElementException e) {
+            throw new DriverException(String.format("no idle session in %d ms, active: %d",
+                    pool.getMaxWaitMillis(), pool.getNumActive()), e);
+        }
+    }
+
+    /**
+     * 归还或销毁连接
+     *
+     * @return 连接是否仍可用
+     */
+    private boolean release(T session) {
+        boolean alive = session.isAlive();
+        try {
+            if (alive) {
+                pool.returnObject(session);
+            } else {
+                pool.invalidateObject(session);
+            }
+        } catch (Exception e) {
+            log.warn("release session error", e);
+        }
+        return alive;
+    }
+
+    @Override
+    public void uploadFile(String remoteFile, InputStream in) throws Exception {
+        this.execute(session -> {
+            session.uploadFile(remoteFile, in);
+            return null;
+        });
+        // 与通配符展开时列目录的路径取法一致
+        listingCache.invalidate(RemoteFiles.parentPath(remoteFile));
+    }
+
+    @Override
+    public void downloadFile(String remotePathFile, String localPathFile) throws Exception {
+        this.executeWithRetry(session -> {
+            session.downloadFile(remotePathFile, localPathFile);
+            return null;
+        });
+    }
+
+    /**
+     * 流关闭前连接一直被占用，关闭流时归还
+     */
+    @Override
+    public InputStream getFileInputStream(String pathFile) throws Exception {
+        return this.getFileInputStream(pathFile, 0L);
+    }
+
+    /**
+     * 流关闭前连接一直被占用，关闭流时归还
+     */
+    @Override
+    public InputStream getFileInputStream(String pathFile, long offset) throws Exception {
+        T session = this.borrow();
+        InputStream in;
+        try {
+            in = session.getFileInputStream(pathFile, offset);
+        } catch (Exception e) {
+            this.release(session);
+            throw e;
+        }
+        return new FilterInputStream(in) {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    PooledSessionTemplate.this.release(session);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Boolean> fileMap(String filePath) throws Exception {
+        return this.executeWithRetry(session -> session.fileMap(filePath));
+    }
+
+    /**
+     * 目录列表在listing.cacheTtl内复用
+     */
+    @Override
+    public List<RemoteFile> listFiles(String directory) {
+        return listingCache.get(directory, () -> this.executeWithRetry(session -> session.listFiles(directory)));
+    }
+
+    /**
+     * 不经过目录列表缓存，每次向服务端查询
+     */
+    @Override
+    public RemoteFile stat(String pathFile) throws Exception {
+        return this.executeWithRetry(session -> session.stat(pathFile));
+    }
+
+    /**
+     * 连接池最大连接数，为负数时不限制
+     */
+    @Override
+    public int maxSessions() {
+        int maxTotal = pool.getMaxTotal();
+        return maxTotal < 0 ? Integer.MAX_VALUE : maxTotal;
+    }
+
+    public ListingCache getListingCache() {
+        return listingCache;
+    }
+
+    @Override
+    public void close() throws Exception {
+        pool.close();
+        if (factory instanceof AutoCloseable) {
+            ((AutoCloseable) factory).close();
+        }
+    }
+}
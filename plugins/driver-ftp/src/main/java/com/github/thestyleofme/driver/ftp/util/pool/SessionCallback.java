@@ -0,0 +1,24 @@
+package com.github.thestyleofme.driver.ftp.util.pool;
+
+import com.github.thestyleofme.driver.ftp.util.SessionTemplate;
+
+/**
+ * <p>
+ * 使用从连接池借出的连接执行操作
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface SessionCallback<T extends SessionTemplate, R> {
+
+    /**
+     * 执行操作
+     *
+     * @param session 借出的连接，执行期间由当前线程独占
+     * @return 结果
+     * @throws Exception 异常
+     */
+    R doInSession(T session) throws Exception;
+}
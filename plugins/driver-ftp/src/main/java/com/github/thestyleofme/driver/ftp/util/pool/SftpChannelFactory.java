@@ -0,0 +1,75 @@
+package com.github.thestyleofme.driver.ftp.util.pool;
+
+import java.util.Objects;
+
+import com.github.thestyleofme.driver.ftp.util.impl.SftpSessionTemplate;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+/**
+ * <p>
+ * SFTP通道工厂，所有通道复用同一个ssh连接，只在连接断开后重新建立
+ * 通道数受服务端MaxSessions限制(OpenSSH默认10)
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class SftpChannelFactory extends BasePooledObjectFactory<SftpSessionTemplate> implements AutoCloseable {
+
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private Session session;
+
+    public SftpChannelFactory(String host, int port, String username, String password) {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+    }
+
+    private synchronized Session session() throws JSchException {
+        if (Objects.isNull(session) || !session.isConnected()) {
+            if (Objects.nonNull(session)) {
+                log.warn("sftp session to {}:{} disconnected, reconnecting", host, port);
+            }
+            session = SftpSessionTemplate.openSession(host, port, username, password);
+        }
+        return session;
+    }
+
+    @Override
+    public SftpSessionTemplate create() throws Exception {
+        return new SftpSessionTemplate(this.session());
+    }
+
+    @Override
+    public PooledObject<SftpSessionTemplate> wrap(SftpSessionTemplate sessionTemplate) {
+        return new DefaultPooledObject<>(sessionTemplate);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<SftpSessionTemplate> pooledObject) {
+        return pooledObject.getObject().isAlive();
+    }
+
+    @Override
+    public void destroyObject(PooledObject<SftpSessionTemplate> pooledObject) {
+        pooledObject.getObject().close();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(session)) {
+            session.disconnect();
+            session = null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.thestyleofme.driver.ftp.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * CsvRowIterator测试，表头、引号内的分隔符及换行、列数不一致、跳行及关闭
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class CsvRowIteratorTest {
+
+    private static final int BUFFER_SIZE = 16;
+
+    @Test
+    public void testHeader() {
+        TrackedInputStream in = stream("id,name\n1,a\n2,b\n", StandardCharsets.UTF_8);
+        CsvRowIterator iterator = new CsvRowIterator(in, ',', true, StandardCharsets.UTF_8, BUFFER_SIZE);
+        Assert.assertEquals(Arrays.asList("id", "name"), iterator.getColumns());
+        Assert.assertArrayEquals(new Object[]{"1", "a"}, iterator.next());
+        Assert.assertArrayEquals(new Object[]{"2", "b"}, iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        // 读完后自动关闭文件流
+        Assert.assertTrue(in.closed);
+    }
+
+    @Test
+    public void testWithoutHeader() {
+        CsvRowIterator iterator = new CsvRowIterator(stream("1|a\n2|b\n", StandardCharsets.UTF_8),
+                '|', false, StandardCharsets.UTF_8, BUFFER_SIZE);
+        // 列名为列下标，第一行作为数据返回
+        Assert.assertEquals(Arrays.asList("0", "1"), iterator.getColumns());
+        List<Map<String, Object>> rows = iterator.toList(0);
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals("1", rows.get(0).get("0"));
+        Assert.assertEquals("a", rows.get(0).get("1"));
+        Assert.assertEquals("b", rows.get(1).get("1"));
+    }
+
+    @Test
+    public void testQuoted() {
+        String csv = "id,remark\n1,\"a,b\"\n2,\"line1\nline2\"\n3,\"say \"\"hi\"\"\"\n";
+        CsvRowIterator iterator = new CsvRowIterator(stream(csv, StandardCharsets.UTF_8),
+                ',', true, StandardCharsets.UTF_8, BUFFER_SIZE);
+        Assert.assertArrayEquals(new Object[]{"1", "a,b"}, iterator.next());
+        Assert.assertArrayEquals(new Object[]{"2", "line1\nline2"}, iterator.next());
+        Assert.assertArrayEquals(new Object[]{"3", "say \"hi\""}, iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testRaggedRows() {
+        CsvRowIterator iterator = new CsvRowIterator(stream("a,b,c\n1\n1,2,3,4\n", StandardCharsets.UTF_8),
+                ',', true, StandardCharsets.UTF_8, BUFFER_SIZE);
+        // 缺少的列为null，多余的列丢弃
+        Assert.assertArrayEquals(new Object[]{"1", null, null}, iterator.next());
+        Assert.assertArrayEquals(new Object[]{"1", "2", "3"}, iterator.next());
+    }
+
+    @Test
+    public void testSkip() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            csv.append(i).append(",\"x\ny\"\n");
+        }
+        CsvRowIterator iterator = new CsvRowIterator(stream(csv.toString(), StandardCharsets.UTF_8),
+                ',', false, StandardCharsets.UTF_8, BUFFER_SIZE);
+        // 第一行已预读，同样计入跳过的行数
+        Assert.assertEquals(3L, iterator.skip(3));
+        Assert.assertEquals("3", iterator.next()[0]);
+        Assert.assertEquals(6L, iterator.skip(100));
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testEmptyAndClose() {
+        CsvRowIterator empty = new CsvRowIterator(stream("", StandardCharsets.UTF_8),
+                ',', true, StandardCharsets.UTF_8, BUFFER_SIZE);
+        Assert.assertEquals(Collections.emptyList(), empty.getColumns());
+        Assert.assertFalse(empty.hasNext());
+
+        TrackedInputStream in = stream("a\n1\n2\n", StandardCharsets.UTF_8);
+        CsvRowIterator iterator = new CsvRowIterator(in, ',', true, StandardCharsets.UTF_8, BUFFER_SIZE);
+        iterator.next();
+        iterator.close();
+        Assert.assertTrue(in.closed);
+        Assert.assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            Assert.fail("next after close");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCharset() {
+        Charset gbk = Charset.forName("GBK");
+        CsvRowIterator iterator = new CsvRowIterator(stream("名称\n中文\n", gbk), ',', true, gbk, BUFFER_SIZE);
+        Assert.assertEquals(Collections.singletonList("名称"), iterator.getColumns());
+        Assert.assertArrayEquals(new Object[]{"中文"}, iterator.next());
+    }
+
+    private static TrackedInputStream stream(String text, Charset charset) {
+        return new TrackedInputStream(text.getBytes(charset));
+    }
+
+    private static class TrackedInputStream extends ByteArrayInputStream {
+
+        private boolean closed;
+
+        private TrackedInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+import java.util.Properties;
+
+import com.github.thestyleofme.driver.ftp.constant.Key;
+import com.github.thestyleofme.driver.ftp.util.RemoteFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.DigestUtils;
+
+/**
+ * <p>
+ * LocalFileCache测试，可缓存判断、缓存key、.part提交、按访问时间淘汰及目录权限
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class LocalFileCacheTest {
+
+    private static final byte[] CONTENT = "abcd".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCacheable() throws IOException {
+        LocalFileCache cache = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 100, 10);
+        Assert.assertFalse(cache.cacheable(file("/a.csv", 0, 1L)));
+        Assert.assertTrue(cache.cacheable(file("/a.csv", 10, 1L)));
+        Assert.assertFalse(cache.cacheable(file("/a.csv", 11, 1L)));
+        // 单个文件上限不超过总上限
+        LocalFileCache small = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 5, 10);
+        Assert.assertFalse(small.cacheable(file("/a.csv", 6, 1L)));
+    }
+
+    @Test
+    public void testKey() throws IOException {
+        LocalFileCache cache = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 100, 10);
+        String key = cache.key(file("/a.csv", 10, 1L));
+        Assert.assertEquals(key, cache.key(file("/a.csv", 10, 1L)));
+        // 远程文件变化后key随之变化
+        Assert.assertNotEquals(key, cache.key(file("/a.csv", 11, 1L)));
+        Assert.assertNotEquals(key, cache.key(file("/a.csv", 10, 2L)));
+        Assert.assertNotEquals(key, cache.key(file("/b.csv", 10, 1L)));
+    }
+
+    @Test
+    public void testLock() throws IOException {
+        LocalFileCache cache = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 100, 10);
+        Assert.assertTrue(cache.lock("k"));
+        Assert.assertFalse(cache.lock("k"));
+        cache.unlock("k");
+        Assert.assertTrue(cache.lock("k"));
+    }
+
+    @Test
+    public void testCommit() throws IOException {
+        LocalFileCache cache = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 100, 10);
+        Assert.assertFalse(cache.get("k").isPresent());
+        Path part = cache.partFile("k");
+        Files.write(part, CONTENT);
+        // 未提交的.part不可读取
+        Assert.assertFalse(cache.get("k").isPresent());
+        cache.commit("k");
+        Assert.assertFalse(Files.exists(part));
+        Optional<Path> cached = cache.get("k");
+        Assert.assertTrue(cached.isPresent());
+        Assert.assertArrayEquals(CONTENT, Files.readAllBytes(cached.get()));
+    }
+
+    @Test
+    public void testEvict() throws IOException {
+        LocalFileCache cache = new LocalFileCache(folder.newFolder().toPath().resolve("cache"), 10, 10);
+        Path directory = cache.partFile("a").getParent();
+        write(directory.resolve("a"), 1000L);
+        write(directory.resolve("b"), 2000L);
+        write(directory.resolve("c"), 3000L);
+        cache.evict();
+        // 超出上限时淘汰最早访问的文件
+        Assert.assertFalse(Files.exists(directory.resolve("a")));
+        Assert.assertTrue(Files.exists(directory.resolve("b")));
+        Assert.assertTrue(Files.exists(directory.resolve("c")));
+
+        // 正在写入的文件不淘汰
+        write(cache.partFile("d"), 500L);
+        Assert.assertTrue(cache.lock("d"));
+        cache.evict();
+        Assert.assertTrue(Files.exists(cache.partFile("d")));
+        Assert.assertFalse(Files.exists(directory.resolve("b")));
+        Assert.assertTrue(Files.exists(directory.resolve("c")));
+    }
+
+    @Test
+    public void testPrivateDirectory() throws IOException {
+        Path directory = folder.newFolder().toPath().resolve("cache");
+        new LocalFileCache(directory, 100, 10);
+        Assert.assertTrue(Files.isDirectory(directory));
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Assert.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+        }
+    }
+
+    @Test
+    public void testOf() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(Key.HOST, "127.0.0.1");
+        properties.setProperty(Key.PORT, "21");
+        Assert.assertNull(LocalFileCache.of(properties));
+        properties.setProperty(Key.CACHE_MAX_BYTES, "0");
+        Assert.assertNull(LocalFileCache.of(properties));
+
+        Path root = folder.newFolder().toPath();
+        properties.setProperty(Key.CACHE_MAX_BYTES, "100");
+        properties.setProperty(Key.CACHE_DIR, root.toString());
+        Assert.assertNotNull(LocalFileCache.of(properties));
+        // 按服务器地址区分子目录
+        String namespace = DigestUtils.md5DigestAsHex("127.0.0.1:21".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(Files.isDirectory(root.resolve(namespace)));
+    }
+
+    private static RemoteFile file(String path, long size, long modifiedTime) {
+        return new RemoteFile(path, path.substring(path.lastIndexOf('/') + 1), false, size, modifiedTime);
+    }
+
+    private static void write(Path file, long modifiedTime) throws IOException {
+        Files.write(file, CONTENT);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedTime));
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.github.thestyleofme.driver.ftp.util.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * ResumableInputStream测试，读取中断后从断点续传、分段读取及重试上限，不连接服务端
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class ResumableInputStreamTest {
+
+    private static final byte[] DATA = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testResumeAfterError() throws IOException {
+        // 第一次打开的流读到5个字节后断开
+        FlakyOpener opener = new FlakyOpener(5, false, 1);
+        try (ResumableInputStream in = new ResumableInputStream(opener, 0, -1, 3)) {
+            Assert.assertArrayEquals(DATA, readAll(in));
+            Assert.assertEquals(DATA.length, in.getPosition());
+        }
+        Assert.assertEquals(Arrays.asList(0L, 5L), opener.offsets);
+    }
+
+    @Test
+    public void testResumeAfterEarlyEnd() throws IOException {
+        // 指定结束位置时，提前结束同样从断点续传
+        FlakyOpener opener = new FlakyOpener(4, true, 1);
+        try (ResumableInputStream in = new ResumableInputStream(opener, 2, 12, 3)) {
+            Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 2, 12), readAll(in));
+            Assert.assertEquals(12L, in.getPosition());
+        }
+        Assert.assertEquals(Arrays.asList(2L, 6L), opener.offsets);
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        FlakyOpener opener = new FlakyOpener(-1, false, 0);
+        try (ResumableInputStream in = new ResumableInputStream(opener, 10, 15, 0)) {
+            Assert.assertArrayEquals(Arrays.copyOfRange(DATA, 10, 15), readAll(in));
+            Assert.assertEquals(-1, in.read());
+        }
+        Assert.assertEquals(Collections.singletonList(10L), opener.offsets);
+    }
+
+    @Test
+    public void testMaxRetries() {
+        // 每次打开后立即断开，没有进展
+        FlakyOpener opener = new FlakyOpener(0, false, Integer.MAX_VALUE);
+        try (ResumableInputStream in = new ResumableInputStream(opener, 0, -1, 1)) {
+            readAll(in);
+            Assert.fail("read succeeds although every attempt fails");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(Arrays.asList(0L, 0L), opener.offsets);
+    }
+
+    @Test
+    public void testNoRetryOnDriverException() {
+        List<Long> offsets = new ArrayList<>();
+        ResumableInputStream in = new ResumableInputStream(offset -> {
+            offsets.add(offset);
+            throw new DriverException("No such file");
+        }, 0, -1, 3);
+        try {
+            in.read();
+            Assert.fail("missing file is read");
+        } catch (IOException e) {
+            Assert.assertEquals("No such file", e.getMessage());
+        }
+        // 服务端明确拒绝时不重试
+        Assert.assertEquals(Collections.singletonList(0L), offsets);
+    }
+
+    @Test
+    public void testReadAfterClose() {
+        ResumableInputStream in = new ResumableInputStream(new FlakyOpener(-1, false, 0), 0, -1, 0);
+        in.close();
+        try {
+            in.read();
+            Assert.fail("read after close");
+        } catch (IOException e) {
+            Assert.assertEquals("stream closed", e.getMessage());
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[3];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 前failures次打开的流读到breakAfter个字节后抛出异常或提前结束
+     */
+    private static class FlakyOpener implements ResumableInputStream.Opener {
+
+        private final int breakAfter;
+        private final boolean earlyEnd;
+        private final List<Long> offsets = new ArrayList<>();
+        private int failures;
+
+        private FlakyOpener(int breakAfter, boolean earlyEnd, int failures) {
+            this.breakAfter = breakAfter;
+            this.earlyEnd = earlyEnd;
+            this.failures = failures;
+        }
+
+        @Override
+        public InputStream open(long offset) {
+            offsets.add(offset);
+            boolean broken = failures-- > 0;
+            return new ByteArrayInputStream(DATA, (int) offset, DATA.length - (int) offset) {
+                private int read;
+
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    if (broken && read >= breakAfter) {
+                        if (earlyEnd) {
+                            return -1;
+                        }
+                        throw new IllegalStateException("connection reset");
+                    }
+                    int n = super.read(b, off, broken ? Math.min(len, breakAfter - read) : len);
+                    read += Math.max(n, 0);
+                    return n;
+                }
+            };
+        }
+    }
+
+}
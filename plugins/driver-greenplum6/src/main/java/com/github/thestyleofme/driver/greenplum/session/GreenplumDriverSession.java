@@ -1,11 +1,15 @@
 package com.github.thestyleofme.driver.greenplum.session;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.core.app.service.session.funcations.copier.StreamCopier;
+import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.SeekSqlExtractor;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.greenplum.generator.GreenplumSqlGenerator;
@@ -31,6 +35,17 @@ public class GreenplumDriverSession extends AbstractRdbmsDriverSession {
         super(dataSource);
     }
 
+    @Override
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        // 关闭自动提交后驱动才会使用服务端游标按fetchSize分批拉取，连接归还连接池时重置
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    protected Optional<StreamCopier> streamCopier() {
+        return Optional.of(CopyManagerCopier.INSTANCE);
+    }
+
 
     @Override
     public SqlGenerator getSqlGenerator() {
@@ -52,6 +67,12 @@ public class GreenplumDriverSession extends AbstractRdbmsDriverSession {
         return String.format(DATE_FMT, dateString, fmt);
     }
 
+    @Override
+    protected SeekSqlExtractor.SeekSql seekPredicate(List<String> keyColumns) {
+        // 行值比较可直接利用联合主键索引
+        return SeekSqlExtractor.rowValuePredicate(keyColumns);
+    }
+
     @Override
     public List<Column> updateComment(List<Column> columns) {
         if (CollectionUtils.isEmpty(columns)) {
@@ -0,0 +1,169 @@
+package com.github.thestyleofme.driver.metastore;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.metastore.api.TableMeta;
+import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
+import org.apache.thrift.ProcessFunction;
+import org.apache.thrift.TBase;
+import org.apache.thrift.TBaseProcessor;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.server.TSimpleServer;
+import org.apache.thrift.transport.TServerSocket;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * HiveMetastore测试，在进程内启动桩metastore，不依赖外部服务
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class HiveMetastoreTest {
+
+    private static final String DB = "test";
+    private static final String GET_TABLE_META = "get_table_meta";
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private TServerSocket serverSocket;
+    private TServer server;
+
+    @After
+    public void stop() {
+        if (Objects.nonNull(server)) {
+            server.stop();
+        }
+        if (Objects.nonNull(serverSocket)) {
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void testTablesByTableMeta() throws Exception {
+        HiveMetastore metastore = this.start(false);
+
+        List<HiveMetastore.TableInfo> views = metastore.tables(DB, "order", true);
+        Assert.assertEquals(Collections.singletonList("order_view"), names(views));
+        Assert.assertEquals("view comment", views.get(0).getComment());
+
+        List<HiveMetastore.TableInfo> tables = metastore.tables(DB, "order", false);
+        Assert.assertEquals(Arrays.asList("order_detail", "order_head"), names(tables));
+
+        Assert.assertTrue(calls.contains(GET_TABLE_META));
+        Assert.assertFalse("table objects should not be fetched", calls.contains("get_table_objects_by_name"));
+    }
+
+    @Test
+    public void testTablesFallbackToTableObjects() throws Exception {
+        HiveMetastore metastore = this.start(true);
+
+        List<HiveMetastore.TableInfo> tables = metastore.tables(DB, null, false);
+        Assert.assertEquals(Arrays.asList("order_detail", "order_head", "user_info"), names(tables));
+        Assert.assertEquals("head comment", tables.get(1).getComment());
+
+        List<HiveMetastore.TableInfo> all = metastore.tables(DB, "order", null);
+        Assert.assertEquals(Arrays.asList("order_detail", "order_head", "order_view"), names(all));
+        Assert.assertTrue(all.get(2).isView());
+
+        Assert.assertTrue(calls.contains("get_table_objects_by_name"));
+    }
+
+    /**
+     * 启动桩metastore
+     *
+     * @param legacy 是否模拟不支持get_table_meta的旧版本
+     * @return 连接桩metastore的HiveMetastore
+     */
+    @SuppressWarnings("rawtypes")
+    private HiveMetastore start(boolean legacy) throws Exception {
+        ThriftHiveMetastore.Iface iface = this.stub();
+        Map<String, ProcessFunction<ThriftHiveMetastore.Iface, ? extends TBase>> functions =
+                new HashMap<>(new ThriftHiveMetastore.Processor<>(iface).getProcessMapView());
+        if (legacy) {
+            // 服务端不认识的方法返回UNKNOWN_METHOD
+            functions.remove(GET_TABLE_META);
+        }
+        TProcessor processor = new TBaseProcessor<ThriftHiveMetastore.Iface>(iface, functions) {
+        };
+        serverSocket = new TServerSocket(0);
+        server = new TSimpleServer(new TServer.Args(serverSocket).processor(processor));
+        Thread thread = new Thread(server::serve, "stub-metastore");
+        thread.setDaemon(true);
+        thread.start();
+        int port = serverSocket.getServerSocket().getLocalPort();
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!server.isServing() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        return new HiveMetastore(Collections.singletonList(URI.create("thrift://127.0.0.1:" + port)),
+                5000, 2, false, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ThriftHiveMetastore.Iface stub() {
+        Map<String, Table> tables = new TreeMap<>();
+        tables.put("order_detail", table("order_detail", "MANAGED_TABLE", null));
+        tables.put("order_head", table("order_head", "EXTERNAL_TABLE", "head comment"));
+        tables.put("order_view", table("order_view", "VIRTUAL_VIEW", "view comment"));
+        tables.put("user_info", table("user_info", "MANAGED_TABLE", null));
+        return (ThriftHiveMetastore.Iface) Proxy.newProxyInstance(ThriftHiveMetastore.Iface.class.getClassLoader(),
+                new Class<?>[]{ThriftHiveMetastore.Iface.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    switch (method.getName()) {
+                        case GET_TABLE_META:
+                            List<String> types = (List<String>) args[2];
+                            return tables.values().stream()
+                                    .filter(table -> matches((String) args[1], table.getTableName()))
+                                    .filter(table -> Objects.isNull(types) || types.contains(table.getTableType()))
+                                    .map(table -> {
+                                        TableMeta meta = new TableMeta(DB, table.getTableName(), table.getTableType());
+                                        meta.setComments(table.getParameters().get("comment"));
+                                        return meta;
+                                    })
+                                    .collect(Collectors.toList());
+                        case "get_tables":
+                            return tables.keySet().stream()
+                                    .filter(name -> matches((String) args[1], name))
+                                    .collect(Collectors.toList());
+                        case "get_table_objects_by_name":
+                            return ((List<String>) args[1]).stream()
+                                    .map(tables::get)
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toList());
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Table table(String name, String type, String comment) {
+        Table table = new Table();
+        table.setDbName(DB);
+        table.setTableName(name);
+        table.setTableType(type);
+        Map<String, String> parameters = new HashMap<>(2);
+        if (Objects.nonNull(comment)) {
+            parameters.put("comment", comment);
+        }
+        table.setParameters(parameters);
+        return table;
+    }
+
+    private static boolean matches(String pattern, String name) {
+        return Pattern.matches(pattern.replace("*", ".*"), name);
+    }
+
+    private static List<String> names(List<HiveMetastore.TableInfo> tables) {
+        return tables.stream().map(HiveMetastore.TableInfo::getName).sorted().collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,353 @@
+package com.github.thestyleofme.driver.hive.session.metastore;
+
+import java.net.URI;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
+import org.apache.hadoop.hive.metastore.api.Table;
+import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 直连Hive Metastore获取元数据，不经过HiveServer2，不创建hive会话也不编译sql
+ * 每次操作建立一个thrift连接，多个uri时依次尝试；表对象按hive.metastore.batch.retrieve.max分批获取
+ * 不支持sasl认证，开启kerberos的metastore请不要配置hive.metastore.uris，仍走jdbc
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class HiveMetastore {
+
+    /**
+     * metastore地址，如thrift://host1:9083,thrift://host2:9083，未配置时走jdbc
+     */
+    public static final String METASTORE_URIS = "hive.metastore.uris";
+    /**
+     * 读超时，单位秒，可带s后缀
+     */
+    public static final String METASTORE_TIMEOUT = "hive.metastore.client.socket.timeout";
+    /**
+     * 每批获取的表对象数
+     */
+    public static final String METASTORE_BATCH_SIZE = "hive.metastore.batch.retrieve.max";
+    public static final String METASTORE_FRAMED = "hive.metastore.thrift.framed.transport.enabled";
+    public static final String METASTORE_COMPACT = "hive.metastore.thrift.compact.protocol.enabled";
+    public static final String METASTORE_SASL = "hive.metastore.sasl.enabled";
+    private static final String METASTORE_PREFIX = "hive.metastore.";
+    private static final int DEFAULT_TIMEOUT_SECONDS = 600;
+    private static final int DEFAULT_BATCH_SIZE = 300;
+    private static final String VIRTUAL_VIEW = "VIRTUAL_VIEW";
+    private static final String COMMENT = "comment";
+
+    private final List<URI> uris;
+    private final int timeoutMillis;
+    private final int batchSize;
+    private final boolean framed;
+    private final boolean compact;
+
+    public HiveMetastore(List<URI> uris, int timeoutMillis, int batchSize, boolean framed, boolean compact) {
+        this.uris = uris;
+        this.timeoutMillis = timeoutMillis;
+        this.batchSize = batchSize;
+        this.framed = framed;
+        this.compact = compact;
+    }
+
+    /**
+     * 按数据源配置创建
+     *
+     * @param properties 数据源配置
+     * @return 未配置hive.metastore.uris时为空
+     */
+    public static Optional<HiveMetastore> of(Properties properties) {
+        String value = properties.getProperty(METASTORE_URIS);
+        if (StringUtils.isEmpty(value)) {
+            return Optional.empty();
+        }
+        if (Boolean.parseBoolean(properties.getProperty(METASTORE_SASL))) {
+            log.warn("sasl metastore is not supported, metadata will be fetched through jdbc");
+            return Optional.empty();
+        }
+        List<URI> uris = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(URI::create)
+                .collect(Collectors.toList());
+        String timeout = properties.getProperty(METASTORE_TIMEOUT, String.valueOf(DEFAULT_TIMEOUT_SECONDS)).trim();
+        if (timeout.endsWith("s")) {
+            timeout = timeout.substring(0, timeout.length() - 1);
+        }
+        int batchSize = Integer.parseInt(properties.getProperty(METASTORE_BATCH_SIZE, String.valueOf(DEFAULT_BATCH_SIZE)));
+        return Optional.of(new HiveMetastore(uris,
+                Integer.parseInt(timeout) * 1000,
+                Math.max(1, batchSize),
+                Boolean.parseBoolean(properties.getProperty(METASTORE_FRAMED)),
+                Boolean.parseBoolean(properties.getProperty(METASTORE_COMPACT))));
+    }
+
+    /**
+     * metastore配置不是连接池参数，创建连接池前移除
+     *
+     * @param properties 数据源配置
+     */
+    public static void removeSettings(Properties properties) {
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(METASTORE_PREFIX))
+                .forEach(properties::remove);
+    }
+
+    public List<String> databases() {
+        return this.execute(ThriftHiveMetastore.Iface::get_all_databases);
+    }
+
+    /**
+     * 表名列表
+     *
+     * @param db      库
+     * @param pattern 表名包含的字符，为空时返回全部
+     * @return 表名
+     */
+    public List<String> tableNames(String db, String pattern) {
+        if (StringUtils.isEmpty(pattern)) {
+            return this.execute(client -> client.get_all_tables(db));
+        }
+        return this.execute(client -> client.get_tables(db, "*" + pattern + "*"));
+    }
+
+    public Table table(String db, String table) {
+        return this.execute(client -> client.get_table(db, table));
+    }
+
+    /**
+     * 分批获取表对象，同一个连接上完成
+     *
+     * @param db     库
+     * @param tables 表名
+     * @return 表对象，不存在的表被忽略
+     */
+    public List<Table> tables(String db, List<String> tables) {
+        return this.execute(client -> this.tables(client, db, tables));
+    }
+
+    private List<Table> tables(ThriftHiveMetastore.Iface client, String db, List<String> tables) throws TException {
+        List<Table> result = new ArrayList<>(tables.size());
+        for (int i = 0; i < tables.size(); i += batchSize) {
+            result.addAll(client.get_table_objects_by_name(db, tables.subList(i, Math.min(tables.size(), i + batchSize))));
+        }
+        return result;
+    }
+
+    /**
+     * 获取库下满足条件的表名、类型及注释
+     * hive1.x的metastore没有get_table_meta，按表名分批获取表对象
+     *
+     * @param db      库
+     * @param pattern 表名包含的字符，为空时返回全部
+     * @param view    true只返回视图，false只返回表，null全部返回
+     * @return 表信息
+     */
+    public List<TableInfo> tables(String db, String pattern, Boolean view) {
+        String tablePattern = StringUtils.isEmpty(pattern) ? "*" : "*" + pattern + "*";
+        return filter(this.execute(client -> this.tableInfos(client, db, tablePattern)), view);
+    }
+
+    private List<TableInfo> tableInfos(ThriftHiveMetastore.Iface client, String db, String tablePattern)
+            throws TException {
+        List<Table> tables = this.tables(client, db, client.get_tables(db, tablePattern));
+        List<TableInfo> result = new ArrayList<>(tables.size());
+        tables.forEach(table -> result.add(new TableInfo(table.getTableName(), table.getTableType(), comment(table))));
+        return result;
+    }
+
+    private static List<TableInfo> filter(List<TableInfo> tables, Boolean view) {
+        if (Objects.isNull(view)) {
+            return tables;
+        }
+        return tables.stream()
+                .filter(table -> view.equals(table.isView()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 分区名，如dt=2020-07-22/hour=01
+     *
+     * @param db         库
+     * @param table      表
+     * @param partValues 按分区字段顺序的部分分区值，空串匹配任意值，为空时返回全部
+     * @return RowIterator，只有一列分区名
+     */
+    public RowIterator partitionNames(String db, String table, List<String> partValues) {
+        List<String> names = this.execute(client -> partValues.isEmpty() ?
+                client.get_partition_names(db, table, (short) -1) :
+                client.get_partition_names_ps(db, table, partValues, (short) -1));
+        Iterator<String> iterator = names.iterator();
+        List<String> columns = Collections.singletonList("partition");
+        return new RowIterator() {
+            @Override
+            public List<String> getColumns() {
+                return columns;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{iterator.next()};
+            }
+
+            @Override
+            public void close() {
+                // 结果已在内存中
+            }
+        };
+    }
+
+    /**
+     * 表注释
+     *
+     * @param table 表对象
+     * @return 注释，没有时为空串
+     */
+    public static String comment(Table table) {
+        return Optional.ofNullable(table.getParameters()).map(p -> p.get(COMMENT)).orElse("");
+    }
+
+    /**
+     * 存储信息，与从建表语句中解析的结果一致：format、delim、hdfsUrl、warehouse
+     *
+     * @param table 表对象
+     * @return 存储信息
+     */
+    public static Map<String, Object> storage(Table table) {
+        Map<String, Object> result = new HashMap<>(5);
+        StorageDescriptor sd = table.getSd();
+        if (Objects.isNull(sd)) {
+            return result;
+        }
+        String inputFormat = Optional.ofNullable(sd.getInputFormat()).orElse("");
+        if (inputFormat.contains("OrcInputFormat")) {
+            result.put("format", "orc");
+        } else if (inputFormat.contains("TextInputFormat")) {
+            result.put("format", "text");
+        }
+        if (Objects.nonNull(sd.getSerdeInfo()) && Objects.nonNull(sd.getSerdeInfo().getParameters())) {
+            Optional.ofNullable(sd.getSerdeInfo().getParameters().get("field.delim"))
+                    .ifPresent(delim -> result.put("delim", delim));
+        }
+        if (!StringUtils.isEmpty(sd.getLocation())) {
+            URI location = URI.create(sd.getLocation());
+            result.put("hdfsUrl", location.getScheme() + "://" + location.getAuthority());
+            result.put("warehouse", location.getPath());
+        }
+        return result;
+    }
+
+    /**
+     * 普通列，不含分区字段
+     *
+     * @param table 表对象
+     * @return 列
+     */
+    public static List<FieldSchema> columns(Table table) {
+        return Objects.isNull(table.getSd()) || Objects.isNull(table.getSd().getCols()) ?
+                Collections.emptyList() : table.getSd().getCols();
+    }
+
+    /**
+     * 打开连接执行操作，连接失败时尝试下一个uri
+     *
+     * @param callback 操作
+     * @param <T>      结果类型
+     * @return 结果
+     */
+    public <T> T execute(MetastoreCallback<T> callback) {
+        TTransportException lastError = null;
+        for (URI uri : uris) {
+            TTransport transport = new TSocket(uri.getHost(), uri.getPort(), timeoutMillis);
+            if (framed) {
+                transport = new TFramedTransport(transport);
+            }
+            try {
+                transport.open();
+            } catch (TTransportException e) {
+                log.warn("connect metastore {} error", uri, e);
+                lastError = e;
+                continue;
+            }
+            try {
+                TProtocol protocol = compact ? new TCompactProtocol(transport) : new TBinaryProtocol(transport);
+                return callback.apply(new ThriftHiveMetastore.Client(protocol));
+            } catch (TException e) {
+                throw new DriverException("metastore " + uri + " error", e);
+            } finally {
+                transport.close();
+            }
+        }
+        throw new DriverException("no metastore available, " + uris, lastError);
+    }
+
+    /**
+     * 表名、类型及注释，列表场景不需要完整的表对象
+     */
+    public static class TableInfo {
+
+        private final String name;
+        private final String type;
+        private final String comment;
+
+        public TableInfo(String name, String type, String comment) {
+            this.name = name;
+            this.type = type;
+            this.comment = Optional.ofNullable(comment).orElse("");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public boolean isView() {
+            return VIRTUAL_VIEW.equalsIgnoreCase(type);
+        }
+    }
+
+    @FunctionalInterface
+    public interface MetastoreCallback<T> {
+
+        /**
+         * 在metastore连接上执行
+         *
+         * @param client metastore客户端
+         * @return 结果
+         * @throws TException TException
+         */
+        T apply(ThriftHiveMetastore.Iface client) throws TException;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.thestyleofme.driver.hive2.session;
 
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hive.jdbc.HiveConnection;
@@ -18,6 +19,9 @@ import org.apache.hive.jdbc.HiveConnection;
 @Slf4j
 public class HiveSaveConnection extends HiveConnection {
 
+    private static final long VALID_CACHE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private volatile long lastValidTime;
+
     public HiveSaveConnection(String uri, Properties info) throws SQLException {
         super(uri, info);
     }
@@ -32,9 +36,30 @@ public class HiveSaveConnection extends HiveConnection {
         log.warn("org.apache.hive.jdbc.HiveConnection.setAutoCommit Method not supported");
     }
 
+    /**
+     * 通过GetInfo请求校验会话，不编译执行sql；VALID_CACHE_MILLIS内校验成功过的直接返回
+     */
     @Override
-    public boolean isValid(int timeout) {
-        return true;
+    public boolean isValid(int timeout) throws SQLException {
+        if (timeout < 0) {
+            throw new SQLException("timeout value was negative");
+        }
+        if (this.isClosed()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastValidTime < VALID_CACHE_MILLIS) {
+            return true;
+        }
+        try {
+            this.getMetaData().getDatabaseProductName();
+            lastValidTime = now;
+            return true;
+        } catch (SQLException e) {
+            log.warn("hive connection is invalid", e);
+            lastValidTime = 0L;
+            return false;
+        }
     }
 
 }
@@ -69,6 +69,15 @@ public class Hive2DriverSessionTest {
         partitionKeyList.forEach(p -> System.out.println(p.toString()));
     }
 
+    @Test
+    public void testPartitionSummary() {
+        PartitionSummary summary = driverSession.partitionSummary("terry", "test_partition_sq");
+        System.out.println(summary);
+        assertSame(summary, driverSession.partitionSummary("terry", "test_partition_sq"));
+        assertEquals(summary.getPartitionKeys().size(),
+                driverSession.partitionList("terry", "test_partition_sq").size());
+    }
+
     @Test
     public void testParseMetastore() {
         Map<String, Object> map = driverSession.parseMetastore("default", "test_part_table");
@@ -140,6 +149,16 @@ public class Hive2DriverSessionTest {
         assertFalse(executeAll.isEmpty());
     }
 
+    /**
+     * 脚本中切换库后，下次执行仍在指定的库
+     */
+    @Test
+    public void testExecuteAllAfterUse() {
+        driverSession.executeAll("default", "use terry;\nselect current_database();", true);
+        List<List<Map<String, Object>>> result = driverSession.executeAll("default", "select current_database()", true);
+        assertEquals("default", result.get(0).get(0).values().iterator().next());
+    }
+
 
     //===============================================================================
     //  TableSession
@@ -1,10 +1,13 @@
 package com.github.thestyleofme.driver.kylin.datasource;
 
+import java.util.Properties;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourceFunction;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourcePoolFactory;
+import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
 import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
+import com.github.thestyleofme.driver.kylin.session.KylinCubeCache;
 import org.apache.kylin.jdbc.Driver;
 import org.springframework.stereotype.Component;
 
@@ -19,7 +22,11 @@ public class KylinDataSourceFunction implements DriverDataSourceFunction<PluginD
 
     @Override
     public DataSource createDataSource(PluginDatasourceVO pluginDatasourceVO) {
-        return DriverDataSourcePoolFactory.create(pluginDatasourceVO);
+        Properties properties = DriverUtil.parseDatasourceSettingInfo(pluginDatasourceVO);
+        DataSource dataSource = DriverDataSourcePoolFactory.create(pluginDatasourceVO, KylinCubeCache::removeSettings);
+        // 通过rest api感知cube构建，缓存查询结果
+        KylinCubeCache.register(dataSource, properties);
+        return dataSource;
     }
 
     @Override
@@ -0,0 +1,40 @@
+package com.github.thestyleofme.driver.kylin.meta;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * kylin cube，tables为cube所属模型的事实表与维表，查询只涉及这些表时可能命中cube，否则下压到hive
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class KylinCube {
+
+    private String name;
+    /**
+     * READY、DISABLED，只有READY的cube能被查询命中
+     */
+    private String status;
+    private String project;
+    private String model;
+    /**
+     * 模型中的表，形如DEFAULT.KYLIN_SALES
+     */
+    private List<String> tables;
+    private List<KylinSegment> segments;
+
+    public boolean isReady() {
+        return "READY".equalsIgnoreCase(status);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.thestyleofme.driver.kylin.meta;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * cube segment
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class KylinSegment {
+
+    private String uuid;
+    private String name;
+    /**
+     * READY、NEW、READY_PENDING
+     */
+    private String status;
+    /**
+     * segment覆盖的时间范围，毫秒
+     */
+    private Long dateRangeStart;
+    private Long dateRangeEnd;
+    /**
+     * 构建完成时间，毫秒
+     */
+    private Long lastBuildTime;
+    private Long sizeKb;
+    private Long inputRecords;
+}
@@ -0,0 +1,196 @@
+package com.github.thestyleofme.driver.kylin.session;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import javax.sql.DataSource;
+
+import com.github.thestyleofme.driver.kylin.meta.KylinCube;
+import com.github.thestyleofme.driver.kylin.meta.KylinSegment;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * kylin项目的cube快照与查询结果缓存
+ * 每隔kylin.cube.poll.seconds通过rest api拉取一次cube与segment，segment构建时间或cube状态变化时清空查询结果缓存；
+ * 拉取失败时cube状态未知，不使用缓存。下压到hive的查询结果与cube无关，缓存最多保留RESULT_TTL_MILLIS
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class KylinCubeCache {
+
+    public static final String SETTING_PREFIX = "kylin.";
+    public static final String CACHE_ENABLED = "kylin.query.cache.enabled";
+    public static final String CACHE_MAX_ENTRIES = "kylin.query.cache.max.entries";
+    public static final String CACHE_MAX_ROWS = "kylin.query.cache.max.rows";
+    public static final String POLL_SECONDS = "kylin.cube.poll.seconds";
+    private static final long RESULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final String DEFAULT_MAX_ENTRIES = "1000";
+    private static final String DEFAULT_MAX_ROWS = "10000";
+    private static final String DEFAULT_POLL_SECONDS = "30";
+    private static final Map<DataSource, KylinCubeCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final KylinRestClient client;
+    private final boolean cacheEnabled;
+    private final int maxRows;
+    private final long pollMillis;
+    private final Map<String, CachedResult> results;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile List<KylinCube> cubes;
+    private volatile String signature;
+    private volatile long lastPollTime;
+
+    private KylinCubeCache(KylinRestClient client, Properties properties) {
+        this.client = client;
+        this.cacheEnabled = Boolean.parseBoolean(properties.getProperty(CACHE_ENABLED, Boolean.TRUE.toString()));
+        this.maxRows = Integer.parseInt(properties.getProperty(CACHE_MAX_ROWS, DEFAULT_MAX_ROWS));
+        this.pollMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(POLL_SECONDS, DEFAULT_POLL_SECONDS)));
+        int maxEntries = Integer.parseInt(properties.getProperty(CACHE_MAX_ENTRIES, DEFAULT_MAX_ENTRIES));
+        this.results = Collections.synchronizedMap(new LinkedHashMap<String, CachedResult>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 创建数据源时注册
+     *
+     * @param dataSource 数据源
+     * @param properties 数据源配置
+     */
+    public static void register(DataSource dataSource, Properties properties) {
+        KylinRestClient.of(properties).ifPresent(client -> CACHES.put(dataSource, new KylinCubeCache(client, properties)));
+    }
+
+    public static Optional<KylinCubeCache> get(DataSource dataSource) {
+        return Optional.ofNullable(CACHES.get(dataSource));
+    }
+
+    /**
+     * kylin配置不是连接池参数，创建连接池前移除
+     *
+     * @param properties 数据源配置
+     */
+    public static void removeSettings(Properties properties) {
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(SETTING_PREFIX))
+                .forEach(properties::remove);
+    }
+
+    public String getProject() {
+        return client.getProject();
+    }
+
+    /**
+     * 项目下的cube，超过拉取间隔时重新拉取
+     *
+     * @return cube，拉取失败时为空
+     */
+    public List<KylinCube> cubes() {
+        this.poll(false);
+        return Optional.ofNullable(cubes).orElse(Collections.emptyList());
+    }
+
+    /**
+     * 立即重新拉取cube并清空查询结果缓存
+     */
+    public void refresh() {
+        results.clear();
+        this.poll(true);
+    }
+
+    /**
+     * 查询结果优先取缓存
+     *
+     * @param key    标准化后的sql等
+     * @param loader 执行查询
+     * @param rows   结果行数，超过kylin.query.cache.max.rows不缓存
+     * @param <T>    结果类型
+     * @return 查询结果，调用方不应修改
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T query(String key, Supplier<T> loader, ToIntFunction<T> rows) {
+        this.poll(false);
+        String current = signature;
+        if (!cacheEnabled || Objects.isNull(current)) {
+            return loader.get();
+        }
+        CachedResult cached = results.get(key);
+        if (Objects.nonNull(cached) && cached.signature.equals(current) && !cached.isExpired()) {
+            return (T) cached.value;
+        }
+        T value = loader.get();
+        if (rows.applyAsInt(value) <= maxRows) {
+            results.put(key, new CachedResult(value, current));
+        }
+        return value;
+    }
+
+    private void poll(boolean force) {
+        long now = System.currentTimeMillis();
+        if ((!force && now - lastPollTime < pollMillis) || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<KylinCube> latest = client.cubes();
+            String latestSignature = signature(latest);
+            if (!latestSignature.equals(signature)) {
+                results.clear();
+            }
+            cubes = latest;
+            signature = latestSignature;
+        } catch (Exception e) {
+            log.warn("poll kylin cubes of project {} error, query cache is disabled until next poll",
+                    client.getProject(), e);
+            cubes = null;
+            signature = null;
+            results.clear();
+        } finally {
+            lastPollTime = now;
+            polling.set(false);
+        }
+    }
+
+    /**
+     * cube状态与READY segment的构建时间，任意cube构建、合并、刷新或禁用后都会变化
+     */
+    private static String signature(List<KylinCube> cubes) {
+        StringJoiner joiner = new StringJoiner(";");
+        cubes.stream()
+                .sorted(Comparator.comparing(KylinCube::getName))
+                .forEach(cube -> {
+                    joiner.add(cube.getName() + ":" + cube.getStatus());
+                    cube.getSegments().stream()
+                            .filter(segment -> "READY".equalsIgnoreCase(segment.getStatus()))
+                            .sorted(Comparator.comparing(KylinSegment::getName))
+                            .forEach(segment -> joiner.add(segment.getUuid() + "@" + segment.getLastBuildTime()));
+                });
+        return joiner.toString();
+    }
+
+    private static class CachedResult {
+
+        private final Object value;
+        private final String signature;
+        private final long createTime = System.currentTimeMillis();
+
+        private CachedResult(Object value, String signature) {
+            this.value = value;
+            this.signature = signature;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - createTime > RESULT_TTL_MILLIS;
+        }
+    }
+
+}
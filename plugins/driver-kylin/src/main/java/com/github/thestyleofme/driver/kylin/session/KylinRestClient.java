@@ -0,0 +1,143 @@
+package com.github.thestyleofme.driver.kylin.session;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.thestyleofme.driver.core.infra.constants.CommonConstant;
+import com.github.thestyleofme.driver.core.infra.constants.Key;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.utils.RestTemplateUtil;
+import com.github.thestyleofme.driver.kylin.meta.KylinCube;
+import com.github.thestyleofme.driver.kylin.meta.KylinSegment;
+import com.github.thestyleofme.plugin.core.infra.utils.JsonUtil;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * <p>
+ * kylin rest api，获取项目下的cube、segment与模型涉及的表
+ * 地址默认取自jdbcUrl（jdbc:kylin://host:port/project），ssl=true时使用https，也可通过kylin.rest.url指定
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class KylinRestClient {
+
+    public static final String REST_URL = "kylin.rest.url";
+    private static final String JDBC_PREFIX = "jdbc:kylin://";
+    private static final String SSL = "ssl";
+    private static final String CUBES_PATH = "/kylin/api/cubes?projectName={project}";
+    private static final String MODELS_PATH = "/kylin/api/models?projectName={project}";
+    private static final TypeReference<List<Map<String, Object>>> LIST_TYPE = new TypeReference<List<Map<String, Object>>>() {
+    };
+
+    private final String baseUrl;
+    private final String project;
+    private final RestTemplate restTemplate;
+
+    public KylinRestClient(String baseUrl, String project, RestTemplate restTemplate) {
+        this.baseUrl = baseUrl;
+        this.project = project;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * 按数据源配置创建
+     *
+     * @param properties 数据源配置
+     * @return jdbcUrl无法解析出项目时为空
+     */
+    public static Optional<KylinRestClient> of(Properties properties) {
+        String jdbcUrl = properties.getProperty(CommonConstant.JdbcProperties.JDBC_URL);
+        if (StringUtils.isEmpty(jdbcUrl) || !jdbcUrl.startsWith(JDBC_PREFIX)) {
+            return Optional.empty();
+        }
+        String address = jdbcUrl.substring(JDBC_PREFIX.length());
+        int index = address.indexOf('/');
+        if (index < 0) {
+            return Optional.empty();
+        }
+        String project = address.substring(index + 1).split("[?;]")[0];
+        String baseUrl = properties.getProperty(REST_URL);
+        if (StringUtils.isEmpty(baseUrl)) {
+            String scheme = Boolean.parseBoolean(properties.getProperty(SSL)) ? "https://" : "http://";
+            baseUrl = scheme + address.substring(0, index);
+        }
+        Properties httpProperties = new Properties();
+        properties.stringPropertyNames().stream()
+                .filter(key -> key.startsWith("http."))
+                .forEach(key -> httpProperties.setProperty(key, properties.getProperty(key)));
+        RestTemplate restTemplate = RestTemplateUtil.getRestTemplate(httpProperties);
+        String username = properties.getProperty(Key.USERNAME);
+        if (!StringUtils.isEmpty(username)) {
+            restTemplate.getInterceptors().add(new BasicAuthenticationInterceptor(username,
+                    properties.getProperty(Key.PASSWORD, "")));
+        }
+        return Optional.of(new KylinRestClient(StringUtils.trimTrailingCharacter(baseUrl, '/'), project, restTemplate));
+    }
+
+    public String getProject() {
+        return project;
+    }
+
+    /**
+     * 项目下的cube
+     *
+     * @return cube及其segment
+     */
+    public List<KylinCube> cubes() {
+        Map<String, List<String>> modelTables = new HashMap<>(16);
+        for (Map<String, Object> model : this.get(MODELS_PATH)) {
+            List<String> tables = new ArrayList<>();
+            Optional.ofNullable(model.get("fact_table")).map(Object::toString).ifPresent(tables::add);
+            list(model.get("lookups")).forEach(lookup ->
+                    Optional.ofNullable(lookup.get("table")).map(Object::toString).ifPresent(tables::add));
+            modelTables.put(String.valueOf(model.get("name")),
+                    tables.stream().map(String::toUpperCase).distinct().collect(Collectors.toList()));
+        }
+        return this.get(CUBES_PATH).stream()
+                .map(cube -> KylinCube.builder()
+                        .name(String.valueOf(cube.get("name")))
+                        .status(String.valueOf(cube.get("status")))
+                        .project(project)
+                        .model(Objects.isNull(cube.get("model")) ? null : cube.get("model").toString())
+                        .tables(modelTables.getOrDefault(String.valueOf(cube.get("model")), Collections.emptyList()))
+                        .segments(list(cube.get("segments")).stream()
+                                .map(segment -> KylinSegment.builder()
+                                        .uuid(String.valueOf(segment.get("uuid")))
+                                        .name(String.valueOf(segment.get("name")))
+                                        .status(String.valueOf(segment.get("status")))
+                                        .dateRangeStart(number(segment.get("date_range_start")))
+                                        .dateRangeEnd(number(segment.get("date_range_end")))
+                                        .lastBuildTime(number(segment.get("last_build_time")))
+                                        .sizeKb(number(segment.get("size_kb")))
+                                        .inputRecords(number(segment.get("input_records")))
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<Map<String, Object>> get(String path) {
+        try {
+            String body = restTemplate.getForObject(baseUrl + path, String.class, project);
+            return StringUtils.isEmpty(body) ? Collections.emptyList() : JsonUtil.toObj(body, LIST_TYPE);
+        } catch (RestClientException e) {
+            throw new DriverException("kylin rest api error, " + baseUrl + path, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        return value instanceof List ? (List<Map<String, Object>>) value : Collections.emptyList();
+    }
+
+    private static Long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+}
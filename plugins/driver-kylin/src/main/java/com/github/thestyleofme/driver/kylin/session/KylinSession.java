@@ -3,19 +3,27 @@ package com.github.thestyleofme.driver.kylin.session;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
 import com.alibaba.druid.pool.DruidPooledConnection;
 import com.github.thestyleofme.driver.core.app.service.session.funcations.setter.SchemaSetter;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.meta.Catalog;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.core.infra.meta.Table;
 import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
 import com.github.thestyleofme.driver.kylin.meta.KylinColumn;
+import com.github.thestyleofme.driver.kylin.meta.KylinCube;
 import com.github.thestyleofme.driver.kylin.meta.KylinTable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.util.StringUtils;
 
 /**
@@ -26,10 +34,160 @@ import org.springframework.util.StringUtils;
  */
 public class KylinSession extends AbstractRdbmsDriverSession {
 
+    private static final String CACHE_KEY_SEPARATOR = "\u0001";
+    private static final Pattern QUERY_PATTERN = Pattern.compile("^[\\s(]*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+
     public KylinSession(DataSource dataSource) {
         super(dataSource);
     }
 
+    @Override
+    public List<List<Map<String, Object>>> executeAll(String schema, String text, boolean transactionFlag,
+                                                      boolean savepointFlag, boolean resultFlag) {
+        Optional<KylinCubeCache> cache = this.queryCache(text, resultFlag);
+        if (!cache.isPresent()) {
+            return super.executeAll(schema, text, transactionFlag, savepointFlag, resultFlag);
+        }
+        List<List<Map<String, Object>>> result = cache.get().query(
+                this.cacheKey("executeAll", schema, text),
+                () -> super.executeAll(schema, text, transactionFlag, savepointFlag, true),
+                list -> list.stream().mapToInt(List::size).sum());
+        return result.stream().map(KylinSession::copyRows).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Page<Map<String, Object>>> executePageAll(String schema, String text, Pageable pageable,
+                                                          boolean transactionFlag, boolean resultFlag) {
+        Optional<KylinCubeCache> cache = this.queryCache(text, resultFlag);
+        if (!cache.isPresent()) {
+            return super.executePageAll(schema, text, pageable, transactionFlag, resultFlag);
+        }
+        List<Page<Map<String, Object>>> result = cache.get().query(
+                this.cacheKey("executePageAll", schema, text) + CACHE_KEY_SEPARATOR + pageable,
+                () -> super.executePageAll(schema, text, pageable, transactionFlag, true),
+                list -> list.stream().mapToInt(Page::getNumberOfElements).sum());
+        return result.stream()
+                .map(page -> new PageImpl<>(copyRows(page.getContent()), page.getPageable(), page.getTotalElements()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Long queryCount(String schema, String sql) {
+        Optional<KylinCubeCache> cache = this.queryCache(sql, true);
+        if (!cache.isPresent()) {
+            return super.queryCount(schema, sql);
+        }
+        return cache.get().query(this.cacheKey("queryCount", schema, sql),
+                () -> super.queryCount(schema, sql), count -> 1);
+    }
+
+    /**
+     * 项目下的cube及segment放在extra.cubes中
+     *
+     * @return Catalog
+     */
+    @Override
+    public Catalog catalogMetaExtra() {
+        Catalog catalog = super.catalogMetaExtra();
+        KylinCubeCache.get(dataSource).ifPresent(cache -> {
+            Map<String, Object> extra = new HashMap<>(4);
+            extra.put("project", cache.getProject());
+            extra.put("cubes", cache.cubes());
+            catalog.setExtra(extra);
+        });
+        return catalog;
+    }
+
+    /**
+     * extra.cubes为包含该表的可用cube，为空时涉及该表的查询会下压到hive
+     *
+     * @param schema    库
+     * @param tableName 表
+     * @return Table
+     */
+    @Override
+    public Table tableMetaExtra(String schema, String tableName) {
+        Table table = this.tableMetaData(schema, tableName);
+        KylinCubeCache.get(dataSource).ifPresent(cache -> {
+            String fullName = (schema + "." + tableName).toUpperCase();
+            List<String> cubes = cache.cubes().stream()
+                    .filter(KylinCube::isReady)
+                    .filter(cube -> cube.getTables().contains(fullName))
+                    .map(KylinCube::getName)
+                    .collect(Collectors.toList());
+            Map<String, Object> extra = new HashMap<>(4);
+            extra.put("cubes", cubes);
+            extra.put("pushDown", cubes.isEmpty());
+            table.setExtra(extra);
+        });
+        return table;
+    }
+
+    @Override
+    public void metadataRefresh(String schema) {
+        KylinCubeCache.get(dataSource).ifPresent(KylinCubeCache::refresh);
+    }
+
+    /**
+     * 只缓存查询语句，kylin本身也只支持查询
+     */
+    private Optional<KylinCubeCache> queryCache(String text, boolean resultFlag) {
+        if (!resultFlag || StringUtils.isEmpty(text)) {
+            return Optional.empty();
+        }
+        boolean query = this.sqlExtract2List(text).stream()
+                .allMatch(sql -> QUERY_PATTERN.matcher(sql).find());
+        return query ? KylinCubeCache.get(dataSource) : Optional.empty();
+    }
+
+    /**
+     * maxRows会截断结果，queryTimeout决定超时前能否得到结果，二者不同的请求不能共用缓存
+     */
+    private String cacheKey(String method, String schema, String text) {
+        QueryOption option = RunningQueryContext.getOption();
+        int maxRows = Optional.ofNullable(option).map(QueryOption::getMaxRows).orElse(0);
+        int queryTimeout = Optional.ofNullable(option).map(QueryOption::getQueryTimeout).orElse(0);
+        return method + CACHE_KEY_SEPARATOR + schema + CACHE_KEY_SEPARATOR + maxRows + CACHE_KEY_SEPARATOR +
+                queryTimeout + CACHE_KEY_SEPARATOR + normalize(text);
+    }
+
+    /**
+     * 合并引号外的连续空白并去掉末尾分号，格式不同的相同sql共用缓存
+     */
+    private static String normalize(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        char quote = 0;
+        boolean space = false;
+        for (char c : sql.trim().toCharArray()) {
+            if (quote == 0 && Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && builder.length() > 0) {
+                builder.append(' ');
+            }
+            space = false;
+            if (quote == 0 && (c == '\'' || c == '"')) {
+                quote = c;
+            } else if (c == quote) {
+                quote = 0;
+            }
+            builder.append(c);
+        }
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == ';') {
+            end--;
+        }
+        return builder.substring(0, end).trim();
+    }
+
+    /**
+     * 缓存中的结果可能被多个调用方同时使用，返回副本
+     */
+    private static List<Map<String, Object>> copyRows(List<Map<String, Object>> rows) {
+        return rows.stream().<Map<String, Object>>map(LinkedHashMap::new).collect(Collectors.toList());
+    }
+
     @Override
     public SchemaSetter schemaSetter() {
         return (connection, schema) -> {
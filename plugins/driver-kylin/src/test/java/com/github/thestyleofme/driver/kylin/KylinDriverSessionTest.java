@@ -11,6 +11,7 @@ import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
 import com.github.thestyleofme.driver.core.app.service.session.SqlResponse;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.*;
+import com.github.thestyleofme.driver.kylin.session.KylinCubeCache;
 import com.github.thestyleofme.driver.kylin.session.KylinSessionFactory;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +63,11 @@ public class KylinDriverSessionTest {
         dataSource.setPassword("KYLIN");
         dataSource.setDriverClassName("org.apache.kylin.jdbc.Driver");
         this.connection = dataSource.getConnection().getConnection();
+        Properties properties = new Properties();
+        properties.setProperty("jdbcUrl", dataSource.getUrl());
+        properties.setProperty("username", dataSource.getUsername());
+        properties.setProperty("password", dataSource.getPassword());
+        KylinCubeCache.register(dataSource, properties);
         KylinSessionFactory kylinSessionFactory = new KylinSessionFactory();
         kylinSessionFactory.setDataSource(dataSource);
         this.driverSession = kylinSessionFactory.getDriverSession();
@@ -84,6 +90,27 @@ public class KylinDriverSessionTest {
         assertFalse(CollectionUtils.isEmpty(tables));
     }
 
+    /**
+     * 表所在的cube，为空时查询下压到hive
+     */
+    @Test
+    public void testTableMetaExtraCubes() {
+        Table table = driverSession.tableMetaExtra("DEFAULT", "KYLIN_SALES");
+        System.out.println(table.getExtra());
+        assertEquals(Boolean.FALSE, table.getExtra().get("pushDown"));
+    }
+
+    /**
+     * 相同sql在cube未重新构建时从缓存返回
+     */
+    @Test
+    public void testExecuteAllCached() {
+        List<List<Map<String, Object>>> first = driverSession.executeAll(null, "select PART_DT from KYLIN_SALES limit 10", true);
+        List<List<Map<String, Object>>> second = driverSession.executeAll(null, "select  PART_DT\nfrom KYLIN_SALES limit 10;", true);
+        assertEquals(first, second);
+        assertNotSame(first.get(0), second.get(0));
+    }
+
     /**
      * 获取所有数据库
      */
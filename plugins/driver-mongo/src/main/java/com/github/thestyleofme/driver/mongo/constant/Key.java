@@ -14,6 +14,24 @@ public interface Key {
     String PASSWORD = "password";
     String DEFAULT_DATABASE = "defaultDatabase";
 
+    /**
+     * 连接串，如 mongodb://user:pwd@h1:27017,h2:27017/db?replicaSet=rs0，配置后忽略host、port
+     * 连接串中的参数优先于下面的单项配置
+     */
+    String CONNECTION_STRING = "connectionString";
+    String REPLICA_SET = "replicaSet";
+    String AUTH_SOURCE = "authSource";
+
+    String MAX_POOL_SIZE = "maxPoolSize";
+    String MIN_POOL_SIZE = "minPoolSize";
+    String MAX_WAIT_TIME = "maxWaitTime";
+    String MAX_CONNECTION_IDLE_TIME = "maxConnectionIdleTime";
+    String READ_PREFERENCE = "readPreference";
+    String COMPRESSORS = "compressors";
+    String CONNECT_TIMEOUT = "connectTimeout";
+    String SOCKET_TIMEOUT = "socketTimeout";
+    String SERVER_SELECTION_TIMEOUT = "serverSelectionTimeout";
+
     String EXPRESSION = "expression";
     String REQUEST = "request";
 
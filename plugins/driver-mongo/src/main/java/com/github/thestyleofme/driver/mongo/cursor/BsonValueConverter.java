@@ -0,0 +1,110 @@
+package com.github.thestyleofme.driver.mongo.cursor;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.types.*;
+
+/**
+ * <p>
+ * 将bson特有类型转换为可直接序列化的java类型
+ * 每列记住上一次值的类型对应的转换器，同一列类型不变时不再逐个判断类型
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class BsonValueConverter {
+
+    private static final UnaryOperator<Object> IDENTITY = value -> value;
+    private static final Map<Class<?>, UnaryOperator<Object>> CONVERTERS;
+
+    static {
+        Map<Class<?>, UnaryOperator<Object>> converters = new HashMap<>(16);
+        converters.put(ObjectId.class, value -> ((ObjectId) value).toHexString());
+        converters.put(Decimal128.class, value -> ((Decimal128) value).bigDecimalValue());
+        converters.put(BsonTimestamp.class, value -> new Date(((BsonTimestamp) value).getTime() * 1000L));
+        converters.put(Binary.class, value -> ((Binary) value).getData());
+        converters.put(Symbol.class, value -> ((Symbol) value).getSymbol());
+        converters.put(Code.class, value -> ((Code) value).getCode());
+        converters.put(CodeWithScope.class, value -> ((CodeWithScope) value).getCode());
+        converters.put(BSONTimestamp.class, value -> new Date(((BSONTimestamp) value).getTime() * 1000L));
+        converters.put(MinKey.class, value -> "MinKey");
+        converters.put(MaxKey.class, value -> "MaxKey");
+        converters.put(Document.class, value -> convertDocument((Document) value));
+        CONVERTERS = Collections.unmodifiableMap(converters);
+    }
+
+    private final Class<?>[] types;
+    private final UnaryOperator<Object>[] converters;
+
+    @SuppressWarnings("unchecked")
+    public BsonValueConverter(int columnCount) {
+        this.types = new Class<?>[columnCount];
+        this.converters = new UnaryOperator[columnCount];
+    }
+
+    /**
+     * 转换某一列的值
+     *
+     * @param column 列下标
+     * @param value  原始值
+     * @return 转换后的值
+     */
+    public Object convert(int column, Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (type != types[column]) {
+            types[column] = type;
+            converters[column] = converterOf(type);
+        }
+        return converters[column].apply(value);
+    }
+
+    /**
+     * 转换任意值，用于嵌套文档与数组
+     *
+     * @param value 原始值
+     * @return 转换后的值
+     */
+    public static Object convertValue(Object value) {
+        return Objects.isNull(value) ? null : converterOf(value.getClass()).apply(value);
+    }
+
+    private static UnaryOperator<Object> converterOf(Class<?> type) {
+        UnaryOperator<Object> converter = CONVERTERS.get(type);
+        if (Objects.nonNull(converter)) {
+            return converter;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return value -> convertList((List<?>) value);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return value -> convertMap((Map<?, ?>) value);
+        }
+        return IDENTITY;
+    }
+
+    private static Map<String, Object> convertDocument(Document document) {
+        Map<String, Object> result = new LinkedHashMap<>(document.size() * 4 / 3 + 1);
+        document.forEach((key, value) -> result.put(key, convertValue(value)));
+        return result;
+    }
+
+    private static Map<Object, Object> convertMap(Map<?, ?> map) {
+        Map<Object, Object> result = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+        map.forEach((key, value) -> result.put(key, convertValue(value)));
+        return result;
+    }
+
+    private static List<Object> convertList(List<?> list) {
+        List<Object> result = new ArrayList<>(list.size());
+        list.forEach(value -> result.add(convertValue(value)));
+        return result;
+    }
+
+}
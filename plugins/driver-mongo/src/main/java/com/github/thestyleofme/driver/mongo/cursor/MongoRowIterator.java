@@ -0,0 +1,182 @@
+package com.github.thestyleofme.driver.mongo.cursor;
+
+import java.util.*;
+
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
+import com.mongodb.client.MongoCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+/**
+ * <p>
+ * 基于驱动游标的流式结果，游标按batchSize分批从服务端拉取
+ * mongo文档没有固定结构，列取自inclusion投影的字段，未指定投影时取第一批文档的字段并集，
+ * 之后出现的新字段不会输出，每个这样的字段第一次出现时打印告警，需要时应指定投影，
+ * 投影中的点路径如 address.city 按层级从嵌套文档中取值
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class MongoRowIterator implements RowIterator {
+
+    private static final String ID = "_id";
+    /**
+     * 最多记录的未输出字段数，字段名不固定的集合避免无限增长
+     */
+    private static final int MAX_DROPPED_FIELDS = 100;
+
+    private final MongoCursor<Document> cursor;
+    private final Deque<Document> buffer = new ArrayDeque<>();
+    private final List<String> columns;
+    private final String[][] paths;
+    private final BsonValueConverter converter;
+    /**
+     * 列取自第一批文档时为列的集合，用于发现之后新出现的字段，指定投影时为空
+     */
+    private final Set<String> inferred;
+    private final Set<String> dropped = new HashSet<>();
+    private boolean closed;
+
+    /**
+     * @param cursor     游标
+     * @param projection 投影，可为空
+     * @param batchSize  每批条数，用于确定列时预读的文档数
+     */
+    public MongoRowIterator(MongoCursor<Document> cursor, Document projection, int batchSize) {
+        this.cursor = cursor;
+        Set<String> fields = new LinkedHashSet<>();
+        List<String> included = includedFields(projection);
+        if (included.isEmpty()) {
+            // 预读第一批，与驱动拉取的批次一致，不会额外请求服务端
+            try {
+                while (buffer.size() < batchSize && cursor.hasNext()) {
+                    Document document = cursor.next();
+                    buffer.add(document);
+                    fields.addAll(document.keySet());
+                }
+            } catch (RuntimeException e) {
+                cursor.close();
+                throw e;
+            }
+        } else {
+            if (!isExcluded(projection.get(ID))) {
+                fields.add(ID);
+            }
+            fields.addAll(included);
+        }
+        this.columns = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.paths = columns.stream().map(column -> column.split("\\.")).toArray(String[][]::new);
+        this.converter = new BsonValueConverter(columns.size());
+        this.inferred = included.isEmpty() ? new HashSet<>(columns) : null;
+    }
+
+    private static List<String> includedFields(Document projection) {
+        if (Objects.isNull(projection)) {
+            return Collections.emptyList();
+        }
+        List<String> included = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : projection.entrySet()) {
+            Object value = entry.getValue();
+            // 计算字段如 {total: "$amount"} 同样输出
+            if (!ID.equals(entry.getKey()) && Objects.nonNull(value) && !isExcluded(value)) {
+                included.add(entry.getKey());
+            }
+        }
+        return included;
+    }
+
+    /**
+     * 服务端按投影返回的是嵌套文档，点路径需逐层取值，途经数组时与mongo一致取每个元素上的值
+     */
+    private static Object value(Object current, String[] path, int index) {
+        if (index == path.length || Objects.isNull(current)) {
+            return current;
+        }
+        if (current instanceof Document) {
+            return value(((Document) current).get(path[index]), path, index + 1);
+        }
+        if (current instanceof List) {
+            List<Object> values = new ArrayList<>();
+            for (Object element : (List<?>) current) {
+                Object value = value(element, path, index);
+                if (Objects.nonNull(value)) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+        return null;
+    }
+
+    private static boolean isExcluded(Object value) {
+        return Boolean.FALSE.equals(value) || (value instanceof Number && ((Number) value).intValue() == 0);
+    }
+
+    @Override
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        if (!buffer.isEmpty()) {
+            return true;
+        }
+        boolean hasNext;
+        try {
+            hasNext = cursor.hasNext();
+        } catch (RuntimeException e) {
+            this.close();
+            throw e;
+        }
+        if (!hasNext) {
+            this.close();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Document document = buffer.isEmpty() ? cursor.next() : buffer.poll();
+        if (Objects.nonNull(inferred)) {
+            this.checkFields(document);
+        }
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = converter.convert(i, value(document, paths[i], 0));
+        }
+        return values;
+    }
+
+    private void checkFields(Document document) {
+        for (String field : document.keySet()) {
+            if (!inferred.contains(field) && dropped.size() < MAX_DROPPED_FIELDS && dropped.add(field)) {
+                log.warn("field [{}] is not in the columns inferred from the first batch and is dropped, " +
+                        "specify a projection to include it", field);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer.clear();
+        try {
+            cursor.close();
+        } catch (RuntimeException e) {
+            log.warn("close mongo cursor error", e);
+        }
+    }
+
+}
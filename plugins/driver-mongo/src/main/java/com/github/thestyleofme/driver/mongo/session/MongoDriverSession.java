@@ -3,11 +3,15 @@ package com.github.thestyleofme.driver.mongo.session;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
 import com.github.thestyleofme.driver.core.app.service.session.SessionTool;
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
 import com.github.thestyleofme.driver.core.domain.entity.ResponseData;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.mongo.util.MongoTemplateUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -70,4 +74,27 @@ public class MongoDriverSession implements DriverSession, SessionTool {
         Page<Map<String, Object>> mapPage = mongoTemplateUtil.select(schema, text, pageable);
         return Collections.singletonList(mapPage);
     }
+
+    @Override
+    public List<Page<Map<String, Object>>> executePageAll(String schema, String text, Pageable pageable,
+                                                          boolean transactionFlag, boolean resultFlag) {
+        return this.executePageAll(schema, text, pageable);
+    }
+
+    @Override
+    public List<List<Map<String, Object>>> executeAll(String schema,
+                                                      String text,
+                                                      boolean transactionFlag,
+                                                      boolean savepointFlag,
+                                                      boolean resultFlag) {
+        int maxRows = Optional.ofNullable(RunningQueryContext.getOption()).map(QueryOption::getMaxRows).orElse(0);
+        try (RowIterator iterator = this.executeStream(schema, text)) {
+            return Collections.singletonList(iterator.toList(maxRows));
+        }
+    }
+
+    @Override
+    public RowIterator executeStream(String schema, String sql) {
+        return mongoTemplateUtil.stream(schema, sql);
+    }
 }
@@ -0,0 +1,70 @@
+package com.github.thestyleofme.driver.mongo.util;
+
+import java.util.List;
+
+import lombok.Data;
+import org.bson.Document;
+
+/**
+ * <p>
+ * 解析后的mongo操作，由MongoQueryParser从json描述或shell表达式解析得到
+ * json描述示例:
+ * {"collection":"orders","filter":{"status":"A"},"projection":{"amount":1},"sort":{"_id":1},"skip":0,"limit":100,"batchSize":1000}
+ * {"collection":"orders","pipeline":[{"$match":{"status":"A"}},{"$group":{"_id":"$cust","total":{"$sum":"$amount"}}}]}
+ * shell表达式示例:
+ * db.orders.find({status: "A"}, {amount: 1}).sort({_id: 1}).skip(10).limit(100)
+ * db.orders.aggregate([{$match: {status: "A"}}])
+ * db.orders.updateMany({status: "A"}, {$set: {flag: 1}})
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Data
+public class MongoQuery {
+
+    private String collection;
+    private Operation operation;
+
+    private Document filter = new Document();
+    private Document projection;
+    private Document sort;
+    private Integer skip;
+    private Integer limit;
+    private Integer batchSize;
+
+    private List<Document> pipeline;
+
+    /**
+     * 更新内容，如 {$set: {...}}
+     */
+    private Document update;
+    private boolean upsert;
+    /**
+     * 新增的文档
+     */
+    private List<Document> documents;
+
+    public boolean isRead() {
+        return operation == Operation.FIND || operation == Operation.AGGREGATE || operation == Operation.COUNT;
+    }
+
+    public enum Operation {
+        /**
+         * 查询
+         */
+        FIND,
+        AGGREGATE,
+        COUNT,
+        /**
+         * 写入
+         */
+        INSERT_ONE,
+        INSERT_MANY,
+        UPDATE_ONE,
+        UPDATE_MANY,
+        DELETE_ONE,
+        DELETE_MANY
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.github.thestyleofme.driver.mongo.util;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import org.bson.Document;
+import org.springframework.util.StringUtils;
+
+/**
+ * <p>
+ * 将json描述或常用的shell表达式解析为MongoQuery，交给驱动原生执行
+ * 参数使用驱动的扩展json解析，支持 {a: 1}、ObjectId("...")、ISODate("...") 等shell写法
+ * 无法识别的表达式返回null
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class MongoQueryParser {
+
+    private MongoQueryParser() {
+        throw new IllegalStateException();
+    }
+
+    private static final Pattern SHELL_PATTERN = Pattern.compile("^db\\.(.+?)\\.(\\w+)\\s*\\(", Pattern.DOTALL);
+    private static final Pattern CHAIN_PATTERN = Pattern.compile("\\s*\\.\\s*(\\w+)\\s*\\(");
+    private static final String ARGS_KEY = "args";
+    private static final Map<String, MongoQuery.Operation> SHELL_METHODS;
+
+    static {
+        Map<String, MongoQuery.Operation> methods = new HashMap<>(16);
+        methods.put("find", MongoQuery.Operation.FIND);
+        methods.put("aggregate", MongoQuery.Operation.AGGREGATE);
+        methods.put("count", MongoQuery.Operation.COUNT);
+        methods.put("countDocuments", MongoQuery.Operation.COUNT);
+        methods.put("insertOne", MongoQuery.Operation.INSERT_ONE);
+        methods.put("insertMany", MongoQuery.Operation.INSERT_MANY);
+        methods.put("updateOne", MongoQuery.Operation.UPDATE_ONE);
+        methods.put("updateMany", MongoQuery.Operation.UPDATE_MANY);
+        methods.put("deleteOne", MongoQuery.Operation.DELETE_ONE);
+        methods.put("deleteMany", MongoQuery.Operation.DELETE_MANY);
+        SHELL_METHODS = Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * 解析
+     *
+     * @param text json描述或shell表达式
+     * @return MongoQuery，无法识别时返回null
+     */
+    public static MongoQuery parse(String text) {
+        if (StringUtils.isEmpty(text)) {
+            return null;
+        }
+        String trimText = text.trim();
+        while (trimText.endsWith(";")) {
+            trimText = trimText.substring(0, trimText.length() - 1).trim();
+        }
+        if (trimText.startsWith("{")) {
+            return parseSpec(Document.parse(trimText));
+        }
+        if (trimText.startsWith("db.")) {
+            return parseShell(trimText);
+        }
+        return null;
+    }
+
+    private static MongoQuery parseSpec(Document spec) {
+        MongoQuery query = new MongoQuery();
+        String collection = spec.getString("collection");
+        if (StringUtils.isEmpty(collection)) {
+            throw new DriverException("collection must be specified");
+        }
+        query.setCollection(collection);
+        query.setOperation(specOperation(spec));
+        Optional.ofNullable(spec.get("filter", Document.class)).ifPresent(query::setFilter);
+        query.setProjection(spec.get("projection", Document.class));
+        query.setSort(spec.get("sort", Document.class));
+        query.setSkip(intValue(spec.get("skip")));
+        query.setLimit(intValue(spec.get("limit")));
+        query.setBatchSize(intValue(spec.get("batchSize")));
+        query.setPipeline(spec.getList("pipeline", Document.class));
+        query.setUpdate(spec.get("update", Document.class));
+        query.setUpsert(Boolean.TRUE.equals(spec.getBoolean("upsert")));
+        query.setDocuments(spec.getList("documents", Document.class));
+        return query;
+    }
+
+    private static MongoQuery.Operation specOperation(Document spec) {
+        String operation = spec.getString("operation");
+        if (!StringUtils.isEmpty(operation)) {
+            try {
+                return MongoQuery.Operation.valueOf(operation.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DriverException("unsupported operation: " + operation);
+            }
+        }
+        if (spec.containsKey("pipeline")) {
+            return MongoQuery.Operation.AGGREGATE;
+        }
+        if (spec.containsKey("update")) {
+            return MongoQuery.Operation.UPDATE_MANY;
+        }
+        if (spec.containsKey("documents")) {
+            return MongoQuery.Operation.INSERT_MANY;
+        }
+        if (Boolean.TRUE.equals(spec.getBoolean("count"))) {
+            return MongoQuery.Operation.COUNT;
+        }
+        return MongoQuery.Operation.FIND;
+    }
+
+    private static MongoQuery parseShell(String text) {
+        Matcher matcher = SHELL_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        MongoQuery.Operation operation = SHELL_METHODS.get(matcher.group(2));
+        if (Objects.isNull(operation)) {
+            return null;
+        }
+        MongoQuery query = new MongoQuery();
+        query.setCollection(matcher.group(1));
+        query.setOperation(operation);
+        int open = matcher.end() - 1;
+        int close = closeIndex(text, open);
+        if (close < 0) {
+            return null;
+        }
+        applyArgs(query, parseArgs(text.substring(open + 1, close)));
+        // 链式调用，如 .sort({...}).skip(10).limit(100)
+        Matcher chain = CHAIN_PATTERN.matcher(text);
+        int pos = close + 1;
+        while (pos < text.length()) {
+            chain.region(pos, text.length());
+            if (!chain.lookingAt()) {
+                return null;
+            }
+            open = chain.end() - 1;
+            close = closeIndex(text, open);
+            if (close < 0 || !applyChain(query, chain.group(1), parseArgs(text.substring(open + 1, close)))) {
+                return null;
+            }
+            pos = close + 1;
+        }
+        return query;
+    }
+
+    private static void applyArgs(MongoQuery query, List<Object> args) {
+        switch (query.getOperation()) {
+            case FIND:
+                Optional.ofNullable(document(args, 0)).ifPresent(query::setFilter);
+                query.setProjection(document(args, 1));
+                break;
+            case AGGREGATE:
+                query.setPipeline(documents(args, 0));
+                break;
+            case INSERT_ONE:
+                query.setDocuments(Collections.singletonList(document(args, 0)));
+                break;
+            case INSERT_MANY:
+                query.setDocuments(documents(args, 0));
+                break;
+            case UPDATE_ONE:
+            case UPDATE_MANY:
+                Optional.ofNullable(document(args, 0)).ifPresent(query::setFilter);
+                query.setUpdate(document(args, 1));
+                query.setUpsert(Optional.ofNullable(document(args, 2))
+                        .map(options -> Boolean.TRUE.equals(options.getBoolean("upsert")))
+                        .orElse(false));
+                break;
+            default:
+                // COUNT、DELETE只有过滤条件
+                Optional.ofNullable(document(args, 0)).ifPresent(query::setFilter);
+        }
+    }
+
+    private static boolean applyChain(MongoQuery query, String method, List<Object> args) {
+        switch (method) {
+            case "sort":
+                query.setSort(document(args, 0));
+                return true;
+            case "projection":
+                query.setProjection(document(args, 0));
+                return true;
+            case "skip":
+                query.setSkip(intValue(args.isEmpty() ? null : args.get(0)));
+                return true;
+            case "limit":
+                query.setLimit(intValue(args.isEmpty() ? null : args.get(0)));
+                return true;
+            case "batchSize":
+                query.setBatchSize(intValue(args.isEmpty() ? null : args.get(0)));
+                return true;
+            case "count":
+                if (query.getOperation() != MongoQuery.Operation.FIND) {
+                    return false;
+                }
+                query.setOperation(MongoQuery.Operation.COUNT);
+                return true;
+            case "toArray":
+            case "pretty":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 将参数列表包装成数组字段，交给驱动的json解析器
+     */
+    private static List<Object> parseArgs(String args) {
+        if (args.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Document.parse("{\"" + ARGS_KEY + "\": [" + args + "]}").getList(ARGS_KEY, Object.class);
+    }
+
+    private static Document document(List<Object> args, int index) {
+        if (args.size() <= index || Objects.isNull(args.get(index))) {
+            return null;
+        }
+        Object arg = args.get(index);
+        if (!(arg instanceof Document)) {
+            throw new DriverException("argument %d must be a document: %s", index, arg);
+        }
+        return (Document) arg;
+    }
+
+    private static List<Document> documents(List<Object> args, int index) {
+        if (args.size() <= index || !(args.get(index) instanceof List)) {
+            throw new DriverException("argument %d must be an array of documents", index);
+        }
+        List<Document> documents = new ArrayList<>();
+        for (Object item : (List<?>) args.get(index)) {
+            if (!(item instanceof Document)) {
+                throw new DriverException("argument %d must be an array of documents", index);
+            }
+            documents.add((Document) item);
+        }
+        return documents;
+    }
+
+    private static Integer intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    /**
+     * 找到与open处左括号匹配的右括号，跳过字符串中的括号
+     */
+    private static int closeIndex(String text, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
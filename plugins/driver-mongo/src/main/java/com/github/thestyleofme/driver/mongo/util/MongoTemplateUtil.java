@@ -3,13 +3,22 @@ package com.github.thestyleofme.driver.mongo.util;
 import java.util.*;
 import javax.servlet.http.HttpServletRequest;
 
+import com.github.thestyleofme.driver.core.app.service.session.stream.RowIterator;
 import com.github.thestyleofme.driver.core.domain.entity.Payload;
+import com.github.thestyleofme.driver.core.domain.entity.QueryOption;
 import com.github.thestyleofme.driver.core.domain.entity.ResponseData;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.utils.Conf;
 import com.github.thestyleofme.driver.mongo.constant.Key;
+import com.github.thestyleofme.driver.mongo.cursor.MongoRowIterator;
 import com.mongodb.*;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.UpdateOptions;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.bson.types.ObjectId;
@@ -17,6 +26,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.ServletRequestUtils;
 
@@ -27,11 +37,12 @@ import org.springframework.web.bind.ServletRequestUtils;
  * @since 1.0.0
  */
 @Slf4j
-public class MongoTemplateUtil {
+public class MongoTemplateUtil implements AutoCloseable {
 
     private static final String RESULT_KEY = "retval";
     private static final String BSON_EVAL = "$eval";
     private static final String SQL_COUNT = "count";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
 
     private MongoClient mongoClient;
     private String defaultDatabase;
@@ -41,19 +52,130 @@ public class MongoTemplateUtil {
     }
 
     public MongoTemplateUtil(Properties properties) {
+        MongoClientOptions.Builder options = this.clientOptions(properties);
+        String connectionString = properties.getProperty(Key.CONNECTION_STRING);
+        if (!StringUtils.isEmpty(connectionString)) {
+            MongoClientURI uri = new MongoClientURI(connectionString, options);
+            this.mongoClient = new MongoClient(uri);
+            this.defaultDatabase = Optional.ofNullable(properties.getProperty(Key.DEFAULT_DATABASE))
+                    .filter(database -> !database.isEmpty())
+                    .orElseGet(uri::getDatabase);
+            if (StringUtils.isEmpty(this.defaultDatabase)) {
+                throw new IllegalArgumentException("Properties [" + Key.DEFAULT_DATABASE + "] required");
+            }
+            return;
+        }
         String host = Conf.require(properties, Key.HOST);
-        String port = Conf.require(properties, Key.PORT);
-        String username = Conf.require(properties, Key.USERNAME);
         String database = Conf.require(properties, Key.DEFAULT_DATABASE);
-        String password = Conf.require(properties, Key.PASSWORD);
-
-        ServerAddress address = new ServerAddress(host, Integer.parseInt(port));
-        MongoCredential credential = MongoCredential.createCredential(username, database, password.toCharArray());
-        MongoClientOptions options = MongoClientOptions.builder().build();
-        this.mongoClient = new MongoClient(address, credential, options);
+        List<ServerAddress> seeds = this.seeds(host, properties.getProperty(Key.PORT));
+        // 单个地址直连，多个地址按副本集/分片集群发现
+        String username = properties.getProperty(Key.USERNAME);
+        if (StringUtils.isEmpty(username)) {
+            this.mongoClient = seeds.size() == 1 ?
+                    new MongoClient(seeds.get(0), options.build()) : new MongoClient(seeds, options.build());
+        } else {
+            String password = Conf.require(properties, Key.PASSWORD);
+            String authSource = properties.getProperty(Key.AUTH_SOURCE, database);
+            MongoCredential credential = MongoCredential.createCredential(username, authSource, password.toCharArray());
+            this.mongoClient = seeds.size() == 1 ?
+                    new MongoClient(seeds.get(0), credential, options.build()) :
+                    new MongoClient(seeds, credential, options.build());
+        }
         this.defaultDatabase = database;
     }
 
+    /**
+     * host支持逗号分隔的种子列表，如 h1:27017,h2:27017，未写端口的使用port配置
+     */
+    private List<ServerAddress> seeds(String host, String port) {
+        int defaultPort = StringUtils.isEmpty(port) ? ServerAddress.defaultPort() : Integer.parseInt(port);
+        List<ServerAddress> seeds = new ArrayList<>();
+        for (String seed : host.split(",")) {
+            String address = seed.trim();
+            if (address.isEmpty()) {
+                continue;
+            }
+            int index = address.lastIndexOf(':');
+            if (index > 0 && address.indexOf(']', index) < 0) {
+                seeds.add(new ServerAddress(address.substring(0, index), Integer.parseInt(address.substring(index + 1))));
+            } else {
+                seeds.add(new ServerAddress(address, defaultPort));
+            }
+        }
+        if (seeds.isEmpty()) {
+            throw new IllegalArgumentException("Properties [" + Key.HOST + "] required");
+        }
+        return seeds;
+    }
+
+    /**
+     * 连接池、读偏好、压缩及超时配置，时间单位均为毫秒，未配置的使用驱动默认值
+     */
+    private MongoClientOptions.Builder clientOptions(Properties properties) {
+        MongoClientOptions.Builder builder = MongoClientOptions.builder();
+        intProperty(properties, Key.MAX_POOL_SIZE).ifPresent(builder::connectionsPerHost);
+        intProperty(properties, Key.MIN_POOL_SIZE).ifPresent(builder::minConnectionsPerHost);
+        intProperty(properties, Key.MAX_WAIT_TIME).ifPresent(builder::maxWaitTime);
+        intProperty(properties, Key.MAX_CONNECTION_IDLE_TIME).ifPresent(builder::maxConnectionIdleTime);
+        intProperty(properties, Key.CONNECT_TIMEOUT).ifPresent(builder::connectTimeout);
+        intProperty(properties, Key.SOCKET_TIMEOUT).ifPresent(builder::socketTimeout);
+        intProperty(properties, Key.SERVER_SELECTION_TIMEOUT).ifPresent(builder::serverSelectionTimeout);
+        Optional.ofNullable(properties.getProperty(Key.REPLICA_SET))
+                .filter(replicaSet -> !replicaSet.isEmpty())
+                .ifPresent(builder::requiredReplicaSetName);
+        Optional.ofNullable(properties.getProperty(Key.READ_PREFERENCE))
+                .filter(readPreference -> !readPreference.isEmpty())
+                .map(ReadPreference::valueOf)
+                .ifPresent(builder::readPreference);
+        String compressors = properties.getProperty(Key.COMPRESSORS);
+        if (!StringUtils.isEmpty(compressors)) {
+            List<MongoCompressor> compressorList = new ArrayList<>();
+            for (String compressor : compressors.split(",")) {
+                compressorList.add(compressor(compressor.trim()));
+            }
+            builder.compressorList(compressorList);
+        }
+        return builder;
+    }
+
+    private static Optional<Integer> intProperty(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (StringUtils.isEmpty(value)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Properties [" + key + "] must be an integer: " + value);
+        }
+    }
+
+    /**
+     * zstd、snappy的压缩库随插件打包，zlib使用jdk自带实现，配置其他压缩算法时直接报错而不是在建连时才失败
+     */
+    private static MongoCompressor compressor(String name) {
+        switch (name.toLowerCase()) {
+            case "zstd":
+                return MongoCompressor.createZstdCompressor();
+            case "snappy":
+                return MongoCompressor.createSnappyCompressor();
+            case "zlib":
+                return MongoCompressor.createZlibCompressor();
+            default:
+                throw new IllegalArgumentException("unsupported compressor: " + name
+                        + ", only zstd, snappy and zlib are supported");
+        }
+    }
+
+    /**
+     * 数据源被移除时关闭客户端，释放连接池及监控线程
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(mongoClient)) {
+            mongoClient.close();
+        }
+    }
 
     public List<String> schemas() {
         List<String> schemas = new LinkedList<>();
@@ -82,7 +204,10 @@ public class MongoTemplateUtil {
         HttpServletRequest request = payload.getOrThrow(Key.REQUEST);
         int page = ServletRequestUtils.getIntParameter(request, Key.PAGE, 0);
         int size = ServletRequestUtils.getIntParameter(request, Key.SIZE, 10);
-        Page<Map<String, Object>> data = select(defaultDatabase, collection, PageRequest.of(page, size));
+        MongoQuery query = new MongoQuery();
+        query.setCollection(collection);
+        query.setOperation(MongoQuery.Operation.FIND);
+        Page<Map<String, Object>> data = select(defaultDatabase, query, PageRequest.of(page, size));
         return ResponseData.builder()
                 .data(data)
                 .build();
@@ -90,13 +215,197 @@ public class MongoTemplateUtil {
 
 
     /**
-     * 查询数据条数
+     * 查询数据条数，无过滤条件时使用集合元数据中的估算值，不扫描集合
      *
      * @param schema 数据库，可为空。为空则取当前连接的数据库
-     * @param sql    如db.collection.find()
+     * @param sql    json描述或shell表达式，如db.collection.find({status: "A"})
      * @return 数据条数
      */
     public Long count(String schema, String sql) {
+        MongoQuery query = MongoQueryParser.parse(sql);
+        if (Objects.isNull(query)) {
+            log.warn("unrecognized expression, fallback to $eval: {}", sql);
+            return this.evalCount(schema, sql);
+        }
+        return this.count(this.collection(schema, query), query);
+    }
+
+    /**
+     * 分页查询数据，分页条件下推为find的skip/limit或聚合管道的$skip/$limit
+     *
+     * @param schema   数据库，可为空。为空则取当前连接的数据库
+     * @param sql      json描述或shell表达式，如db.collection.find({status: "A"}).sort({_id: 1})
+     * @param pageable 分页
+     * @return 分页数据
+     */
+    public Page<Map<String, Object>> select(String schema, String sql, Pageable pageable) {
+        MongoQuery query = MongoQueryParser.parse(sql);
+        if (Objects.isNull(query)) {
+            log.warn("unrecognized expression, fallback to $eval: {}", sql);
+            return this.evalSelect(schema, sql, pageable);
+        }
+        return this.select(schema, query, pageable);
+    }
+
+    private Page<Map<String, Object>> select(String schema, MongoQuery query, Pageable pageable) {
+        MongoCollection<Document> collection = this.collection(schema, query);
+        if (query.getOperation() == MongoQuery.Operation.COUNT) {
+            Map<String, Object> row = new HashMap<>(2);
+            row.put(SQL_COUNT, this.count(collection, query));
+            return new PageImpl<>(Collections.singletonList(row), pageable, 1);
+        }
+        if (!query.isRead()) {
+            throw new DriverException("write operation is not allowed in query: " + query.getOperation());
+        }
+        long total = this.count(collection, query);
+        long offset = pageable.getOffset();
+        log.info("offset: {}, pageSize: {}, count: {}", offset, pageable.getPageSize(), total);
+        if (offset >= total) {
+            return new PageImpl<>(Collections.emptyList(), pageable, total);
+        }
+        int pageSize = (int) Math.min(pageable.getPageSize(), total - offset);
+        int batchSize = Optional.ofNullable(query.getBatchSize()).orElse(pageSize);
+        try (MongoRowIterator iterator = this.open(collection, query, offset, pageSize, batchSize)) {
+            return new PageImpl<>(iterator.toList(), pageable, total);
+        }
+    }
+
+    /**
+     * 流式查询，游标按batchSize分批拉取，调用方必须关闭返回的RowIterator
+     *
+     * @param schema 数据库，可为空。为空则取当前连接的数据库
+     * @param sql    json描述或shell表达式，仅支持find与aggregate
+     * @return RowIterator
+     */
+    public RowIterator stream(String schema, String sql) {
+        MongoQuery query = MongoQueryParser.parse(sql);
+        if (Objects.isNull(query)
+                || (query.getOperation() != MongoQuery.Operation.FIND && query.getOperation() != MongoQuery.Operation.AGGREGATE)) {
+            throw new DriverException("stream only supports find or aggregate expression: " + sql);
+        }
+        int batchSize = Optional.ofNullable(query.getBatchSize())
+                .orElseGet(() -> Optional.ofNullable(RunningQueryContext.getOption())
+                        .map(QueryOption::getFetchSize)
+                        .filter(size -> size > 0)
+                        .orElse(DEFAULT_BATCH_SIZE));
+        return this.open(this.collection(schema, query), query, 0, query.getLimit(), batchSize);
+    }
+
+    /**
+     * 打开游标
+     *
+     * @param offset    在查询自身skip之后再跳过的条数
+     * @param limit     最多返回条数，为空不限制
+     * @param batchSize 每批拉取条数
+     */
+    private MongoRowIterator open(MongoCollection<Document> collection, MongoQuery query,
+                                  long offset, Integer limit, int batchSize) {
+        MongoIterable<Document> iterable;
+        Document projection = null;
+        if (query.getOperation() == MongoQuery.Operation.FIND) {
+            FindIterable<Document> find = collection.find(query.getFilter())
+                    .projection(query.getProjection())
+                    .sort(query.getSort())
+                    .skip(Optional.ofNullable(query.getSkip()).orElse(0) + (int) offset);
+            Optional.ofNullable(limit).filter(size -> size > 0).ifPresent(find::limit);
+            iterable = find;
+            projection = query.getProjection();
+        } else {
+            List<Document> pipeline = new ArrayList<>(query.getPipeline());
+            if (offset > 0) {
+                pipeline.add(new Document("$skip", offset));
+            }
+            Optional.ofNullable(limit).filter(size -> size > 0)
+                    .ifPresent(size -> pipeline.add(new Document("$limit", size)));
+            iterable = collection.aggregate(pipeline).allowDiskUse(true);
+        }
+        return new MongoRowIterator(iterable.batchSize(batchSize).iterator(), projection, batchSize);
+    }
+
+    /**
+     * 执行写操作，支持insertOne/insertMany/updateOne/updateMany/deleteOne/deleteMany
+     *
+     * @param schema 数据库，可为空。为空则取当前连接的数据库
+     * @param sql    json描述或shell表达式，如db.collection.updateMany({status: "A"}, {$set: {flag: 1}})
+     */
+    public void update(String schema, String sql) {
+        MongoQuery query = MongoQueryParser.parse(sql);
+        if (Objects.isNull(query)) {
+            log.warn("unrecognized expression, fallback to $eval: {}", sql);
+            this.evalUpdate(schema, sql);
+            return;
+        }
+        MongoCollection<Document> collection = this.collection(schema, query);
+        switch (query.getOperation()) {
+            case INSERT_ONE:
+            case INSERT_MANY:
+                if (CollectionUtils.isEmpty(query.getDocuments())) {
+                    throw new DriverException("no documents to insert");
+                }
+                collection.insertMany(query.getDocuments());
+                break;
+            case UPDATE_ONE:
+                collection.updateOne(query.getFilter(), this.requireUpdate(query),
+                        new UpdateOptions().upsert(query.isUpsert()));
+                break;
+            case UPDATE_MANY:
+                collection.updateMany(query.getFilter(), this.requireUpdate(query),
+                        new UpdateOptions().upsert(query.isUpsert()));
+                break;
+            case DELETE_ONE:
+                collection.deleteOne(query.getFilter());
+                break;
+            case DELETE_MANY:
+                collection.deleteMany(query.getFilter());
+                break;
+            default:
+                throw new DriverException("read operation is not allowed in update: " + query.getOperation());
+        }
+    }
+
+    private long count(MongoCollection<Document> collection, MongoQuery query) {
+        switch (query.getOperation()) {
+            case FIND:
+            case COUNT:
+                if (query.getFilter().isEmpty() && Objects.isNull(query.getSkip()) && Objects.isNull(query.getLimit())) {
+                    return collection.estimatedDocumentCount();
+                }
+                CountOptions options = new CountOptions();
+                Optional.ofNullable(query.getSkip()).ifPresent(options::skip);
+                Optional.ofNullable(query.getLimit()).filter(limit -> limit > 0).ifPresent(options::limit);
+                return collection.countDocuments(query.getFilter(), options);
+            case AGGREGATE:
+                List<Document> pipeline = new ArrayList<>(query.getPipeline());
+                pipeline.add(new Document("$count", SQL_COUNT));
+                Document result = collection.aggregate(pipeline).allowDiskUse(true).first();
+                return Objects.isNull(result) ? 0L : ((Number) result.get(SQL_COUNT)).longValue();
+            default:
+                throw new DriverException("count is not supported for: " + query.getOperation());
+        }
+    }
+
+    private Document requireUpdate(MongoQuery query) {
+        if (Objects.isNull(query.getUpdate())) {
+            throw new DriverException("update document must be specified");
+        }
+        return query.getUpdate();
+    }
+
+    private MongoCollection<Document> collection(String schema, MongoQuery query) {
+        if (StringUtils.isEmpty(schema)) {
+            schema = defaultDatabase;
+        }
+        return mongoClient.getDatabase(schema).getCollection(query.getCollection());
+    }
+
+    /**
+     * 通过$eval查询数据条数，仅用于无法原生解析的表达式
+     *
+     * @param schema 数据库，可为空。为空则取当前连接的数据库
+     * @param sql    如db.collection.find()
+     * @return 数据条数
+     */
+    private Long evalCount(String schema, String sql) {
         if (StringUtils.isEmpty(schema)) {
             schema = defaultDatabase;
         }
@@ -109,14 +418,14 @@ public class MongoTemplateUtil {
     }
 
     /**
-     * 分页查询数据
+     * 通过$eval分页查询数据，仅用于无法原生解析的表达式
      *
      * @param schema   数据库，可为空。为空则取当前连接的数据库
      * @param sql      如db.collection.find()
      * @param pageable 分页
      * @return 分页数据
      */
-    public Page<Map<String, Object>> select(String schema, String sql, Pageable pageable) {
+    private Page<Map<String, Object>> evalSelect(String schema, String sql, Pageable pageable) {
         if (StringUtils.isEmpty(schema)) {
             schema = defaultDatabase;
         }
@@ -148,7 +457,7 @@ public class MongoTemplateUtil {
 
         try {
             documents = commandResult.getList(RESULT_KEY, Document.class);
-            count = this.count(schema, sql);
+            count = this.evalCount(schema, sql);
         } catch (Exception e) {
             documentCount.put(SQL_COUNT, commandResult.get(RESULT_KEY));
             count = 1;
@@ -180,7 +489,7 @@ public class MongoTemplateUtil {
     }
 
 
-    public void update(String schema, String sql) {
+    private void evalUpdate(String schema, String sql) {
         if (StringUtils.isEmpty(schema)) {
             schema = defaultDatabase;
         }
@@ -51,4 +51,11 @@ public class MongoDriverSessionTest {
     public void testSelect() {
         mongoDriverSession.executePageAll("test", "db.t_999_main.find()", PageRequest.of(0, 10));
     }
+
+    @Test
+    public void testSelectNative() {
+        System.out.println(mongoDriverSession.queryCount("test", "db.t_999_main.find({_id: {$exists: true}})"));
+        System.out.println(mongoDriverSession.executePageAll("test",
+                "{\"collection\": \"t_999_main\", \"sort\": {\"_id\": 1}}", PageRequest.of(1, 10)));
+    }
 }
@@ -0,0 +1,167 @@
+package com.github.thestyleofme.driver.mongo.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * <p>
+ * MongoQueryParser测试，json描述及shell表达式的解析，不连接服务端
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class MongoQueryParserTest {
+
+    @Test
+    public void testSpecFind() {
+        MongoQuery query = MongoQueryParser.parse("{\"collection\":\"orders\",\"filter\":{\"status\":\"A\"}," +
+                "\"projection\":{\"amount\":1},\"sort\":{\"_id\":1},\"skip\":5,\"limit\":100,\"batchSize\":1000}");
+        Assert.assertNotNull(query);
+        Assert.assertEquals("orders", query.getCollection());
+        Assert.assertEquals(MongoQuery.Operation.FIND, query.getOperation());
+        Assert.assertEquals(new Document("status", "A"), query.getFilter());
+        Assert.assertEquals(new Document("amount", 1), query.getProjection());
+        Assert.assertEquals(new Document("_id", 1), query.getSort());
+        Assert.assertEquals(Integer.valueOf(5), query.getSkip());
+        Assert.assertEquals(Integer.valueOf(100), query.getLimit());
+        Assert.assertEquals(Integer.valueOf(1000), query.getBatchSize());
+        Assert.assertTrue(query.isRead());
+    }
+
+    @Test
+    public void testSpecOperation() {
+        Assert.assertEquals(MongoQuery.Operation.AGGREGATE,
+                MongoQueryParser.parse("{collection: \"c\", pipeline: [{$match: {a: 1}}]}").getOperation());
+        Assert.assertEquals(MongoQuery.Operation.UPDATE_MANY,
+                MongoQueryParser.parse("{collection: \"c\", update: {$set: {a: 1}}}").getOperation());
+        Assert.assertEquals(MongoQuery.Operation.INSERT_MANY,
+                MongoQueryParser.parse("{collection: \"c\", documents: [{a: 1}]}").getOperation());
+        Assert.assertEquals(MongoQuery.Operation.COUNT,
+                MongoQueryParser.parse("{collection: \"c\", count: true}").getOperation());
+        // 显式指定时不区分大小写
+        MongoQuery query = MongoQueryParser.parse("{collection: \"c\", operation: \"delete_one\", filter: {a: 1}};");
+        Assert.assertEquals(MongoQuery.Operation.DELETE_ONE, query.getOperation());
+        Assert.assertFalse(query.isRead());
+    }
+
+    @Test
+    public void testSpecInvalid() {
+        try {
+            MongoQueryParser.parse("{filter: {a: 1}}");
+            Assert.fail("collection is not required");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("collection"));
+        }
+        try {
+            MongoQueryParser.parse("{collection: \"c\", operation: \"drop\"}");
+            Assert.fail("unknown operation is accepted");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("unsupported operation"));
+        }
+    }
+
+    @Test
+    public void testShellFindChain() {
+        MongoQuery query = MongoQueryParser.parse(
+                "db.orders.find({status: \"A\"}, {amount: 1}).sort({_id: -1}).skip(10).limit(100).batchSize(50);");
+        Assert.assertNotNull(query);
+        Assert.assertEquals("orders", query.getCollection());
+        Assert.assertEquals(MongoQuery.Operation.FIND, query.getOperation());
+        Assert.assertEquals(new Document("status", "A"), query.getFilter());
+        Assert.assertEquals(new Document("amount", 1), query.getProjection());
+        Assert.assertEquals(new Document("_id", -1), query.getSort());
+        Assert.assertEquals(Integer.valueOf(10), query.getSkip());
+        Assert.assertEquals(Integer.valueOf(100), query.getLimit());
+        Assert.assertEquals(Integer.valueOf(50), query.getBatchSize());
+    }
+
+    @Test
+    public void testShellEmptyFind() {
+        MongoQuery query = MongoQueryParser.parse("db.orders.find().pretty()");
+        Assert.assertNotNull(query);
+        Assert.assertEquals(new Document(), query.getFilter());
+        Assert.assertNull(query.getProjection());
+    }
+
+    @Test
+    public void testShellCount() {
+        MongoQuery query = MongoQueryParser.parse("db.orders.find({status: \"A\"}).count()");
+        Assert.assertEquals(MongoQuery.Operation.COUNT, query.getOperation());
+        Assert.assertEquals(new Document("status", "A"), query.getFilter());
+        Assert.assertEquals(MongoQuery.Operation.COUNT,
+                MongoQueryParser.parse("db.orders.countDocuments({})").getOperation());
+        // count只能跟在find之后
+        Assert.assertNull(MongoQueryParser.parse("db.orders.aggregate([]).count()"));
+    }
+
+    @Test
+    public void testShellAggregate() {
+        MongoQuery query = MongoQueryParser.parse(
+                "db.orders.aggregate([{$match: {status: \"A\"}}, {$group: {_id: \"$cust\", total: {$sum: \"$amount\"}}}])");
+        Assert.assertEquals(MongoQuery.Operation.AGGREGATE, query.getOperation());
+        Assert.assertEquals(2, query.getPipeline().size());
+        Assert.assertEquals(new Document("$match", new Document("status", "A")), query.getPipeline().get(0));
+        try {
+            MongoQueryParser.parse("db.orders.aggregate({$match: {}})");
+            Assert.fail("pipeline must be an array");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("array of documents"));
+        }
+    }
+
+    @Test
+    public void testShellWrite() {
+        MongoQuery update = MongoQueryParser.parse(
+                "db.orders.updateMany({status: \"A\"}, {$set: {flag: 1}}, {upsert: true})");
+        Assert.assertEquals(MongoQuery.Operation.UPDATE_MANY, update.getOperation());
+        Assert.assertEquals(new Document("$set", new Document("flag", 1)), update.getUpdate());
+        Assert.assertTrue(update.isUpsert());
+        Assert.assertFalse(MongoQueryParser.parse("db.orders.updateOne({a: 1}, {$set: {b: 2}})").isUpsert());
+
+        MongoQuery insertOne = MongoQueryParser.parse("db.orders.insertOne({a: 1})");
+        Assert.assertEquals(Collections.singletonList(new Document("a", 1)), insertOne.getDocuments());
+        MongoQuery insertMany = MongoQueryParser.parse("db.orders.insertMany([{a: 1}, {a: 2}])");
+        Assert.assertEquals(Arrays.asList(new Document("a", 1), new Document("a", 2)), insertMany.getDocuments());
+
+        MongoQuery delete = MongoQueryParser.parse("db.orders.deleteMany({a: {$lt: 3}})");
+        Assert.assertEquals(MongoQuery.Operation.DELETE_MANY, delete.getOperation());
+        Assert.assertEquals(new Document("a", new Document("$lt", 3)), delete.getFilter());
+    }
+
+    @Test
+    public void testShellSyntax() {
+        // 集合名含点
+        Assert.assertEquals("system.users", MongoQueryParser.parse("db.system.users.find()").getCollection());
+        // 字符串中的括号不影响参数的截取
+        Assert.assertEquals(new Document("name", "a)(b"),
+                MongoQueryParser.parse("db.c.find({name: 'a)(b'}).limit(1)").getFilter());
+        // shell扩展写法
+        ObjectId id = new ObjectId("5f1d7f1e2b3c4d5e6f708192");
+        Assert.assertEquals(id, MongoQueryParser.parse(
+                "db.c.find({_id: ObjectId(\"5f1d7f1e2b3c4d5e6f708192\")})").getFilter().get("_id"));
+        try {
+            MongoQueryParser.parse("db.c.find(1)");
+            Assert.fail("non document filter is accepted");
+        } catch (DriverException e) {
+            Assert.assertTrue(e.getMessage().contains("must be a document"));
+        }
+    }
+
+    @Test
+    public void testUnrecognized() {
+        Assert.assertNull(MongoQueryParser.parse(null));
+        Assert.assertNull(MongoQueryParser.parse(" "));
+        Assert.assertNull(MongoQueryParser.parse("select * from orders"));
+        Assert.assertNull(MongoQueryParser.parse("db.orders.drop()"));
+        Assert.assertNull(MongoQueryParser.parse("db.orders.find().explain()"));
+        Assert.assertNull(MongoQueryParser.parse("db.orders.find({a: 1}"));
+    }
+
+}
@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 import javax.sql.DataSource;
 
@@ -70,6 +71,12 @@ public class MysqlDriverSession extends AbstractRdbmsDriverSession {
         super(dataSource);
     }
 
+    @Override
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        // mysql驱动仅在fetchSize为Integer.MIN_VALUE时逐行流式读取，否则一次性加载全部结果
+        statement.setFetchSize(Integer.MIN_VALUE);
+    }
+
     @Override
     public String toDate(String dateString, String fmt) {
         if (StringUtils.isEmpty(fmt)) {
@@ -1,10 +1,12 @@
 package com.github.thestyleofme.driver.oracle.datasource;
 
+import java.util.Objects;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourceFunction;
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourcePoolFactory;
 import com.github.thestyleofme.driver.core.infra.vo.PluginDatasourceVO;
+import oracle.jdbc.OracleConnection;
 import oracle.jdbc.OracleDriver;
 import org.springframework.stereotype.Component;
 
@@ -19,9 +21,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class OracleDataSourceFunction implements DriverDataSourceFunction<PluginDatasourceVO, DataSource> {
 
+    /**
+     * 每次往返预取的行数，驱动默认只有10行
+     */
+    public static final String ROW_PREFETCH = "oracle.row.prefetch";
+    private static final String DEFAULT_ROW_PREFETCH = "500";
+    private static final String DRIVER_ROW_PREFETCH = "dataSource." + OracleConnection.CONNECTION_PROPERTY_DEFAULT_ROW_PREFETCH;
+
     @Override
     public DataSource createDataSource(PluginDatasourceVO pluginDatasourceVO) {
-        return DriverDataSourcePoolFactory.create(pluginDatasourceVO);
+        return DriverDataSourcePoolFactory.create(pluginDatasourceVO, properties -> {
+            Object rowPrefetch = properties.remove(ROW_PREFETCH);
+            properties.putIfAbsent(DRIVER_ROW_PREFETCH, Objects.isNull(rowPrefetch) ? DEFAULT_ROW_PREFETCH : rowPrefetch);
+        });
     }
 
     @Override
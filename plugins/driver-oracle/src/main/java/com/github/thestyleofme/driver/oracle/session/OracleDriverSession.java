@@ -2,8 +2,11 @@ package com.github.thestyleofme.driver.oracle.session;
 
 import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol.SEMICOLON;
 
-import java.util.List;
-import java.util.Map;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.PageSqlExtractor;
@@ -43,6 +46,24 @@ public class OracleDriverSession extends AbstractRdbmsDriverSession {
 
     private static final String DEFAULT_PAGE_SQL = "SELECT * FROM (SELECT TMP_PAGE.*, ROWNUM ROW_ID FROM (%s) TMP_PAGE) " +
             "WHERE ROW_ID <= %d AND ROW_ID > %d";
+    /**
+     * 12c及以上的行限制子句，优化器可按需只取前offset+size行，不产生再丢弃前面的行
+     */
+    private static final String OFFSET_FETCH_PAGE_SQL = "%s OFFSET %d ROWS FETCH NEXT %d ROWS ONLY";
+    private static final int OFFSET_FETCH_MIN_VERSION = 12;
+    /**
+     * sql自身已有行限制子句时不能再追加
+     */
+    private static final Pattern ROW_LIMITING = Pattern.compile("\\b(fetch\\s+(first|next)|offset\\s+\\S+\\s+rows?)\\b",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * 数据库是否为12c及以上，每个数据源只检测一次
+     */
+    private static final Map<DataSource, Boolean> OFFSET_FETCH_SUPPORTED = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * 键集分页，ROWNUM需在排序后的外层过滤
+     */
+    private static final String SEEK_PAGE_SQL = "SELECT * FROM (SELECT * FROM %s%s ORDER BY %s) WHERE ROWNUM <= %d";
 
     private static final String TABLE_DDL_FORMAT = "select dbms_metadata.get_ddl('TABLE','%s','%s') CREATE_SQL from dual;";
     private static final String VIEW_DDL_FORMAT = "select dbms_metadata.get_ddl('VIEW','%s','%s') CREATE_SQL from dual;";
@@ -63,6 +84,26 @@ public class OracleDriverSession extends AbstractRdbmsDriverSession {
 
     @Override
     public Table tableMetaExtra(String schema, String tableName) {
+        return this.tablesMetaExtra(schema, Collections.singletonList(tableName)).get(0);
+    }
+
+    /**
+     * 表从数据字典批量加载，视图等不在TABLES视图中的按JDBC元数据逐个获取
+     */
+    @Override
+    public List<Table> tablesMetaExtra(String schema, List<String> tableNames) {
+        Map<String, Table> loaded = new OracleMetaDataLoader(dataSource).load(schema, tableNames);
+        loaded.values().forEach(this::fillColumnExtra);
+        if (CollectionUtils.isEmpty(tableNames)) {
+            return new ArrayList<>(loaded.values());
+        }
+        return tableNames.stream()
+                .map(tableName -> Optional.ofNullable(loaded.get(tableName))
+                        .orElseGet(() -> this.tableMetaExtraByJdbc(schema, tableName)))
+                .collect(Collectors.toList());
+    }
+
+    private Table tableMetaExtraByJdbc(String schema, String tableName) {
         List<Map<String, Object>> metaDataMapList = this
                 .executeOneQuery(schema, String.format(TABLE_METADATA_SQL, schema, tableName));
         // basic info
@@ -71,7 +112,14 @@ public class OracleDriverSession extends AbstractRdbmsDriverSession {
         if (!CollectionUtils.isEmpty(metaDataMapList)) {
             table.setExtra(DriverUtil.underlineToCamelHumpMapKey(metaDataMapList.get(0)));
         }
-        // 字段额外信息
+        this.fillColumnExtra(table);
+        return table;
+    }
+
+    /**
+     * 字段额外信息
+     */
+    private void fillColumnExtra(Table table) {
         List<Column> columnList = table.getColumnList();
         columnList.forEach(column -> {
             OracleColumnExtra columnExtra = new OracleColumnExtra();
@@ -99,7 +147,6 @@ public class OracleDriverSession extends AbstractRdbmsDriverSession {
                 }
             }
         });
-        return table;
     }
 
     /**
@@ -161,10 +208,34 @@ public class OracleDriverSession extends AbstractRdbmsDriverSession {
             if (pageable.getSort().isSorted()) {
                 sql = sql + " order by " + Strings.join(pageable.getSort().iterator(), ',').replace(":", " ");
             }
+            if (this.isOffsetFetchSupported() && !ROW_LIMITING.matcher(sql).find()) {
+                return String.format(OFFSET_FETCH_PAGE_SQL, sql, offset, size);
+            }
             return String.format(pageFormat, sql, offset + size, offset);
         };
     }
 
+    private boolean isOffsetFetchSupported() {
+        Boolean supported = OFFSET_FETCH_SUPPORTED.get(dataSource);
+        if (Objects.nonNull(supported)) {
+            return supported;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            supported = connection.getMetaData().getDatabaseMajorVersion() >= OFFSET_FETCH_MIN_VERSION;
+        } catch (SQLException e) {
+            // 本次按旧方式分页，下次再检测
+            log.warn("get oracle version error, use rownum paging", e);
+            return false;
+        }
+        OFFSET_FETCH_SUPPORTED.put(dataSource, supported);
+        return supported;
+    }
+
+    @Override
+    protected String seekPageSql(String from, String where, String orderBy, int size) {
+        return String.format(SEEK_PAGE_SQL, from, where, orderBy, size);
+    }
+
     @Override
     public List<Column> updateComment(List<Column> columns) {
         StringBuilder builder = new StringBuilder();
@@ -0,0 +1,442 @@
+package com.github.thestyleofme.driver.oracle.session;
+
+import java.sql.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
+import com.github.thestyleofme.driver.core.infra.meta.*;
+import com.github.thestyleofme.driver.core.infra.utils.DriverUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * <p>
+ * 按owner或一批表从数据字典批量加载表、列、注释、主外键、索引与统计信息，在内存中组装Table
+ * 每类信息一条绑定变量的查询，表名按固定个数分批，sql文本固定可复用游标，避免逐表硬解析；
+ * 有DBA_视图权限时使用DBA_视图，省去ALL_视图的权限过滤
+ * 列的DATA_DEFAULT为LONG类型，会使驱动退化为逐行获取，默认值单独查询，只取DEFAULT_LENGTH大于0的列，
+ * 12.2及以上版本改用VARCHAR2类型的DATA_DEFAULT_VC
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class OracleMetaDataLoader {
+
+    private static final int IN_LIST_SIZE = 100;
+    private static final int FETCH_SIZE = 1000;
+    private static final String DBA = "DBA";
+    private static final String ALL = "ALL";
+    private static final String DBA_PROBE_SQL = "SELECT 1 FROM DBA_TABLES WHERE ROWNUM = 1";
+    /**
+     * ORA-00904 标识符无效，12.2以前的版本没有DATA_DEFAULT_VC列
+     */
+    private static final int INVALID_IDENTIFIER = 904;
+    private static final Map<DataSource, String> DICTIONARIES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<DataSource, Boolean> DEFAULT_VC_SUPPORTED = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * 字符类型的列长度取字符数
+     */
+    private static final Set<Integer> CHARACTER_TYPES = new HashSet<>(Arrays.asList(
+            Types.CHAR, Types.VARCHAR, Types.NCHAR, Types.NVARCHAR));
+
+    private static final String TABLE_SQL = "SELECT t.OWNER AS DATASOURCE_SCHEMA, t.TABLE_NAME AS TABLE_NAME, " +
+            "t.NUM_ROWS AS DATA_COUNT, t.NUM_ROWS * t.AVG_ROW_LEN AS TABLE_SIZE, c.TABLE_TYPE AS TABLE_TYPE, " +
+            "c.COMMENTS AS TABLE_DESC, t.TABLESPACE_NAME AS TABLESPACE_NAME, t.OWNER AS OWNER, " +
+            "t.BACKED_UP AS BACKED_UP, t.BLOCKS AS BLOCKS, t.AVG_ROW_LEN AS AVG_ROW_LEN, " +
+            "t.LAST_ANALYZED AS LAST_ANALYZED, o.CREATED AS CREATE_TIME, o.LAST_DDL_TIME AS UPDATE_TIME " +
+            "FROM %1$s_TABLES t " +
+            "LEFT JOIN %1$s_TAB_COMMENTS c ON c.OWNER = t.OWNER AND c.TABLE_NAME = t.TABLE_NAME " +
+            "LEFT JOIN %1$s_OBJECTS o ON o.OWNER = t.OWNER AND o.OBJECT_NAME = t.TABLE_NAME AND o.OBJECT_TYPE = 'TABLE' " +
+            "WHERE t.OWNER = ?%2$s ORDER BY t.TABLE_NAME";
+    private static final String COLUMN_SQL = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.DATA_LENGTH, " +
+            "c.CHAR_LENGTH, c.DATA_PRECISION, c.DATA_SCALE, c.NULLABLE, c.COLUMN_ID, m.COMMENTS " +
+            "FROM %1$s_TAB_COLUMNS c " +
+            "LEFT JOIN %1$s_COL_COMMENTS m ON m.OWNER = c.OWNER AND m.TABLE_NAME = c.TABLE_NAME AND m.COLUMN_NAME = c.COLUMN_NAME " +
+            "WHERE c.OWNER = ?%2$s ORDER BY c.TABLE_NAME, c.COLUMN_ID";
+    /**
+     * 虚拟列的DATA_DEFAULT为列的表达式，不是默认值，排除
+     */
+    private static final String DEFAULT_VC_SQL = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_DEFAULT_VC AS DATA_DEFAULT " +
+            "FROM %1$s_TAB_COLS c " +
+            "WHERE c.DEFAULT_LENGTH > 0 AND c.VIRTUAL_COLUMN = 'NO' AND c.HIDDEN_COLUMN = 'NO' AND c.OWNER = ?%2$s";
+    private static final String DEFAULT_LONG_SQL = "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_DEFAULT " +
+            "FROM %1$s_TAB_COLS c " +
+            "WHERE c.DEFAULT_LENGTH > 0 AND c.VIRTUAL_COLUMN = 'NO' AND c.HIDDEN_COLUMN = 'NO' AND c.OWNER = ?%2$s";
+    private static final String PRIMARY_KEY_SQL = "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, k.COLUMN_NAME, k.POSITION " +
+            "FROM %1$s_CONSTRAINTS c " +
+            "JOIN %1$s_CONS_COLUMNS k ON k.OWNER = c.OWNER AND k.CONSTRAINT_NAME = c.CONSTRAINT_NAME AND k.TABLE_NAME = c.TABLE_NAME " +
+            "WHERE c.CONSTRAINT_TYPE = 'P' AND c.OWNER = ?%2$s ORDER BY c.TABLE_NAME, k.POSITION";
+    private static final String FOREIGN_KEY_SQL = "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, k.COLUMN_NAME, k.POSITION, " +
+            "r.OWNER AS R_OWNER, r.TABLE_NAME AS R_TABLE_NAME, r.CONSTRAINT_NAME AS R_CONSTRAINT_NAME, " +
+            "rk.COLUMN_NAME AS R_COLUMN_NAME, c.DELETE_RULE, c.DEFERRABLE, c.DEFERRED " +
+            "FROM %1$s_CONSTRAINTS c " +
+            "JOIN %1$s_CONS_COLUMNS k ON k.OWNER = c.OWNER AND k.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+            "JOIN %1$s_CONSTRAINTS r ON r.OWNER = c.R_OWNER AND r.CONSTRAINT_NAME = c.R_CONSTRAINT_NAME " +
+            "JOIN %1$s_CONS_COLUMNS rk ON rk.OWNER = r.OWNER AND rk.CONSTRAINT_NAME = r.CONSTRAINT_NAME AND rk.POSITION = k.POSITION " +
+            "WHERE c.CONSTRAINT_TYPE = 'R' AND c.OWNER = ?%2$s ORDER BY c.TABLE_NAME, c.CONSTRAINT_NAME, k.POSITION";
+    private static final String INDEX_SQL = "SELECT i.TABLE_NAME, i.INDEX_NAME, i.UNIQUENESS, i.DISTINCT_KEYS, " +
+            "i.LEAF_BLOCKS, c.COLUMN_NAME, c.COLUMN_POSITION, c.DESCEND " +
+            "FROM %1$s_INDEXES i " +
+            "JOIN %1$s_IND_COLUMNS c ON c.INDEX_OWNER = i.OWNER AND c.INDEX_NAME = i.INDEX_NAME " +
+            "WHERE i.TABLE_OWNER = ?%2$s ORDER BY i.TABLE_NAME, i.INDEX_NAME, c.COLUMN_POSITION";
+
+    private final DataSource dataSource;
+
+    public OracleMetaDataLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 加载表元数据
+     *
+     * @param owner      owner
+     * @param tableNames 表名，为空时为owner下的所有表
+     * @return key为表名，按表名排序，视图等不在TABLES视图中的不包含
+     */
+    public Map<String, Table> load(String owner, List<String> tableNames) {
+        Map<String, Table> tables = new LinkedHashMap<>(16);
+        try (Connection connection = dataSource.getConnection()) {
+            String dictionary = this.dictionary(connection);
+            List<List<String>> batches = this.batches(tableNames);
+            for (List<String> batch : batches) {
+                this.query(connection, TABLE_SQL, dictionary, "t", owner, batch, rs -> this.addTable(tables, rs));
+            }
+            if (tables.isEmpty()) {
+                return tables;
+            }
+            for (List<String> batch : batches) {
+                this.query(connection, COLUMN_SQL, dictionary, "c", owner, batch, rs -> this.addColumn(tables, rs));
+                this.queryColumnDefault(connection, dictionary, owner, batch, tables);
+                this.query(connection, PRIMARY_KEY_SQL, dictionary, "c", owner, batch, rs -> this.addPrimaryKey(tables, rs));
+                this.query(connection, FOREIGN_KEY_SQL, dictionary, "c", owner, batch, rs -> this.addForeignKey(tables, rs));
+                this.query(connection, INDEX_SQL, dictionary, "i", owner, batch, rs -> this.addIndex(tables, rs));
+            }
+        } catch (SQLException e) {
+            throw new DriverException("load oracle metadata of owner [" + owner + "] error", e);
+        }
+        tables.values().forEach(this::beautify);
+        return tables;
+    }
+
+    private String dictionary(Connection connection) {
+        String dictionary = DICTIONARIES.get(dataSource);
+        if (Objects.nonNull(dictionary)) {
+            return dictionary;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery(DBA_PROBE_SQL).close();
+            dictionary = DBA;
+        } catch (SQLException e) {
+            log.debug("no privilege on DBA_ views, use ALL_ views, {}", e.getMessage());
+            dictionary = ALL;
+        }
+        DICTIONARIES.put(dataSource, dictionary);
+        return dictionary;
+    }
+
+    /**
+     * 列默认值，优先使用DATA_DEFAULT_VC，不支持时查询LONG类型的DATA_DEFAULT
+     * 默认值超过4000字节时DATA_DEFAULT_VC为空，此时同样查询DATA_DEFAULT
+     */
+    private void queryColumnDefault(Connection connection,
+                                    String dictionary,
+                                    String owner,
+                                    List<String> batch,
+                                    Map<String, Table> tables) throws SQLException {
+        boolean[] truncated = {false};
+        if (!Boolean.FALSE.equals(DEFAULT_VC_SUPPORTED.get(dataSource))) {
+            try {
+                this.query(connection, DEFAULT_VC_SQL, dictionary, "c", owner, batch, rs -> {
+                    if (Objects.isNull(rs.getString("DATA_DEFAULT"))) {
+                        truncated[0] = true;
+                    } else {
+                        this.addColumnDefault(tables, rs);
+                    }
+                });
+                DEFAULT_VC_SUPPORTED.put(dataSource, true);
+                if (!truncated[0]) {
+                    return;
+                }
+            } catch (SQLException e) {
+                if (e.getErrorCode() != INVALID_IDENTIFIER) {
+                    throw e;
+                }
+                log.debug("DATA_DEFAULT_VC is not supported, query DATA_DEFAULT, {}", e.getMessage());
+                DEFAULT_VC_SUPPORTED.put(dataSource, false);
+            }
+        }
+        this.query(connection, DEFAULT_LONG_SQL, dictionary, "c", owner, batch, rs -> this.addColumnDefault(tables, rs));
+    }
+
+    /**
+     * 表名按IN_LIST_SIZE分批，最后一批用最后一个表名补齐，保证sql文本相同；为空时不按表过滤
+     */
+    private List<List<String>> batches(List<String> tableNames) {
+        if (CollectionUtils.isEmpty(tableNames)) {
+            return Collections.singletonList(Collections.emptyList());
+        }
+        List<String> names = tableNames.stream().distinct().collect(Collectors.toList());
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < names.size(); from += IN_LIST_SIZE) {
+            List<String> batch = new ArrayList<>(names.subList(from, Math.min(from + IN_LIST_SIZE, names.size())));
+            String last = batch.get(batch.size() - 1);
+            while (batch.size() < IN_LIST_SIZE) {
+                batch.add(last);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private void query(Connection connection,
+                       String sqlFormat,
+                       String dictionary,
+                       String alias,
+                       String owner,
+                       List<String> batch,
+                       RowHandler handler) throws SQLException {
+        String filter = batch.isEmpty() ? "" :
+                " AND " + alias + ".TABLE_NAME IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+        try (PreparedStatement ps = connection.prepareStatement(String.format(sqlFormat, dictionary, filter))) {
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, owner);
+            for (int i = 0; i < batch.size(); i++) {
+                ps.setString(i + 2, batch.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                }
+            }
+        }
+    }
+
+    private void addTable(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Map<String, Object> extra = new LinkedHashMap<>(16);
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            extra.put(metaData.getColumnLabel(i), rs.getObject(i));
+        }
+        Table table = new Table();
+        table.setTableSchema(rs.getString("DATASOURCE_SCHEMA"));
+        table.setTableName(rs.getString("TABLE_NAME"));
+        table.setRemarks(rs.getString("TABLE_DESC"));
+        table.setTableType(rs.getString("TABLE_TYPE"));
+        table.setOwner(rs.getString("OWNER"));
+        table.setCreateTime(rs.getTimestamp("CREATE_TIME"));
+        table.setUpdateTime(rs.getTimestamp("UPDATE_TIME"));
+        table.setExtra(DriverUtil.underlineToCamelHumpMapKey(extra));
+        tables.put(table.getTableName(), table);
+    }
+
+    private void addColumn(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Table table = tables.get(rs.getString("TABLE_NAME"));
+        if (Objects.isNull(table)) {
+            return;
+        }
+        String typeName = rs.getString("DATA_TYPE");
+        int dataType = jdbcType(typeName);
+        Integer precision = integer(rs, "DATA_PRECISION");
+        Integer columnSize;
+        if (dataType == Types.NUMERIC || dataType == Types.FLOAT) {
+            columnSize = precision;
+        } else if (CHARACTER_TYPES.contains(dataType)) {
+            columnSize = integer(rs, "CHAR_LENGTH");
+        } else {
+            columnSize = integer(rs, "DATA_LENGTH");
+        }
+        boolean nullable = "Y".equals(rs.getString("NULLABLE"));
+        table.getColumnList().add(Column.builder()
+                .tableSchema(table.getTableSchema())
+                .tableName(table.getTableName())
+                .columnName(rs.getString("COLUMN_NAME"))
+                .dataType(dataType)
+                .typeName(typeName)
+                .columnSize(columnSize)
+                .decimalDigits(integer(rs, "DATA_SCALE"))
+                .numPrecRadix(10)
+                .nullable(nullable ? DatabaseMetaData.columnNullable : DatabaseMetaData.columnNoNulls)
+                .isNullable(nullable ? "YES" : "NO")
+                .remarks(rs.getString("COMMENTS"))
+                .charOctetLength(rs.getString("DATA_LENGTH"))
+                .ordinalPosition(integer(rs, "COLUMN_ID"))
+                .isAutoincrement("NO")
+                .build());
+    }
+
+    private void addColumnDefault(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Table table = tables.get(rs.getString("TABLE_NAME"));
+        String columnDef = rs.getString("DATA_DEFAULT");
+        if (Objects.isNull(table) || Objects.isNull(columnDef)) {
+            return;
+        }
+        String columnName = rs.getString("COLUMN_NAME");
+        // 数据字典保存的是建表时的原文，常带有尾部空白与换行
+        table.getColumnList().stream()
+                .filter(column -> columnName.equals(column.getColumnName()))
+                .findFirst()
+                .ifPresent(column -> column.setColumnDef(columnDef.trim()));
+    }
+
+    private void addPrimaryKey(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Table table = tables.get(rs.getString("TABLE_NAME"));
+        if (Objects.isNull(table)) {
+            return;
+        }
+        table.getPkList().add(PrimaryKey.builder()
+                .tableSchema(table.getTableSchema())
+                .tableName(table.getTableName())
+                .columnName(rs.getString("COLUMN_NAME"))
+                .keySeq(integer(rs, "POSITION"))
+                .pkName(rs.getString("CONSTRAINT_NAME"))
+                .build());
+    }
+
+    private void addForeignKey(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Table table = tables.get(rs.getString("TABLE_NAME"));
+        if (Objects.isNull(table)) {
+            return;
+        }
+        int deleteRule;
+        switch (String.valueOf(rs.getString("DELETE_RULE"))) {
+            case "CASCADE":
+                deleteRule = DatabaseMetaData.importedKeyCascade;
+                break;
+            case "SET NULL":
+                deleteRule = DatabaseMetaData.importedKeySetNull;
+                break;
+            default:
+                deleteRule = DatabaseMetaData.importedKeyNoAction;
+        }
+        int deferrability;
+        if (!"DEFERRABLE".equals(rs.getString("DEFERRABLE"))) {
+            deferrability = DatabaseMetaData.importedKeyNotDeferrable;
+        } else if ("DEFERRED".equals(rs.getString("DEFERRED"))) {
+            deferrability = DatabaseMetaData.importedKeyInitiallyDeferred;
+        } else {
+            deferrability = DatabaseMetaData.importedKeyInitiallyImmediate;
+        }
+        table.getFkList().add(ForeignKey.builder()
+                .tableSchema(table.getTableSchema())
+                .tableName(table.getTableName())
+                .columnName(rs.getString("COLUMN_NAME"))
+                .keySeq(integer(rs, "POSITION"))
+                .fkName(rs.getString("CONSTRAINT_NAME"))
+                .pkTableSchema(rs.getString("R_OWNER"))
+                .pkTableName(rs.getString("R_TABLE_NAME"))
+                .pkColumnName(rs.getString("R_COLUMN_NAME"))
+                .pkName(rs.getString("R_CONSTRAINT_NAME"))
+                .deleteRule(deleteRule)
+                .deferrability(deferrability)
+                .build());
+    }
+
+    private void addIndex(Map<String, Table> tables, ResultSet rs) throws SQLException {
+        Table table = tables.get(rs.getString("TABLE_NAME"));
+        if (Objects.isNull(table)) {
+            return;
+        }
+        long distinctKeys = rs.getLong("DISTINCT_KEYS");
+        long leafBlocks = rs.getLong("LEAF_BLOCKS");
+        table.getIkList().add(IndexKey.builder()
+                .tableSchema(table.getTableSchema())
+                .tableName(table.getTableName())
+                .columnName(rs.getString("COLUMN_NAME"))
+                .indexName(rs.getString("INDEX_NAME"))
+                .nonUnique(!"UNIQUE".equals(rs.getString("UNIQUENESS")))
+                .type((int) DatabaseMetaData.tableIndexOther)
+                .ordinalPosition(integer(rs, "COLUMN_POSITION"))
+                .ascOrDesc("DESC".equals(rs.getString("DESCEND")) ? "D" : "A")
+                .cardinality(distinctKeys)
+                .pages(leafBlocks)
+                .build());
+    }
+
+    /**
+     * 与Table.init一致，按名称分组生成Beautify
+     */
+    private void beautify(Table table) {
+        table.setPrimaryKeyBeautify(new PrimaryKeyBeautify(table.getPkList()));
+        table.getFkList().stream()
+                .collect(Collectors.groupingBy(fk -> Optional.ofNullable(fk.getFkName()).orElse("null"),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(list -> table.getFkBeautifyList().add(new ForeignKeyBeautify(list)));
+        table.getIkList().stream()
+                .collect(Collectors.groupingBy(ik -> Optional.ofNullable(ik.getIndexName()).orElse("null"),
+                        LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(list -> table.getIkBeautifyList().add(new IndexKeyBeautify(list)));
+    }
+
+    /**
+     * 与oracle驱动getColumns返回的DATA_TYPE一致
+     */
+    private static int jdbcType(String typeName) {
+        if (typeName.startsWith("TIMESTAMP")) {
+            return typeName.contains("TIME ZONE") ? -101 : Types.TIMESTAMP;
+        }
+        if (typeName.startsWith("INTERVAL")) {
+            return Types.OTHER;
+        }
+        switch (typeName) {
+            case "CHAR":
+                return Types.CHAR;
+            case "VARCHAR2":
+                return Types.VARCHAR;
+            case "NCHAR":
+                return Types.NCHAR;
+            case "NVARCHAR2":
+                return Types.NVARCHAR;
+            case "NUMBER":
+                return Types.NUMERIC;
+            case "FLOAT":
+                return Types.FLOAT;
+            case "BINARY_FLOAT":
+                return 100;
+            case "BINARY_DOUBLE":
+                return 101;
+            case "DATE":
+                return Types.TIMESTAMP;
+            case "CLOB":
+                return Types.CLOB;
+            case "NCLOB":
+                return Types.NCLOB;
+            case "BLOB":
+                return Types.BLOB;
+            case "RAW":
+                return Types.VARBINARY;
+            case "LONG RAW":
+                return Types.LONGVARBINARY;
+            case "LONG":
+                return Types.LONGVARCHAR;
+            case "ROWID":
+            case "UROWID":
+                return Types.ROWID;
+            default:
+                return Types.OTHER;
+        }
+    }
+
+    private static Integer integer(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+
+        /**
+         * 处理一行
+         *
+         * @param rs 结果集，已定位到当前行
+         * @throws SQLException SQLException
+         */
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+}
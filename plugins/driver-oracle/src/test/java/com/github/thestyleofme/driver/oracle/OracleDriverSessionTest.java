@@ -317,6 +317,29 @@ public class OracleDriverSessionTest {
         page.getContent().forEach(System.out::println);
     }
 
+    /**
+     * 批量获取schema下所有表的元数据
+     */
+    @Test
+    public void testTablesMetaExtra() {
+        List<Table> tables = driverSession.tablesMetaExtra("C##TEST", null);
+        System.out.println(tables.size());
+        assertFalse(CollectionUtils.isEmpty(tables));
+        Table table = driverSession.tableMetaExtra("C##TEST", "ORACLE_ALL_COL3");
+        assertFalse(CollectionUtils.isEmpty(table.getColumnList()));
+    }
+
+    /**
+     * 12c及以上使用OFFSET FETCH分页，结果中不再有ROW_ID列
+     */
+    @Test
+    public void testExecuteOneQueryOffsetFetch() {
+        Page<Map<String, Object>> page = driverSession.executeOneQuery("C##TEST",
+                "select * from ORACLE_ALL_COL3 order by id", PageRequest.of(1, 5));
+        page.getContent().forEach(System.out::println);
+        assertTrue(page.getContent().stream().noneMatch(row -> row.containsKey("ROW_ID")));
+    }
+
     /**
      * 不分页查询
      */
@@ -0,0 +1,38 @@
+package com.github.thestyleofme.driver.postgresql.session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.github.thestyleofme.driver.core.app.service.session.funcations.copier.StreamCopier;
+import org.postgresql.PGConnection;
+
+/**
+ * <p>
+ * 通过驱动的CopyManager执行COPY，出错时CopyManager会取消COPY
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class CopyManagerCopier implements StreamCopier {
+
+    static final CopyManagerCopier INSTANCE = new CopyManagerCopier();
+
+    private CopyManagerCopier() {
+    }
+
+    @Override
+    public long copyIn(Connection connection, String sql, InputStream input, int bufferSize)
+            throws SQLException, IOException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, input, bufferSize);
+    }
+
+    @Override
+    public long copyOut(Connection connection, String sql, OutputStream output) throws SQLException, IOException {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, output);
+    }
+
+}
@@ -2,10 +2,15 @@ package com.github.thestyleofme.driver.postgresql.session;
 
 import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.core.app.service.session.funcations.copier.StreamCopier;
 import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.PageSqlExtractor;
+import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.SeekSqlExtractor;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
@@ -37,6 +42,17 @@ public class PostgresqlDriverSession extends AbstractRdbmsDriverSession {
         super(dataSource);
     }
 
+    @Override
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        // 关闭自动提交后驱动才会使用服务端游标按fetchSize分批拉取，连接归还连接池时重置
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    protected Optional<StreamCopier> streamCopier() {
+        return Optional.of(CopyManagerCopier.INSTANCE);
+    }
+
     private static final String DATE_FMT = "to_timestamp(%s, '%s')";
     private static final String DEFAULT_DATE_FMT = "yyyy-MM-dd hh24:mi:ss";
     private static final String UPDATE_COMMENT = "comment on column %s.%s is '%s';";
@@ -96,6 +112,10 @@ public class PostgresqlDriverSession extends AbstractRdbmsDriverSession {
      */
     private static final String DEFAULT_PAGE_SQL = "%s limit %d offset %d";
 
+    /**
+     * 键集分页查询
+     */
+
     @Override
     public SqlGenerator getSqlGenerator() {
         return PostgresqlSqlGenerator.getInstance();
@@ -214,6 +234,12 @@ public class PostgresqlDriverSession extends AbstractRdbmsDriverSession {
         };
     }
 
+    @Override
+    protected SeekSqlExtractor.SeekSql seekPredicate(List<String> keyColumns) {
+        // 行值比较可直接利用联合主键索引
+        return SeekSqlExtractor.rowValuePredicate(keyColumns);
+    }
+
     @Override
     public List<Column> updateComment(List<Column> columns) {
         if (CollectionUtils.isEmpty(columns)) {
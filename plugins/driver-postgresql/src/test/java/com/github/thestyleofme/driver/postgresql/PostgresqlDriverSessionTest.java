@@ -2,11 +2,16 @@ package com.github.thestyleofme.driver.postgresql;
 
 import static org.junit.Assert.*;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 import com.github.thestyleofme.driver.core.app.service.session.DriverSession;
+import com.github.thestyleofme.driver.core.domain.entity.BulkResult;
+import com.github.thestyleofme.driver.core.domain.entity.DataFormat;
+import com.github.thestyleofme.driver.core.domain.entity.ExportOption;
+import com.github.thestyleofme.driver.core.domain.entity.LoadOption;
 import com.github.thestyleofme.driver.core.infra.meta.*;
 import com.github.thestyleofme.driver.postgresql.session.PostgresqlDriverSessionFactory;
 import com.zaxxer.hikari.HikariDataSource;
@@ -227,4 +232,54 @@ public class PostgresqlDriverSessionTest {
         System.out.println(pages);
         assertFalse(pages.isEmpty());
     }
+
+    /**
+     * COPY FROM STDIN导入数据行
+     */
+    @Test
+    public void testTableLoad() {
+        driverSession.executeOneUpdate("plugin_test", "create table if not exists copy_test(id int, name varchar(20))");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> row = new HashMap<>(4);
+            row.put("id", i);
+            row.put("name", i % 10 == 0 ? null : "name,\"" + i);
+            rows.add(row);
+        }
+        BulkResult result = driverSession.tableLoad("plugin_test", "copy_test", new LoadOption(), rows.iterator());
+        System.out.println(result);
+        assertEquals(100, result.getSucceeded());
+    }
+
+    /**
+     * byte[]以bytea十六进制格式写入CSV
+     */
+    @Test
+    public void testTableLoadBytea() {
+        driverSession.executeOneUpdate("plugin_test", "create table if not exists copy_bytea_test(id int, content bytea)");
+        Map<String, Object> row = new HashMap<>(4);
+        row.put("id", 1);
+        row.put("content", new byte[]{0, 1, (byte) 0xff});
+        BulkResult result = driverSession.tableLoad("plugin_test", "copy_bytea_test", new LoadOption(),
+                Collections.singletonList(row).iterator());
+        assertEquals(1, result.getSucceeded());
+    }
+
+    /**
+     * COPY TO STDOUT以BINARY导出后再以COPY FROM STDIN导入
+     */
+    @Test
+    public void testExecuteExportBinary() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExportOption exportOption = ExportOption.builder().format(DataFormat.BINARY).build();
+        long count = driverSession.executeExport("plugin_test", "select * from copy_test", exportOption, output);
+        LoadOption loadOption = LoadOption.builder().format(DataFormat.BINARY).build();
+        BulkResult result = driverSession.tableLoad("plugin_test", "copy_test", loadOption,
+                new ByteArrayInputStream(output.toByteArray()));
+        assertEquals(count, result.getSucceeded());
+
+        output.reset();
+        driverSession.executeExport("plugin_test", "select * from copy_test limit 2", new ExportOption(), output);
+        System.out.println(new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
 }
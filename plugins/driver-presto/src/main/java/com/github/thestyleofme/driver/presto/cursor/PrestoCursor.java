@@ -0,0 +1,116 @@
+package com.github.thestyleofme.driver.presto.cursor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * <p>
+ * 已打开的presto查询游标
+ * presto jdbc在ResultSet#next时才沿nextUri向coordinator拉取下一批数据，
+ * 保持游标不关闭即可按页顺序读取，后续页不再重新执行查询
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+public class PrestoCursor implements AutoCloseable {
+
+    private final Connection connection;
+    @Getter
+    private final Statement statement;
+    private final ResultSet resultSet;
+
+    /**
+     * 已读取的行数，即下一行的偏移量
+     */
+    @Getter
+    private long position;
+    private boolean exhausted;
+    private boolean closed;
+    @Getter
+    private volatile long lastAccessTime;
+    /**
+     * 结果总数，读完或count后才有值
+     */
+    @Getter
+    @Setter
+    private volatile Long total;
+
+    public PrestoCursor(Connection connection, Statement statement, ResultSet resultSet) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 从offset处读取一页，游标只能前进
+     *
+     * @param offset    偏移量
+     * @param size      条数
+     * @param rowMapper 行转换
+     * @return 该页数据，游标已关闭或已越过offset时返回null，需重新打开游标
+     * @throws SQLException SQLException
+     */
+    public synchronized List<Map<String, Object>> fetch(long offset, int size,
+                                                        RowMapper<Map<String, Object>> rowMapper) throws SQLException {
+        if (closed || offset < position) {
+            return null;
+        }
+        lastAccessTime = System.currentTimeMillis();
+        List<Map<String, Object>> rows = new ArrayList<>(size);
+        while (!exhausted && position < offset) {
+            this.advance();
+        }
+        while (!exhausted && rows.size() < size) {
+            if (this.advance()) {
+                rows.add(rowMapper.mapRow(resultSet, (int) position - 1));
+            }
+        }
+        if (exhausted) {
+            // 已读完，总数确定，提前释放连接，后续越界请求直接返回空页
+            total = position;
+            this.release();
+        }
+        return rows;
+    }
+
+    private boolean advance() throws SQLException {
+        if (resultSet.next()) {
+            position++;
+            return true;
+        }
+        exhausted = true;
+        return false;
+    }
+
+    private void release() {
+        CloseUtil.close(resultSet, statement, connection);
+    }
+
+    public boolean isExpired(long ttl) {
+        return System.currentTimeMillis() - lastAccessTime > ttl;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!exhausted) {
+            this.release();
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.github.thestyleofme.driver.presto.cursor;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * 不支持OFFSET时，缓存已打开的presto游标供后续分页复用
+ * 每个游标占用一个连接，每个数据源缓存的游标数不超过连接池大小的一半，超过时关闭最久未使用的游标，
+ * 空闲超时的游标由后台线程定时关闭
+ * </p>
+ *
+ * @author agent 2026/10/19
+ * @since 1.0.0
+ */
+@Slf4j
+public class PrestoCursorCache {
+
+    private PrestoCursorCache() {
+        throw new IllegalStateException("context class!");
+    }
+
+    /**
+     * 游标空闲保留时间，超过后presto服务端的查询同样会因客户端未拉取而被取消
+     */
+    private static final long CURSOR_TTL = 60_000L;
+    private static final long EVICT_INTERVAL = 15_000L;
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static final Map<CursorKey, PrestoCursor> CURSOR_MAP = new ConcurrentHashMap<>(16);
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "presto-cursor-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(PrestoCursorCache::evictExpired,
+                EVICT_INTERVAL, EVICT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    public static PrestoCursor get(CursorKey key) {
+        return CURSOR_MAP.get(key);
+    }
+
+    public static void put(CursorKey key, PrestoCursor cursor) {
+        int maxCursors = Math.max(1, poolSize(key.dataSource) / 2);
+        while (CURSOR_MAP.keySet().stream().filter(k -> k.dataSource == key.dataSource).count() >= maxCursors) {
+            boolean evicted = CURSOR_MAP.entrySet().stream()
+                    .filter(entry -> entry.getKey().dataSource == key.dataSource)
+                    .min(Comparator.comparingLong(entry -> entry.getValue().getLastAccessTime()))
+                    .map(entry -> remove(entry.getKey(), entry.getValue()))
+                    .orElse(false);
+            if (!evicted) {
+                break;
+            }
+        }
+        PrestoCursor old = CURSOR_MAP.put(key, cursor);
+        if (Objects.nonNull(old) && old != cursor) {
+            old.close();
+        }
+    }
+
+    public static boolean remove(CursorKey key, PrestoCursor cursor) {
+        if (CURSOR_MAP.remove(key, cursor)) {
+            cursor.close();
+            return true;
+        }
+        return false;
+    }
+
+    private static void evictExpired() {
+        try {
+            CURSOR_MAP.forEach((key, cursor) -> {
+                if (cursor.isExpired(CURSOR_TTL)) {
+                    log.debug("presto cursor expired, sql: {}", key.sql);
+                    remove(key, cursor);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("evict presto cursor error", e);
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        if (dataSource instanceof DruidDataSource) {
+            return ((DruidDataSource) dataSource).getMaxActive();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * 同一数据源、schema下的同一条SQL共用游标
+     */
+    @EqualsAndHashCode
+    public static class CursorKey {
+
+        private final DataSource dataSource;
+        private final String schema;
+        private final String sql;
+
+        public CursorKey(DataSource dataSource, String schema, String sql) {
+            this.dataSource = dataSource;
+            this.schema = schema;
+            this.sql = sql;
+        }
+    }
+
+}
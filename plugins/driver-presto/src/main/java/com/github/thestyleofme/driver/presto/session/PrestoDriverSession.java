@@ -3,21 +3,33 @@ package com.github.thestyleofme.driver.presto.session;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Pattern;
 import javax.sql.DataSource;
 
 import com.facebook.presto.jdbc.PrestoResultSet;
+import com.github.thestyleofme.driver.core.app.service.session.SqlPageResponse;
 import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.PageSqlExtractor;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
+import com.github.thestyleofme.driver.core.infra.constants.PatternConstant;
+import com.github.thestyleofme.driver.core.infra.context.RunningQueryContext;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.core.infra.meta.Table;
 import com.github.thestyleofme.driver.core.infra.utils.CloseUtil;
+import com.github.thestyleofme.driver.presto.cursor.PrestoCursor;
+import com.github.thestyleofme.driver.presto.cursor.PrestoCursorCache;
+import com.github.thestyleofme.plugin.core.infra.constants.BaseConstant;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.StringUtils;
 
 /**
@@ -31,7 +43,37 @@ import org.springframework.util.StringUtils;
 @Slf4j
 public class PrestoDriverSession extends AbstractRdbmsDriverSession {
 
-    private static final String PAGE_SQL = "%s limit %d";
+    /**
+     * prestosql/trino及开启offset_clause_enabled的prestodb支持OFFSET
+     */
+    private static final String OFFSET_PAGE_SQL = "%s offset %d rows limit %d";
+    /**
+     * 不支持OFFSET时只能直接取第一页，后续页从缓存的游标继续读取
+     */
+    private static final String LIMIT_PAGE_SQL = "%s limit %d";
+    private static final String OFFSET_PROBE_SQL = "select 1 offset 0 rows";
+    private static final String COLUMN_PROBE_SQL = "select * from (%s) t limit 0";
+    private static final String DERIVED_ORDER_SQL = "select * from (%s) t order by %s";
+    private static final String RESULT_PREFIX = "RESULT_";
+    /**
+     * 最外层已有order by
+     */
+    private static final Pattern ORDERED = Pattern.compile("\\border\\s+by\\b[^)]*$", Pattern.CASE_INSENSITIVE);
+    /**
+     * 不能排序的类型，派生排序时跳过
+     */
+    private static final Pattern UNORDERABLE_TYPE = Pattern.compile(
+            "^(map|json|hyperloglog|p4hyperloglog|qdigest|tdigest|setdigest|geometry|sphericalgeography)\\b.*",
+            Pattern.CASE_INSENSITIVE);
+    /**
+     * presto的SYNTAX_ERROR与NOT_SUPPORTED错误码，探测OFFSET时只有这两种错误表示不支持
+     */
+    private static final int SYNTAX_ERROR = 1;
+    private static final int NOT_SUPPORTED = 13;
+    /**
+     * 数据源是否支持OFFSET，探测成功后缓存
+     */
+    private static final Map<DataSource, Boolean> OFFSET_SUPPORTED_MAP = Collections.synchronizedMap(new WeakHashMap<>());
     private static final String DATE_FMT = "parse_datetime('%s', '%s')";
     private static final String DEFAULT_DATE_FMT = "'yyyy-MM-dd hh:mm:ss";
 
@@ -112,16 +154,242 @@ public class PrestoDriverSession extends AbstractRdbmsDriverSession {
         return true;
     }
 
+    @Override
+    protected String getPageFormat() {
+        return this.isOffsetSupported() ? OFFSET_PAGE_SQL : LIMIT_PAGE_SQL;
+    }
+
     @Override
     public PageSqlExtractor pageSqlExtractor() {
         return (pageFormat, sql, pageable) -> {
-            if (pageable.getSort().isSorted()) {
-                sql = sql + " order by " + Strings.join(pageable.getSort().iterator(), ',').replace(":", " ");
+            long offset = pageable.getOffset();
+            long size = pageable.getPageSize();
+            String querySql = this.trimSemicolon(sql) + this.orderBy(pageable);
+            if (OFFSET_PAGE_SQL.equals(pageFormat)) {
+                return String.format(pageFormat, querySql, offset, size);
+            }
+            if (offset > 0) {
+                // 分页查询均走游标，此处只有取列信息等第一页的场景
+                throw new DriverException("presto without offset support only pages through cursor, sql [%s]", sql);
             }
-            return String.format(PAGE_SQL, sql, pageable.getPageSize());
+            return String.format(pageFormat, querySql, size);
         };
     }
 
+    /**
+     * 未指定排序的查询按所有可排序列排序后再分页，各页之间不会重复或遗漏数据；
+     * 不支持OFFSET时，查询语句只执行一次，后续页从缓存的游标继续读取
+     */
+    @Override
+    public List<Page<Map<String, Object>>> executePageAll(String schema,
+                                                          String text,
+                                                          Pageable pageable,
+                                                          boolean transactionFlag,
+                                                          boolean resultFlag) {
+        if (!resultFlag || Objects.isNull(pageable)) {
+            return super.executePageAll(schema, text, pageable, transactionFlag, resultFlag);
+        }
+        boolean offsetSupported = this.isOffsetSupported();
+        List<Page<Map<String, Object>>> result = new ArrayList<>();
+        for (String sql : this.sqlExtract2List(text)) {
+            if (this.isPageQuery(sql) && offsetSupported) {
+                result.addAll(super.executePageAll(schema, this.orderedSql(schema, sql, pageable), pageable, false, true));
+            } else if (this.isPageQuery(sql)) {
+                result.add(this.cursorPage(schema, sql, pageable));
+            } else {
+                result.addAll(super.executePageAll(schema, sql, pageable, false, true));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, SqlPageResponse> executePageAllDetail(String schema,
+                                                             String text,
+                                                             Pageable pageable,
+                                                             boolean transactionFlag,
+                                                             boolean savepointFlag,
+                                                             boolean resultFlag) {
+        if (!resultFlag || Objects.isNull(pageable)) {
+            return super.executePageAllDetail(schema, text, pageable, transactionFlag, savepointFlag, resultFlag);
+        }
+        boolean offsetSupported = this.isOffsetSupported();
+        Map<String, SqlPageResponse> responseMap = new LinkedHashMap<>();
+        for (String sql : this.sqlExtract2List(text)) {
+            String key = RESULT_PREFIX + (responseMap.size() + 1);
+            SqlPageResponse response;
+            if (this.isPageQuery(sql)) {
+                try {
+                    response = offsetSupported ?
+                            super.executePageAllDetail(schema, this.orderedSql(schema, sql, pageable), pageable,
+                                    false, false, true).values().iterator().next() :
+                            SqlPageResponse.builder()
+                                    .sql(sql)
+                                    .isSuccess(true)
+                                    .data(this.cursorPage(schema, sql, pageable))
+                                    .build();
+                } catch (DriverException e) {
+                    log.error("error now sql:[{}]", sql);
+                    response = SqlPageResponse.builder()
+                            .sql(sql)
+                            .isSuccess(false)
+                            .error(ExceptionUtils.getRootCauseMessage(e))
+                            .build();
+                }
+            } else {
+                response = super.executePageAllDetail(schema, sql, pageable, false, false, true)
+                        .values().iterator().next();
+            }
+            responseMap.put(key, response);
+            if (!Boolean.TRUE.equals(response.getIsSuccess())) {
+                break;
+            }
+        }
+        return responseMap;
+    }
+
+    private boolean isPageQuery(String sql) {
+        String lowerSql = sql.trim().toLowerCase();
+        return PatternConstant.SELECT_STATEMENT_PATTERN.matcher(lowerSql).find()
+                && !PatternConstant.SELECT_COUNT_PATTERN.matcher(lowerSql).find();
+    }
+
+    private Page<Map<String, Object>> cursorPage(String schema, String sql, Pageable pageable) {
+        String querySql = this.trimSemicolon(sql) + this.orderBy(pageable);
+        PrestoCursorCache.CursorKey key = new PrestoCursorCache.CursorKey(this.dataSource, schema, querySql);
+        RowMapper<Map<String, Object>> rowMapper = (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            this.transformMap(rs, row);
+            return row;
+        };
+        PrestoCursor cursor = PrestoCursorCache.get(key);
+        try {
+            List<Map<String, Object>> rows = Objects.isNull(cursor) ?
+                    null : cursor.fetch(pageable.getOffset(), pageable.getPageSize(), rowMapper);
+            if (Objects.isNull(rows)) {
+                // 首次访问或回翻到已读过的页，重新执行查询
+                cursor = this.openCursor(schema, querySql, pageable.getSort().isSorted());
+                PrestoCursorCache.put(key, cursor);
+                rows = cursor.fetch(pageable.getOffset(), pageable.getPageSize(), rowMapper);
+                if (Objects.isNull(rows)) {
+                    throw new DriverException("presto cursor closed concurrently, sql [%s]", querySql);
+                }
+            }
+            // 不额外count，未读完时总数只知道下限，多算一行表示还有下一页
+            long total = Optional.ofNullable(cursor.getTotal()).orElse(cursor.getPosition() + 1);
+            return new PageImpl<>(rows, pageable, total);
+        } catch (SQLException e) {
+            if (Objects.nonNull(cursor)) {
+                PrestoCursorCache.remove(key, cursor);
+            }
+            throw new DriverException("sql execute error, sql [" + querySql + "]", e);
+        } finally {
+            if (Objects.nonNull(cursor)) {
+                RunningQueryContext.unregister(cursor.getStatement());
+            }
+        }
+    }
+
+    private PrestoCursor openCursor(String schema, String sql, boolean sorted) throws SQLException {
+        Connection connection = this.dataSource.getConnection();
+        Statement statement = null;
+        try {
+            schemaSetter().setSchema(connection, schema);
+            statement = connection.createStatement();
+            this.applyQueryOption(statement, sql);
+            String cursorSql = sorted || ORDERED.matcher(sql).find() ? sql : this.derivedOrder(statement, sql);
+            return new PrestoCursor(connection, statement, statement.executeQuery(cursorSql));
+        } catch (SQLException e) {
+            RunningQueryContext.unregister(statement);
+            CloseUtil.close(statement, connection);
+            throw e;
+        }
+    }
+
+    /**
+     * 按OFFSET分页的查询，未指定排序且没有order by时加上派生排序
+     */
+    private String orderedSql(String schema, String sql, Pageable pageable) {
+        String trimSql = this.trimSemicolon(sql);
+        if (pageable.getSort().isSorted() || ORDERED.matcher(trimSql).find()) {
+            return trimSql;
+        }
+        Connection connection = null;
+        Statement statement = null;
+        try {
+            connection = this.dataSource.getConnection();
+            schemaSetter().setSchema(connection, schema);
+            statement = connection.createStatement();
+            return this.derivedOrder(statement, trimSql);
+        } catch (SQLException e) {
+            throw new DriverException("sql execute error, sql [" + trimSql + "]", e);
+        } finally {
+            CloseUtil.close(statement, connection);
+        }
+    }
+
+    /**
+     * 未指定排序时按所有可排序列排序，回翻重新执行查询时各页的数据才能保持一致
+     */
+    private String derivedOrder(Statement statement, String sql) throws SQLException {
+        List<String> ordinals = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery(String.format(COLUMN_PROBE_SQL, sql))) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if (!UNORDERABLE_TYPE.matcher(metaData.getColumnTypeName(i)).matches()) {
+                    ordinals.add(String.valueOf(i));
+                }
+            }
+        }
+        if (ordinals.isEmpty()) {
+            throw new DriverException("no orderable column to page, specify sort, sql [%s]", sql);
+        }
+        return String.format(DERIVED_ORDER_SQL, sql, String.join(BaseConstant.Symbol.COMMA, ordinals));
+    }
+
+    private boolean isOffsetSupported() {
+        Boolean supported = OFFSET_SUPPORTED_MAP.get(this.dataSource);
+        if (Objects.nonNull(supported)) {
+            return supported;
+        }
+        // 探测在锁外执行，并发时重复探测无副作用
+        supported = this.probeOffset();
+        OFFSET_SUPPORTED_MAP.put(this.dataSource, supported);
+        return supported;
+    }
+
+    /**
+     * 只有语法错误或不支持才认为不支持OFFSET，超时、权限等错误直接抛出，下次重新探测
+     */
+    private boolean probeOffset() {
+        try (Connection connection = this.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet ignored = statement.executeQuery(OFFSET_PROBE_SQL)) {
+            return true;
+        } catch (SQLException e) {
+            if (e.getErrorCode() == SYNTAX_ERROR || e.getErrorCode() == NOT_SUPPORTED) {
+                log.info("presto offset not supported, page with cached cursor instead: {}", e.getMessage());
+                return false;
+            }
+            throw new DriverException("presto offset probe error", e);
+        }
+    }
+
+    private String trimSemicolon(String sql) {
+        String trimSql = sql.trim();
+        if (trimSql.endsWith(BaseConstant.Symbol.SEMICOLON)) {
+            return trimSql.substring(0, trimSql.length() - 1);
+        }
+        return trimSql;
+    }
+
+    private String orderBy(Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return " order by " + Strings.join(pageable.getSort().iterator(), ',').replace(":", " ");
+        }
+        return "";
+    }
+
     @Override
     public String toDate(String dateString, String fmt) {
         if (StringUtils.isEmpty(fmt)) {
@@ -293,6 +293,19 @@ public class PrestoDriverSessionTest {
         assertFalse(pages.isEmpty());
     }
 
+    /**
+     * 连续分页，后一页不应与前一页重复
+     */
+    @Test
+    public void testExecutePageAllNextPage() {
+        String sql = "select * from hodr_so_header order by so_header_id";
+        Page<Map<String, Object>> first = driverSession.executePageAll("order", sql, PageRequest.of(0, 10)).get(0);
+        Page<Map<String, Object>> second = driverSession.executePageAll("order", sql, PageRequest.of(1, 10)).get(0);
+        System.out.println(second);
+        assertEquals(first.getTotalElements(), second.getTotalElements());
+        assertNotEquals(first.getContent(), second.getContent());
+    }
+
     /**
      * 多数据源查询语句
      */
@@ -2,6 +2,9 @@ package com.github.thestyleofme.driver.redshift.session;
 
 import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +55,12 @@ public class RedshiftDriverSession extends AbstractRdbmsDriverSession {
         super(dataSource);
     }
 
+    @Override
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        // 关闭自动提交后驱动才会使用服务端游标按fetchSize分批拉取，连接归还连接池时重置
+        connection.setAutoCommit(false);
+    }
+
     @Override
     protected String getPageFormat() {
         return DEFAULT_PAGE_SQL;
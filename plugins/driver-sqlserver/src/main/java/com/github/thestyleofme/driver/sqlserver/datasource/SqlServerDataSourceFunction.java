@@ -1,5 +1,6 @@
 package com.github.thestyleofme.driver.sqlserver.datasource;
 
+import java.util.Objects;
 import javax.sql.DataSource;
 
 import com.github.thestyleofme.driver.core.infra.function.DriverDataSourceFunction;
@@ -14,9 +15,31 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class SqlServerDataSourceFunction implements DriverDataSourceFunction<PluginDatasourceVO, DataSource> {
+
+    /**
+     * 查询方式，cursor时使用服务端游标按fetchSize分批读取，大结果集不会在客户端整体缓冲，
+     * 但每批多一次往返，默认direct
+     */
+    public static final String SELECT_METHOD = "sqlserver.select.method";
+    /**
+     * 响应缓冲，adaptive按需读取，full读取全部结果
+     */
+    public static final String RESPONSE_BUFFERING = "sqlserver.response.buffering";
+    private static final String DEFAULT_RESPONSE_BUFFERING = "adaptive";
+    private static final String DRIVER_SELECT_METHOD = "dataSource.selectMethod";
+    private static final String DRIVER_RESPONSE_BUFFERING = "dataSource.responseBuffering";
+
     @Override
     public DataSource createDataSource(PluginDatasourceVO pluginDatasourceVO) {
-        return DriverDataSourcePoolFactory.create(pluginDatasourceVO);
+        return DriverDataSourcePoolFactory.create(pluginDatasourceVO, properties -> {
+            Object selectMethod = properties.remove(SELECT_METHOD);
+            if (Objects.nonNull(selectMethod)) {
+                properties.putIfAbsent(DRIVER_SELECT_METHOD, selectMethod);
+            }
+            Object responseBuffering = properties.remove(RESPONSE_BUFFERING);
+            properties.putIfAbsent(DRIVER_RESPONSE_BUFFERING,
+                    Objects.isNull(responseBuffering) ? DEFAULT_RESPONSE_BUFFERING : responseBuffering);
+        });
     }
 
     @Override
@@ -1,23 +1,25 @@
 package com.github.thestyleofme.driver.sqlserver.session;
 
 import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol.PERCENTAGE;
+import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol.POINT;
+import static com.github.thestyleofme.plugin.core.infra.constants.BaseConstant.Symbol.SEMICOLON;
 
-import java.sql.Connection;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import com.github.thestyleofme.driver.core.app.service.session.funcations.extractor.PageSqlExtractor;
 import com.github.thestyleofme.driver.core.app.service.session.rdbms.AbstractRdbmsDriverSession;
 import com.github.thestyleofme.driver.core.infra.exceptions.DriverException;
 import com.github.thestyleofme.driver.core.infra.generator.SqlGenerator;
 import com.github.thestyleofme.driver.core.infra.meta.Column;
 import com.github.thestyleofme.driver.core.infra.meta.Table;
 import com.github.thestyleofme.driver.sqlserver.generator.SqlServerSqlGenerator;
+import com.microsoft.sqlserver.jdbc.ISQLServerStatement;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
@@ -30,21 +32,59 @@ public class SqlServerDriverSession extends AbstractRdbmsDriverSession {
     private static final String DATE_FMT = "convert(varchar(100), '%s', '%s')";
     private static final String DEFAULT_DATE_FMT = "120";
     /**
-     * 原始SQL语句必须包含order by
+     * OFFSET FETCH必须跟在order by后，无可用排序时按第一列排序，保证各页的顺序一致
      */
     private static final String DEFAULT_PAGE_SQL = "SELECT * FROM ( %s ) t ORDER BY 1 OFFSET %d ROWS FETCH NEXT %d ROWS ONLY";
+    private static final String SORTED_PAGE_SQL = "SELECT * FROM ( %s ) t ORDER BY %s OFFSET %d ROWS FETCH NEXT %d ROWS ONLY";
+    private static final String ORDERED_PAGE_SQL = "%s OFFSET %d ROWS FETCH NEXT %d ROWS ONLY";
+    private static final String KEY_ORDERED_PAGE_SQL = "%s ORDER BY %s OFFSET %d ROWS FETCH NEXT %d ROWS ONLY";
+    private static final Pattern SELECT_TOP = Pattern.compile("^\\s*select\\s+(distinct\\s+)?top\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern OFFSET_ROWS = Pattern.compile("\\boffset\\s+\\S+\\s+rows?\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("order\\s+by\\b", Pattern.CASE_INSENSITIVE);
+    /**
+     * 单表查询，可直接按表的聚集索引键排序
+     */
+    private static final Pattern SINGLE_TABLE_SELECT = Pattern.compile(
+            "^\\s*select\\s+(?!distinct\\b).+?\\s+from\\s+((?:\\[[^\\]]+\\]|\\w+)(?:\\.(?:\\[[^\\]]+\\]|\\w+)){0,2})" +
+                    "(?:\\s+(?:as\\s+)?(?!where\\b)(\\w+))?(?:\\s+where\\s+.+)?$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern MULTI_TABLE = Pattern.compile("\\b(join|group\\s+by|having|union|except|intersect)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final String CLUSTERED_KEY_SQL = "SELECT c.name, ic.is_descending_key\n" +
+            "FROM sys.indexes i\n" +
+            "\tJOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id\n" +
+            "\tJOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id\n" +
+            "WHERE i.object_id = OBJECT_ID(?)\n" +
+            "\tAND i.type = 1\n" +
+            "\tAND ic.key_ordinal > 0\n" +
+            "ORDER BY ic.key_ordinal";
+    /**
+     * 每个数据源下表的聚集索引键，堆表为空，超过CLUSTERED_KEY_TTL后重新查询，索引变更后不会一直使用旧的键
+     */
+    private static final Map<DataSource, Map<String, ClusteredKeys>> CLUSTERED_KEYS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final long CLUSTERED_KEY_TTL = 10 * 60 * 1000L;
+    /**
+     * 流式查询自适应缓冲，按需从网络读取，不整体加载结果集
+     */
+    private static final String ADAPTIVE_BUFFERING = "adaptive";
+    private static final String SEEK_PAGE_SQL = "SELECT TOP %d * FROM %s%s ORDER BY %s";
     private static final List<String> DEFAULT_SYSTEM_SCHEMA = Arrays.asList("INFORMATION_SCHEMA", "sys", "db_owner",
             "db_accessadmin", "db_securityadmin", "db_ddladmin", "db_backupoperator", "db_datareader", "db_datawriter",
             "db_denydatareader", "db_denydatawriter");
 
-    private static final String TABLE_REMARK_SQL = "SELECT CAST\n" +
-            "\t(ds.value AS VARCHAR ( 200 )) AS remarks \n" +
-            "FROM\n" +
-            "\tsys.extended_properties ds \n" +
-            "\tLEFT JOIN sysobjects tbs ON ds.major_id= tbs.id \n" +
-            "WHERE\n" +
-            "\tds.minor_id= 0 \n" +
-            "\tAND tbs.name= '%s'";
+    /**
+     * 一次查出schema下所有表与视图的备注
+     */
+    private static final String TABLE_REMARK_SQL = "SELECT s.name AS table_schema, o.name AS table_name,\n" +
+            "\tCAST(ep.value AS NVARCHAR(4000)) AS remarks\n" +
+            "FROM sys.objects o\n" +
+            "\tJOIN sys.schemas s ON s.schema_id = o.schema_id\n" +
+            "\tJOIN sys.extended_properties ep ON ep.major_id = o.object_id\n" +
+            "\t\tAND ep.minor_id = 0 AND ep.class = 1 AND ep.name = 'MS_Description'\n" +
+            "WHERE o.type IN ('U', 'V')\n" +
+            "\tAND (? IS NULL OR s.name = ?)";
 
     public SqlServerDriverSession(DataSource dataSource) {
         super(dataSource);
@@ -60,6 +100,153 @@ public class SqlServerDriverSession extends AbstractRdbmsDriverSession {
         return DEFAULT_PAGE_SQL;
     }
 
+    /**
+     * 分页优先使用调用方的排序，其次是原始SQL自带的order by，单表查询按聚集索引键排序，
+     * 都没有时按第一列排序
+     */
+    @Override
+    public PageSqlExtractor pageSqlExtractor() {
+        return (pageFormat, sql, pageable) -> {
+            long page = pageable.getPageNumber();
+            long size = pageable.getPageSize();
+            long offset = page * size;
+            String trimSql = sql.trim();
+            if (trimSql.endsWith(SEMICOLON)) {
+                trimSql = trimSql.substring(0, trimSql.length() - 1).trim();
+            }
+            int orderBy = topLevelOrderBy(trimSql);
+            boolean top = SELECT_TOP.matcher(trimSql).find();
+            boolean paged = orderBy >= 0 && OFFSET_ROWS.matcher(trimSql.substring(orderBy)).find();
+            if (pageable.getSort().isSorted()) {
+                // 子查询中不能单独使用order by，外层排序会覆盖原有的排序
+                String inner = orderBy >= 0 && !top && !paged ? trimSql.substring(0, orderBy) : trimSql;
+                String sort = pageable.getSort().stream()
+                        .map(order -> order.getProperty() + " " + order.getDirection())
+                        .collect(Collectors.joining(","));
+                return String.format(SORTED_PAGE_SQL, inner, sort, offset, size);
+            }
+            if (orderBy >= 0 && !top && !paged) {
+                return String.format(ORDERED_PAGE_SQL, trimSql, offset, size);
+            }
+            if (orderBy < 0 && !top) {
+                Optional<String> keyOrder = this.clusteredKeyOrder(trimSql);
+                if (keyOrder.isPresent()) {
+                    return String.format(KEY_ORDERED_PAGE_SQL, trimSql, keyOrder.get(), offset, size);
+                }
+            }
+            return String.format(pageFormat, trimSql, offset, size);
+        };
+    }
+
+    /**
+     * 查找最外层order by的位置，跳过括号、字符串、标识符与注释中的内容
+     *
+     * @param sql sql
+     * @return 最后一个最外层order by的下标，没有时为-1
+     */
+    private static int topLevelOrderBy(String sql) {
+        int depth = 0;
+        int index = -1;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '[') {
+                char close = c == '[' ? ']' : c;
+                int end = sql.indexOf(close, i + 1);
+                i = end < 0 ? length : end;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && (c == 'o' || c == 'O')
+                    && (i == 0 || !Character.isJavaIdentifierPart(sql.charAt(i - 1)))
+                    && ORDER_BY.matcher(sql).region(i, length).lookingAt()) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 单表查询按聚集索引键排序，有序读取聚集索引不需要额外排序
+     *
+     * @param sql sql
+     * @return order by的内容，非单表查询或堆表时为空
+     */
+    private Optional<String> clusteredKeyOrder(String sql) {
+        Matcher matcher = SINGLE_TABLE_SELECT.matcher(sql);
+        if (!matcher.matches() || MULTI_TABLE.matcher(sql).find()) {
+            return Optional.empty();
+        }
+        String table = matcher.group(1);
+        // 未指定别名时表的暴露名为不带schema的表名
+        String qualifier = Optional.ofNullable(matcher.group(2))
+                .orElse(table.substring(table.lastIndexOf(POINT) + 1));
+        List<String> keys = this.clusteredKeys(table);
+        if (keys.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(keys.stream()
+                .map(key -> qualifier + POINT + key)
+                .collect(Collectors.joining(",")));
+    }
+
+    private List<String> clusteredKeys(String table) {
+        Map<String, ClusteredKeys> tableKeys = CLUSTERED_KEYS.computeIfAbsent(dataSource, k -> new ConcurrentHashMap<>(16));
+        ClusteredKeys cached = tableKeys.get(table);
+        if (Objects.nonNull(cached) && System.currentTimeMillis() - cached.loadTime < CLUSTERED_KEY_TTL) {
+            return cached.keys;
+        }
+        List<String> keys = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(CLUSTERED_KEY_SQL)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String key = "[" + rs.getString(1).replace("]", "]]") + "]";
+                    keys.add(rs.getBoolean(2) ? key + " DESC" : key);
+                }
+            }
+        } catch (SQLException e) {
+            // 本次不按聚集索引排序，移除旧的键，下次再查询
+            log.warn("fetch clustered index of table [{}] error", table, e);
+            tableKeys.remove(table);
+            return Collections.emptyList();
+        }
+        tableKeys.put(table, new ClusteredKeys(keys, System.currentTimeMillis()));
+        return keys;
+    }
+
+    private static class ClusteredKeys {
+
+        private final List<String> keys;
+        private final long loadTime;
+
+        private ClusteredKeys(List<String> keys, long loadTime) {
+            this.keys = keys;
+            this.loadTime = loadTime;
+        }
+    }
+
+    /**
+     * 流式查询使用自适应缓冲，配合数据源的selectMethod=cursor时按fetchSize从服务端游标分批拉取
+     */
+    @Override
+    protected void prepareStream(Connection connection, Statement statement) throws SQLException {
+        statement.unwrap(ISQLServerStatement.class).setResponseBuffering(ADAPTIVE_BUFFERING);
+    }
+
+    @Override
+    protected String seekPageSql(String from, String where, String orderBy, int size) {
+        return String.format(SEEK_PAGE_SQL, size, from, where, orderBy);
+    }
+
     @Override
     public List<String> schemaList(String... params) {
         List<String> schemaList = new ArrayList<>();
@@ -108,13 +295,16 @@ public class SqlServerDriverSession extends AbstractRdbmsDriverSession {
     public List<Table> tablesNameAndDesc(String schema, String tablePattern, String... type) {
         List<Table> tables = new ArrayList<>();
         tablePattern = Optional.ofNullable(tablePattern).map(x -> PERCENTAGE + x + PERCENTAGE).orElse(PERCENTAGE);
-        try (Connection connection = this.dataSource.getConnection();
-             ResultSet rs = tableExtractor().extract(connection.getMetaData(), schema, tablePattern, type)) {
-            while (rs.next()) {
-                tables.add(Table.builder()
-                        .tableName(rs.getString("TABLE_NAME"))
-                        .remarks(Optional.ofNullable(getTableRemark(connection, rs.getString("TABLE_NAME"))).orElse(""))
-                        .build());
+        try (Connection connection = this.dataSource.getConnection()) {
+            Map<String, String> remarks = this.tableRemarks(connection, schema);
+            try (ResultSet rs = tableExtractor().extract(connection.getMetaData(), schema, tablePattern, type)) {
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    tables.add(Table.builder()
+                            .tableName(tableName)
+                            .remarks(remarks.getOrDefault(rs.getString("TABLE_SCHEM") + POINT + tableName, ""))
+                            .build());
+                }
             }
         } catch (SQLException e) {
             throw new DriverException("fetch tables error", e);
@@ -122,14 +312,26 @@ public class SqlServerDriverSession extends AbstractRdbmsDriverSession {
         return tables;
     }
 
-    private String getTableRemark(Connection conn, String table) throws SQLException {
-        String remark = null;
-        try (Statement statement = conn.createStatement();
-             ResultSet rs = statement.executeQuery(String.format(TABLE_REMARK_SQL, table))) {
-            if (rs.next()) {
-                remark = rs.getString("remarks");
+    /**
+     * 一次查询schema下所有表的备注，schema为空时查询所有schema
+     *
+     * @param connection 连接
+     * @param schema     schema
+     * @return schema.table -> 备注
+     * @throws SQLException SQLException
+     */
+    private Map<String, String> tableRemarks(Connection connection, String schema) throws SQLException {
+        Map<String, String> remarks = new HashMap<>(16);
+        try (PreparedStatement ps = connection.prepareStatement(TABLE_REMARK_SQL)) {
+            ps.setString(1, schema);
+            ps.setString(2, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    remarks.put(rs.getString("table_schema") + POINT + rs.getString("table_name"),
+                            Optional.ofNullable(rs.getString("remarks")).orElse(""));
+                }
             }
         }
-        return remark;
+        return remarks;
     }
 }
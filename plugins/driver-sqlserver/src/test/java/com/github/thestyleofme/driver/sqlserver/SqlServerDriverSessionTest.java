@@ -13,6 +13,9 @@ import com.microsoft.sqlserver.jdbc.SQLServerDriver;
 import com.zaxxer.hikari.HikariDataSource;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -105,6 +108,20 @@ public class SqlServerDriverSessionTest {
         assertFalse(executeAll.isEmpty());
     }
 
+    @Test
+    public void testExecutePageAll() {
+        // 按聚集索引键分页
+        List<Page<Map<String, Object>>> pages = driverSession.executePageAll("test", "select * from test1", PageRequest.of(1, 10));
+        assertFalse(pages.isEmpty());
+        // 使用原始SQL的排序
+        pages = driverSession.executePageAll("test", "select * from test1 order by 1 desc", PageRequest.of(1, 10));
+        assertFalse(pages.isEmpty());
+        // 调用方排序覆盖原始SQL的排序
+        pages = driverSession.executePageAll("test", "select * from test1 order by 1 desc",
+                PageRequest.of(1, 10, Sort.by("id")));
+        assertFalse(pages.isEmpty());
+    }
+
 
     //===============================================================================
     //  TableSession